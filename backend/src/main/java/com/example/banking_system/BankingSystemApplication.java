@@ -1,8 +1,10 @@
 package com.example.banking_system;
 
+import com.example.banking_system.config.StartupReport;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
@@ -31,7 +33,10 @@ public class BankingSystemApplication {
 			System.setProperty(entry.getKey(), entry.getValue());
 		});
 
-		SpringApplication.run(BankingSystemApplication.class, args);
+		SpringApplication application = new SpringApplication(BankingSystemApplication.class);
+		// Records bean and context startup steps for StartupReport and /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(StartupReport.BUFFER_CAPACITY));
+		application.run(args);
 	}
 }
 
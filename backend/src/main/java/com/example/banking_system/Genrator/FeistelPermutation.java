@@ -0,0 +1,74 @@
+package com.example.banking_system.Genrator;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * Keyed, format-preserving permutation of the decimal domain [0, 10^(2 * halfDigits)).
+ * <p>
+ * A balanced Feistel network over two halfDigits-wide halves with HMAC-SHA256 round functions.
+ * Every input maps to a distinct output of the same width, so sequential counters become
+ * scattered numbers that are still unique, and the next number cannot be guessed from the last
+ * without the key.
+ */
+public final class FeistelPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final long modulus;
+    private final int digits;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public FeistelPermutation(int halfDigits, String secret, String domain) {
+        if (halfDigits < 1 || halfDigits > 9) {
+            throw new IllegalArgumentException("halfDigits must be between 1 and 9");
+        }
+        long m = 1;
+        for (int i = 0; i < halfDigits; i++) {
+            m *= 10;
+        }
+        this.modulus = m;
+        this.digits = halfDigits * 2;
+        // The domain label keeps account and card permutations independent under one secret
+        this.key = new SecretKeySpec((domain + ":" + secret).getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public int digits() {
+        return digits;
+    }
+
+    public long permute(long value) {
+        if (value < 0 || value >= modulus * modulus) {
+            throw new IllegalArgumentException("Value outside permutation domain: " + value);
+        }
+        long left = value / modulus;
+        long right = value % modulus;
+        Mac mac = macs.get();
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = Math.floorMod(left + roundFunction(mac, round, right), modulus);
+            left = right;
+            right = next;
+        }
+        return left * modulus + right;
+    }
+
+    private long roundFunction(Mac mac, int round, long half) {
+        byte[] out = mac.doFinal(ByteBuffer.allocate(12).putInt(round).putLong(half).array());
+        return ByteBuffer.wrap(out).getLong() & Long.MAX_VALUE;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
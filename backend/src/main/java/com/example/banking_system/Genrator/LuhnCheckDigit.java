@@ -0,0 +1,41 @@
+package com.example.banking_system.Genrator;
+
+/**
+ * Luhn (mod 10) check digit used on card numbers.
+ */
+public final class LuhnCheckDigit {
+
+    private LuhnCheckDigit() {
+    }
+
+    /**
+     * Check digit to append to {@code payload} (digits only).
+     */
+    public static int compute(String payload) {
+        int sum = 0;
+        boolean doubleIt = true; // rightmost payload digit is doubled once the check digit is appended
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int d = payload.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                throw new IllegalArgumentException("Payload must contain digits only");
+            }
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean isValid(String number) {
+        if (number == null || number.length() < 2 || !number.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        int last = number.length() - 1;
+        return compute(number.substring(0, last)) == number.charAt(last) - '0';
+    }
+}
@@ -65,25 +65,6 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
-    /**
-     * Dedicated executor for email operations with higher queue capacity.
-     * Email sending can be slow, so we allow more tasks to queue.
-     */
-    @Bean(name = "emailExecutor")
-    public Executor emailExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(200);
-        executor.setThreadNamePrefix("Email-Task-");
-        executor.setKeepAliveSeconds(120);
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(120);
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
-        executor.initialize();
-        return executor;
-    }
-
     /**
      * Dedicated executor for notification operations.
      */
@@ -0,0 +1,59 @@
+package com.example.banking_system.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Gauges for the async log appenders in logback-spring.xml. A queue that stays near full means
+ * INFO and DEBUG lines are being dropped; {@code bankwise.logging.queue.remaining} shows how close
+ * each appender is.
+ */
+@Component
+@Slf4j
+public class AsyncLoggingMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public AsyncLoggingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // After startup: Spring Boot re-initialises logback while the context starts
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Set<String> registered = new HashSet<>();
+        for (Logger logger : context.getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> appenders = logger.iteratorForAppenders();
+            while (appenders.hasNext()) {
+                if (appenders.next() instanceof AsyncAppender async && registered.add(async.getName())) {
+                    Gauge.builder("bankwise.logging.queue.remaining", async, AsyncAppender::getRemainingCapacity)
+                            .tag("appender", async.getName())
+                            .description("Free slots in the async log queue")
+                            .register(meterRegistry);
+                    Gauge.builder("bankwise.logging.queue.depth", async, AsyncAppender::getNumberOfElementsInQueue)
+                            .tag("appender", async.getName())
+                            .description("Events waiting in the async log queue")
+                            .register(meterRegistry);
+                }
+            }
+        }
+        log.debug("Async log appenders with gauges: {}", registered);
+    }
+}
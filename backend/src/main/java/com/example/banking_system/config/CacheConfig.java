@@ -5,7 +5,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
@@ -23,10 +28,20 @@ import java.util.Map;
 @Configuration
 @EnableCaching
 @Slf4j
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
 
+    // Resolved on first cache error: CachingConfigurer is created too early to inject it directly
+    private final ObjectProvider<RedisAvailability> redisAvailability;
+
+    public CacheConfig(ObjectProvider<RedisAvailability> redisAvailability) {
+        this.redisAvailability = redisAvailability;
+    }
+
+    /**
+     * Redis caches, bypassed while {@link RedisAvailability} reports Redis as unavailable.
+     */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory factory) {
+    public CacheManager cacheManager(RedisConnectionFactory factory, RedisAvailability availability) {
 
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -68,16 +83,44 @@ public class CacheConfig {
         configs.put("accountBalances", defaultConfig.entryTtl(Duration.ofSeconds(30)));
         configs.put("idempotency", defaultConfig.entryTtl(Duration.ofHours(24)));
 
-        try {
-            return RedisCacheManager.builder(factory)
-                    .cacheDefaults(defaultConfig)
-                    .withInitialCacheConfigurations(configs)
-                    .transactionAware()
-                    .build();
-        } catch (Exception e) {
-            log.error("Failed to initialize Redis cache manager, falling back to no-op cache", e);
-            throw new RuntimeException("Redis cache manager initialization failed", e);
-        }
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(factory)
+                .cacheDefaults(defaultConfig)
+                .withInitialCacheConfigurations(configs)
+                .transactionAware()
+                .build();
+        redisCacheManager.afterPropertiesSet();
+        return new DegradableCacheManager(redisCacheManager, availability);
+    }
+
+    /**
+     * A cache call that fails while Redis was thought available is treated as a miss (or a
+     * dropped write) and switches the pod to degraded mode, instead of failing the request.
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new CacheErrorHandler() {
+            @Override
+            public void handleCacheGetError(RuntimeException e, Cache cache, Object key) {
+                redisAvailability.getObject().reportFailure(e);
+            }
+
+            @Override
+            public void handleCachePutError(RuntimeException e, Cache cache, Object key, Object value) {
+                redisAvailability.getObject().reportFailure(e);
+            }
+
+            @Override
+            public void handleCacheEvictError(RuntimeException e, Cache cache, Object key) {
+                redisAvailability.getObject().evictionSkipped();
+                redisAvailability.getObject().reportFailure(e);
+            }
+
+            @Override
+            public void handleCacheClearError(RuntimeException e, Cache cache) {
+                redisAvailability.getObject().evictionSkipped();
+                redisAvailability.getObject().reportFailure(e);
+            }
+        };
     }
 
     /**
@@ -0,0 +1,132 @@
+package com.example.banking_system.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the Redis cache manager so caches fall back to "always miss" while
+ * {@link RedisAvailability} reports Redis as unavailable, instead of every cached call
+ * waiting for a connect timeout and failing.
+ */
+public class DegradableCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final RedisAvailability availability;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public DegradableCacheManager(CacheManager delegate, RedisAvailability availability) {
+        this.delegate = delegate;
+        this.availability = availability;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target == null ? null : caches.computeIfAbsent(name, n -> new DegradableCache(target, availability));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private static final class DegradableCache implements Cache {
+
+        private final Cache target;
+        private final RedisAvailability availability;
+
+        DegradableCache(Cache target, RedisAvailability availability) {
+            this.target = target;
+            this.availability = availability;
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return availability.isAvailable() ? target.get(key) : null;
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return availability.isAvailable() ? target.get(key, type) : null;
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            if (availability.isAvailable()) {
+                return target.get(key, valueLoader);
+            }
+            try {
+                return valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (availability.isAvailable()) {
+                target.put(key, value);
+            }
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return availability.isAvailable() ? target.putIfAbsent(key, value) : null;
+        }
+
+        @Override
+        public void evict(Object key) {
+            if (availability.isAvailable()) {
+                target.evict(key);
+            } else {
+                availability.evictionSkipped();
+            }
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            if (availability.isAvailable()) {
+                return target.evictIfPresent(key);
+            }
+            availability.evictionSkipped();
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            if (availability.isAvailable()) {
+                target.clear();
+            } else {
+                availability.evictionSkipped();
+            }
+        }
+
+        @Override
+        public boolean invalidate() {
+            if (availability.isAvailable()) {
+                return target.invalidate();
+            }
+            availability.evictionSkipped();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.banking_system.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pods do not run Flyway on startup unless {@code bankwise.flyway.migrate-on-start} is set.
+ * Some migrations copy whole tables (V9 partitions transaction and audit_log under ACCESS
+ * EXCLUSIVE) or move stored files, which must not happen inside a rolling pod boot; the deploy
+ * job runs them once with the flag on (see README). It also keeps the fast-start CDS training
+ * run, which has no database, off the database.
+ * Unlike spring.flyway.enabled this is read at runtime, so it also works in an AOT build.
+ * Hibernate still validates the schema either way.
+ */
+@Configuration
+@Slf4j
+public class FlywayStartupConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${bankwise.flyway.migrate-on-start:false}") boolean migrateOnStart) {
+        return flyway -> {
+            if (migrateOnStart) {
+                flyway.migrate();
+            } else {
+                log.info("Skipping Flyway migrate on startup; the deploy job runs migrations (bankwise.flyway.migrate-on-start=false)");
+            }
+        };
+    }
+}
@@ -1,11 +1,20 @@
 package com.example.banking_system.config;
 
+import com.example.banking_system.service.LedgerService;
 import com.example.banking_system.service.OtpService;
+import com.example.banking_system.service.ProfilePhotoService;
 import com.example.banking_system.entity.Account;
 import com.example.banking_system.entity.User;
 import com.example.banking_system.enums.Role;
+import com.example.banking_system.exception.HashingCapacityExceededException;
+import com.example.banking_system.exception.OtpResendLimitException;
 import com.example.banking_system.repository.AccountRepository;
+import com.example.banking_system.enums.VerificationStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -21,8 +30,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class JWTAuthenticationFilter extends org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter {
 
@@ -30,21 +39,34 @@ public class JWTAuthenticationFilter extends org.springframework.security.web.au
 
     private final AccountRepository accountRepository;
 
+    private final LedgerService ledgerService;
+
     private final OtpService userService;
     
     private final String developerPassword;
 
-    public JWTAuthenticationFilter(AuthenticationManager authenticationManager, AccountRepository accountRepository, OtpService userService, String developerPassword) {
+    // Bound once from the application's ObjectMapper: login is the burstiest endpoint, and a
+    // mapper per request rebuilt its serializer caches every time
+    private final ObjectReader loginReader;
+
+    private final ObjectWriter responseWriter;
+
+    public JWTAuthenticationFilter(AuthenticationManager authenticationManager, AccountRepository accountRepository, LedgerService ledgerService,
+                                   OtpService userService, String developerPassword, ObjectMapper objectMapper) {
         this.authenticationManager = authenticationManager;
         this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
         this.userService = userService;
         this.developerPassword = developerPassword;
+        this.loginReader = objectMapper.readerFor(LoginRequest.class);
+        // The container owns the response stream; the body is encoded straight into it
+        this.responseWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) throws AuthenticationException {
         try {
-            LoginRequest creds = new ObjectMapper().readValue(request.getInputStream(), LoginRequest.class);
+            LoginRequest creds = loginReader.readValue(request.getInputStream());
             
             // Store devPassword in request attribute for successfulAuthentication
             if (creds.getDevPassword() != null) {
@@ -60,6 +82,23 @@ public class JWTAuthenticationFilter extends org.springframework.security.web.au
                             creds.getPassword()
                     )
             );
+        } catch (HashingCapacityExceededException e) {
+            // Password hashing is saturated: shed the login instead of queueing it
+            writeTooManyRequests(request, response, e.getMessage(), 1);
+            return null;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeTooManyRequests(HttpServletRequest request, HttpServletResponse response, String message,
+                                      long retryAfterSeconds) {
+        try {
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            responseWriter.writeValue(response.getOutputStream(),
+                    new AuthError(429, "TOO_MANY_REQUESTS", message, request.getRequestURI(), null));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -70,26 +109,24 @@ public class JWTAuthenticationFilter extends org.springframework.security.web.au
                                               AuthenticationException failed) throws IOException {
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        
-        Map<String, Object> errorBody = new HashMap<>();
-        errorBody.put("status", 401);
-        errorBody.put("path", request.getRequestURI());
-        errorBody.put("timestamp", java.time.LocalDateTime.now().toString());
-        
+
         // Determine specific error type
+        String errorCode;
+        String message;
         if (failed instanceof UsernameNotFoundException || 
             (failed.getCause() != null && failed.getCause() instanceof UsernameNotFoundException)) {
-            errorBody.put("errorCode", "ACCOUNT_NOT_FOUND");
-            errorBody.put("message", "No account found with this email address. Please register first.");
+            errorCode = "ACCOUNT_NOT_FOUND";
+            message = "No account found with this email address. Please register first.";
         } else if (failed instanceof BadCredentialsException) {
-            errorBody.put("errorCode", "INVALID_CREDENTIALS");
-            errorBody.put("message", "Incorrect password. Please try again or reset your password.");
+            errorCode = "INVALID_CREDENTIALS";
+            message = "Incorrect password. Please try again or reset your password.";
         } else {
-            errorBody.put("errorCode", "AUTH_FAILED");
-            errorBody.put("message", "Authentication failed. Please check your credentials.");
+            errorCode = "AUTH_FAILED";
+            message = "Authentication failed. Please check your credentials.";
         }
         
-        new ObjectMapper().writeValue(response.getOutputStream(), errorBody);
+        responseWriter.writeValue(response.getOutputStream(),
+                new AuthError(401, errorCode, message, request.getRequestURI(), LocalDateTime.now().toString()));
     }
 
     @Override
@@ -111,13 +148,16 @@ public class JWTAuthenticationFilter extends org.springframework.security.web.au
         if (userService.isOtpAlreadyVerified(email)) {
             sendJwtResponse(res, user);
         } else {
-            String otp = userService.generateAndStoreOtp(email);
+            String otp;
+            try {
+                otp = userService.generateAndStoreOtp(email);
+            } catch (OtpResendLimitException e) {
+                writeTooManyRequests(req, res, e.getMessage(), e.getRetryAfterSeconds());
+                return;
+            }
             userService.sendOtp(email, otp);
             res.setStatus(HttpServletResponse.SC_ACCEPTED);
-            new ObjectMapper().writeValue(res.getOutputStream(), Map.of(
-                    "message", "OTP sent to your registered email.",
-                    "email", email
-            ));
+            responseWriter.writeValue(res.getOutputStream(), new OtpChallenge("OTP sent to your registered email.", email));
         }
     }
 
@@ -125,31 +165,20 @@ public class JWTAuthenticationFilter extends org.springframework.security.web.au
         String token = userService.generateToken(user.getEmail());
         res.addHeader(SecurityConstants.HEADER_STRING, SecurityConstants.TOKEN_PREFIX + "Bearer " + token);
 
-        Map<String, Object> body = buildLoginResponse(user, token);
         res.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        new ObjectMapper().writeValue(res.getOutputStream(), body);
+        responseWriter.writeValue(res.getOutputStream(), buildLoginResponse(user, token));
     }
 
-    private Map<String, Object> buildLoginResponse(User user, String token) {
-        var base = new HashMap<String, Object>();
-        base.put("token", token);
-        base.put("username", user.getName());
-        base.put("email", user.getEmail());
-        base.put("role", user.getRole());
-
-        // Add profile photo if available
-        if (user.getProfilePhoto() != null && user.getProfilePhoto().length > 0) {
-            base.put("profilePhoto", java.util.Base64.getEncoder().encodeToString(user.getProfilePhoto()));
-            base.put("profilePhotoContentType", user.getProfilePhotoContentType());
-        }
+    private LoginResponse buildLoginResponse(User user, String token) {
+        // Photo is served separately; the payload only carries its URL
+        String photoUrl = ProfilePhotoService.photoUrl(user, ProfilePhotoService.Size.LARGE);
 
         if (user.getRole() == Role.USER || user.getRole() == Role.CUSTOMER) {
             Account acc = accountRepository.findAccountByUser(user).orElseThrow();
-            base.put("accountNumber", acc.getAccountNumber());
-            base.put("verificationStatus", acc.getVerificationStatus());
-            base.put("balance", acc.getBalance());
+            return new LoginResponse(token, user.getName(), user.getEmail(), user.getRole(), photoUrl,
+                    acc.getAccountNumber(), acc.getVerificationStatus(), ledgerService.visibleBalance(acc));
         }
-        return base;
+        return new LoginResponse(token, user.getName(), user.getEmail(), user.getRole(), photoUrl, null, null, null);
     }
 
     @Getter @Setter
@@ -159,6 +188,20 @@ public class JWTAuthenticationFilter extends org.springframework.security.web.au
         private String devPassword;  // Optional developer password for bypassing OTP
     }
 
+    // Response bodies; fields that do not apply are left out of the JSON
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record LoginResponse(String token, String username, String email, Role role, String profilePhotoUrl,
+                         String accountNumber, VerificationStatus verificationStatus, BigDecimal balance) {
+    }
+
+    record OtpChallenge(String message, String email) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record AuthError(int status, String errorCode, String message, String path, String timestamp) {
+    }
+
 }
 
 
@@ -0,0 +1,116 @@
+package com.example.banking_system.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks whether Redis can be used, so a pod starts and serves traffic without it.
+ * <p>
+ * Nothing connects to Redis during startup: the first check runs on the scheduler once the
+ * context is up, and until it succeeds the caches are bypassed (reads miss, writes are dropped).
+ * A failed check, or a failed cache call, puts the pod back into that degraded mode.
+ * Evictions dropped while degraded would leave stale entries behind, so on recovery every
+ * bankwise:: cache key is removed before Redis is used again.
+ */
+@Component
+@Slf4j
+public class RedisAvailability {
+
+    static final String CACHE_KEY_PATTERN = "bankwise::*";
+
+    private final RedisConnectionFactory connectionFactory;
+    private volatile boolean available;
+    private volatile boolean evictionsSkipped;
+
+    public RedisAvailability(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry) {
+        this.connectionFactory = connectionFactory;
+        Gauge.builder("bankwise.redis.available", this, r -> r.available ? 1 : 0)
+                .description("1 while Redis-backed caches are in use, 0 in degraded mode")
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Record that an eviction could not reach Redis; the cache is flushed when Redis returns.
+     */
+    public void evictionSkipped() {
+        evictionsSkipped = true;
+    }
+
+    /**
+     * Switch to degraded mode after a failed Redis call, without waiting for the next check.
+     */
+    public void reportFailure(RuntimeException e) {
+        if (available) {
+            available = false;
+            log.warn("Redis call failed, caches bypassed until Redis responds again: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${bankwise.redis.check-interval-ms:5000}")
+    public void check() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.ping();
+            if (!available && evictionsSkipped) {
+                // Caches are still bypassed, so SCAN sees every entry that could be stale
+                evictionsSkipped = false;
+                long removed;
+                try {
+                    removed = flushCacheKeys(connection);
+                } catch (RuntimeException e) {
+                    evictionsSkipped = true;
+                    throw e;
+                }
+                log.info("Removed {} cache keys that may have missed evictions while Redis was unavailable", removed);
+            }
+            if (!available) {
+                log.info("Redis available, caches enabled");
+            }
+            available = true;
+        } catch (RuntimeException e) {
+            if (available) {
+                log.warn("Redis unavailable, caches bypassed: {}", e.getMessage());
+            } else {
+                log.debug("Redis still unavailable: {}", e.getMessage());
+            }
+            available = false;
+        }
+    }
+
+    private long flushCacheKeys(RedisConnection connection) {
+        ScanOptions options = ScanOptions.scanOptions().match(CACHE_KEY_PATTERN).count(500).build();
+        long removed = 0;
+        List<byte[]> batch = new ArrayList<>();
+        try (Cursor<byte[]> keys = connection.keyCommands().scan(options)) {
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == 500) {
+                    removed += delete(connection, batch);
+                }
+            }
+        }
+        return removed + delete(connection, batch);
+    }
+
+    private static long delete(RedisConnection connection, List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long count = connection.keyCommands().del(keys.toArray(new byte[0][]));
+        keys.clear();
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.banking_system.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Polls the replica's replay lag and decides whether read-only work may use it.
+ * A replica that is behind by more than {@code bankwise.datasource.replica.max-lag-seconds},
+ * or cannot be queried, is taken out of rotation until a later check succeeds.
+ * Until the first check has run the replica is not used.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Seconds since the last replayed transaction, or 0 when the standby has replayed everything
+     * it received (an idle primary would otherwise look like growing lag).
+     */
+    static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final JdbcTemplate replicaJdbc;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private volatile boolean usable;
+    private volatile double lastLagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replicaJdbc = new JdbcTemplate(replica);
+        this.replicaJdbc.setQueryTimeout(2);
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? POSTGRES_LAG_QUERY : lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("bankwise.datasource.replica.lag", this, m -> m.lastLagSeconds)
+                .description("Replica replay lag in seconds (-1 when unknown)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("bankwise.datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+                .description("1 while read-only work is routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${bankwise.datasource.replica.lag-check-interval-ms:2000}")
+    public void checkLag() {
+        boolean nowUsable;
+        try {
+            Number lag = replicaJdbc.queryForObject(lagQuery, Number.class);
+            lastLagSeconds = lag != null ? lag.doubleValue() : 0;
+            nowUsable = lastLagSeconds <= maxLagSeconds;
+        } catch (Exception e) {
+            lastLagSeconds = -1;
+            nowUsable = false;
+            if (usable) {
+                log.warn("Replica check failed: {}", e.getMessage());
+            }
+        }
+        if (nowUsable != usable) {
+            log.info(nowUsable
+                    ? "Replica in rotation (lag {}s)"
+                    : "Replica out of rotation, read-only work goes to primary (lag {}s)", lastLagSeconds);
+        }
+        usable = nowUsable;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.banking_system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the replica pool and
+ * everything else to the primary. Falls back to the primary while {@link ReplicaLagMonitor}
+ * reports the replica as lagging or unreachable.
+ * <p>
+ * Read-your-writes: when a read-write transaction of an authenticated user commits, that user's
+ * read-only work stays on the primary for {@code pinAfterWrite}, so a page loaded right after a
+ * transfer does not show the replica's older balance. The pin lives in this JVM only.
+ * <p>
+ * The lookup happens when a connection is first needed, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}: the transaction manager marks the transaction read-only
+ * after it has asked for its connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    // Expired pins are removed when looked up; above this size the whole map is swept
+    private static final int PIN_SWEEP_THRESHOLD = 10_000;
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long pinAfterWriteNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final Counter readWrite;
+    private final Counter readOnlyReplica;
+    private final Counter readOnlyFallback;
+    private final Counter readOnlyPinned;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    Duration pinAfterWrite, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.pinAfterWriteNanos = pinAfterWrite.toNanos();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.readWrite = meterRegistry.counter("bankwise.datasource.routing", "target", "primary", "reason", "read-write");
+        this.readOnlyReplica = meterRegistry.counter("bankwise.datasource.routing", "target", "replica", "reason", "read-only");
+        this.readOnlyFallback = meterRegistry.counter("bankwise.datasource.routing", "target", "primary", "reason", "replica-fallback");
+        this.readOnlyPinned = meterRegistry.counter("bankwise.datasource.routing", "target", "primary", "reason", "pinned-after-write");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String principal = currentPrincipal();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWrite.increment();
+            pinAfterCommit(principal);
+            return Route.PRIMARY;
+        }
+        if (isPinned(principal)) {
+            readOnlyPinned.increment();
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            readOnlyFallback.increment();
+            return Route.PRIMARY;
+        }
+        readOnlyReplica.increment();
+        return Route.REPLICA;
+    }
+
+    // The window starts at commit: the replica cannot have the rows before the primary has them.
+    // Connections taken outside a transaction (the proxy's first probe, for one) never pin.
+    private void pinAfterCommit(String principal) {
+        if (principal == null || pinAfterWriteNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pin(principal);
+            }
+        });
+    }
+
+    private void pin(String principal) {
+        long now = System.nanoTime();
+        if (pinnedUntil.size() >= PIN_SWEEP_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until - now <= 0);
+        }
+        pinnedUntil.put(principal, now + pinAfterWriteNanos);
+    }
+
+    private boolean isPinned(String principal) {
+        if (principal == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(principal);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(principal, until);
+        return false;
+    }
+
+    private static String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
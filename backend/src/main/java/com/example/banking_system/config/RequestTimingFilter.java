@@ -5,16 +5,42 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
 
+/**
+ * Times every request for {@link SystemAnalyticsController} and writes the access log.
+ * <p>
+ * Access lines go to the {@code bankwise.access} logger in logfmt. Errors (status 400 and up)
+ * and requests slower than {@code slow-ms} are always logged; other requests are sampled one
+ * in {@code sample-one-in}, and each sampled line carries {@code sample=N} so counts can be
+ * scaled back up. 5xx and slow requests log at WARN, so the async appender keeps them under
+ * load when it sheds INFO.
+ */
 @Component
-@Slf4j
 public class RequestTimingFilter extends OncePerRequestFilter {
 
+    private static final Logger accessLog = LoggerFactory.getLogger("bankwise.access");
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+");
+    private static final Pattern UUID_SEGMENT = Pattern.compile("/[a-f0-9-]{36}");
+
+    private final long slowMillis;
+    private final int sampleOneIn;
+
+    public RequestTimingFilter(@Value("${bankwise.logging.access.slow-ms:500}") long slowMillis,
+                               @Value("${bankwise.logging.access.sample-one-in:20}") int sampleOneIn) {
+        this.slowMillis = slowMillis;
+        this.sampleOneIn = Math.max(1, sampleOneIn);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -24,25 +50,39 @@ public class RequestTimingFilter extends OncePerRequestFilter {
         } finally {
             long elapsedMs = (System.nanoTime() - start) / 1_000_000;
             response.addHeader("X-Response-Time", elapsedMs + "ms");
-            
+
             // Record metrics for system analytics
             String endpoint = normalizeEndpoint(request.getRequestURI());
-            boolean isError = response.getStatus() >= 400;
+            int status = response.getStatus();
+            boolean isError = status >= 400;
             SystemAnalyticsController.recordRequest(endpoint, elapsedMs, isError);
-            
-            log.info("REQ {} {} -> {} ({} ms)", request.getMethod(), request.getRequestURI(), response.getStatus(), elapsedMs);
+
+            logAccess(request, status, elapsedMs);
+        }
+    }
+
+    private void logAccess(HttpServletRequest request, int status, long elapsedMs) {
+        boolean slow = elapsedMs >= slowMillis;
+        if (status >= 500 || slow) {
+            if (accessLog.isWarnEnabled()) {
+                accessLog.warn("method={} path={} status={} ms={}{}", request.getMethod(), request.getRequestURI(),
+                        status, elapsedMs, slow ? " slow=true" : "");
+            }
+        } else if (status >= 400) {
+            if (accessLog.isInfoEnabled()) {
+                accessLog.info("method={} path={} status={} ms={}", request.getMethod(), request.getRequestURI(), status, elapsedMs);
+            }
+        } else if (accessLog.isInfoEnabled() && (sampleOneIn == 1 || ThreadLocalRandom.current().nextInt(sampleOneIn) == 0)) {
+            accessLog.info("method={} path={} status={} ms={} sample={}", request.getMethod(), request.getRequestURI(),
+                    status, elapsedMs, sampleOneIn);
         }
     }
 
     // Normalize endpoints to group similar paths (e.g., /api/user/123 -> /api/user/{id})
     private String normalizeEndpoint(String uri) {
         if (uri == null) return "unknown";
-        // Replace numeric path segments with {id}
-        return uri.replaceAll("/\\d+", "/{id}")
-                  .replaceAll("/[a-f0-9-]{36}", "/{uuid}"); // UUIDs
+        // Replace numeric path segments with {id}, then UUIDs
+        String normalized = NUMERIC_SEGMENT.matcher(uri).replaceAll("/{id}");
+        return UUID_SEGMENT.matcher(normalized).replaceAll("/{uuid}");
     }
 }
-
-
-
-
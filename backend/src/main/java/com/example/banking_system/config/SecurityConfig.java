@@ -1,8 +1,10 @@
 package com.example.banking_system.config;
 
 import com.example.banking_system.service.CustomUserDetailsService;
+import com.example.banking_system.service.LedgerService;
 import com.example.banking_system.service.OtpService;
 import com.example.banking_system.repository.AccountRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +22,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.util.Arrays;
 import java.util.List;
@@ -33,6 +36,9 @@ public class SecurityConfig {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private LedgerService ledgerService;
+
     @Autowired
     private OtpService otpService;
 
@@ -50,9 +56,18 @@ public class SecurityConfig {
         this.userDetailsService = userDetailsService;
     }
 
+    /**
+     * BCrypt on a bounded pool (see {@link BoundedPasswordEncoder}). Raising the strength makes
+     * existing hashes report upgradeEncoding, so passwords are re-hashed on the next login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${bankwise.security.bcrypt-strength:10}") int strength,
+                                           @Value("${bankwise.security.hashing.threads:0}") int threads,
+                                           @Value("${bankwise.security.hashing.queue-capacity:64}") int queueCapacity) {
+        // Default: half the cores, so hashing never takes all of them
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, meterRegistry);
     }
 
     @Bean
@@ -61,18 +76,21 @@ public class SecurityConfig {
     }
 
     @Bean
-    public DaoAuthenticationProvider daoAuthenticationProvider() {
+    public DaoAuthenticationProvider daoAuthenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
         // Allow UsernameNotFoundException to propagate (not hidden as BadCredentials)
         provider.setHideUserNotFoundExceptions(false);
         return provider;
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager) throws Exception {
-        JWTAuthenticationFilter jwtAuthenticationFilter = new JWTAuthenticationFilter(authenticationManager, accountRepository, otpService, developerPassword);
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager,
+                                           ObjectMapper objectMapper) throws Exception {
+        JWTAuthenticationFilter jwtAuthenticationFilter = new JWTAuthenticationFilter(authenticationManager, accountRepository, ledgerService,
+                otpService, developerPassword, objectMapper);
         jwtAuthenticationFilter.setFilterProcessesUrl("/api/login");
 
         http
@@ -97,7 +115,10 @@ public class SecurityConfig {
                                 "/api/verify-otp",
                                 "/api/system/ping",
                                 "/api/system/health",
-                                "/actuator/health"
+                                "/api/users/*/photo",
+                                "/actuator/health",
+                                "/actuator/health/liveness",
+                                "/actuator/health/readiness"
                                 ).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,83 @@
+package com.example.banking_system.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs one line per boot with the time to ready and the slowest bean instantiations, taken
+ * from the {@link BufferingApplicationStartup} installed in the main class. Bean times are self
+ * times: the time spent creating the beans it depends on is charged to those beans.
+ * The full timeline stays available at /actuator/startup.
+ */
+@Component
+@Slf4j
+public class StartupReport {
+
+    public static final int BUFFER_CAPACITY = 8192;
+
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+
+    private final int topBeans;
+
+    public StartupReport(@Value("${bankwise.startup.report.top-beans:10}") int topBeans) {
+        this.topBeans = topBeans;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        long jvmUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        Duration timeTaken = event.getTimeTaken();
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            log.info("Startup report: ready in {} ms (JVM uptime {} ms)",
+                    timeTaken != null ? timeTaken.toMillis() : -1, jvmUptime);
+            return;
+        }
+        List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+        Map<Long, Long> childNanos = new HashMap<>();
+        for (StartupTimeline.TimelineEvent e : events) {
+            Long parent = e.getStartupStep().getParentId();
+            if (parent != null) {
+                childNanos.merge(parent, e.getDuration().toNanos(), Long::sum);
+            }
+        }
+        List<StartupTimeline.TimelineEvent> beans = events.stream()
+                .filter(e -> BEAN_STEP.equals(e.getStartupStep().getName()))
+                .toList();
+        Comparator<StartupTimeline.TimelineEvent> bySelfTime =
+                Comparator.comparingLong(e -> selfNanos(e, childNanos));
+        String slowest = beans.stream()
+                .sorted(bySelfTime.reversed())
+                .limit(topBeans)
+                .map(e -> beanName(e.getStartupStep()) + "=" + selfNanos(e, childNanos) / 1_000_000 + "ms")
+                .collect(Collectors.joining(", "));
+        log.info("Startup report: ready in {} ms (JVM uptime {} ms), {} beans instantiated, slowest: {}",
+                timeTaken != null ? timeTaken.toMillis() : -1, jvmUptime, beans.size(), slowest);
+    }
+
+    private static long selfNanos(StartupTimeline.TimelineEvent event, Map<Long, Long> childNanos) {
+        return event.getDuration().toNanos() - childNanos.getOrDefault(event.getStartupStep().getId(), 0L);
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
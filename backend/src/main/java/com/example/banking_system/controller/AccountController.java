@@ -1,16 +1,20 @@
 package com.example.banking_system.controller;
 
 import com.example.banking_system.service.AccountService;
+import com.example.banking_system.service.AdminAccountSearchService;
 import com.example.banking_system.service.DepositService;
-import com.example.banking_system.dto.AdminAccountDto;
+import com.example.banking_system.service.RecipientSearchService;
+import com.example.banking_system.dto.AdminAccountPageDto;
 import com.example.banking_system.dto.DepositRequestDto;
 import com.example.banking_system.dto.KycDetailsRequestDto;
 import com.example.banking_system.dto.KycDetailsAdminDto;
+import com.example.banking_system.dto.KycDocumentData;
 import com.example.banking_system.exception.ResourceNotFoundException;
 import com.example.banking_system.dto.TransferRecipientDto;
 import com.example.banking_system.enums.VerificationStatus;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -19,9 +23,12 @@ import org.springframework.http.MediaTypeFactory;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/account")
@@ -31,15 +38,15 @@ public class AccountController {
 
     private final AccountService accountService;
     private final DepositService depositService;
+    private final RecipientSearchService recipientSearchService;
+    private final AdminAccountSearchService adminAccountSearchService;
 
     @PreAuthorize("hasAnyRole('USER','CUSTOMER')")
     @PostMapping("/submit")
-    public ResponseEntity<byte[]> submitKyc(@Valid @ModelAttribute KycDetailsRequestDto kycDetailsRequestDto){
-        byte[] pdf = accountService.generatePdfAndSaveKycDetails(kycDetailsRequestDto);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=kyc.pdf")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(pdf);
+    public ResponseEntity<StreamingResponseBody> submitKyc(@Valid @ModelAttribute KycDetailsRequestDto kycDetailsRequestDto)
+            throws ResourceNotFoundException {
+        KycDocumentData pdf = accountService.generatePdfAndSaveKycDetails(kycDetailsRequestDto);
+        return streamDocument(pdf, "attachment");
     }
 
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
@@ -56,13 +63,21 @@ public class AccountController {
         return ResponseEntity.ok(accountService.updateAccountStatus(accountNumber, vstatus));
     }
 
+    /**
+     * Paged account search. {@code sort} is one of CREATED, ACCOUNT_NUMBER, BALANCE, NAME;
+     * pass the returned {@code nextCursor} as {@code cursor} for the next page.
+     */
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
     @GetMapping("/admin/accounts")
-    public ResponseEntity<List<AdminAccountDto>> listAccounts(
+    public ResponseEntity<AdminAccountPageDto> listAccounts(
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String q
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
-        return ResponseEntity.ok(accountService.listAccountsForAdmin(status, q));
+        return ResponseEntity.ok(adminAccountSearchService.search(status, q, sort, direction, cursor, limit));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
@@ -73,31 +88,17 @@ public class AccountController {
 
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
     @GetMapping("/admin/kyc/{accountNumber}/pdf")
-    public ResponseEntity<byte[]> getKycPdf(@PathVariable String accountNumber) throws ResourceNotFoundException {
-        byte[] pdf = accountService.getKycPdfForAdmin(accountNumber);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=kyc.pdf")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(pdf);
+    public ResponseEntity<StreamingResponseBody> getKycPdf(@PathVariable String accountNumber) throws ResourceNotFoundException {
+        return streamDocument(accountService.getKycPdfForAdmin(accountNumber), "inline");
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
     @GetMapping("/admin/kyc/{accountNumber}/document/{type}")
-    public ResponseEntity<byte[]> getKycDocument(
+    public ResponseEntity<StreamingResponseBody> getKycDocument(
             @PathVariable String accountNumber,
             @PathVariable String type
     ) throws ResourceNotFoundException {
-        var doc = accountService.getKycDocumentForAdmin(accountNumber, type);
-        MediaType contentType = MediaType.APPLICATION_OCTET_STREAM;
-        if (doc.getContentType() != null && !doc.getContentType().isBlank()) {
-            contentType = MediaType.parseMediaType(doc.getContentType());
-        } else {
-            contentType = MediaTypeFactory.getMediaType(doc.getFilename()).orElse(MediaType.APPLICATION_OCTET_STREAM);
-        }
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=" + doc.getFilename())
-                .contentType(contentType)
-                .body(doc.getData());
+        return streamDocument(accountService.getKycDocumentForAdmin(accountNumber, type), "inline");
     }
 
     @PreAuthorize("hasAnyRole('USER','CUSTOMER')")
@@ -106,6 +107,20 @@ public class AccountController {
         return ResponseEntity.ok(accountService.searchRecipients(q));
     }
 
+    /**
+     * Search-as-you-type suggestions, ranked exact > prefix > fuzzy.
+     * Responses are short-lived private cacheable so repeated keystrokes can be served by the browser.
+     */
+    @PreAuthorize("hasAnyRole('USER','CUSTOMER')")
+    @GetMapping("/recipients/typeahead")
+    public ResponseEntity<List<TransferRecipientDto>> typeahead(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + RecipientSearchService.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS).cachePrivate())
+                .body(recipientSearchService.search(q, limit));
+    }
+
     @PutMapping("/depositAction")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
     public ResponseEntity<Object> handleDepositAction(@RequestParam String action, @RequestParam Long depositRequestId) {
@@ -163,8 +178,33 @@ public class AccountController {
         }
     }
 
+    /**
+     * Stream a stored document straight from the document store to the response.
+     * The SHA-256 recorded at upload time doubles as a strong ETag.
+     */
+    private ResponseEntity<StreamingResponseBody> streamDocument(KycDocumentData doc, String disposition)
+            throws ResourceNotFoundException {
+        MediaType contentType;
+        if (doc.getContentType() != null && !doc.getContentType().isBlank()) {
+            contentType = MediaType.parseMediaType(doc.getContentType());
+        } else {
+            contentType = MediaTypeFactory.getMediaType(doc.getFilename()).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        }
+        InputStream content = accountService.openKycDocument(doc);
+        StreamingResponseBody body = out -> {
+            try (content) {
+                content.transferTo(out);
+            }
+        };
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=" + doc.getFilename())
+                .contentType(contentType);
+        if (doc.getSize() != null) {
+            builder.contentLength(doc.getSize());
+        }
+        if (doc.getSha256() != null) {
+            builder.eTag("\"" + doc.getSha256() + "\"");
+        }
+        return builder.body(body);
+    }
 }
-
-
-
-
@@ -1,8 +1,11 @@
 package com.example.banking_system.controller;
 
+import com.example.banking_system.dto.AuditLogPageDto;
 import com.example.banking_system.entity.AuditLog;
 import com.example.banking_system.repository.AuditLogRepository;
+import com.example.banking_system.service.AuditSearchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,6 +22,7 @@ import java.util.List;
 public class AuditController {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditSearchService auditSearchService;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
@@ -37,8 +42,25 @@ public class AuditController {
         }
         return ResponseEntity.ok(auditLogRepository.findTop100ByOrderByCreatedAtDesc());
     }
-}
-
-
-
 
+    /**
+     * Filtered audit search with cursor pagination.
+     * Pass the returned {@code nextCursor} as {@code cursor} to load the next page.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    public ResponseEntity<AuditLogPageDto> searchAuditLogs(
+            @RequestParam(required = false) String actorEmail,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String targetType,
+            @RequestParam(required = false) String targetId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") Integer limit
+    ) {
+        return ResponseEntity.ok(auditSearchService.search(
+                actorEmail, action, targetType, targetId, status, from, to, cursor, limit));
+    }
+}
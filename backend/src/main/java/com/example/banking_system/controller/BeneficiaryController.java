@@ -1,5 +1,6 @@
 package com.example.banking_system.controller;
 
+import com.example.banking_system.dto.BeneficiaryDto;
 import com.example.banking_system.entity.Beneficiary;
 import com.example.banking_system.service.BeneficiaryService;
 import lombok.RequiredArgsConstructor;
@@ -22,19 +23,19 @@ public class BeneficiaryController {
     private final BeneficiaryService beneficiaryService;
 
     @GetMapping
-    public ResponseEntity<List<Beneficiary>> getAllBeneficiaries(Authentication auth) {
+    public ResponseEntity<List<BeneficiaryDto>> getAllBeneficiaries(Authentication auth) {
         String email = auth.getName();
         return ResponseEntity.ok(beneficiaryService.getBeneficiaries(email));
     }
 
     @GetMapping("/favorites")
-    public ResponseEntity<List<Beneficiary>> getFavoriteBeneficiaries(Authentication auth) {
+    public ResponseEntity<List<BeneficiaryDto>> getFavoriteBeneficiaries(Authentication auth) {
         String email = auth.getName();
         return ResponseEntity.ok(beneficiaryService.getFavoriteBeneficiaries(email));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Beneficiary>> searchBeneficiaries(
+    public ResponseEntity<List<BeneficiaryDto>> searchBeneficiaries(
             Authentication auth,
             @RequestParam String query) {
         String email = auth.getName();
@@ -6,6 +6,7 @@ import com.example.banking_system.service.OtpService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +23,7 @@ import java.util.stream.Stream;
  * Accessible with DEVELOPER role or valid dev password.
  */
 @RestController
+@Lazy
 @RequestMapping("/api/developer")
 @RequiredArgsConstructor
 @Slf4j
@@ -4,6 +4,7 @@ import com.example.banking_system.entity.LoanRequest;
 import com.example.banking_system.entity.User;
 import com.example.banking_system.repository.LoanRepo;
 import com.example.banking_system.repository.UserRepository;
+import com.example.banking_system.service.CreditScoreService;
 import com.example.banking_system.service.EmiSchedulerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,7 @@ public class EmiController {
     private final EmiSchedulerService emiSchedulerService;
     private final LoanRepo loanRepository;
     private final UserRepository userRepository;
+    private final CreditScoreService creditScoreService;
 
     /**
      * Get EMI schedule for a specific loan.
@@ -227,6 +229,23 @@ public class EmiController {
         }
     }
 
+    /**
+     * Get credit score history for the current user.
+     */
+    @GetMapping("/credit-score/history")
+    public ResponseEntity<?> getCreditScoreHistory(Authentication auth) {
+        try {
+            User user = getCurrentUser(auth);
+            return ResponseEntity.ok(Map.of(
+                "creditScore", user.getCreditScore() != null ? user.getCreditScore() : CreditScoreService.DEFAULT_SCORE,
+                "pendingChanges", creditScoreService.countPending(user.getId()),
+                "history", creditScoreService.getHistory(user.getId())
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     private User getCurrentUser(Authentication auth) {
         String email = auth.getName();
         return userRepository.findByEmail(email)
@@ -1,17 +1,22 @@
 package com.example.banking_system.controller;
 
+import com.example.banking_system.service.DocumentStore;
 import com.example.banking_system.service.TransactionService;
 import com.example.banking_system.dto.TransferRequestDto;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.security.auth.login.AccountNotFoundException;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
@@ -81,6 +86,36 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.getTransaction(accountNumber, page, size, startDate, endDate));
     }
 
+    /**
+     * Statement PDF for one of the caller's accounts, rendered straight into the response.
+     * Defaults to the previous calendar month.
+     */
+    @GetMapping("/statement")
+    @PreAuthorize("hasAnyRole('USER','CUSTOMER')")
+    public ResponseEntity<StreamingResponseBody> downloadStatement(
+            @RequestParam String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate from = startDate != null ? startDate : firstOfMonth.minusMonths(1);
+        LocalDate to = endDate != null ? endDate : firstOfMonth.minusDays(1);
+        DocumentStore.DocumentWriter pdf = transactionService.statementPdf(accountNumber, from, to);
+        StreamingResponseBody body = out -> {
+            try {
+                pdf.writeTo(out);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Failed to render statement for " + accountNumber, e);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=statement-" + accountNumber + "-" + from + "-" + to + ".pdf")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
+    }
+
     @GetMapping("/pdf")
     public ResponseEntity<Object> sendTransactionEmail(){
         try{
@@ -2,6 +2,7 @@ package com.example.banking_system.controller;
 
 import com.example.banking_system.service.UserAnalyticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.Map;
 
 @RestController
+@Lazy
 @RequestMapping("/api/analytics")
 @RequiredArgsConstructor
 @PreAuthorize("hasAnyRole('USER', 'CUSTOMER')")
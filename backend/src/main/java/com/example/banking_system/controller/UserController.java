@@ -3,6 +3,8 @@ package com.example.banking_system.controller;
 import com.example.banking_system.service.UserService;
 import com.example.banking_system.service.OtpService;
 import com.example.banking_system.service.CachedDataService;
+import com.example.banking_system.service.LedgerService;
+import com.example.banking_system.service.ProfilePhotoService;
 import com.example.banking_system.dto.CreateRequestDto;
 import com.example.banking_system.dto.LoginResponseUserDto;
 import com.example.banking_system.dto.OtpRequest;
@@ -17,6 +19,10 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -24,11 +30,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.util.Base64;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.tomcat.websocket.Constants.UNAUTHORIZED;
 
@@ -45,6 +53,8 @@ public class UserController {
     private final UserRepository userRepository;
     private final AuditService auditService;
     private final CachedDataService cachedDataService;
+    private final ProfilePhotoService profilePhotoService;
+    private final LedgerService ledgerService;
 
     @PostMapping("/create")
     public ResponseEntity<Object> createUser(@Valid @RequestBody CreateRequestDto user) {
@@ -75,11 +85,7 @@ public class UserController {
         resp.put("email", user.getEmail());
         resp.put("role", user.getRole());
 
-        // Add profile photo if available
-        if (user.getProfilePhoto() != null && user.getProfilePhoto().length > 0) {
-            resp.put("profilePhoto", Base64.getEncoder().encodeToString(user.getProfilePhoto()));
-            resp.put("profilePhotoContentType", user.getProfilePhotoContentType());
-        }
+        resp.put("profilePhotoUrl", ProfilePhotoService.photoUrl(user, ProfilePhotoService.Size.LARGE));
 
         // Always try to get account for any user type that has one
         try {
@@ -87,7 +93,7 @@ public class UserController {
             if (acc != null) {
                 resp.put("accountNumber", acc.getAccountNumber());
                 resp.put("verificationStatus", acc.getVerificationStatus());
-                resp.put("balance", acc.getBalance());
+                resp.put("balance", ledgerService.visibleBalance(acc));
             }
         } catch (Exception e) {
             // If account lookup fails, continue without account details
@@ -113,10 +119,9 @@ public class UserController {
                 .email(user.getEmail())
                 .AccountNumber(account.getAccountNumber())
                 .role(user.getRole())
-                .balance(account.getBalance())
+                .balance(ledgerService.visibleBalance(account))
                 .verificationStatus(account.getVerificationStatus())
-                .profilePhoto(user.getProfilePhoto() != null ? Base64.getEncoder().encodeToString(user.getProfilePhoto()) : null)
-                .profilePhotoContentType(user.getProfilePhotoContentType())
+                .profilePhotoUrl(ProfilePhotoService.photoUrl(user, ProfilePhotoService.Size.LARGE))
                 .build();
         return ResponseEntity.ok(dto);
     }
@@ -128,17 +133,61 @@ public class UserController {
         String currentEmail = auth.getName();
         
         User user = userRepository.findByEmail(email).orElse(null);
-        if (user == null || user.getProfilePhoto() == null) {
+        if (user == null || user.getProfilePhotoVersion() == null) {
             return ResponseEntity.ok(Map.of("hasPhoto", false));
         }
         
         return ResponseEntity.ok(Map.of(
             "hasPhoto", true,
-            "profilePhoto", Base64.getEncoder().encodeToString(user.getProfilePhoto()),
-            "contentType", user.getProfilePhotoContentType()
+            "profilePhotoUrl", ProfilePhotoService.photoUrl(user, ProfilePhotoService.Size.LARGE)
         ));
     }
 
+    /**
+     * Serves a profile photo thumbnail. A request carrying the current version ({@code v})
+     * is immutable and cacheable for a year; the versioned URL is what JSON payloads hand out.
+     * Without a matching version the photo is only served to authenticated callers, uncached.
+     */
+    @GetMapping("/users/{id}/photo")
+    public ResponseEntity<StreamingResponseBody> getPhoto(
+            @PathVariable Long id,
+            @RequestParam(required = false) String size,
+            @RequestParam(required = false) String v,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String version = userRepository.findProfilePhotoVersionById(id).orElse(null);
+        boolean versioned = version != null && version.equals(v);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal());
+        if (version == null || (!versioned && !authenticated)) {
+            return ResponseEntity.notFound().build();
+        }
+        ProfilePhotoService.Size photoSize = ProfilePhotoService.Size.fromCode(size);
+        String etag = "\"" + version + "-" + photoSize.code() + "\"";
+        CacheControl cacheControl = versioned
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache().cachePrivate();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        InputStream content;
+        try {
+            content = profilePhotoService.open(id, version, photoSize);
+        } catch (IOException e) {
+            log.warn("Profile photo missing from store user={} version={}", id, version);
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> {
+            try (content) {
+                content.transferTo(out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(body);
+    }
+
     @Transactional
     @PreAuthorize("hasAnyRole('USER','CUSTOMER','ADMIN','MANAGER','DEVELOPER')")
     @PutMapping("/user/update-profile")
@@ -179,8 +228,12 @@ public class UserController {
                     return ResponseEntity.badRequest().body(Map.of("message", "File size exceeds 5MB limit."));
                 }
                 
-                user.setProfilePhoto(profilePhoto.getBytes());
-                user.setProfilePhotoContentType(contentType);
+                try (InputStream in = profilePhoto.getInputStream()) {
+                    profilePhotoService.storePhoto(user, in);
+                }
+            } catch (IllegalArgumentException e) {
+                // Unsupported format, unreadable content or oversized dimensions
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage() + "."));
             } catch (IOException e) {
                 return ResponseEntity.badRequest().body(Map.of("message", "Failed to process profile photo."));
             }
@@ -201,10 +254,7 @@ public class UserController {
         response.put("email", user.getEmail());
         response.put("creditScore", user.getCreditScore());
         
-        if (user.getProfilePhoto() != null) {
-            response.put("profilePhoto", Base64.getEncoder().encodeToString(user.getProfilePhoto()));
-            response.put("profilePhotoContentType", user.getProfilePhotoContentType());
-        }
+        response.put("profilePhotoUrl", ProfilePhotoService.photoUrl(user, ProfilePhotoService.Size.LARGE));
         
         return ResponseEntity.ok(response);
     }
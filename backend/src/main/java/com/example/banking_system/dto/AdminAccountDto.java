@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -20,7 +21,8 @@ public class AdminAccountDto {
     private BigDecimal balance;
     private VerificationStatus verificationStatus;
     private AccountType accountType;
-    private double interestRate;
+    private Double interestRate;
+    private LocalDateTime createdAt;
 
     private Long userId;
     private String userName;
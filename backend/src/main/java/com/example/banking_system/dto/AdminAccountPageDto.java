@@ -0,0 +1,26 @@
+package com.example.banking_system.dto;
+
+import com.example.banking_system.enums.VerificationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of admin account search results.
+ * Pass {@code nextCursor} back as {@code cursor} to fetch the following page.
+ * {@code statusCounts} covers all accounts and is only filled on the first page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminAccountPageDto {
+    private List<AdminAccountDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private Map<VerificationStatus, Long> statusCounts;
+}
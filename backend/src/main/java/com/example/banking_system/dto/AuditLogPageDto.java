@@ -0,0 +1,23 @@
+package com.example.banking_system.dto;
+
+import com.example.banking_system.entity.AuditLog;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of audit search results.
+ * Pass {@code nextCursor} back as {@code cursor} to fetch the following page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPageDto {
+    private List<AuditLog> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,26 @@
+package com.example.banking_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Beneficiary as listed to its owner. Same JSON shape as the Beneficiary entity.
+ */
+@Getter
+@AllArgsConstructor
+public class BeneficiaryDto {
+    private Long id;
+    private String beneficiaryAccountNumber;
+    private String beneficiaryName;
+    private String nickname;
+    private String bankName;
+    private String ifscCode;
+    private Boolean isActive;
+    private Boolean isFavorite;
+    private LocalDateTime lastUsedAt;
+    private Integer transferCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
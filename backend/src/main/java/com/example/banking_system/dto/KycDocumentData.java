@@ -3,14 +3,15 @@ package com.example.banking_system.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+/**
+ * Metadata needed to stream a stored KYC document back to the client.
+ */
 @Data
 @AllArgsConstructor
 public class KycDocumentData {
-    private byte[] data;
+    private String key;
     private String contentType;
     private String filename;
+    private Long size;
+    private String sha256;
 }
-
-
-
-
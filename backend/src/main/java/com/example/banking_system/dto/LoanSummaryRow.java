@@ -0,0 +1,26 @@
+package com.example.banking_system.dto;
+
+import com.example.banking_system.enums.LoanStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Columns of a loan needed to build a {@link LoanResponseDto}, selected directly by
+ * the list queries in {@code LoanRepo} so no LoanRequest/Account/User entities are loaded.
+ */
+public record LoanSummaryRow(
+        Long id,
+        String accountNumber,
+        BigDecimal amount,
+        Integer tenureInMonths,
+        Double interestRate,
+        LoanStatus status,
+        LocalDate requestDate,
+        LocalDate approvalDate,
+        LocalDate maturityDate,
+        String reason,
+        String adminRemark,
+        Integer emisPaid
+) {
+}
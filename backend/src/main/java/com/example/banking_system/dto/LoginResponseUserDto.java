@@ -28,8 +28,7 @@ public class LoginResponseUserDto {
     @Enumerated(EnumType.STRING)
     private VerificationStatus verificationStatus;
 
-    private String profilePhoto; // base64 encoded
-    private String profilePhotoContentType;
+    private String profilePhotoUrl;
 }
 
 
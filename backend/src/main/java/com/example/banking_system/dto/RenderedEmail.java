@@ -0,0 +1,8 @@
+package com.example.banking_system.dto;
+
+/**
+ * Output of {@link com.example.banking_system.service.EmailTemplateService#render}; {@code html} is null
+ * when the template has no HTML variant.
+ */
+public record RenderedEmail(String subject, String text, String html) {
+}
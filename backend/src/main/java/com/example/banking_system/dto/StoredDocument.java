@@ -0,0 +1,13 @@
+package com.example.banking_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredDocument {
+    private String key;
+    private long size;
+    private String sha256;
+    private String contentType;
+}
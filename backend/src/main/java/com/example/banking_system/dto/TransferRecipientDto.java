@@ -14,8 +14,7 @@ public class TransferRecipientDto {
     private String phone;
     private String accountNumber;
     private String bank;
-    private String profilePhoto; // base64 encoded
-    private String profilePhotoContentType;
+    private String profilePhotoUrl;
 }
 
 
@@ -1,6 +1,5 @@
 package com.example.banking_system.entity;
 
-import com.example.banking_system.Genrator.CustomIdGenerator;
 import com.example.banking_system.enums.AccountType;
 import com.example.banking_system.enums.VerificationStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -36,12 +35,12 @@ public class Account {
 
     @PrePersist
     protected void onCreate() {
-        accountNumber = generate12DigitNumber();
+        // Numbers come from IdentifierService; a random fallback could collide with idx_account_number
+        if (accountNumber == null) {
+            throw new IllegalStateException("Account number must be allocated before saving");
+        }
         createdAt = LocalDateTime.now();
     }
-    private String generate12DigitNumber() {
-        return CustomIdGenerator.generate().toString();
-    }
 
     // Default balance set to 5000
     private BigDecimal balance = BigDecimal.valueOf(5000);
@@ -10,6 +10,16 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(
+    name = "audit_log",
+    indexes = {
+        @Index(name = "idx_audit_created", columnList = "created_at"),
+        @Index(name = "idx_audit_actor_created", columnList = "actor_email, created_at"),
+        @Index(name = "idx_audit_action_created", columnList = "action, created_at"),
+        @Index(name = "idx_audit_target_type_created", columnList = "target_type, created_at"),
+        @Index(name = "idx_audit_target", columnList = "target_type, target_id")
+    }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +28,8 @@ import java.time.LocalDateTime;
 public class AuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_log_seq")
+    @SequenceGenerator(name = "audit_log_seq", sequenceName = "audit_log_seq", allocationSize = 50)
     private Long id;
 
     private String action;
@@ -36,11 +47,15 @@ public class AuditLog {
     @Column(length = 4000)
     private String details;
 
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
     public void onCreate() {
-        this.createdAt = LocalDateTime.now();
+        // Keep the time the event happened, not the time the write-behind flush ran
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
     }
 }
 
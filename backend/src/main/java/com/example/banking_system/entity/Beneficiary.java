@@ -28,7 +28,8 @@ import java.time.LocalDateTime;
 public class Beneficiary {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beneficiaries_seq")
+    @SequenceGenerator(name = "beneficiaries_seq", sequenceName = "beneficiaries_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
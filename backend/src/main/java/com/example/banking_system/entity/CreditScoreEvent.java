@@ -0,0 +1,54 @@
+package com.example.banking_system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending credit score delta produced by an EMI outcome.
+ * Events are appended during the EMI run and folded per user by
+ * {@link com.example.banking_system.service.CreditScoreService#applyPendingChanges()}.
+ */
+@Entity
+@Table(name = "credit_score_events",
+    indexes = {
+        @Index(name = "idx_credit_event_batch", columnList = "batch_id"),
+        @Index(name = "idx_credit_event_pending", columnList = "applied_at, user_id")
+    }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditScoreEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_score_events_seq")
+    @SequenceGenerator(name = "credit_score_events_seq", sequenceName = "credit_score_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private Long loanId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    private String reason; // EARLY_PAYMENT, ON_TIME_PAYMENT, LATE_PAYMENT, MISSED_PAYMENT
+
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+
+    private LocalDateTime createdAt;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.banking_system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit trail of applied credit score changes.
+ * One row per user per applier run, holding the net change of all folded events.
+ */
+@Entity
+@Table(name = "credit_score_history",
+    indexes = {
+        @Index(name = "idx_credit_history_user_time", columnList = "user_id, applied_at")
+    }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditScoreHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_score_history_seq")
+    @SequenceGenerator(name = "credit_score_history_seq", sequenceName = "credit_score_history_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private Integer previousScore;
+
+    private Integer newScore;
+
+    private Integer netChange;
+
+    private Integer eventCount;
+
+    @Column(length = 36)
+    private String batchId;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+}
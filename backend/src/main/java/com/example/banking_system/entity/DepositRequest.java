@@ -24,7 +24,8 @@ import java.time.LocalDateTime;
 public class DepositRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deposit_request_seq")
+    @SequenceGenerator(name = "deposit_request_seq", sequenceName = "deposit_request_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
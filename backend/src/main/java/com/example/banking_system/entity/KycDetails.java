@@ -5,6 +5,10 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 
+/**
+ * KYC submission. Document content lives in the {@link com.example.banking_system.service.DocumentStore};
+ * this row only keeps the storage key, size and SHA-256 of each document.
+ */
 @Entity
 @Getter
 @Setter
@@ -12,7 +16,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class KycDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kyc_details_seq")
+    @SequenceGenerator(name = "kyc_details_seq", sequenceName = "kyc_details_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -23,30 +28,38 @@ public class KycDetails {
     private String panNumber;
     private String address;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "kyc_pdf")
-    private byte[] kycPdf;
+    @Column(name = "kyc_pdf_key")
+    private String kycPdfKey;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "aadhar_document")
-    private byte[] aadharDocument;
+    @Column(name = "kyc_pdf_size")
+    private Long kycPdfSize;
+
+    @Column(name = "kyc_pdf_sha256", length = 64)
+    private String kycPdfSha256;
+
+    @Column(name = "aadhar_key")
+    private String aadharKey;
+
+    @Column(name = "aadhar_size")
+    private Long aadharSize;
+
+    @Column(name = "aadhar_sha256", length = 64)
+    private String aadharSha256;
 
     @Column(name = "aadhar_content_type")
     private String aadharContentType;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "pan_document")
-    private byte[] panDocument;
+    @Column(name = "pan_key")
+    private String panKey;
+
+    @Column(name = "pan_size")
+    private Long panSize;
+
+    @Column(name = "pan_sha256", length = 64)
+    private String panSha256;
 
     @Column(name = "pan_content_type")
     private String panContentType;
 
     private LocalDateTime uploadedAt;
 }
-
-
-
-
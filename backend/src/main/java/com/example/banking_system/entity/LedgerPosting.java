@@ -0,0 +1,62 @@
+package com.example.banking_system.entity;
+
+import com.example.banking_system.enums.PostingDirection;
+import com.example.banking_system.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only ledger posting. Every money movement writes one DEBIT and one
+ * CREDIT posting sharing an {@code entryId}; rows are never updated or deleted.
+ */
+@Entity
+@Table(name = "ledger_postings",
+    indexes = {
+        @Index(name = "idx_posting_account_created", columnList = "account_number, created_at"),
+        @Index(name = "idx_posting_created", columnList = "created_at"),
+        @Index(name = "idx_posting_entry", columnList = "entry_id")
+    }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerPosting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_posting_seq")
+    @SequenceGenerator(name = "ledger_posting_seq", sequenceName = "ledger_posting_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "entry_id", nullable = false, length = 36, updatable = false)
+    private String entryId;
+
+    @Column(name = "account_number", nullable = false, length = 64, updatable = false)
+    private String accountNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private PostingDirection direction;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private TransactionType type;
+
+    @Column(updatable = false)
+    private String reference;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
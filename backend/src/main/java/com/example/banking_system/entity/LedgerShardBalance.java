@@ -0,0 +1,40 @@
+package com.example.banking_system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Sub-balance of a hot account. Credits to a hot account land on one of N shard
+ * rows instead of the account row, so concurrent credits lock different rows.
+ * Shards are folded back into {@link Account#getBalance()} periodically.
+ */
+@Entity
+@Table(name = "ledger_shard_balances",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_shard_account_shard", columnNames = {"account_number", "shard"})
+    }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerShardBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_shard_balances_seq")
+    @SequenceGenerator(name = "ledger_shard_balances_seq", sequenceName = "ledger_shard_balances_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false, length = 64)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private BigDecimal balance = BigDecimal.ZERO;
+}
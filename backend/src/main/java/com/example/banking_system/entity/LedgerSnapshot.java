@@ -0,0 +1,42 @@
+package com.example.banking_system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Periodic balance snapshot for an account: the sum of all of its postings
+ * created before {@code postedBefore}. A derived balance is the latest snapshot
+ * plus the postings created at or after that instant.
+ */
+@Entity
+@Table(name = "ledger_snapshots",
+    indexes = {
+        @Index(name = "idx_snapshot_account_posted", columnList = "account_number, posted_before")
+    }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_snapshots_seq")
+    @SequenceGenerator(name = "ledger_snapshots_seq", sequenceName = "ledger_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false, length = 64)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "posted_before", nullable = false)
+    private LocalDateTime postedBefore;
+
+    private LocalDateTime takenAt;
+}
@@ -26,7 +26,8 @@ import java.time.LocalDate;
 public class LoanRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_request_seq")
+    @SequenceGenerator(name = "loan_request_seq", sequenceName = "loan_request_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
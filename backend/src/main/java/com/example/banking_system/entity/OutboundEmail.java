@@ -0,0 +1,82 @@
+package com.example.banking_system.entity;
+
+import com.example.banking_system.enums.EmailPriority;
+import com.example.banking_system.enums.EmailStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting in (or delivered from) the outbound queue.
+ * Rows are written in the caller's transaction and sent later by
+ * {@link com.example.banking_system.service.EmailDispatcher}; attachments live in the document store.
+ */
+@Entity
+@Table(name = "email_outbox")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundEmail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 320)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String textContent;
+
+    @Column(columnDefinition = "TEXT")
+    private String htmlContent;
+
+    private String attachmentName;
+
+    private String attachmentKey; // DocumentStore key
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false, columnDefinition = "smallint")
+    private EmailPriority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmailStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // While SENDING: when another node may take the row back (EmailDispatcher.reclaimExpiredLeases)
+    private LocalDateTime leaseUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private String messageId;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+        if (status == null) {
+            status = EmailStatus.PENDING;
+        }
+    }
+}
@@ -31,7 +31,8 @@ import java.time.LocalDateTime;
 public class ScheduledPayment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_payments_seq")
+    @SequenceGenerator(name = "scheduled_payments_seq", sequenceName = "scheduled_payments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
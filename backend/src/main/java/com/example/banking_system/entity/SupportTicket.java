@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 public class SupportTicket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "support_ticket_seq")
+    @SequenceGenerator(name = "support_ticket_seq", sequenceName = "support_ticket_seq", allocationSize = 50)
     private Long id;
 
     private String userEmail;
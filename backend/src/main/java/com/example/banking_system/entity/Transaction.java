@@ -17,18 +17,17 @@ import java.time.LocalDateTime;
 @Table(
     name = "transaction",
     indexes = {
-        @Index(name = "idx_txn_source_account", columnList = "source_account_id"),
-        @Index(name = "idx_txn_dest_account", columnList = "destination_account_id"),
+        // Account lookups use the (account, timestamp) indexes below via their leading column
         @Index(name = "idx_txn_timestamp", columnList = "timestamp"),
         @Index(name = "idx_txn_status", columnList = "status"),
-        @Index(name = "idx_txn_type", columnList = "type"),
         @Index(name = "idx_txn_source_timestamp", columnList = "source_account_id, timestamp"),
         @Index(name = "idx_txn_dest_timestamp", columnList = "destination_account_id, timestamp")
     }
 )
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_id_seq")
+    @SequenceGenerator(name = "transaction_id_seq", sequenceName = "transaction_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
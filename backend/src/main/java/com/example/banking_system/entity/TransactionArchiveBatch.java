@@ -0,0 +1,57 @@
+package com.example.banking_system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cold-tier storage for archived transactions.
+ * One row per account per month, holding that month's transactions as a
+ * gzip-compressed CSV payload (see {@link com.example.banking_system.service.TransactionArchiveService}).
+ */
+@Entity
+@Table(name = "transaction_archive",
+    indexes = {
+        @Index(name = "idx_txn_archive_period", columnList = "period_start")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_txn_archive_account_period", columnNames = {"account_number", "period_start"})
+    }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchiveBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_archive_seq")
+    @SequenceGenerator(name = "transaction_archive_seq", sequenceName = "transaction_archive_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false, length = 64)
+    private String accountNumber;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart; // first day of the archived month
+
+    private Integer rowCount;
+
+    @Basic(fetch = FetchType.LAZY)
+    @Column(columnDefinition = "BYTEA")
+    private byte[] payload;
+
+    private LocalDateTime archivedAt;
+
+    // False until every account of the month is written; readers skip unsealed batches
+    @Column(nullable = false)
+    private boolean sealed;
+
+    @PrePersist
+    protected void onCreate() {
+        archivedAt = LocalDateTime.now();
+    }
+}
@@ -21,7 +21,8 @@ import java.util.List;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -38,11 +39,9 @@ public class User implements UserDetails {
 
     private String address;
 
-    @Basic(fetch = FetchType.LAZY)
-    @Column(columnDefinition = "BYTEA")
-    private byte[] profilePhoto;
-
-    private String profilePhotoContentType;
+    // Thumbnails live in the document store; this is the version used in photo URLs
+    @Column(length = 16)
+    private String profilePhotoVersion;
 
     // Credit score - starts at 700, updated based on loan repayments
     @Builder.Default
@@ -0,0 +1,13 @@
+package com.example.banking_system.enums;
+
+/**
+ * Sort keys for the paged admin account search. Every key is paired with the account id
+ * as a tie-breaker so keyset cursors are stable.
+ */
+public enum AdminAccountSort {
+    /** Account creation time ({@code created_at}) */
+    CREATED,
+    ACCOUNT_NUMBER,
+    BALANCE,
+    NAME
+}
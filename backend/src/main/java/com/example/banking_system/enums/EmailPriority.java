@@ -0,0 +1,10 @@
+package com.example.banking_system.enums;
+
+/**
+ * Dispatch order for queued email; stored by ordinal, so keep the most urgent first.
+ */
+public enum EmailPriority {
+    CRITICAL, // OTPs and security notices - may use the reserved part of the daily quota
+    NORMAL,   // transaction and account notifications
+    BULK      // statements and reminders - sent last, deferred first when the quota runs low
+}
@@ -0,0 +1,8 @@
+package com.example.banking_system.enums;
+
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.example.banking_system.enums;
+
+public enum PostingDirection {
+    DEBIT,   // money leaves the account
+    CREDIT   // money enters the account
+}
@@ -0,0 +1,25 @@
+package com.example.banking_system.exception;
+
+/**
+ * The email provider did not accept a send. {@code retryable} failures are retried with backoff;
+ * {@code retryAfterSeconds} > 0 means the provider asked us to slow down (rate limit or quota).
+ */
+public class EmailTransportException extends RuntimeException {
+
+    private final boolean retryable;
+    private final long retryAfterSeconds;
+
+    public EmailTransportException(String message, boolean retryable, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -93,6 +93,25 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
     }
 
+    @ExceptionHandler(IdempotencyInProgressException.class)
+    public ResponseEntity<ApiErrorResponse> handleIdempotencyInProgress(IdempotencyInProgressException ex, HttpServletRequest request) {
+        return build(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ApiErrorResponse> handleHashingCapacity(HashingCapacityExceededException ex, HttpServletRequest request) {
+        ResponseEntity<ApiErrorResponse> response = build(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request);
+        return ResponseEntity.status(response.getStatusCode()).header("Retry-After", "1").body(response.getBody());
+    }
+
+    @ExceptionHandler(OtpResendLimitException.class)
+    public ResponseEntity<ApiErrorResponse> handleOtpResendLimit(OtpResendLimitException ex, HttpServletRequest request) {
+        ResponseEntity<ApiErrorResponse> response = build(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request);
+        return ResponseEntity.status(response.getStatusCode())
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(AccountNotFoundException.class)
     public ResponseEntity<ApiErrorResponse> handleAccountNotFound(AccountNotFoundException ex, HttpServletRequest request) {
         return build(HttpStatus.NOT_FOUND, ex.getMessage(), request);
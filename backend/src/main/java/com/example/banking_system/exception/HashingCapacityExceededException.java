@@ -0,0 +1,10 @@
+package com.example.banking_system.exception;
+
+/**
+ * Every password/PIN hashing slot is busy and the queue is full; the client should retry shortly.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
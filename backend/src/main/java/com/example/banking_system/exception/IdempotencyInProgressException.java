@@ -0,0 +1,10 @@
+package com.example.banking_system.exception;
+
+/**
+ * Another request with the same idempotency key is still being processed.
+ */
+public class IdempotencyInProgressException extends BusinessRuleViolationException {
+    public IdempotencyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.banking_system.exception;
+
+import lombok.Getter;
+
+/**
+ * Too many OTPs were requested for one email within the send window; the client should retry
+ * after {@link #getRetryAfterSeconds()}.
+ */
+@Getter
+public class OtpResendLimitException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OtpResendLimitException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.banking_system.migration;
+
+import com.example.banking_system.dto.StoredDocument;
+import com.example.banking_system.service.DocumentStore;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves KYC documents from the legacy {@code kyc_details} BLOB columns (kyc_pdf, aadhar_document,
+ * pan_document) into the {@link DocumentStore}, then drops the columns.
+ * Rows are handled one at a time and each BLOB is streamed, so the migration never holds more
+ * than one document. On PostgreSQL the columns hold oid references to large objects, which a
+ * column drop would leave behind, so they are unlinked as their rows are cleared.
+ * A document that cannot be copied fails the migration, which rolls back and can be re-run;
+ * files already written are overwritten under the same keys.
+ * <p>
+ * A Spring bean rather than a classpath migration, so it gets the configured DocumentStore.
+ */
+@Component
+@Slf4j
+public class V1_6__Move_kyc_documents extends BaseJavaMigration {
+
+    private static final List<String[]> COLUMNS = List.of(
+            new String[]{"kyc_pdf", "kyc.pdf", "kyc_pdf_key", "kyc_pdf_size", "kyc_pdf_sha256"},
+            new String[]{"aadhar_document", "aadhar", "aadhar_key", "aadhar_size", "aadhar_sha256"},
+            new String[]{"pan_document", "pan", "pan_key", "pan_size", "pan_sha256"});
+
+    private final DocumentStore documentStore;
+
+    public V1_6__Move_kyc_documents(DocumentStore documentStore) {
+        this.documentStore = documentStore;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        Set<String> legacyColumns = Set.copyOf(jdbcTemplate.queryForList("""
+                SELECT column_name FROM information_schema.columns
+                WHERE table_schema = current_schema() AND table_name = 'kyc_details'
+                  AND column_name IN ('kyc_pdf', 'aadhar_document', 'pan_document')
+                """, String.class));
+        if (legacyColumns.isEmpty()) {
+            return;
+        }
+        Set<String> largeObjectColumns = Set.copyOf(jdbcTemplate.queryForList("""
+                SELECT column_name FROM information_schema.columns
+                WHERE table_schema = current_schema() AND table_name = 'kyc_details' AND data_type = 'oid'
+                """, String.class));
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM kyc_details ORDER BY id", Long.class);
+        int moved = 0;
+        for (Long id : ids) {
+            String accountNumber = jdbcTemplate.queryForObject(
+                    "SELECT a.account_number FROM kyc_details k JOIN account a ON a.id = k.account_id WHERE k.id = ?",
+                    String.class, id);
+            String prefix = "kyc/" + accountNumber + "/legacy-" + id + "/";
+            for (String[] column : COLUMNS) {
+                if (legacyColumns.contains(column[0])
+                        && moveColumn(jdbcTemplate, id, column, prefix + column[1], largeObjectColumns)) {
+                    moved++;
+                }
+            }
+        }
+        if (moved > 0) {
+            log.info("Moved {} legacy KYC documents to the document store", moved);
+        }
+        for (String column : legacyColumns) {
+            jdbcTemplate.execute("ALTER TABLE kyc_details DROP COLUMN " + column);
+        }
+    }
+
+    private boolean moveColumn(JdbcTemplate jdbcTemplate, Long id, String[] column, String key,
+                               Set<String> largeObjectColumns) {
+        String blobColumn = column[0];
+        StoredDocument stored = jdbcTemplate.query(
+                "SELECT " + blobColumn + " FROM kyc_details WHERE id = ? AND " + column[2] + " IS NULL",
+                (ResultSet rs) -> rs.next() ? store(rs, blobColumn, key) : null,
+                id);
+        if (largeObjectColumns.contains(blobColumn)) {
+            jdbcTemplate.queryForList("SELECT lo_unlink(" + blobColumn + ") FROM kyc_details WHERE id = ? AND "
+                    + blobColumn + " IS NOT NULL", Integer.class, id);
+        }
+        if (stored == null) {
+            return false;
+        }
+        jdbcTemplate.update("UPDATE kyc_details SET " + column[2] + " = ?, " + column[3] + " = ?, "
+                        + column[4] + " = ? WHERE id = ?",
+                stored.getKey(), stored.getSize(), stored.getSha256(), id);
+        return true;
+    }
+
+    private StoredDocument store(ResultSet rs, String column, String key) throws SQLException {
+        // Hibernate mapped @Lob byte[] to a large object (oid) on PostgreSQL, which must be read as a Blob
+        int type = rs.getMetaData().getColumnType(1);
+        boolean largeObject = type == Types.BLOB || type == Types.BIGINT;
+        try (InputStream in = largeObject ? blobStream(rs, column) : rs.getBinaryStream(column)) {
+            if (in == null) {
+                return null;
+            }
+            return documentStore.put(key, in, null);
+        } catch (IOException e) {
+            throw new SQLException("Failed to copy " + column + " to document store", e);
+        }
+    }
+
+    private static InputStream blobStream(ResultSet rs, String column) throws SQLException {
+        Blob blob = rs.getBlob(column);
+        return blob != null ? blob.getBinaryStream() : null;
+    }
+}
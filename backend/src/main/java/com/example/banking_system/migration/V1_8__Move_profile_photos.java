@@ -0,0 +1,75 @@
+package com.example.banking_system.migration;
+
+import com.example.banking_system.entity.User;
+import com.example.banking_system.service.ProfilePhotoService;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Moves photos from the legacy {@code users.profile_photo} BYTEA column into thumbnails in the
+ * DocumentStore, then drops {@code profile_photo} and {@code profile_photo_content_type}.
+ * A photo that is not a readable image could never be displayed; it is logged and dropped with
+ * the column. A store failure fails the migration, which rolls back and can be re-run.
+ * <p>
+ * A Spring bean rather than a classpath migration, so it gets the configured DocumentStore.
+ */
+@Component
+@Slf4j
+public class V1_8__Move_profile_photos extends BaseJavaMigration {
+
+    private final ProfilePhotoService profilePhotoService;
+
+    public V1_8__Move_profile_photos(ProfilePhotoService profilePhotoService) {
+        this.profilePhotoService = profilePhotoService;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        Integer legacyColumn = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'profile_photo'
+                """, Integer.class);
+        if (legacyColumn != null && legacyColumn > 0) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM users WHERE profile_photo IS NOT NULL AND profile_photo_version IS NULL ORDER BY id",
+                    Long.class);
+            int moved = 0;
+            for (Long id : ids) {
+                String version = jdbcTemplate.query("SELECT profile_photo FROM users WHERE id = ?",
+                        rs -> rs.next() ? storeThumbnails(id, rs.getBinaryStream(1)) : null, id);
+                if (version != null) {
+                    jdbcTemplate.update("UPDATE users SET profile_photo_version = ? WHERE id = ?", version, id);
+                    moved++;
+                }
+            }
+            if (!ids.isEmpty()) {
+                log.info("Moved {}/{} legacy profile photos to thumbnails", moved, ids.size());
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE users DROP COLUMN IF EXISTS profile_photo");
+        jdbcTemplate.execute("ALTER TABLE users DROP COLUMN IF EXISTS profile_photo_content_type");
+    }
+
+    private String storeThumbnails(Long userId, InputStream photo) {
+        User stub = User.builder().id(userId).build();
+        try (InputStream in = photo) {
+            profilePhotoService.storePhoto(stub, in);
+            return stub.getProfilePhotoVersion();
+        } catch (IllegalArgumentException e) {
+            log.warn("Dropping unreadable legacy profile photo of user={}: {}", userId, e.getMessage());
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.banking_system.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * pg_trgm and the trigram indexes behind RecipientSearchService's substring and fuzzy matches.
+ * Where the database role may not create the extension, the migration logs that and leaves
+ * recipient search on its prefix strategy, which the text_pattern_ops indexes of V2 serve.
+ * The indexes are built CONCURRENTLY, so this migration runs outside a transaction.
+ */
+@Component
+@Slf4j
+public class V1_9__Recipient_search_trigram_indexes extends BaseJavaMigration {
+
+    private static final String INSUFFICIENT_PRIVILEGE = "42501";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            try {
+                statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            } catch (SQLException e) {
+                if (!INSUFFICIENT_PRIVILEGE.equals(e.getSQLState())) {
+                    throw e;
+                }
+                log.warn("Not allowed to create pg_trgm; recipient search stays on prefix matching: {}", e.getMessage());
+                return;
+            }
+            statement.execute("""
+                    CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm
+                        ON users USING gin (lower(name) gin_trgm_ops)
+                    """);
+            statement.execute("""
+                    CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_phone_trgm
+                        ON users USING gin (phone gin_trgm_ops)
+                    """);
+        }
+    }
+}
@@ -16,7 +16,8 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
-public interface AccountRepository extends JpaRepository<Account, Long>, JpaSpecificationExecutor<Account> {
+public interface AccountRepository extends JpaRepository<Account, Long>, JpaSpecificationExecutor<Account>,
+        AccountSearchRepository {
 
     Account findById(long id);
     // Find an account by its balance
@@ -63,39 +64,52 @@ public interface AccountRepository extends JpaRepository<Account, Long>, JpaSpec
         @Param("end") BigDecimal end
     );
 
-    @Query(
-            "SELECT a FROM Account a JOIN a.user u " +
-                    "WHERE (:status IS NULL OR a.verificationStatus = :status) " +
-                    "AND (:q IS NULL OR " +
-                    "CAST(a.accountNumber AS string) LIKE CONCAT('%', CAST(:q AS string), '%') OR " +
-                    "LOWER(u.email) LIKE LOWER(CONCAT('%', CAST(:q AS string), '%')) OR " +
-                    "LOWER(u.name) LIKE LOWER(CONCAT('%', CAST(:q AS string), '%'))" +
-                    ")"
-    )
-    List<Account> searchAccounts(
-            @Param("status") VerificationStatus status,
-            @Param("q") String q
-    );
+    /**
+     * Account count per verification status. Each row is [status, count].
+     */
+    @Query("SELECT a.verificationStatus, COUNT(a) FROM Account a GROUP BY a.verificationStatus")
+    List<Object[]> countGroupedByStatus();
 
-        @Query("SELECT a FROM Account a JOIN a.user u " +
-            "WHERE a.verificationStatus = :status " +
-            "AND (a.accountNumber LIKE CONCAT('%', :q, '%') OR u.phone LIKE CONCAT('%', :q, '%'))")
-        Page<Account> searchRecipientsByAccountOrPhone(
-            @Param("status") VerificationStatus status,
+    /**
+     * Prefix-only recipient candidates; every predicate can use a text_pattern_ops index
+     * except the word prefix on the name. Each row is [accountNumber, name, phone, userId, photoVersion].
+     * Ordered exact, then prefix, then word prefix, so the page keeps the best matches.
+     * Used by {@link com.example.banking_system.service.RecipientSearchService} when pg_trgm is unavailable.
+     */
+    @Query("""
+                SELECT a.accountNumber, u.name, u.phone, u.id, u.profilePhotoVersion
+                FROM Account a JOIN a.user u
+                WHERE a.verificationStatus <> :excluded
+                AND (a.accountNumber LIKE :prefix
+                     OR u.phone LIKE :prefix
+                     OR LOWER(u.name) LIKE :prefix
+                     OR LOWER(u.name) LIKE :wordPrefix)
+                ORDER BY CASE WHEN a.accountNumber = :q OR u.phone = :q OR LOWER(u.name) = :q THEN 0
+                              WHEN a.accountNumber LIKE :prefix OR u.phone LIKE :prefix OR LOWER(u.name) LIKE :prefix THEN 1
+                              ELSE 2 END,
+                         LOWER(u.name)
+            """)
+    List<Object[]> findRecipientCandidates(
+            @Param("excluded") VerificationStatus excluded,
             @Param("q") String q,
+            @Param("prefix") String prefix,
+            @Param("wordPrefix") String wordPrefix,
             Pageable pageable
-        );
+    );
 
-        @Query("SELECT a FROM Account a JOIN a.user u " +
-            "WHERE a.verificationStatus = :status " +
-            "AND LOWER(u.name) LIKE LOWER(CONCAT('%', :q, '%'))")
-        Page<Account> searchRecipientsByName(
-            @Param("status") VerificationStatus status,
-            @Param("q") String q,
-            Pageable pageable
-        );
 
 
+    /**
+     * Keyset page of working balances by id. Each row is [id, accountNumber, balance, overdraftUsed].
+     * Used by the ledger reconciliation in {@link com.example.banking_system.service.LedgerService}.
+     */
+    @Query("""
+                SELECT a.id, a.accountNumber, a.balance, a.overdraftUsed
+                FROM Account a
+                WHERE a.id > :afterId AND a.accountNumber IS NOT NULL
+                ORDER BY a.id
+            """)
+    List<Object[]> findBalancePage(@Param("afterId") Long afterId, Pageable pageable);
 
     long countByVerificationStatus(VerificationStatus status);
 }
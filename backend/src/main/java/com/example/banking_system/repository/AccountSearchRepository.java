@@ -0,0 +1,23 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.dto.AdminAccountDto;
+import com.example.banking_system.enums.AdminAccountSort;
+import com.example.banking_system.enums.VerificationStatus;
+
+import java.util.List;
+
+/**
+ * Custom fragment of {@link AccountRepository} for the admin account search, whose
+ * predicates and keyset ordering depend on the requested sort key.
+ */
+public interface AccountSearchRepository {
+
+    /**
+     * Projection query returning at most {@code limit} rows after the keyset position
+     * ({@code afterValue}, {@code afterId}); pass nulls for the first page.
+     * {@code prefix} is matched as a prefix of account number, email, name or any word of the name.
+     */
+    List<AdminAccountDto> searchAdminAccounts(VerificationStatus status, String prefix,
+                                              AdminAccountSort sort, boolean ascending,
+                                              Object afterValue, Long afterId, int limit);
+}
@@ -0,0 +1,123 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.dto.AdminAccountDto;
+import com.example.banking_system.entity.Account;
+import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.AdminAccountSort;
+import com.example.banking_system.enums.VerificationStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AccountSearchRepositoryImpl implements AccountSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rows are ordered by the raw sort column, NULLS LAST in both directions, then by id. The non-null
+     * and null rows are read as two segments so each keyset predicate stays a plain range on a
+     * (column, id) index: the non-null segment is bounded by {@code key >= value} (or {@code <=}),
+     * and the null segment, which continues it, by id alone.
+     */
+    @Override
+    public List<AdminAccountDto> searchAdminAccounts(VerificationStatus status, String prefix,
+                                                     AdminAccountSort sort, boolean ascending,
+                                                     Object afterValue, Long afterId, int limit) {
+        boolean cursorInNulls = afterId != null && afterValue == null;
+        List<AdminAccountDto> rows = new ArrayList<>(limit);
+        if (!cursorInNulls) {
+            rows.addAll(segment(status, prefix, sort, ascending, false, afterValue, afterId, limit));
+        }
+        if (rows.size() < limit) {
+            rows.addAll(segment(status, prefix, sort, ascending, true, null,
+                    cursorInNulls ? afterId : null, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<AdminAccountDto> segment(VerificationStatus status, String prefix,
+                                          AdminAccountSort sort, boolean ascending, boolean nullKeys,
+                                          Object afterValue, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdminAccountDto> query = cb.createQuery(AdminAccountDto.class);
+        Root<Account> account = query.from(Account.class);
+        Join<Account, User> user = account.join("user", JoinType.LEFT);
+
+        query.select(cb.construct(AdminAccountDto.class,
+                account.get("id"),
+                account.get("accountNumber"),
+                account.get("balance"),
+                account.get("verificationStatus"),
+                account.get("accountType"),
+                account.get("interestRate"),
+                account.get("createdAt"),
+                user.get("id"),
+                user.get("name"),
+                user.get("email"),
+                user.get("phone"),
+                user.get("role")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(account.get("verificationStatus"), status));
+        }
+        if (prefix != null) {
+            // Prefix predicates only, so text_pattern_ops indexes apply
+            predicates.add(cb.or(
+                    cb.like(account.get("accountNumber"), prefix + "%"),
+                    cb.like(cb.lower(user.get("email")), prefix + "%"),
+                    cb.like(cb.lower(user.get("name")), prefix + "%"),
+                    cb.like(cb.lower(user.get("name")), "% " + prefix + "%")
+            ));
+        }
+
+        Path<Long> id = account.get("id");
+        Path sortKey = sortPath(account, user, sort);
+        if (nullKeys) {
+            predicates.add(cb.isNull(sortKey));
+            if (afterId != null) {
+                predicates.add(ascending ? cb.greaterThan(id, afterId) : cb.lessThan(id, afterId));
+            }
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            predicates.add(cb.isNotNull(sortKey));
+            if (afterId != null) {
+                Comparable value = (Comparable) afterValue;
+                // The first conjunct bounds the index range; the second skips the ties already returned
+                predicates.add(ascending ? cb.greaterThanOrEqualTo(sortKey, value) : cb.lessThanOrEqualTo(sortKey, value));
+                predicates.add(cb.or(
+                        ascending ? cb.greaterThan(sortKey, value) : cb.lessThan(sortKey, value),
+                        ascending ? cb.greaterThan(id, afterId) : cb.lessThan(id, afterId)
+                ));
+            }
+            query.orderBy(
+                    ascending ? cb.asc(sortKey) : cb.desc(sortKey),
+                    ascending ? cb.asc(id) : cb.desc(id));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static Path<?> sortPath(Root<Account> account, Join<Account, User> user, AdminAccountSort sort) {
+        return switch (sort) {
+            case CREATED -> account.get("createdAt");
+            case ACCOUNT_NUMBER -> account.get("accountNumber");
+            case BALANCE -> account.get("balance");
+            case NAME -> user.get("name");
+        };
+    }
+}
@@ -2,18 +2,23 @@ package com.example.banking_system.repository;
 
 import com.example.banking_system.entity.AuditLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, JpaSpecificationExecutor<AuditLog> {
     List<AuditLog> findTop100ByOrderByCreatedAtDesc();
     List<AuditLog> findTop100ByActorEmailOrderByCreatedAtDesc(String actorEmail);
     List<AuditLog> findTop100ByActionOrderByCreatedAtDesc(String action);
     List<AuditLog> findTop100ByTargetTypeOrderByCreatedAtDesc(String targetType);
 
-    long deleteByTargetTypeAndTargetId(String targetType, String targetId);
+    /**
+     * Bulk delete served by idx_audit_target, without loading each row first.
+     */
+    @Modifying
+    @Query("DELETE FROM AuditLog a WHERE a.targetType = :targetType AND a.targetId = :targetId")
+    int deleteByTargetTypeAndTargetId(@Param("targetType") String targetType, @Param("targetId") String targetId);
 }
-
-
-
-
@@ -1,5 +1,6 @@
 package com.example.banking_system.repository;
 
+import com.example.banking_system.dto.BeneficiaryDto;
 import com.example.banking_system.entity.Beneficiary;
 import com.example.banking_system.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,8 +13,6 @@ import java.util.Optional;
 @Repository
 public interface BeneficiaryRepository extends JpaRepository<Beneficiary, Long> {
 
-    List<Beneficiary> findByUserAndIsActiveTrueOrderByIsFavoriteDescLastUsedAtDesc(User user);
-
     List<Beneficiary> findByUserOrderByTransferCountDesc(User user);
 
     Optional<Beneficiary> findByUserAndBeneficiaryAccountNumber(User user, String beneficiaryAccountNumber);
@@ -24,13 +23,40 @@ public interface BeneficiaryRepository extends JpaRepository<Beneficiary, Long>
 
     Optional<Beneficiary> findByUserAndBeneficiaryAccountNumberAndIsActiveFalse(User user, String beneficiaryAccountNumber);
 
-    List<Beneficiary> findByUserAndIsFavoriteTrueAndIsActiveTrue(User user);
-
-    @Query("SELECT b FROM Beneficiary b WHERE b.user = ?1 AND b.isActive = true AND " +
-           "(LOWER(b.beneficiaryName) LIKE LOWER(CONCAT('%', ?2, '%')) OR " +
-           "b.beneficiaryAccountNumber LIKE CONCAT('%', ?2, '%') OR " +
-           "LOWER(b.nickname) LIKE LOWER(CONCAT('%', ?2, '%')))")
-    List<Beneficiary> searchBeneficiaries(User user, String searchTerm);
+    long countByUserAndIsFavoriteTrueAndIsActiveTrue(User user);
 
     long countByUser(User user);
+
+    // Read-only list projections for the owner; filter on the FK so the User row is never joined
+
+    @Query("""
+            SELECT new com.example.banking_system.dto.BeneficiaryDto(
+                b.id, b.beneficiaryAccountNumber, b.beneficiaryName, b.nickname, b.bankName, b.ifscCode,
+                b.isActive, b.isFavorite, b.lastUsedAt, b.transferCount, b.createdAt, b.updatedAt)
+            FROM Beneficiary b
+            WHERE b.user.id = :userId AND b.isActive = true
+            ORDER BY b.isFavorite DESC, b.lastUsedAt DESC
+            """)
+    List<BeneficiaryDto> findActiveViewsByUserId(Long userId);
+
+    @Query("""
+            SELECT new com.example.banking_system.dto.BeneficiaryDto(
+                b.id, b.beneficiaryAccountNumber, b.beneficiaryName, b.nickname, b.bankName, b.ifscCode,
+                b.isActive, b.isFavorite, b.lastUsedAt, b.transferCount, b.createdAt, b.updatedAt)
+            FROM Beneficiary b
+            WHERE b.user.id = :userId AND b.isActive = true AND b.isFavorite = true
+            """)
+    List<BeneficiaryDto> findFavoriteViewsByUserId(Long userId);
+
+    @Query("""
+            SELECT new com.example.banking_system.dto.BeneficiaryDto(
+                b.id, b.beneficiaryAccountNumber, b.beneficiaryName, b.nickname, b.bankName, b.ifscCode,
+                b.isActive, b.isFavorite, b.lastUsedAt, b.transferCount, b.createdAt, b.updatedAt)
+            FROM Beneficiary b
+            WHERE b.user.id = :userId AND b.isActive = true AND
+                  (LOWER(b.beneficiaryName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR
+                   b.beneficiaryAccountNumber LIKE CONCAT('%', :searchTerm, '%') OR
+                   LOWER(b.nickname) LIKE LOWER(CONCAT('%', :searchTerm, '%')))
+            """)
+    List<BeneficiaryDto> searchViewsByUserId(Long userId, String searchTerm);
 }
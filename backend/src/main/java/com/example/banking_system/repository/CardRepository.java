@@ -28,8 +28,6 @@ public interface CardRepository extends JpaRepository<Card, Long> {
 
     boolean existsByUserAndCardType(User user, CardType cardType);
 
-    boolean existsByCardNumber(String cardNumber);
-
     List<Card> findByExpiryDateBeforeAndStatus(LocalDate date, CardStatus status);
 
     @Query("SELECT c FROM Card c WHERE c.user = ?1 AND c.status = 'ACTIVE'")
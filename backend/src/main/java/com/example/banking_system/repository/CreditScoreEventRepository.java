@@ -0,0 +1,42 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.entity.CreditScoreEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CreditScoreEventRepository extends JpaRepository<CreditScoreEvent, Long> {
+
+    /**
+     * Claim all unapplied events for a batch. Row locks taken by the UPDATE
+     * keep two concurrent appliers from folding the same event twice.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+                UPDATE CreditScoreEvent e
+                SET e.batchId = :batchId, e.appliedAt = :appliedAt
+                WHERE e.appliedAt IS NULL
+            """)
+    int claimPending(
+            @Param("batchId") String batchId,
+            @Param("appliedAt") LocalDateTime appliedAt
+    );
+
+    /**
+     * Net delta and event count per user for a claimed batch.
+     * Each row is [userId, sum(delta), count].
+     */
+    @Query("""
+                SELECT e.userId, SUM(e.delta), COUNT(e)
+                FROM CreditScoreEvent e
+                WHERE e.batchId = :batchId
+                GROUP BY e.userId
+            """)
+    List<Object[]> sumDeltasByUser(@Param("batchId") String batchId);
+
+    long countByAppliedAtIsNullAndUserId(Long userId);
+}
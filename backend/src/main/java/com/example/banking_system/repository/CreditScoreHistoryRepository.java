@@ -0,0 +1,11 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.entity.CreditScoreHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface CreditScoreHistoryRepository extends JpaRepository<CreditScoreHistory, Long> {
+
+    List<CreditScoreHistory> findTop50ByUserIdOrderByAppliedAtDesc(Long userId);
+}
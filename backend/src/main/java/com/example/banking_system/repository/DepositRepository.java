@@ -1,5 +1,6 @@
 package com.example.banking_system.repository;
 
+import com.example.banking_system.dto.DepositResponseDto;
 import com.example.banking_system.entity.DepositRequest;
 import com.example.banking_system.enums.DepositStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,11 +11,25 @@ import java.util.List;
 
 public interface DepositRepository extends JpaRepository<DepositRequest,Long> {
 
-    @Query("SELECT d FROM DepositRequest d JOIN FETCH d.account WHERE d.status = :status")
-    List<DepositRequest> findByStatus(@Param("status") DepositStatus status);
-
-    @Query("SELECT d FROM DepositRequest d JOIN FETCH d.account")
-    List<DepositRequest> findAllWithAccount();
+    /**
+     * Admin deposit list as projections; reads only the request row and the account number.
+     */
+    @Query("""
+            SELECT new com.example.banking_system.dto.DepositResponseDto(
+                d.id, d.amount, a.accountNumber, d.refferenceNumber, d.status, d.depositDate)
+            FROM DepositRequest d JOIN d.account a
+            WHERE d.status = :status
+            ORDER BY d.depositDate DESC
+            """)
+    List<DepositResponseDto> findResponsesByStatus(@Param("status") DepositStatus status);
+
+    @Query("""
+            SELECT new com.example.banking_system.dto.DepositResponseDto(
+                d.id, d.amount, a.accountNumber, d.refferenceNumber, d.status, d.depositDate)
+            FROM DepositRequest d JOIN d.account a
+            ORDER BY d.depositDate DESC
+            """)
+    List<DepositResponseDto> findAllResponses();
 
     long countByStatus(DepositStatus status);
 
@@ -20,9 +20,9 @@ public interface KycDetailsRepository extends JpaRepository<KycDetails, Long> {
 
         @Query("select new com.example.banking_system.dto.KycDetailsAdminDto(" +
             "k.account.accountNumber, k.aadharNumber, k.panNumber, k.address, " +
-            "(case when k.kycPdf is not null then true else false end), " +
-            "(case when k.aadharDocument is not null then true else false end), " +
-            "(case when k.panDocument is not null then true else false end), " +
+            "(case when k.kycPdfKey is not null then true else false end), " +
+            "(case when k.aadharKey is not null then true else false end), " +
+            "(case when k.panKey is not null then true else false end), " +
             "k.uploadedAt) " +
             "from KycDetails k where k.account.accountNumber = :accountNumber")
     Optional<KycDetailsAdminDto> findAdminDtoByAccountNumber(@Param("accountNumber") String accountNumber);
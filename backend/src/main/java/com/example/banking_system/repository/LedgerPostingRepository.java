@@ -0,0 +1,63 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.entity.LedgerPosting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface LedgerPostingRepository extends JpaRepository<LedgerPosting, Long> {
+
+    /**
+     * Signed sum of each account's postings created at or after its latest snapshot, or since
+     * {@code epoch} when it has none. Each row is [accountNumber, delta]; accounts without such
+     * postings are left out.
+     */
+    @Query("""
+                SELECT p.accountNumber,
+                       SUM(CASE WHEN p.direction = com.example.banking_system.enums.PostingDirection.CREDIT
+                                THEN p.amount ELSE -p.amount END)
+                FROM LedgerPosting p
+                WHERE p.accountNumber IN :accountNumbers
+                AND p.createdAt >= COALESCE(
+                    (SELECT MAX(s.postedBefore) FROM LedgerSnapshot s WHERE s.accountNumber = p.accountNumber),
+                    :epoch)
+                GROUP BY p.accountNumber
+            """)
+    List<Object[]> sumSinceLatestSnapshot(
+            @Param("accountNumbers") Collection<String> accountNumbers,
+            @Param("epoch") LocalDateTime epoch
+    );
+
+    /**
+     * Signed per-account deltas for postings created in [from, until).
+     * Each row is [accountNumber, delta].
+     */
+    @Query("""
+                SELECT p.accountNumber,
+                       SUM(CASE WHEN p.direction = com.example.banking_system.enums.PostingDirection.CREDIT
+                                THEN p.amount ELSE -p.amount END)
+                FROM LedgerPosting p
+                WHERE p.createdAt >= :from AND p.createdAt < :until
+                GROUP BY p.accountNumber
+            """)
+    List<Object[]> sumDeltasBetween(
+            @Param("from") LocalDateTime from,
+            @Param("until") LocalDateTime until
+    );
+
+    /**
+     * Age in seconds of the oldest open transaction on this database (0 when there is none).
+     * PostgreSQL only.
+     */
+    @Query(value = """
+                SELECT CAST(COALESCE(EXTRACT(EPOCH FROM clock_timestamp() - MIN(xact_start)), 0) AS double precision)
+                FROM pg_stat_activity
+                WHERE datname = current_database() AND xact_start IS NOT NULL
+            """, nativeQuery = true)
+    Double findOldestOpenTransactionAgeSeconds();
+}
@@ -0,0 +1,38 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.entity.LedgerShardBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface LedgerShardBalanceRepository extends JpaRepository<LedgerShardBalance, Long> {
+
+    /**
+     * Atomic increment of one shard row; only that row is locked.
+     */
+    @Modifying
+    @Query(value = """
+                UPDATE ledger_shard_balances SET balance = balance + :amount
+                WHERE account_number = :accountNumber AND shard = :shard
+            """, nativeQuery = true)
+    int addToShard(
+            @Param("accountNumber") String accountNumber,
+            @Param("shard") Integer shard,
+            @Param("amount") BigDecimal amount
+    );
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM LedgerShardBalance s WHERE s.accountNumber = :accountNumber ORDER BY s.shard")
+    List<LedgerShardBalance> findAllForUpdate(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM LedgerShardBalance s WHERE s.accountNumber = :accountNumber")
+    BigDecimal sumUnfolded(@Param("accountNumber") String accountNumber);
+
+    long countByAccountNumber(String accountNumber);
+}
@@ -0,0 +1,29 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.entity.LedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long> {
+
+    @Query("SELECT MAX(s.postedBefore) FROM LedgerSnapshot s")
+    LocalDateTime findGlobalWatermark();
+
+    /**
+     * Latest snapshot per account for the given accounts.
+     */
+    @Query("""
+                SELECT s FROM LedgerSnapshot s
+                WHERE s.accountNumber IN :accountNumbers
+                AND s.postedBefore = (
+                    SELECT MAX(s2.postedBefore) FROM LedgerSnapshot s2
+                    WHERE s2.accountNumber = s.accountNumber
+                )
+            """)
+    List<LedgerSnapshot> findLatestFor(@Param("accountNumbers") Collection<String> accountNumbers);
+}
@@ -1,5 +1,6 @@
 package com.example.banking_system.repository;
 
+import com.example.banking_system.dto.LoanSummaryRow;
 import com.example.banking_system.entity.LoanRequest;
 import com.example.banking_system.entity.User;
 import com.example.banking_system.enums.LoanStatus;
@@ -22,11 +23,27 @@ public interface LoanRepo extends JpaRepository<LoanRequest, Long> {
     // For example, to find loans by status or account number
 
 
-    @Query("SELECT l FROM LoanRequest l JOIN FETCH l.bankAccount a JOIN FETCH a.user WHERE l.status = :status")
-    List<LoanRequest> findByStatus(LoanStatus status);
-
-    @Query("SELECT l FROM LoanRequest l JOIN FETCH l.bankAccount a JOIN FETCH a.user ORDER BY l.requestDate DESC")
-    List<LoanRequest> findAllWithAccountAndUser();
+    /**
+     * Admin loan list as projections; reads only the loan row and the account number.
+     */
+    @Query("""
+            SELECT new com.example.banking_system.dto.LoanSummaryRow(
+                l.id, a.accountNumber, l.amount, l.tenureInMonths, l.interestRate, l.status,
+                l.requestDate, l.approvalDate, l.maturityDate, l.reason, l.adminRemark, l.emisPaid)
+            FROM LoanRequest l JOIN l.bankAccount a
+            WHERE l.status = :status
+            ORDER BY l.requestDate DESC
+            """)
+    List<LoanSummaryRow> findSummariesByStatus(LoanStatus status);
+
+    @Query("""
+            SELECT new com.example.banking_system.dto.LoanSummaryRow(
+                l.id, a.accountNumber, l.amount, l.tenureInMonths, l.interestRate, l.status,
+                l.requestDate, l.approvalDate, l.maturityDate, l.reason, l.adminRemark, l.emisPaid)
+            FROM LoanRequest l JOIN l.bankAccount a
+            ORDER BY l.requestDate DESC
+            """)
+    List<LoanSummaryRow> findAllSummaries();
 
     @Query("SELECT l FROM LoanRequest l JOIN FETCH l.bankAccount a JOIN FETCH a.user WHERE l.bankAccount.accountNumber = :accountNumber")
     List<LoanRequest> findByBankAccount_AccountNumber(String accountNumber);
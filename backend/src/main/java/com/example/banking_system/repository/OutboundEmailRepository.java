@@ -0,0 +1,62 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.entity.OutboundEmail;
+import com.example.banking_system.enums.EmailStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    /**
+     * Due emails, most urgent first, row-locked until the caller's transaction ends.
+     * Rows another node is already sending are skipped rather than waited for.
+     */
+    @Query(value = """
+                SELECT * FROM email_outbox
+                WHERE status = 'PENDING' AND next_attempt_at <= :now
+                ORDER BY priority, id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboundEmail> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Sends used from the daily quota: delivered since {@code since}, or claimed and being sent now.
+     */
+    @Query("""
+                SELECT COUNT(e) FROM OutboundEmail e
+                WHERE (e.status = :sent AND e.sentAt >= :since) OR e.status = :sending
+            """)
+    long countQuotaUsed(@Param("since") LocalDateTime since,
+                        @Param("sent") EmailStatus sent,
+                        @Param("sending") EmailStatus sending);
+
+    /**
+     * Put rows whose sending node did not report back before the lease ran out back in the queue.
+     * The lost send counts as an attempt (it may have been delivered, or may crash the sender
+     * every time), so a row that keeps losing its lease ends up FAILED.
+     */
+    @Modifying
+    @Query(value = """
+                UPDATE email_outbox
+                SET status = CASE WHEN attempts + 1 >= :maxAttempts THEN 'FAILED' ELSE 'PENDING' END,
+                    attempts = attempts + 1,
+                    lease_until = NULL,
+                    next_attempt_at = :now,
+                    last_error = 'Lease expired before the send was recorded; it may have been delivered'
+                WHERE status = 'SENDING' AND lease_until < :now
+            """, nativeQuery = true)
+    int reclaimExpiredLeases(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query(value = """
+                DELETE FROM email_outbox WHERE id IN (
+                    SELECT id FROM email_outbox WHERE status = 'SENT' AND sent_at < :before LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteSentBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
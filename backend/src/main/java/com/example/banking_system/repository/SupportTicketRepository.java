@@ -1,20 +1,39 @@
 package com.example.banking_system.repository;
 
+import com.example.banking_system.dto.SupportTicketResponseDto;
 import com.example.banking_system.entity.SupportTicket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface SupportTicketRepository extends JpaRepository<SupportTicket, Long> {
     List<SupportTicket> findByUserEmailOrderByCreatedAtDesc(String userEmail);
     
-    // For excluding resolved/closed tickets from user view
-    List<SupportTicket> findByUserEmailAndStatusNotInOrderByCreatedAtDesc(String userEmail, List<String> excludedStatuses);
-    
     // For developer dashboard
     List<SupportTicket> findAllByOrderByCreatedAtDesc();
     List<SupportTicket> findByStatusOrderByCreatedAtDesc(String status);
 
+    @Query("""
+            SELECT new com.example.banking_system.dto.SupportTicketResponseDto(
+                t.id, t.userEmail, t.userName, t.accountNumber, t.category, t.subject,
+                t.description, t.priority, t.status, t.createdAt)
+            FROM SupportTicket t
+            ORDER BY t.createdAt DESC
+            """)
+    List<SupportTicketResponseDto> findAllResponses();
+
+    // For excluding resolved/closed tickets from user view
+    @Query("""
+            SELECT new com.example.banking_system.dto.SupportTicketResponseDto(
+                t.id, t.userEmail, t.userName, t.accountNumber, t.category, t.subject,
+                t.description, t.priority, t.status, t.createdAt)
+            FROM SupportTicket t
+            WHERE t.userEmail = :userEmail AND t.status NOT IN :excludedStatuses
+            ORDER BY t.createdAt DESC
+            """)
+    List<SupportTicketResponseDto> findResponsesByUserEmailExcludingStatuses(String userEmail, List<String> excludedStatuses);
+
     long deleteByAccountNumber(String accountNumber);
 }
 
@@ -0,0 +1,41 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.entity.TransactionArchiveBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TransactionArchiveBatchRepository extends JpaRepository<TransactionArchiveBatch, Long> {
+
+    @Query("""
+                SELECT b FROM TransactionArchiveBatch b
+                WHERE b.accountNumber = :accountNumber
+                AND b.periodStart BETWEEN :fromPeriod AND :toPeriod
+                AND b.sealed = true
+                ORDER BY b.periodStart DESC
+            """)
+    List<TransactionArchiveBatch> findForAccountBetween(
+            @Param("accountNumber") String accountNumber,
+            @Param("fromPeriod") LocalDate fromPeriod,
+            @Param("toPeriod") LocalDate toPeriod
+    );
+
+    @Query("SELECT MAX(b.periodStart) FROM TransactionArchiveBatch b WHERE b.sealed = true")
+    LocalDate findLatestArchivedPeriod();
+
+    boolean existsByPeriodStartAndSealedTrue(LocalDate periodStart);
+
+    /**
+     * Accounts already written for a month that is not sealed yet, so an interrupted run resumes.
+     */
+    @Query("SELECT b.accountNumber FROM TransactionArchiveBatch b WHERE b.periodStart = :periodStart")
+    List<String> findAccountNumbersByPeriodStart(@Param("periodStart") LocalDate periodStart);
+
+    @Modifying
+    @Query("UPDATE TransactionArchiveBatch b SET b.sealed = true WHERE b.periodStart = :periodStart")
+    int sealPeriod(@Param("periodStart") LocalDate periodStart);
+}
@@ -1,15 +1,20 @@
 package com.example.banking_system.repository;
 
 import com.example.banking_system.entity.Transaction;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
@@ -28,6 +33,29 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             Pageable pageable
     );
 
+    /**
+     * One page of a statement: the rows strictly older than the cursor {@code (lastTs, lastId)}.
+     * Keyset paging costs the same for the last page as for the first, and the id tie-breaker
+     * keeps rows with colliding timestamps from being skipped or repeated.
+     */
+    @Query("""
+                SELECT t FROM Transaction t
+                LEFT JOIN FETCH t.sourceAccount sa
+                LEFT JOIN FETCH t.destinationAccount da
+                WHERE (sa.accountNumber = :accountNumber OR da.accountNumber = :accountNumber)
+                AND t.timestamp BETWEEN :startDate AND :endDate
+                AND (t.timestamp, t.id) < (:lastTs, :lastId)
+                ORDER BY t.timestamp DESC, t.id DESC
+            """)
+    List<Transaction> findStatementPage(
+            @Param("accountNumber") String accountNumber,
+            @Param("startDate") LocalDateTime start,
+            @Param("endDate") LocalDateTime end,
+            @Param("lastTs") LocalDateTime lastTs,
+            @Param("lastId") Long lastId,
+            Pageable pageable
+    );
+
     @Query("""
                 SELECT COALESCE(SUM(t.amount), 0)
                 FROM Transaction t
@@ -172,9 +200,55 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("acc") String acc,
             @Param("from") LocalDateTime from
     );
-}
-
 
+    /**
+     * Keyset page of accounts that sent or received a transaction in [start, end), ordered by
+     * account number. Each row is [accountId, accountNumber].
+     */
+    @Query("""
+                SELECT a.id, a.accountNumber FROM Account a
+                WHERE a.accountNumber > :afterAccountNumber
+                AND (EXISTS (SELECT 1 FROM Transaction t WHERE t.sourceAccount = a
+                             AND t.timestamp >= :start AND t.timestamp < :end)
+                     OR EXISTS (SELECT 1 FROM Transaction t WHERE t.destinationAccount = a
+                                AND t.timestamp >= :start AND t.timestamp < :end))
+                ORDER BY a.accountNumber
+            """)
+    List<Object[]> findAccountsWithTransactionsBetween(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("afterAccountNumber") String afterAccountNumber,
+            Pageable pageable
+    );
 
+    /**
+     * Flat rows of one account for archiving a time window, without loading Account/User entities.
+     * Each row is [id, timestamp, sourceAccountNumber, destinationAccountNumber, amount, type, status].
+     * Streamed with a fetch size, so a busy account's month is never held in memory as rows.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+                SELECT t.id, t.timestamp, sa.accountNumber, da.accountNumber, t.amount, t.type, t.status
+                FROM Transaction t
+                LEFT JOIN t.sourceAccount sa
+                LEFT JOIN t.destinationAccount da
+                WHERE (t.sourceAccount.id = :accountId OR t.destinationAccount.id = :accountId)
+                AND t.timestamp >= :start AND t.timestamp < :end
+                ORDER BY t.timestamp DESC, t.id DESC
+            """)
+    Stream<Object[]> streamArchiveRows(
+            @Param("accountId") Long accountId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
 
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.timestamp >= :start AND t.timestamp < :end")
+    int deleteByTimestampRange(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
 
+    @Query("SELECT MIN(t.timestamp) FROM Transaction t")
+    LocalDateTime findEarliestTimestamp();
+}
@@ -3,10 +3,13 @@ package com.example.banking_system.repository;
 import com.example.banking_system.entity.User;
 import com.example.banking_system.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -69,8 +72,27 @@ public interface UserRepository extends JpaRepository<User, String> {
     @Query("SELECT c FROM users c")
     List<User> findAllUsers();
 
-}
-
+    /**
+     * Reads only id and credit score, so the rest of the entity is never loaded.
+     * Each row is [id, creditScore].
+     */
+    @Query("SELECT u.id, u.creditScore FROM users u WHERE u.id IN :ids")
+    List<Object[]> findCreditScoresByIds(@Param("ids") Collection<Long> ids);
 
+    /**
+     * Single-column update of a user's credit score without loading the entity.
+     * Pending changes are flushed first. The persistence context is left alone so a batch can
+     * issue many of these; the caller clears it once afterwards, so a managed {@code User}
+     * cannot keep serving the old score.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE users u SET u.creditScore = :score WHERE u.id = :id")
+    int updateCreditScore(@Param("id") Long id, @Param("score") Integer score);
 
+    /**
+     * Current photo version for the photo endpoint; null when the user has no photo.
+     */
+    @Query("SELECT u.profilePhotoVersion FROM users u WHERE u.id = :id")
+    Optional<String> findProfilePhotoVersionById(@Param("id") Long id);
 
+}
@@ -5,32 +5,34 @@ import com.example.banking_system.entity.Account;
 import com.example.banking_system.entity.KycDetails;
 import com.example.banking_system.entity.User;
 import com.example.banking_system.enums.Role;
+import com.example.banking_system.enums.TransactionType;
 import com.example.banking_system.enums.VerificationStatus;
 import com.example.banking_system.exception.AccountStatusException;
 import com.example.banking_system.exception.KycProcessingException;
 import com.example.banking_system.exception.ResourceNotFoundException;
 import com.example.banking_system.repository.*;
-import com.lowagie.text.Document;
-import com.lowagie.text.Image;
-import com.lowagie.text.Paragraph;
-import com.lowagie.text.pdf.PdfWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -50,6 +52,10 @@ public class AccountService {
     private final AuditService auditService;
     private final UserRepository userRepository;
     private final CachedDataService cachedDataService;
+    private final LedgerService ledgerService;
+    private final DocumentStore documentStore;
+    private final PdfRenderService pdfRenderService;
+    private final RecipientSearchService recipientSearchService;
 
     /**
      * Get account by account number
@@ -58,7 +64,8 @@ public class AccountService {
         return cachedDataService.getAccountByNumber(accountNumber);
     }
 
-    public byte[] generatePdfAndSaveKycDetails(KycDetailsRequestDto kycDetailsRequestDto) {
+    public KycDocumentData generatePdfAndSaveKycDetails(KycDetailsRequestDto kycDetailsRequestDto) {
+        List<String> written = new ArrayList<>();
         try {
             log.info("Processing KYC for accountId={}", kycDetailsRequestDto.getAccountId());
             Account account = cachedDataService.getAccountByNumber(kycDetailsRequestDto.getAccountId());
@@ -71,48 +78,61 @@ public class AccountService {
 
                 KycDetails kycDetails = kycDetailsRepository.findByAccount_AccountNumber(kycDetailsRequestDto.getAccountId())
                     .orElseGet(KycDetails::new);
+                List<String> previousKeys = kycDocumentKeys(kycDetails);
                 kycDetails.setAccount(account);
                 kycDetails.setAadharNumber(kycDetailsRequestDto.getAadharNumber());
                 kycDetails.setPanNumber(kycDetailsRequestDto.getPanNumber());
                 kycDetails.setAddress(kycDetailsRequestDto.getAddress());
                 kycDetails.setUploadedAt(LocalDateTime.now());
 
-            byte[] pdf;
-            try {
-                pdf = generatePdf(kycDetailsRequestDto);
-            } catch (Exception e) {
-                throw new KycProcessingException("Failed to generate KYC PDF", e);
-            }
-
-            kycDetails.setKycPdf(pdf);
+            // Each submission gets fresh keys so a failed save never clobbers the documents under review
+            String prefix = "kyc/" + account.getAccountNumber() + "/" + UUID.randomUUID() + "/";
             try {
                 if (kycDetailsRequestDto.getAadharDocument() != null && !kycDetailsRequestDto.getAadharDocument().isEmpty()) {
-                    byte[] aadharBytes = kycDetailsRequestDto.getAadharDocument().getBytes();
-                    kycDetails.setAadharDocument(aadharBytes);
-                    kycDetails.setAadharContentType(kycDetailsRequestDto.getAadharDocument().getContentType());
-                    log.info("Aadhaar document received size={} contentType={}",
-                            aadharBytes.length, kycDetailsRequestDto.getAadharDocument().getContentType());
+                    StoredDocument aadhar = storeUpload(prefix + "aadhar", kycDetailsRequestDto.getAadharDocument());
+                    written.add(aadhar.getKey());
+                    kycDetails.setAadharKey(aadhar.getKey());
+                    kycDetails.setAadharSize(aadhar.getSize());
+                    kycDetails.setAadharSha256(aadhar.getSha256());
+                    kycDetails.setAadharContentType(aadhar.getContentType());
+                    log.info("Aadhaar document stored size={} contentType={}", aadhar.getSize(), aadhar.getContentType());
                 } else {
                     log.warn("Aadhaar document missing or empty for accountId={}", kycDetailsRequestDto.getAccountId());
                 }
                 if (kycDetailsRequestDto.getPanDocument() != null && !kycDetailsRequestDto.getPanDocument().isEmpty()) {
-                    byte[] panBytes = kycDetailsRequestDto.getPanDocument().getBytes();
-                    kycDetails.setPanDocument(panBytes);
-                    kycDetails.setPanContentType(kycDetailsRequestDto.getPanDocument().getContentType());
-                    log.info("PAN document received size={} contentType={}",
-                            panBytes.length, kycDetailsRequestDto.getPanDocument().getContentType());
+                    StoredDocument pan = storeUpload(prefix + "pan", kycDetailsRequestDto.getPanDocument());
+                    written.add(pan.getKey());
+                    kycDetails.setPanKey(pan.getKey());
+                    kycDetails.setPanSize(pan.getSize());
+                    kycDetails.setPanSha256(pan.getSha256());
+                    kycDetails.setPanContentType(pan.getContentType());
+                    log.info("PAN document stored size={} contentType={}", pan.getSize(), pan.getContentType());
                 } else {
                     log.warn("PAN document missing or empty for accountId={}", kycDetailsRequestDto.getAccountId());
                 }
             } catch (Exception e) {
-                throw new KycProcessingException("Failed to read KYC documents", e);
+                throw new KycProcessingException("Failed to store KYC documents", e);
+            }
+
+            StoredDocument pdf;
+            try {
+                pdf = documentStore.write(prefix + "kyc.pdf", MediaType.APPLICATION_PDF_VALUE,
+                        out -> pdfRenderService.writeKyc(out, kycDetailsRequestDto, kycDetails));
+                written.add(pdf.getKey());
+            } catch (Exception e) {
+                throw new KycProcessingException("Failed to generate KYC PDF", e);
             }
+            kycDetails.setKycPdfKey(pdf.getKey());
+            kycDetails.setKycPdfSize(pdf.getSize());
+            kycDetails.setKycPdfSha256(pdf.getSha256());
 
             try {
                 kycDetailsRepository.save(kycDetails);
             } catch (Exception e) {
                 throw new KycProcessingException("Database error while saving KYC", e);
             }
+            written.clear();
+            deleteAfterCommit(previousKeys);
 
             try {
                 notificationService.sendNotification(account.getUser().getEmail(),
@@ -128,46 +148,49 @@ public class AccountService {
             auditService.record("KYC_SUBMIT", "ACCOUNT", kycDetailsRequestDto.getAccountId(), "PENDING",
                     "KYC submitted");
 
-            return pdf;
+            return new KycDocumentData(pdf.getKey(), pdf.getContentType(), "kyc.pdf", pdf.getSize(), pdf.getSha256());
 
         } catch (KycProcessingException e) {
             log.warn("KYC processing failed: {}", e.getMessage());
+            written.forEach(documentStore::delete);
             throw e; // Let GlobalExceptionHandler handle it
         } catch (Exception e) {
             log.error("Unexpected error during KYC processing", e);
+            written.forEach(documentStore::delete);
             throw new KycProcessingException("Unexpected error during KYC processing", e);
         }
     }
 
-    private byte[] generatePdf(KycDetailsRequestDto kycDetailsRequestDto) throws Exception{
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        Document  document = new Document();
-        PdfWriter.getInstance(document, byteArrayOutputStream);
-        document.open();
-
-        document.add(new Paragraph("Account Kyc Details"));
-        document.add(new Paragraph("----------------------------------------------------"));
-        document.add(new Paragraph("Account Number: "+ kycDetailsRequestDto.getAccountId()));
-        document.add(new Paragraph("Account Pan Number: "+ kycDetailsRequestDto.getPanNumber()));
-        document.add(new Paragraph("Account Address: "+ kycDetailsRequestDto.getAddress()));
-        document.add(new Paragraph("\nAttached Documents:"));
-
-        MultipartFile aadhar = kycDetailsRequestDto.getAadharDocument();
-        MultipartFile pan = kycDetailsRequestDto.getPanDocument();
-        if(!aadhar.isEmpty() && Objects.requireNonNull(aadhar.getContentType()).startsWith("image")){
-            Image image = Image.getInstance(aadhar.getBytes());
-            image.scaleToFit(400, 400);
-            document.add(new Paragraph("\nAadhar Document:"));
-            document.add(image);
+    /**
+     * Delete stored documents once the surrounding transaction commits, so a rollback leaves
+     * the rows and their files together. Without a transaction the rows are already gone.
+     */
+    private void deleteAfterCommit(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
         }
-        if(!pan.isEmpty() && Objects.requireNonNull(pan.getContentType()).startsWith("image")){
-            Image image = Image.getInstance(pan.getBytes());
-            image.scaleToFit(400, 400);
-            document.add(new Paragraph("\nPAN Document:"));
-            document.add(image);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            keys.forEach(documentStore::delete);
+            return;
         }
-        document.close();
-        return byteArrayOutputStream.toByteArray();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                keys.forEach(documentStore::delete);
+            }
+        });
+    }
+
+    private StoredDocument storeUpload(String key, MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return documentStore.put(key, in, file.getContentType());
+        }
+    }
+
+    private static List<String> kycDocumentKeys(KycDetails kyc) {
+        return Stream.of(kyc.getKycPdfKey(), kyc.getAadharKey(), kyc.getPanKey())
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Transactional
@@ -206,6 +229,9 @@ public class AccountService {
             }
 
             // Delete account-related data
+            List<String> kycKeys = kycDetailsRepository.findByAccount_AccountNumber(accountNumber)
+                    .map(AccountService::kycDocumentKeys)
+                    .orElse(List.of());
             kycDetailsRepository.deleteByAccount_AccountNumber(accountNumber);
             depositRepository.deleteByAccount_AccountNumber(accountNumber);
             loanRepo.deleteByBankAccount_AccountNumber(accountNumber);
@@ -219,6 +245,7 @@ public class AccountService {
 
             // Finally delete the account
             accountRepository.delete(account);
+            deleteAfterCommit(kycKeys);
 
             auditService.recordSystem("ACCOUNT_DELETE", "ACCOUNT", accountNumber, "DELETED",
                     "Account disabled and data removed");
@@ -227,6 +254,7 @@ public class AccountService {
 
         account.setVerificationStatus(verificationStatus);
         accountRepository.save(account);
+        recipientSearchService.invalidate();
         
         // Evict cache to ensure fresh data on next fetch
         cachedDataService.evictAccountCache(accountNumber);
@@ -279,32 +307,6 @@ public class AccountService {
         return true;
     }
 
-    // Note: Not caching admin list to avoid serialization issues and ensure fresh data
-    public List<AdminAccountDto> listAccountsForAdmin(String status, String q) {
-        VerificationStatus verificationStatus = null;
-        if (status != null && !status.isBlank() && !"ALL".equalsIgnoreCase(status)) {
-            verificationStatus = VerificationStatus.valueOf(status.toUpperCase());
-        }
-        String query = (q == null || q.isBlank()) ? null : q.trim();
-
-        return accountRepository.searchAccounts(verificationStatus, query)
-                .stream()
-                .map(account -> new AdminAccountDto(
-                        account.getId(),
-                        account.getAccountNumber(),
-                        account.getBalance(),
-                        account.getVerificationStatus(),
-                        account.getAccountType(),
-                        account.getInterestRate(),
-                        account.getUser() != null ? account.getUser().getId() : null,
-                        account.getUser() != null ? account.getUser().getName() : null,
-                        account.getUser() != null ? account.getUser().getEmail() : null,
-                        account.getUser() != null ? account.getUser().getPhone() : null,
-                        account.getUser() != null ? account.getUser().getRole() : null
-                ))
-                .toList();
-    }
-
     public KycDetailsAdminDto getKycDetailsForAdmin(String accountNumber) throws ResourceNotFoundException {
         Account account = cachedDataService.getAccountByNumber(accountNumber);
 
@@ -316,16 +318,17 @@ public class AccountService {
     }
 
     @Transactional(readOnly = true)
-    public byte[] getKycPdfForAdmin(String accountNumber) throws ResourceNotFoundException {
+    public KycDocumentData getKycPdfForAdmin(String accountNumber) throws ResourceNotFoundException {
         Optional<KycDetails> kycOpt = kycDetailsRepository.findByAccount_AccountNumber(accountNumber);
         if (kycOpt.isEmpty()) {
             throw new ResourceNotFoundException("KYC details not found for account");
         }
-        byte[] pdf = kycOpt.get().getKycPdf();
-        if (pdf == null || pdf.length == 0) {
+        KycDetails kyc = kycOpt.get();
+        if (kyc.getKycPdfKey() == null) {
             throw new ResourceNotFoundException("KYC PDF not available");
         }
-        return pdf;
+        return new KycDocumentData(kyc.getKycPdfKey(), MediaType.APPLICATION_PDF_VALUE, "kyc.pdf",
+                kyc.getKycPdfSize(), kyc.getKycPdfSha256());
     }
 
     @Transactional(readOnly = true)
@@ -336,68 +339,36 @@ public class AccountService {
         }
         KycDetails kyc = kycOpt.get();
         if ("aadhar".equalsIgnoreCase(type)) {
-            byte[] data = kyc.getAadharDocument();
-            if (data == null || data.length == 0) {
+            if (kyc.getAadharKey() == null) {
                 throw new ResourceNotFoundException("Aadhaar document not available");
             }
-            return new KycDocumentData(data, kyc.getAadharContentType(), "aadhar");
+            return new KycDocumentData(kyc.getAadharKey(), kyc.getAadharContentType(), "aadhar",
+                    kyc.getAadharSize(), kyc.getAadharSha256());
         }
         if ("pan".equalsIgnoreCase(type)) {
-            byte[] data = kyc.getPanDocument();
-            if (data == null || data.length == 0) {
+            if (kyc.getPanKey() == null) {
                 throw new ResourceNotFoundException("PAN document not available");
             }
-            return new KycDocumentData(data, kyc.getPanContentType(), "pan");
+            return new KycDocumentData(kyc.getPanKey(), kyc.getPanContentType(), "pan",
+                    kyc.getPanSize(), kyc.getPanSha256());
         }
         throw new ResourceNotFoundException("Unknown document type");
     }
 
-    public List<TransferRecipientDto> searchRecipients(String query) {
-        String q = query == null ? "" : query.trim();
-        if (q.isEmpty()) {
-            return List.of();
-        }
-        Pageable pageable = PageRequest.of(0, 8);
-        boolean isNumeric = Pattern.matches("\\d+", q);
-        List<Account> accounts;
-        
-        // Search for ALL accounts except SUSPENDED (include VERIFIED, PENDING, and ACTIVE)
-        if (isNumeric) {
-            accounts = accountRepository.findAll((root, query1, cb) -> {
-                return cb.and(
-                    cb.not(cb.equal(root.get("verificationStatus"), VerificationStatus.SUSPENDED)),
-                    cb.or(
-                        cb.like(root.get("accountNumber"), "%" + q + "%"),
-                        cb.like(root.get("user").get("phone"), "%" + q + "%")
-                    )
-                );
-            }, pageable).getContent();
-        } else {
-            accounts = accountRepository.findAll((root, query1, cb) -> {
-                return cb.and(
-                    cb.not(cb.equal(root.get("verificationStatus"), VerificationStatus.SUSPENDED)),
-                    cb.like(cb.lower(root.get("user").get("name")), "%" + q.toLowerCase() + "%")
-                );
-            }, pageable).getContent();
+    /**
+     * Open a stored KYC document for streaming to the client. The caller closes the stream.
+     */
+    public InputStream openKycDocument(KycDocumentData document) throws ResourceNotFoundException {
+        try {
+            return documentStore.open(document.getKey());
+        } catch (IOException e) {
+            log.error("KYC document missing from store key={}", document.getKey());
+            throw new ResourceNotFoundException("Document content not available");
         }
-        
-        return accounts.stream()
-                .map(acc -> {
-                    var builder = TransferRecipientDto.builder()
-                        .name(acc.getUser() != null ? acc.getUser().getName() : "-")
-                        .phone(acc.getUser() != null ? acc.getUser().getPhone() : "-")
-                        .accountNumber(acc.getAccountNumber())
-                        .bank("Bankwise");
-                    
-                    // Add profile photo if available
-                    if (acc.getUser() != null && acc.getUser().getProfilePhoto() != null) {
-                        builder.profilePhoto(java.util.Base64.getEncoder().encodeToString(acc.getUser().getProfilePhoto()));
-                        builder.profilePhotoContentType(acc.getUser().getProfilePhotoContentType());
-                    }
-                    
-                    return builder.build();
-                })
-                .toList();
+    }
+
+    public List<TransferRecipientDto> searchRecipients(String query) {
+        return recipientSearchService.search(query, RecipientSearchService.DEFAULT_LIMIT);
     }
 
     @Scheduled(cron = "0 0 1 1 * ?")
@@ -409,6 +380,10 @@ public class AccountService {
                 BigDecimal interest = account.getBalance().multiply(BigDecimal.valueOf(account.getInterestRate()));
                 account.setBalance(account.getBalance().add(interest));
                 accountRepository.save(account);
+                if (interest.signum() > 0) {
+                    ledgerService.record(LedgerService.INTEREST_EXPENSE, account.getAccountNumber(), interest,
+                            TransactionType.DEPOSIT, "INTEREST:" + YearMonth.now());
+                }
                 notificationService.sendNotification(account.getUser().getEmail(),
                         "Your monthly interest of " + interest + " has been credited to your account.");
             }
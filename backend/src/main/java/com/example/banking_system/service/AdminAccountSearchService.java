@@ -0,0 +1,129 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.AdminAccountDto;
+import com.example.banking_system.dto.AdminAccountPageDto;
+import com.example.banking_system.enums.AdminAccountSort;
+import com.example.banking_system.enums.VerificationStatus;
+import com.example.banking_system.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Paged admin account search.
+ * Rows are read as {@link AdminAccountDto} projections (no entities), filtered with prefix-only
+ * predicates and paged by keyset on (sort column, id) through an opaque cursor, so deep pages cost
+ * the same as the first one and nothing is cached per admin. Rows without a value for the sort
+ * column come last in either direction.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminAccountSearchService {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+
+    private final AccountRepository accountRepository;
+
+    @Transactional(readOnly = true)
+    public AdminAccountPageDto search(String status, String q, String sort, String direction,
+                                      String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        VerificationStatus verificationStatus = null;
+        if (status != null && !status.isBlank() && !"ALL".equalsIgnoreCase(status)) {
+            verificationStatus = VerificationStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        }
+        String prefix = normalize(q);
+
+        Cursor after = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+        AdminAccountSort sortKey;
+        boolean ascending;
+        if (after != null) {
+            // The cursor pins the ordering it was issued for
+            sortKey = after.sort();
+            ascending = after.ascending();
+        } else {
+            sortKey = sort == null || sort.isBlank()
+                    ? AdminAccountSort.CREATED
+                    : AdminAccountSort.valueOf(sort.toUpperCase(Locale.ROOT));
+            ascending = direction == null || direction.isBlank()
+                    ? sortKey != AdminAccountSort.CREATED
+                    : "ASC".equalsIgnoreCase(direction);
+        }
+
+        // Fetch one extra row to know whether another page exists, without a count query
+        List<AdminAccountDto> rows = accountRepository.searchAdminAccounts(verificationStatus, prefix,
+                sortKey, ascending,
+                after != null ? after.value() : null, after != null ? after.id() : null,
+                pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<AdminAccountDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? Cursor.from(sortKey, ascending, items.get(items.size() - 1)).encode() : null;
+        return new AdminAccountPageDto(items, nextCursor, hasMore, after == null ? statusCounts() : null);
+    }
+
+    private Map<VerificationStatus, Long> statusCounts() {
+        Map<VerificationStatus, Long> counts = new EnumMap<>(VerificationStatus.class);
+        for (Object[] row : accountRepository.countGroupedByStatus()) {
+            if (row[0] != null) {
+                counts.put((VerificationStatus) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    private static String normalize(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        String cleaned = q.trim().replaceAll("[%_\\\\]", "").toLowerCase(Locale.ROOT);
+        return cleaned.isEmpty() ? null : cleaned;
+    }
+
+    private record Cursor(AdminAccountSort sort, boolean ascending, Long id, Object value) {
+
+        static Cursor from(AdminAccountSort sort, boolean ascending, AdminAccountDto last) {
+            Object value = switch (sort) {
+                case CREATED -> last.getCreatedAt();
+                case ACCOUNT_NUMBER -> last.getAccountNumber();
+                case BALANCE -> last.getBalance();
+                case NAME -> last.getUserName();
+            };
+            return new Cursor(sort, ascending, last.getAccountId(), value);
+        }
+
+        String encode() {
+            // A null sort value (rows sorted last) is encoded by leaving the value part out
+            String raw = sort + "|" + (ascending ? "A" : "D") + "|" + id + (value != null ? "|" + value : "");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String encoded) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+                // The value goes last because names may contain the separator
+                String[] parts = raw.split("\\|", 4);
+                AdminAccountSort sort = AdminAccountSort.valueOf(parts[0]);
+                Long id = Long.parseLong(parts[2]);
+                Object value = parts.length < 4 ? null : switch (sort) {
+                    case CREATED -> LocalDateTime.parse(parts[3]);
+                    case ACCOUNT_NUMBER, NAME -> parts[3];
+                    case BALANCE -> new BigDecimal(parts[3]);
+                };
+                return new Cursor(sort, "A".equals(parts[1]), id, value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid account cursor");
+            }
+        }
+    }
+}
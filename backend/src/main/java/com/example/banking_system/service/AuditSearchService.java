@@ -0,0 +1,97 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.AuditLogPageDto;
+import com.example.banking_system.entity.AuditLog;
+import com.example.banking_system.repository.AuditLogRepository;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Filtered, keyset-paginated audit search.
+ * Only the filters that are present become predicates, so each query can use
+ * the matching (filter, created_at) composite index. Pages are ordered by
+ * (createdAt, id) descending and continue from an opaque cursor instead of an offset.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditSearchService {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+
+    private final AuditLogRepository auditLogRepository;
+
+    @Transactional(readOnly = true)
+    public AuditLogPageDto search(String actorEmail, String action, String targetType, String targetId,
+                                  String status, LocalDateTime from, LocalDateTime to,
+                                  String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        Cursor after = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+
+        Specification<AuditLog> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(actorEmail)) predicates.add(cb.equal(root.get("actorEmail"), actorEmail));
+            if (hasText(action)) predicates.add(cb.equal(root.get("action"), action));
+            if (hasText(targetType)) predicates.add(cb.equal(root.get("targetType"), targetType));
+            if (hasText(targetId)) predicates.add(cb.equal(root.get("targetId"), targetId));
+            if (hasText(status)) predicates.add(cb.equal(root.get("status"), status));
+            if (from != null) predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), from));
+            if (to != null) predicates.add(cb.lessThan(root.get("createdAt"), to));
+            if (after != null) {
+                predicates.add(cb.or(
+                        cb.lessThan(root.get("createdAt"), after.createdAt()),
+                        cb.and(
+                                cb.equal(root.get("createdAt"), after.createdAt()),
+                                cb.lessThan(root.get("id"), after.id())
+                        )
+                ));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+
+        // Fetch one extra row to know whether another page exists, without a count query
+        List<AuditLog> rows = auditLogRepository.findBy(spec, q -> q
+                .sortBy(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .limit(pageSize + 1)
+                .all());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<AuditLog> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore
+                ? new Cursor(items.get(items.size() - 1).getCreatedAt(), items.get(items.size() - 1).getId()).encode()
+                : null;
+        return new AuditLogPageDto(items, nextCursor, hasMore);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid audit cursor");
+            }
+        }
+    }
+}
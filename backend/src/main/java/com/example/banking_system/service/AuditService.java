@@ -2,18 +2,118 @@ package com.example.banking_system.service;
 
 import com.example.banking_system.entity.AuditLog;
 import com.example.banking_system.repository.AuditLogRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind audit pipeline.
+ * Informational entries are pushed into a bounded lock-free ring buffer and
+ * drained by a background flush in batched inserts. Security events (configured
+ * actions and any DENIED outcome) are written synchronously. When the ring is
+ * full the entry falls back to a synchronous write rather than being dropped.
+ * <p>
+ * An informational entry recorded inside a transaction is queued only once that transaction
+ * completes. It is still written when the transaction rolls back, since the attempt itself is
+ * worth auditing, but its details then end in {@value #ROLLED_BACK_SUFFIX} so a reader does not
+ * take it for a change that happened.
+ * <p>
+ * A batch that fails to insert is retried row by row, so one bad entry cannot take the rest
+ * of its batch down. Rows that still fail are retried on later flushes with backoff, up to
+ * {@code max-attempts}; only then is an entry dead-lettered: written in full to the
+ * {@code bankwise.audit.dead-letter} log at ERROR and counted, never dropped silently.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AuditService {
 
+    private static final Logger deadLetterLog = LoggerFactory.getLogger("bankwise.audit.dead-letter");
+    private static final long RETRY_BASE_MILLIS = 1000;
+    static final String ROLLED_BACK_SUFFIX = " [rolled back]";
+    private static final int MAX_DETAILS_LENGTH = 4000;
+
+    private record FailedEntry(AuditLog entry, int attempts, long notBeforeMillis) {
+    }
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditRingBuffer buffer;
+    private final boolean asyncEnabled;
+    private final int flushBatchSize;
+    private final Set<String> syncActions;
+    private final Counter queuedCounter;
+    private final Counter writtenCounter;
+    private final Counter overflowCounter;
+    private final Counter retriedCounter;
+    private final Counter deadLetterCounter;
+    private final int maxAttempts;
+    private final int retryCapacity;
+    // Touched only inside the synchronized flush
+    private final Deque<FailedEntry> retries = new ArrayDeque<>();
+    // Size of retries as of the last flush, for the gauge
+    private final AtomicInteger retryDepth = new AtomicInteger();
+    private final TransactionTemplate overflowTransaction;
+
+    public AuditService(AuditLogRepository auditLogRepository,
+                        MeterRegistry meterRegistry,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${bankwise.audit.async-enabled:true}") boolean asyncEnabled,
+                        @Value("${bankwise.audit.buffer-capacity:8192}") int bufferCapacity,
+                        @Value("${bankwise.audit.flush-batch-size:500}") int flushBatchSize,
+                        @Value("${bankwise.audit.max-attempts:5}") int maxAttempts,
+                        @Value("${bankwise.audit.retry-capacity:8192}") int retryCapacity,
+                        @Value("${bankwise.audit.sync-actions:OTP_VERIFY,PIN_VERIFY,PIN_SET,PIN_CHANGE,PIN_RESET,PIN_RESET_INIT,PASSWORD_RESET_REQUEST,PASSWORD_RESET_CONFIRM,ACCOUNT_SUSPEND,ACCOUNT_DELETE}") String syncActions) {
+        this.auditLogRepository = auditLogRepository;
+        this.buffer = new AuditRingBuffer(bufferCapacity);
+        this.asyncEnabled = asyncEnabled;
+        this.flushBatchSize = flushBatchSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryCapacity = retryCapacity;
+        this.syncActions = Arrays.stream(syncActions.split(","))
+                .map(String::trim)
+                .filter(a -> !a.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        // An overflow write can run after the caller's transaction has completed, so it needs its own
+        this.overflowTransaction = new TransactionTemplate(transactionManager);
+        this.overflowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("bankwise.audit.queue.depth", buffer, AuditRingBuffer::size)
+                .description("Audit entries waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("bankwise.audit.queue.capacity", buffer, AuditRingBuffer::capacity)
+                .register(meterRegistry);
+        this.queuedCounter = meterRegistry.counter("bankwise.audit.entries", "path", "queued");
+        this.writtenCounter = meterRegistry.counter("bankwise.audit.entries", "path", "flushed");
+        this.overflowCounter = meterRegistry.counter("bankwise.audit.entries", "path", "overflow");
+        this.retriedCounter = meterRegistry.counter("bankwise.audit.entries", "path", "retried");
+        this.deadLetterCounter = meterRegistry.counter("bankwise.audit.entries", "path", "dead_letter");
+        Gauge.builder("bankwise.audit.retry.depth", retryDepth, AtomicInteger::get)
+                .description("Audit entries waiting to be retried after a failed insert")
+                .register(meterRegistry);
+    }
 
     public void record(String action, String targetType, String targetId, String status, String details) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -29,8 +129,9 @@ public class AuditService {
                 .targetId(targetId)
                 .status(status)
                 .details(details)
+                .createdAt(LocalDateTime.now())
                 .build();
-        auditLogRepository.save(logEntry);
+        write(logEntry);
         log.info("AUDIT action={} actor={} targetType={} targetId={} status={} ", action, actorEmail, targetType, targetId, status);
     }
 
@@ -43,12 +144,130 @@ public class AuditService {
                 .targetId(targetId)
                 .status(status)
                 .details(details)
+                .createdAt(LocalDateTime.now())
                 .build();
-        auditLogRepository.save(logEntry);
+        write(logEntry);
         log.info("AUDIT action={} actor=SYSTEM targetType={} targetId={} status={}", action, targetType, targetId, status);
     }
-}
 
+    /**
+     * Drain the ring buffer in batched inserts.
+     * AuditLog uses a pooled sequence id, so Hibernate groups these into JDBC batches.
+     */
+    @Scheduled(fixedDelayString = "${bankwise.audit.flush-interval-ms:250}")
+    public synchronized void flush() {
+        retryFailed(false);
+        List<AuditLog> batch = new ArrayList<>(Math.min(flushBatchSize, buffer.size()));
+        while (buffer.drainTo(batch, flushBatchSize) > 0) {
+            try {
+                auditLogRepository.saveAll(batch);
+                writtenCounter.increment(batch.size());
+            } catch (Exception e) {
+                log.warn("Batch insert of {} audit entries failed, writing them one by one", batch.size(), e);
+                for (AuditLog entry : batch) {
+                    writeOne(entry, 1);
+                }
+            }
+            batch.clear();
+        }
+        retryDepth.set(retries.size());
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        flush();
+        // Last chance for entries still backing off; whatever fails now is dead-lettered
+        retryFailed(true);
+        while (!retries.isEmpty()) {
+            deadLetter(retries.poll().entry(), "shutdown with the entry still failing");
+        }
+        retryDepth.set(0);
+    }
 
+    public int getQueueDepth() {
+        return buffer.size();
+    }
 
+    private void retryFailed(boolean ignoreBackoff) {
+        long now = System.currentTimeMillis();
+        for (int pending = retries.size(); pending > 0; pending--) {
+            FailedEntry failed = retries.poll();
+            if (!ignoreBackoff && failed.notBeforeMillis() > now) {
+                retries.add(failed);
+                continue;
+            }
+            writeOne(failed.entry(), failed.attempts() + 1);
+        }
+    }
 
+    /**
+     * Insert a single entry in its own transaction; on failure queue it for a later flush
+     * with exponential backoff, or dead-letter it once {@code max-attempts} is reached.
+     */
+    private void writeOne(AuditLog entry, int attempt) {
+        // The failed batch may have assigned an id that was never committed
+        entry.setId(null);
+        try {
+            auditLogRepository.save(entry);
+            writtenCounter.increment();
+        } catch (Exception e) {
+            if (attempt >= maxAttempts) {
+                deadLetter(entry, "failed " + attempt + " attempts: " + e.getMessage());
+            } else if (retries.size() >= retryCapacity) {
+                deadLetter(entry, "retry queue full: " + e.getMessage());
+            } else {
+                long backoff = RETRY_BASE_MILLIS << Math.min(attempt - 1, 10);
+                retries.add(new FailedEntry(entry, attempt, System.currentTimeMillis() + backoff));
+                retriedCounter.increment();
+            }
+        }
+    }
+
+    private void deadLetter(AuditLog entry, String reason) {
+        deadLetterCounter.increment();
+        deadLetterLog.error("action={} actor={} role={} targetType={} targetId={} status={} createdAt={} details={} reason={}",
+                entry.getAction(), entry.getActorEmail(), entry.getActorRole(), entry.getTargetType(),
+                entry.getTargetId(), entry.getStatus(), entry.getCreatedAt(), entry.getDetails(), reason);
+    }
+
+    private void write(AuditLog entry) {
+        if (!asyncEnabled || isSecurityEvent(entry)) {
+            auditLogRepository.save(entry);
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        markRolledBack(entry);
+                    }
+                    enqueue(entry);
+                }
+            });
+            return;
+        }
+        enqueue(entry);
+    }
+
+    private void enqueue(AuditLog entry) {
+        if (buffer.offer(entry)) {
+            queuedCounter.increment();
+            return;
+        }
+        overflowCounter.increment();
+        log.warn("Audit buffer full ({} entries), writing synchronously", buffer.capacity());
+        overflowTransaction.executeWithoutResult(status -> auditLogRepository.save(entry));
+    }
+
+    private static void markRolledBack(AuditLog entry) {
+        String details = entry.getDetails() == null ? "" : entry.getDetails();
+        int keep = Math.min(details.length(), MAX_DETAILS_LENGTH - ROLLED_BACK_SUFFIX.length());
+        entry.setDetails(details.substring(0, keep) + ROLLED_BACK_SUFFIX);
+    }
+
+    private boolean isSecurityEvent(AuditLog entry) {
+        return syncActions.contains(entry.getAction()) || "DENIED".equals(entry.getStatus());
+    }
+}
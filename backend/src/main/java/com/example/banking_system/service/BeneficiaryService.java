@@ -1,5 +1,6 @@
 package com.example.banking_system.service;
 
+import com.example.banking_system.dto.BeneficiaryDto;
 import com.example.banking_system.entity.Account;
 import com.example.banking_system.entity.Beneficiary;
 import com.example.banking_system.entity.User;
@@ -22,19 +23,22 @@ public class BeneficiaryService {
     private final CachedDataService cachedDataService;
 
 
-    public List<Beneficiary> getBeneficiaries(String userEmail) {
+    @Transactional(readOnly = true)
+    public List<BeneficiaryDto> getBeneficiaries(String userEmail) {
         User user = cachedDataService.getUserByEmail(userEmail);
-        return beneficiaryRepository.findByUserAndIsActiveTrueOrderByIsFavoriteDescLastUsedAtDesc(user);
+        return beneficiaryRepository.findActiveViewsByUserId(user.getId());
     }
 
-    public List<Beneficiary> getFavoriteBeneficiaries(String userEmail) {
+    @Transactional(readOnly = true)
+    public List<BeneficiaryDto> getFavoriteBeneficiaries(String userEmail) {
         User user = cachedDataService.getUserByEmail(userEmail);
-        return beneficiaryRepository.findByUserAndIsFavoriteTrueAndIsActiveTrue(user);
+        return beneficiaryRepository.findFavoriteViewsByUserId(user.getId());
     }
 
-    public List<Beneficiary> searchBeneficiaries(String userEmail, String searchTerm) {
+    @Transactional(readOnly = true)
+    public List<BeneficiaryDto> searchBeneficiaries(String userEmail, String searchTerm) {
         User user = cachedDataService.getUserByEmail(userEmail);
-        return beneficiaryRepository.searchBeneficiaries(user, searchTerm);
+        return beneficiaryRepository.searchViewsByUserId(user.getId(), searchTerm);
     }
 
     @Transactional
@@ -142,15 +146,16 @@ public class BeneficiaryService {
         });
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getBeneficiaryStats(String userEmail) {
         User user = cachedDataService.getUserByEmail(userEmail);
 
         long total = beneficiaryRepository.countByUser(user);
-        List<Beneficiary> favorites = beneficiaryRepository.findByUserAndIsFavoriteTrueAndIsActiveTrue(user);
+        long favorites = beneficiaryRepository.countByUserAndIsFavoriteTrueAndIsActiveTrue(user);
 
         return Map.of(
             "totalBeneficiaries", total,
-            "favoritesCount", favorites.size()
+            "favoritesCount", favorites
         );
     }
 }
@@ -0,0 +1,157 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.OutboundEmail;
+import com.example.banking_system.exception.EmailTransportException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import sendinblue.ApiClient;
+import sendinblue.ApiException;
+import sendinblue.auth.ApiKeyAuth;
+import sibApi.TransactionalEmailsApi;
+import sibModel.CreateSmtpEmail;
+import sibModel.SendSmtpEmail;
+import sibModel.SendSmtpEmailAttachment;
+import sibModel.SendSmtpEmailMessageVersions;
+import sibModel.SendSmtpEmailSender;
+import sibModel.SendSmtpEmailTo;
+import sibModel.SendSmtpEmailTo1;
+
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link EmailTransport} using the Brevo (Sendinblue) transactional API.
+ * Works on cloud platforms like Render where SMTP is blocked.
+ * <p>
+ * Several recipients of the same message go out in one API call as message versions (one
+ * version per recipient, so nobody sees the other addresses). Every recipient still counts
+ * against the daily quota. {@code brevo.api.base-path} points the client at a local HTTP
+ * stand-in; without an API key messages are only logged.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "bankwise.email.transport", havingValue = "brevo", matchIfMissing = true)
+public class BrevoEmailTransport implements EmailTransport {
+
+    private final String apiKey;
+    private final String basePath;
+    private final String senderEmail;
+    private final String senderName;
+    private volatile TransactionalEmailsApi emailApi;
+
+    public BrevoEmailTransport(@Value("${brevo.api.key:}") String apiKey,
+                               @Value("${brevo.api.base-path:}") String basePath,
+                               @Value("${brevo.sender.email:noreply@bankwise.com}") String senderEmail,
+                               @Value("${brevo.sender.name:BankWise}") String senderName) {
+        this.apiKey = apiKey;
+        this.basePath = basePath;
+        this.senderEmail = senderEmail;
+        this.senderName = senderName;
+        if (isConfigured()) {
+            log.info("Brevo email transport configured{}", basePath.isBlank() ? "" : " (base path " + basePath + ")");
+        } else {
+            log.warn("Brevo API key not configured - emails will be logged only");
+        }
+    }
+
+    @Override
+    public List<String> send(List<OutboundEmail> emails, byte[] attachment) {
+        OutboundEmail first = emails.get(0);
+        if (!isConfigured()) {
+            log.info("[EMAIL LOG] To: {} | Subject: {} | Body: {}",
+                    emails.stream().map(OutboundEmail::getRecipient).toList(), first.getSubject(),
+                    first.getTextContent() != null ? first.getTextContent() : first.getHtmlContent());
+            return List.of();
+        }
+
+        SendSmtpEmail email = new SendSmtpEmail();
+        email.setSender(new SendSmtpEmailSender().email(senderEmail).name(senderName));
+        email.setSubject(first.getSubject());
+        email.setTextContent(first.getTextContent());
+        email.setHtmlContent(first.getHtmlContent());
+        if (emails.size() == 1) {
+            email.setTo(Collections.singletonList(new SendSmtpEmailTo().email(first.getRecipient())));
+        } else {
+            email.setMessageVersions(emails.stream()
+                    .map(e -> new SendSmtpEmailMessageVersions()
+                            .to(Collections.singletonList(new SendSmtpEmailTo1().email(e.getRecipient()))))
+                    .toList());
+        }
+        if (attachment != null) {
+            SendSmtpEmailAttachment file = new SendSmtpEmailAttachment();
+            file.setName(first.getAttachmentName());
+            file.setContent(Base64.getEncoder().encode(attachment));
+            email.setAttachment(Collections.singletonList(file));
+        }
+
+        try {
+            CreateSmtpEmail result = emailApi().sendTransacEmail(email);
+            if (result.getMessageIds() != null && !result.getMessageIds().isEmpty()) {
+                return result.getMessageIds();
+            }
+            return result.getMessageId() != null ? List.of(result.getMessageId()) : List.of();
+        } catch (ApiException e) {
+            throw translate(e);
+        }
+    }
+
+    private boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    /**
+     * The Brevo client (OkHttp, Gson, SDK classes) is built on the first send rather than at startup.
+     */
+    private TransactionalEmailsApi emailApi() {
+        TransactionalEmailsApi api = emailApi;
+        if (api == null) {
+            synchronized (this) {
+                api = emailApi;
+                if (api == null) {
+                    ApiClient client = new ApiClient();
+                    if (!basePath.isBlank()) {
+                        client.setBasePath(basePath);
+                    }
+                    ((ApiKeyAuth) client.getAuthentication("api-key")).setApiKey(apiKey);
+                    api = new TransactionalEmailsApi(client);
+                    emailApi = api;
+                    log.info("Brevo email client initialized");
+                }
+            }
+        }
+        return api;
+    }
+
+    /**
+     * 429 (rate limit) and 402 (out of credits) slow the dispatcher down; network errors, 5xx and
+     * auth failures (usually a bad key, fixed by redeploying) are retried; other 4xx will never succeed.
+     */
+    private EmailTransportException translate(ApiException e) {
+        int code = e.getCode();
+        String message = "Brevo send failed: HTTP " + code + " " + (e.getResponseBody() != null ? e.getResponseBody() : e.getMessage());
+        if (code == 429 || code == 402) {
+            return new EmailTransportException(message, true, retryAfterSeconds(e.getResponseHeaders()), e);
+        }
+        boolean retryable = code == 0 || code >= 500 || code == 401 || code == 403;
+        return new EmailTransportException(message, retryable, 0, e);
+    }
+
+    private static long retryAfterSeconds(Map<String, List<String>> headers) {
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if ("Retry-After".equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                    try {
+                        return Math.max(1, Long.parseLong(header.getValue().get(0).trim()));
+                    } catch (NumberFormatException ignored) {
+                        break;
+                    }
+                }
+            }
+        }
+        return 60;
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.banking_system.service;
 
+import com.example.banking_system.config.RedisAvailability;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -18,6 +21,7 @@ import java.util.Set;
 public class CacheEvictionService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisAvailability redisAvailability;
 
     private static final String CACHE_PREFIX = "bankwise::";
     private static final String USER_ANALYTICS_PREFIX = "userAnalytics::";
@@ -37,7 +41,7 @@ public class CacheEvictionService {
             return;
         }
         String key = CACHE_PREFIX + USER_ANALYTICS_PREFIX + userEmail;
-        redisTemplate.delete(key);
+        delete(List.of(key));
         log.debug("Evicted user analytics cache for: {}", userEmail);
     }
 
@@ -53,8 +57,7 @@ public class CacheEvictionService {
         }
         String accountKey = CACHE_PREFIX + ACCOUNT_PREFIX + accountNumber;
         String balanceKey = CACHE_PREFIX + BALANCE_PREFIX + accountNumber;
-        redisTemplate.delete(accountKey);
-        redisTemplate.delete(balanceKey);
+        delete(List.of(accountKey, balanceKey));
         log.debug("Evicted account cache for: {}", accountNumber);
     }
 
@@ -64,7 +67,7 @@ public class CacheEvictionService {
      */
     public void evictAdminDashboardCache() {
         String key = CACHE_PREFIX + ADMIN_DASHBOARD_KEY;
-        redisTemplate.delete(key);
+        delete(List.of(key));
         log.debug("Evicted admin dashboard cache");
     }
 
@@ -76,14 +79,13 @@ public class CacheEvictionService {
     public void evictAdminAccountListCache(String adminEmail) {
         if (adminEmail != null && !adminEmail.isEmpty()) {
             String key = CACHE_PREFIX + ADMIN_ACCOUNTS_PREFIX + adminEmail;
-            redisTemplate.delete(key);
+            delete(List.of(key));
             log.debug("Evicted admin account list cache for: {}", adminEmail);
         } else {
             // Evict all admin account list caches
-            Set<String> keys = redisTemplate.keys(CACHE_PREFIX + ADMIN_ACCOUNTS_PREFIX + "*");
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                log.debug("Evicted all admin account list caches (count: {})", keys.size());
+            int count = deleteMatching(CACHE_PREFIX + ADMIN_ACCOUNTS_PREFIX + "*");
+            if (count > 0) {
+                log.debug("Evicted all admin account list caches (count: {})", count);
             }
         }
     }
@@ -161,6 +163,9 @@ public class CacheEvictionService {
      * @return Number of bankwise cache keys
      */
     public long getCacheKeyCount() {
+        if (!redisAvailability.isAvailable()) {
+            return 0;
+        }
         Set<String> keys = redisTemplate.keys(CACHE_PREFIX + "*");
         return keys != null ? keys.size() : 0;
     }
@@ -169,10 +174,45 @@ public class CacheEvictionService {
      * Clear all bankwise caches (use with caution).
      */
     public void clearAllBankwiseCaches() {
-        Set<String> keys = redisTemplate.keys(CACHE_PREFIX + "*");
-        if (keys != null && !keys.isEmpty()) {
+        int count = deleteMatching(CACHE_PREFIX + "*");
+        if (count > 0) {
+            log.warn("Cleared all bankwise caches (count: {})", count);
+        }
+    }
+
+    /**
+     * Cache evictions run after the data change, so a Redis outage must not fail the caller.
+     * Evictions that cannot be applied are recorded, and the caches are flushed once Redis is back.
+     */
+    private void delete(Collection<String> keys) {
+        if (!redisAvailability.isAvailable()) {
+            redisAvailability.evictionSkipped();
+            return;
+        }
+        try {
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            redisAvailability.evictionSkipped();
+            redisAvailability.reportFailure(e);
+        }
+    }
+
+    private int deleteMatching(String pattern) {
+        if (!redisAvailability.isAvailable()) {
+            redisAvailability.evictionSkipped();
+            return 0;
+        }
+        try {
+            Set<String> keys = redisTemplate.keys(pattern);
+            if (keys == null || keys.isEmpty()) {
+                return 0;
+            }
             redisTemplate.delete(keys);
-            log.warn("Cleared all bankwise caches (count: {})", keys.size());
+            return keys.size();
+        } catch (RuntimeException e) {
+            redisAvailability.evictionSkipped();
+            redisAvailability.reportFailure(e);
+            return 0;
         }
     }
 }
@@ -27,6 +27,7 @@ public class CardService {
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
+    private final IdentifierService identifierService;
     private final SecureRandom secureRandom = new SecureRandom();
 
 
@@ -63,7 +64,7 @@ public class CardService {
         Card card = Card.builder()
                 .user(user)
                 .account(account)
-                .cardNumber(generateCardNumber())
+                .cardNumber(identifierService.nextCardNumber())
                 .cvv(generateCVV())
                 .expiryDate(LocalDate.now().plusYears(5))
                 .cardHolderName(user.getName().toUpperCase())
@@ -107,7 +108,7 @@ public class CardService {
         Card card = Card.builder()
                 .user(user)
                 .account(account)
-                .cardNumber(generateCardNumber())
+                .cardNumber(identifierService.nextCardNumber())
                 .cvv(generateCVV())
                 .expiryDate(LocalDate.now().plusYears(3))
                 .cardHolderName(user.getName().toUpperCase())
@@ -206,25 +207,6 @@ public class CardService {
     }
 
   
-    private String generateCardNumber() {
-        StringBuilder sb = new StringBuilder();
-        // Start with 4 (Visa-like) for debit, 5 (Mastercard-like) for credit
-        sb.append("4");
-        for (int i = 0; i < 15; i++) {
-            sb.append(secureRandom.nextInt(10));
-        }
-        // Ensure uniqueness
-        String cardNumber = sb.toString();
-        while (cardRepository.existsByCardNumber(cardNumber)) {
-            sb = new StringBuilder("4");
-            for (int i = 0; i < 15; i++) {
-                sb.append(secureRandom.nextInt(10));
-            }
-            cardNumber = sb.toString();
-        }
-        return cardNumber;
-    }
-
     private String generateCVV() {
         return String.format("%03d", secureRandom.nextInt(1000));
     }
@@ -0,0 +1,144 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.CreditScoreEvent;
+import com.example.banking_system.entity.CreditScoreHistory;
+import com.example.banking_system.entity.User;
+import com.example.banking_system.repository.CreditScoreEventRepository;
+import com.example.banking_system.repository.CreditScoreHistoryRepository;
+import com.example.banking_system.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Credit score event stream.
+ * EMI outcomes append score deltas via {@link #recordChange}; the applier folds
+ * pending deltas per user and writes each user's net change once per run,
+ * leaving one {@link CreditScoreHistory} row behind for audit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CreditScoreService {
+
+    private final CreditScoreEventRepository creditScoreEventRepository;
+    private final CreditScoreHistoryRepository creditScoreHistoryRepository;
+    private final UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final int MIN_SCORE = 300;
+    private static final int MAX_SCORE = 850;
+
+    /**
+     * Score assumed for a user who has none stored yet.
+     */
+    public static final int DEFAULT_SCORE = 650;
+
+    /**
+     * Append a credit score delta for a user. Zero deltas are dropped.
+     */
+    public void recordChange(User user, Long loanId, int delta, String reason) {
+        if (delta == 0 || user == null || user.getId() == null) {
+            return;
+        }
+        creditScoreEventRepository.save(CreditScoreEvent.builder()
+                .userId(user.getId())
+                .loanId(loanId)
+                .delta(delta)
+                .reason(reason)
+                .build());
+        log.debug("Queued credit score change for user {}: {} ({})", user.getEmail(), delta, reason);
+    }
+
+    /**
+     * Fold all pending events per user and apply the net change once.
+     * Runs at the end of the daily EMI job and periodically for manual EMI payments.
+     *
+     * @return number of users whose score was written
+     */
+    @Scheduled(fixedDelayString = "${bankwise.credit-score.apply-interval-ms:300000}")
+    @Transactional
+    public int applyPendingChanges() {
+        String batchId = UUID.randomUUID().toString();
+        LocalDateTime appliedAt = LocalDateTime.now();
+
+        int claimed = creditScoreEventRepository.claimPending(batchId, appliedAt);
+        if (claimed == 0) {
+            return 0;
+        }
+
+        List<Object[]> deltas = creditScoreEventRepository.sumDeltasByUser(batchId);
+        List<Long> userIds = new ArrayList<>(deltas.size());
+        for (Object[] row : deltas) {
+            userIds.add((Long) row[0]);
+        }
+
+        Map<Long, Integer> currentScores = new HashMap<>();
+        for (Object[] row : userRepository.findCreditScoresByIds(userIds)) {
+            currentScores.put((Long) row[0], (Integer) row[1]);
+        }
+
+        List<CreditScoreHistory> history = new ArrayList<>(deltas.size());
+        int updated = 0;
+        for (Object[] row : deltas) {
+            Long userId = (Long) row[0];
+            int netChange = ((Number) row[1]).intValue();
+            int eventCount = ((Number) row[2]).intValue();
+            if (!currentScores.containsKey(userId)) {
+                continue; // user removed since the event was recorded
+            }
+            Integer stored = currentScores.get(userId);
+            int previousScore = stored != null ? stored : DEFAULT_SCORE;
+            int newScore = Math.min(MAX_SCORE, Math.max(MIN_SCORE, previousScore + netChange));
+
+            if (newScore != previousScore || stored == null) {
+                userRepository.updateCreditScore(userId, newScore);
+                updated++;
+            }
+            history.add(CreditScoreHistory.builder()
+                    .userId(userId)
+                    .previousScore(previousScore)
+                    .newScore(newScore)
+                    .netChange(newScore - previousScore)
+                    .eventCount(eventCount)
+                    .batchId(batchId)
+                    .appliedAt(appliedAt)
+                    .build());
+        }
+        // One clear for the whole batch, so no managed User keeps serving the old score
+        entityManager.clear();
+        creditScoreHistoryRepository.saveAll(history);
+
+        log.info("Applied credit score batch {}: {} events folded into {} user updates", batchId, claimed, updated);
+        return updated;
+    }
+
+    /**
+     * Most recent applied credit score changes for a user.
+     */
+    @Transactional(readOnly = true)
+    public List<CreditScoreHistory> getHistory(Long userId) {
+        return creditScoreHistoryRepository.findTop50ByUserIdOrderByAppliedAtDesc(userId);
+    }
+
+    /**
+     * Number of events recorded for a user but not yet applied.
+     */
+    @Transactional(readOnly = true)
+    public long countPending(Long userId) {
+        return creditScoreEventRepository.countByAppliedAtIsNullAndUserId(userId);
+    }
+}
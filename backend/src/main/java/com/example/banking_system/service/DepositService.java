@@ -30,7 +30,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -45,6 +44,7 @@ public class DepositService {
     private final CachedDataService cachedDataService;
     private final IdempotencyService idempotencyService;
     private final CacheEvictionService cacheEvictionService;
+    private final LedgerService ledgerService;
 
     public String createDepositRequest(DepositRequestDto depositRequestDto) {
         log.info("Creating deposit request accountNumber={} amount={}", depositRequestDto.getAccountNumber(), depositRequestDto.getAmount());
@@ -92,31 +92,7 @@ public class DepositService {
      */
     @Transactional
     public String createDepositRequestWithIdempotency(DepositRequestDto depositRequestDto, String idempotencyKey) {
-        // Return cached result if already processed
-        String cached = idempotencyService.getResult(idempotencyKey);
-        if (cached != null) {
-            log.info("Returning cached result for deposit idempotency key: {}", idempotencyKey);
-            return cached;
-        }
-
-        // Acquire lock to prevent concurrent processing
-        if (!idempotencyService.acquireIdempotencyLock(idempotencyKey)) {
-            throw new IllegalStateException("Deposit request is already being processed");
-        }
-
-        try {
-            // Do actual processing
-            String result = createDepositRequest(depositRequestDto);
-            
-            // Store for future retries
-            idempotencyService.storeResult(idempotencyKey, result);
-            
-            return result;
-        } catch (Exception e) {
-            // Release lock on error
-            idempotencyService.releaseLock(idempotencyKey);
-            throw e;
-        }
+        return idempotencyService.execute(idempotencyKey, () -> createDepositRequest(depositRequestDto));
     }
 
     @Transactional
@@ -155,6 +131,8 @@ public class DepositService {
                     .timestamp(LocalDateTime.now())
                     .amount(BigDecimal.valueOf(request.getAmount())).build();
             transactionRepository.save(transaction);
+            ledgerService.record(LedgerService.CASH, account.getAccountNumber(), BigDecimal.valueOf(request.getAmount()),
+                    TransactionType.DEPOSIT, "DEPOSIT_REQUEST:" + request.getId());
             depositRepository.save(request); // optimistic lock via @Version
                 auditService.record("DEPOSIT_APPROVE", "DEPOSIT_REQUEST", String.valueOf(request.getId()), "SUCCESS",
                     "amount=" + request.getAmount());
@@ -219,30 +197,16 @@ public class DepositService {
 
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<DepositResponseDto> getDepositRequestsByStatus(String status) {
-        List<DepositRequest> depositRequests;
         if ("ALL".equalsIgnoreCase(status)) {
-            depositRequests = depositRepository.findAllWithAccount();
-        } else {
-            DepositStatus statusEnum;
-            try {
-                statusEnum = DepositStatus.valueOf(status.toUpperCase(Locale.ENGLISH));
-            } catch (IllegalArgumentException e) {
-                throw new InvalidDepositActionException("Invalid deposit status");
-            }
-            depositRequests = depositRepository.findByStatus(statusEnum);
+            return depositRepository.findAllResponses();
         }
-        return depositRequests.stream().map(this::mapToDto).collect(Collectors.toList());
-    }
-
-    private DepositResponseDto mapToDto(DepositRequest depositRequest) {
-        return DepositResponseDto.builder()
-                .requestId(depositRequest.getId())
-                .amount(depositRequest.getAmount())
-                .depositTime(depositRequest.getDepositDate())
-                .accountNumber(depositRequest.getAccount().getAccountNumber())
-                .referenceNumber(depositRequest.getRefferenceNumber())
-                .status(depositRequest.getStatus())
-                .build();
+        DepositStatus statusEnum;
+        try {
+            statusEnum = DepositStatus.valueOf(status.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDepositActionException("Invalid deposit status");
+        }
+        return depositRepository.findResponsesByStatus(statusEnum);
     }
 }
 
@@ -0,0 +1,41 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.StoredDocument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Blob storage for customer documents (KYC scans, generated PDFs).
+ * The database keeps only the returned {@link StoredDocument} metadata; content is streamed
+ * in and out so a document never has to be held in heap as a whole.
+ * Implementations: {@link FileSystemDocumentStore}; an S3-compatible store plugs in behind the same interface.
+ */
+public interface DocumentStore {
+
+    /**
+     * Stream {@code content} into the store under {@code key}, hashing it on the way.
+     * An existing object with the same key is replaced.
+     */
+    StoredDocument put(String key, InputStream content, String contentType) throws IOException;
+
+    /**
+     * Let {@code writer} produce the content directly into the store (e.g. a PDF renderer).
+     */
+    StoredDocument write(String key, String contentType, DocumentWriter writer) throws IOException;
+
+    /**
+     * Open the object for reading. The caller closes the stream.
+     */
+    InputStream open(String key) throws IOException;
+
+    boolean exists(String key);
+
+    void delete(String key);
+
+    @FunctionalInterface
+    interface DocumentWriter {
+        void writeTo(OutputStream out) throws Exception;
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.OutboundEmail;
+import com.example.banking_system.enums.EmailPriority;
+import com.example.banking_system.enums.EmailStatus;
+import com.example.banking_system.exception.EmailTransportException;
+import com.example.banking_system.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the email queued by {@link EmailService}.
+ * <p>
+ * No transaction is open while the provider is called. Every tick claims a batch of due rows in
+ * a short transaction: it locks them ({@code FOR UPDATE SKIP LOCKED}, so nodes never claim the
+ * same row), most urgent first, and marks the ones it will send SENDING with a lease
+ * ({@code lease-seconds}). After the commit they are sent, and each send's outcome (SENT, retry
+ * or FAILED) is recorded in a second short transaction. A node that dies in between leaves its
+ * rows SENDING; once the lease runs out {@link #reclaimExpiredLeases()} queues them again.
+ * The claim respects two limits:
+ * <ul>
+ *   <li>the provider's daily quota, counted cluster-wide from today's SENT and SENDING rows. The last
+ *       {@code critical-reserve} sends of the day are kept for {@link EmailPriority#CRITICAL} mail;
+ *       anything over the limit waits for the next quota day instead of failing. A node cannot
+ *       see rows another node is claiming until that claim commits, so on PostgreSQL claims take
+ *       a transaction-scoped advisory lock first and run one node at a time; other databases
+ *       are assumed to have a single dispatching node;</li>
+ *   <li>a per-node token bucket ({@code rate-per-second}, {@code burst}) so a statement run
+ *       does not trip the provider's rate limit.</li>
+ * </ul>
+ * Identical messages without attachments (e.g. one notice to every manager) go out in one API
+ * call. A failed send is not retried in place: the row gets {@code next_attempt_at} pushed back
+ * exponentially and is picked up by a later tick, so no thread sleeps on it. After
+ * {@code max-attempts}, or on an error that cannot succeed, the row is marked FAILED and kept.
+ */
+@Service
+@Slf4j
+public class EmailDispatcher {
+
+    // Key for pg_advisory_xact_lock(int, int) serializing quota claims across nodes
+    private static final int QUOTA_LOCK_CLASS = 0x1D4;
+    private static final int QUOTA_LOCK_ID = 0;
+
+    private final OutboundEmailRepository repository;
+    private final EmailTransport transport;
+    private final DocumentStore documentStore;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int dailyQuota;
+    private final int criticalReserve;
+    private final ZoneId quotaZone;
+    private final int maxAttempts;
+    private final long retryBaseSeconds;
+    private final long retryMaxSeconds;
+    private final int retentionDays;
+    private final long leaseSeconds;
+
+    // Token bucket, touched only by the dispatch thread
+    private final double tokensPerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    // Set when the provider asks us to back off (System.nanoTime())
+    private long pausedUntil = System.nanoTime();
+    // Whether the database is PostgreSQL, so claims can take the quota lock; found on first claim
+    private Boolean quotaLockSupported;
+
+    private final AtomicLong quotaRemaining;
+    private final Counter sentCounter;
+    private final Counter apiCallCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+    private final Counter deferredCounter;
+
+    public EmailDispatcher(OutboundEmailRepository repository,
+                           EmailTransport transport,
+                           DocumentStore documentStore,
+                           PlatformTransactionManager transactionManager,
+                           JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${bankwise.email.batch-size:50}") int batchSize,
+                           @Value("${bankwise.email.daily-quota:300}") int dailyQuota,
+                           @Value("${bankwise.email.critical-reserve:30}") int criticalReserve,
+                           @Value("${bankwise.email.quota-zone:UTC}") String quotaZone,
+                           @Value("${bankwise.email.rate-per-second:2}") double ratePerSecond,
+                           @Value("${bankwise.email.burst:20}") int burst,
+                           @Value("${bankwise.email.max-attempts:8}") int maxAttempts,
+                           @Value("${bankwise.email.retry-base-seconds:30}") long retryBaseSeconds,
+                           @Value("${bankwise.email.retry-max-minutes:60}") long retryMaxMinutes,
+                           @Value("${bankwise.email.retention-days:30}") int retentionDays,
+                           @Value("${bankwise.email.lease-seconds:300}") long leaseSeconds) {
+        this.repository = repository;
+        this.transport = transport;
+        this.documentStore = documentStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.dailyQuota = dailyQuota;
+        this.criticalReserve = criticalReserve;
+        this.quotaZone = ZoneId.of(quotaZone);
+        this.maxAttempts = maxAttempts;
+        this.retryBaseSeconds = retryBaseSeconds;
+        this.retryMaxSeconds = TimeUnit.MINUTES.toSeconds(retryMaxMinutes);
+        this.retentionDays = retentionDays;
+        this.leaseSeconds = leaseSeconds;
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.quotaRemaining = new AtomicLong(dailyQuota);
+        this.sentCounter = meterRegistry.counter("bankwise.email.sent");
+        this.apiCallCounter = meterRegistry.counter("bankwise.email.api.calls");
+        this.retryCounter = meterRegistry.counter("bankwise.email.retries");
+        this.failedCounter = meterRegistry.counter("bankwise.email.failed");
+        this.deferredCounter = meterRegistry.counter("bankwise.email.deferred");
+        Gauge.builder("bankwise.email.quota.remaining", quotaRemaining, AtomicLong::get)
+                .description("Provider sends left today, as of the last dispatch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${bankwise.email.dispatch-interval-ms:1000}")
+    public void dispatch() {
+        // Keep going while full batches come back and were sent, so a backlog drains within one tick
+        for (int round = 0; round < 20; round++) {
+            if (System.nanoTime() - pausedUntil < 0) {
+                return;
+            }
+            Claim claim = transactionTemplate.execute(status -> claimBatch());
+            if (claim == null) {
+                return;
+            }
+            if (!sendClaimed(claim.groups()) || !claim.more()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Queue rows again whose lease ran out while SENDING: the node sending them died or hung
+     * before recording the outcome.
+     */
+    @Scheduled(fixedDelayString = "${bankwise.email.lease-check-interval-ms:60000}")
+    public void reclaimExpiredLeases() {
+        int reclaimed = Objects.requireNonNullElse(transactionTemplate.execute(status ->
+                repository.reclaimExpiredLeases(LocalDateTime.now(), maxAttempts)), 0);
+        if (reclaimed > 0) {
+            log.warn("Reclaimed {} email(s) whose sending lease expired", reclaimed);
+        }
+    }
+
+    /**
+     * Delete delivered rows past the retention period. FAILED rows are kept for inspection.
+     */
+    @Scheduled(cron = "${bankwise.email.purge-cron:0 40 3 * * ?}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = Objects.requireNonNullElse(
+                    transactionTemplate.execute(status -> repository.deleteSentBefore(before, 1000)), 0);
+            total += deleted;
+        } while (deleted == 1000);
+        if (total > 0) {
+            log.info("Purged {} sent emails older than {} days", total, retentionDays);
+        }
+    }
+
+    /**
+     * Rows claimed for sending, grouped into API calls, and whether more may be waiting: the
+     * batch was full and all of it was claimed or deferred.
+     */
+    private record Claim(List<List<OutboundEmail>> groups, boolean more) {
+    }
+
+    /**
+     * Runs in the claim transaction. Returns null when nothing is due.
+     */
+    private Claim claimBatch() {
+        lockQuota();
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboundEmail> due = repository.lockDue(now, batchSize);
+        if (due.isEmpty()) {
+            return null;
+        }
+        LocalDateTime quotaDayStart = ZonedDateTime.now(quotaZone).truncatedTo(ChronoUnit.DAYS)
+                .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        // SENDING rows count too: another node may be delivering them right now. Its claim has
+        // committed, since it held the quota lock until then
+        long remaining = dailyQuota - repository.countQuotaUsed(quotaDayStart, EmailStatus.SENT, EmailStatus.SENDING);
+        LocalDateTime nextQuotaDay = quotaDayStart.plusDays(1);
+
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        List<List<OutboundEmail>> claimed = new ArrayList<>();
+        boolean drained = true;
+        for (List<OutboundEmail> group : groupIdentical(due)) {
+            EmailPriority priority = group.get(0).getPriority();
+            long allowed = priority == EmailPriority.CRITICAL ? remaining : remaining - criticalReserve;
+            if (allowed <= 0) {
+                group.forEach(email -> email.setNextAttemptAt(nextQuotaDay));
+                deferredCounter.increment(group.size());
+                log.warn("Daily email quota reached - {} {} email(s) deferred to {}", group.size(), priority, nextQuotaDay);
+                continue;
+            }
+            int granted = acquireTokens((int) Math.min(group.size(), allowed));
+            if (granted == 0) {
+                drained = false;
+                break; // rows stay due; the next tick picks them up
+            }
+            if (granted < group.size()) {
+                drained = false;
+            }
+            List<OutboundEmail> sending = group.subList(0, granted);
+            sending.forEach(email -> {
+                email.setStatus(EmailStatus.SENDING);
+                email.setLeaseUntil(leaseUntil);
+            });
+            claimed.add(sending);
+            remaining -= granted;
+        }
+        quotaRemaining.set(Math.max(0, remaining));
+        return new Claim(claimed, drained && due.size() == batchSize);
+    }
+
+    /**
+     * Send the claimed groups, outside any transaction. Returns false when the provider asked
+     * us to pause; the groups not sent yet are then put back in the queue.
+     */
+    private boolean sendClaimed(List<List<OutboundEmail>> groups) {
+        for (int i = 0; i < groups.size(); i++) {
+            List<OutboundEmail> emails = groups.get(i);
+            OutboundEmail first = emails.get(0);
+            try {
+                byte[] attachment = first.getAttachmentKey() != null ? readAttachment(first.getAttachmentKey()) : null;
+                apiCallCounter.increment();
+                List<String> messageIds = transport.send(emails, attachment);
+                recordSent(emails, messageIds);
+                log.debug("Email sent to={} subject={}", emails.stream().map(OutboundEmail::getRecipient).toList(), first.getSubject());
+            } catch (EmailTransportException e) {
+                if (e.getRetryAfterSeconds() > 0) {
+                    pausedUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(e.getRetryAfterSeconds());
+                    log.warn("Email provider asked to back off for {}s: {}", e.getRetryAfterSeconds(), e.getMessage());
+                    release(groups.subList(i, groups.size()), LocalDateTime.now().plusSeconds(e.getRetryAfterSeconds()));
+                    return false;
+                }
+                recordFailures(emails, e.getMessage(), e.isRetryable());
+            } catch (IOException | RuntimeException e) {
+                // Attachment unreadable or an unexpected transport bug: retry, it may be transient
+                recordFailures(emails, e.toString(), true);
+            }
+        }
+        return true;
+    }
+
+    private void recordSent(List<OutboundEmail> emails, List<String> messageIds) {
+        Map<Long, String> messageIdById = new HashMap<>();
+        for (int i = 0; i < emails.size() && i < messageIds.size(); i++) {
+            messageIdById.put(emails.get(i).getId(), messageIds.get(i));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String attachmentKey = emails.get(0).getAttachmentKey();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OutboundEmail email : repository.findAllById(ids(emails))) {
+                // A row whose lease ran out was put back as PENDING: mark it SENT so it is not sent twice
+                if (email.getStatus() == EmailStatus.SENT || email.getStatus() == EmailStatus.FAILED) {
+                    continue;
+                }
+                email.setStatus(EmailStatus.SENT);
+                email.setSentAt(now);
+                email.setLeaseUntil(null);
+                email.setAttempts(email.getAttempts() + 1);
+                email.setLastError(null);
+                email.setMessageId(messageIdById.get(email.getId()));
+            }
+            if (attachmentKey != null) {
+                deleteAfterCommit(attachmentKey);
+            }
+        });
+        sentCounter.increment(emails.size());
+    }
+
+    private void recordFailures(List<OutboundEmail> emails, String error, boolean retryable) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OutboundEmail email : repository.findAllById(ids(emails))) {
+                // Skip rows already reclaimed: the reclaim counted the attempt
+                if (email.getStatus() == EmailStatus.SENDING) {
+                    recordFailure(email, error, retryable, now);
+                }
+            }
+        });
+    }
+
+    /**
+     * Put claimed rows back without using an attempt (the provider asked us to back off).
+     */
+    private void release(List<List<OutboundEmail>> groups, LocalDateTime resumeAt) {
+        List<Long> ids = groups.stream().flatMap(List::stream).map(OutboundEmail::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OutboundEmail email : repository.findAllById(ids)) {
+                if (email.getStatus() == EmailStatus.SENDING) {
+                    email.setStatus(EmailStatus.PENDING);
+                    email.setLeaseUntil(null);
+                    email.setNextAttemptAt(resumeAt);
+                }
+            }
+        });
+    }
+
+    private static List<Long> ids(List<OutboundEmail> emails) {
+        return emails.stream().map(OutboundEmail::getId).toList();
+    }
+
+    private void recordFailure(OutboundEmail email, String error, boolean retryable, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLeaseUntil(null);
+        email.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (!retryable || attempts >= maxAttempts) {
+            email.setStatus(EmailStatus.FAILED);
+            failedCounter.increment();
+            log.error("Email to={} subject={} failed permanently after {} attempt(s): {}",
+                    email.getRecipient(), email.getSubject(), attempts, error);
+            return;
+        }
+        email.setStatus(EmailStatus.PENDING);
+        long delay = Math.min(retryMaxSeconds, retryBaseSeconds << Math.min(attempts - 1, 20));
+        delay += ThreadLocalRandom.current().nextLong(delay / 5 + 1); // spread retries from one outage
+        email.setNextAttemptAt(now.plusSeconds(delay));
+        retryCounter.increment();
+        log.warn("Email to={} subject={} failed (attempt {}), retrying in {}s: {}",
+                email.getRecipient(), email.getSubject(), attempts, delay, error);
+    }
+
+    /**
+     * Rows are already ordered by priority, so groups come out in priority order too.
+     */
+    private List<List<OutboundEmail>> groupIdentical(List<OutboundEmail> due) {
+        Map<Object, List<OutboundEmail>> groups = new LinkedHashMap<>();
+        for (OutboundEmail email : due) {
+            Object key = email.getAttachmentKey() != null
+                    ? email.getId()
+                    : List.of(email.getPriority(), email.getSubject(),
+                            Objects.toString(email.getTextContent(), ""), Objects.toString(email.getHtmlContent(), ""));
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(email);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Wait for the cluster-wide quota lock, held until the claim transaction ends, so the quota
+     * count below includes every other node's claimed rows.
+     */
+    private void lockQuota() {
+        if (quotaLockSupported == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            quotaLockSupported = "PostgreSQL".equals(product);
+        }
+        if (quotaLockSupported) {
+            jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock(?, ?)",
+                    Integer.class, QUOTA_LOCK_CLASS, QUOTA_LOCK_ID);
+        }
+    }
+
+    private int acquireTokens(int wanted) {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        int granted = (int) Math.min(wanted, Math.floor(tokens));
+        tokens -= granted;
+        return granted;
+    }
+
+    private byte[] readAttachment(String key) throws IOException {
+        try (InputStream in = documentStore.open(key)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private void deleteAfterCommit(String key) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                documentStore.delete(key);
+            }
+        });
+    }
+}
@@ -1,208 +1,145 @@
 package com.example.banking_system.service;
 
+import com.example.banking_system.dto.RenderedEmail;
+import com.example.banking_system.entity.OutboundEmail;
+import com.example.banking_system.enums.EmailPriority;
+import com.example.banking_system.repository.OutboundEmailRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import sendinblue.ApiClient;
-import sendinblue.ApiException;
-import sendinblue.Configuration;
-import sendinblue.auth.ApiKeyAuth;
-import sibApi.TransactionalEmailsApi;
-import sibModel.CreateSmtpEmail;
-import sibModel.SendSmtpEmail;
-import sibModel.SendSmtpEmailAttachment;
-import sibModel.SendSmtpEmailSender;
-import sibModel.SendSmtpEmailTo;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import jakarta.annotation.PostConstruct;
-import java.util.Base64;
-import java.util.Collections;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
 
 /**
- * Email service using Brevo (Sendinblue) API.
- * Brevo offers 300 free transactional emails per day.
- * Works on cloud platforms like Render where SMTP is blocked.
+ * Queues outbound email. Nothing is sent here: each call inserts a row into the email outbox
+ * (joining the caller's transaction, so mail about a rolled-back operation is never sent) and
+ * {@link EmailDispatcher} delivers it through Brevo within the daily quota (300 on the free plan),
+ * retrying failures with backoff. See docs/EMAIL_GUIDE.md.
  */
 @Service
 @Slf4j
 public class EmailService {
 
-    @Value("${brevo.api.key:}")
-    private String brevoApiKey;
+    private static final String ATTACHMENT_KEY_PREFIX = "email-attachments/";
 
-    @Value("${brevo.sender.email:noreply@bankwise.com}")
-    private String senderEmail;
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final DocumentStore documentStore;
+    private final TransactionTemplate writeTransaction;
 
-    @Value("${brevo.sender.name:BankWise}")
-    private String senderName;
-
-    private TransactionalEmailsApi emailApi;
-    private boolean isConfigured = false;
-
-    @PostConstruct
-    public void init() {
-        if (brevoApiKey != null && !brevoApiKey.isBlank()) {
-            ApiClient defaultClient = Configuration.getDefaultApiClient();
-            ApiKeyAuth apiKey = (ApiKeyAuth) defaultClient.getAuthentication("api-key");
-            apiKey.setApiKey(brevoApiKey);
-            emailApi = new TransactionalEmailsApi();
-            isConfigured = true;
-            log.info("Brevo email service initialized successfully");
-        } else {
-            log.warn("Brevo API key not configured - emails will be logged only");
-        }
+    public EmailService(OutboundEmailRepository outboundEmailRepository,
+                        DocumentStore documentStore,
+                        PlatformTransactionManager transactionManager) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.documentStore = documentStore;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     /**
-     * Send a simple text email asynchronously with retry support.
-     * Retries 3 times with exponential backoff (1s, 2s, 4s) on failure.
+     * Queue a plain-text email at {@link EmailPriority#NORMAL} priority.
      */
-    @Async("emailExecutor")
-    @Retryable(
-        retryFor = {ApiException.class, RuntimeException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
     public void sendEmail(String to, String subject, String text) {
-        log.debug("Attempting to send email to={} subject={}", to, subject);
-        
-        if (!isConfigured) {
-            log.info("[EMAIL LOG] To: {} | Subject: {} | Body: {}", to, subject, text);
-            return;
-        }
-
-        try {
-            SendSmtpEmail email = new SendSmtpEmail();
-            email.setSender(createSender());
-            email.setTo(createRecipients(to));
-            email.setSubject(subject);
-            email.setTextContent(text);
-
-            CreateSmtpEmail result = emailApi.sendTransacEmail(email);
-            log.info("Email sent successfully to={} subject={} messageId={}", to, subject, result.getMessageId());
-        } catch (ApiException e) {
-            log.warn("Failed to send email to={} subject={} error={}", to, subject, e.getMessage());
-            throw new RuntimeException("Failed to send email via Brevo", e);
-        }
+        sendEmail(to, subject, text, EmailPriority.NORMAL);
     }
 
-    /**
-     * Recovery method called when all retry attempts fail for sendEmail.
-     */
-    @Recover
-    public void recoverSendEmail(RuntimeException e, String to, String subject, String text) {
-        log.error("All retry attempts failed for email to={} subject={} error={}", to, subject, e.getMessage());
-        // Log the email content so it's not lost
-        log.info("[FAILED EMAIL] To: {} | Subject: {} | Body: {}", to, subject, text);
+    public void sendEmail(String to, String subject, String text, EmailPriority priority) {
+        enqueue(OutboundEmail.builder()
+                .recipient(to)
+                .subject(subject)
+                .textContent(text)
+                .priority(priority)
+                .build());
     }
 
     /**
-     * Send an email with PDF attachment asynchronously with retry support.
+     * Queue an email rendered by {@link EmailTemplateService}, with its HTML variant when it has one.
      */
-    @Async("emailExecutor")
-    @Retryable(
-        retryFor = {ApiException.class, RuntimeException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public void sendTransactionHistoryPdf(String to, byte[] pdfBytes) {
-        log.debug("Attempting to send transaction PDF to={}", to);
-        
-        if (!isConfigured) {
-            log.info("[EMAIL LOG] PDF attachment to: {} | Size: {} bytes", to, pdfBytes.length);
-            return;
-        }
-
-        try {
-            SendSmtpEmail email = new SendSmtpEmail();
-            email.setSender(createSender());
-            email.setTo(createRecipients(to));
-            email.setSubject("Monthly Transaction Statement");
-            email.setTextContent("Please find attached your monthly transaction statement.");
-
-
-            // Add PDF attachment (Base64 encoded)
-            SendSmtpEmailAttachment attachment = new SendSmtpEmailAttachment();
-            attachment.setName("transaction-history.pdf");
-            attachment.setContent(Base64.getEncoder().encodeToString(pdfBytes).getBytes());
-            email.setAttachment(Collections.singletonList(attachment));
+    public void sendEmail(String to, RenderedEmail email) {
+        sendEmail(to, email, EmailPriority.NORMAL);
+    }
 
-            CreateSmtpEmail result = emailApi.sendTransacEmail(email);
-            log.info("Transaction PDF sent successfully to={} messageId={}", to, result.getMessageId());
-        } catch (ApiException e) {
-            log.warn("Failed to send transaction PDF to={} error={}", to, e.getMessage());
-            throw new RuntimeException("Failed to send email with attachment via Brevo", e);
-        }
+    public void sendEmail(String to, RenderedEmail email, EmailPriority priority) {
+        enqueue(OutboundEmail.builder()
+                .recipient(to)
+                .subject(email.subject())
+                .textContent(email.text())
+                .htmlContent(email.html())
+                .priority(priority)
+                .build());
     }
 
-    /**
-     * Recovery method for PDF email failures.
-     */
-    @Recover
-    public void recoverSendPdf(RuntimeException e, String to, byte[] pdfBytes) {
-        log.error("All retry attempts failed for PDF email to={} error={}", to, e.getMessage());
+    public void sendHtmlEmail(String to, String subject, String htmlContent) {
+        enqueue(OutboundEmail.builder()
+                .recipient(to)
+                .subject(subject)
+                .htmlContent(htmlContent)
+                .priority(EmailPriority.NORMAL)
+                .build());
     }
 
     /**
-     * Send HTML email asynchronously with retry support.
+     * Queue the monthly statement. {@code pdf} renders straight into the document store, where the
+     * PDF waits until it has been sent; it is never held in memory whole.
      */
-    @Async("emailExecutor")
-    @Retryable(
-        retryFor = {ApiException.class, RuntimeException.class},
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public void sendHtmlEmail(String to, String subject, String htmlContent) {
-        log.debug("Attempting to send HTML email to={} subject={}", to, subject);
-        
-        if (!isConfigured) {
-            log.info("[EMAIL LOG] HTML to: {} | Subject: {} | Content length: {} chars", to, subject, htmlContent.length());
+    public void sendTransactionHistoryPdf(String to, DocumentStore.DocumentWriter pdf) {
+        if (!hasRecipient(to)) {
             return;
         }
-
+        String key = ATTACHMENT_KEY_PREFIX + UUID.randomUUID() + ".pdf";
         try {
-            SendSmtpEmail email = new SendSmtpEmail();
-            email.setSender(createSender());
-            email.setTo(createRecipients(to));
-            email.setSubject(subject);
-            email.setHtmlContent(htmlContent);
-
-            CreateSmtpEmail result = emailApi.sendTransacEmail(email);
-            log.info("HTML email sent successfully to={} subject={} messageId={}", to, subject, result.getMessageId());
-        } catch (ApiException e) {
-            log.warn("Failed to send HTML email to={} subject={} error={}", to, subject, e.getMessage());
-            throw new RuntimeException("Failed to send HTML email via Brevo", e);
+            documentStore.write(key, "application/pdf", pdf);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store statement attachment", e);
         }
+        deleteOnRollback(key);
+        enqueue(OutboundEmail.builder()
+                .recipient(to)
+                .subject("Monthly Transaction Statement")
+                .textContent("Please find attached your monthly transaction statement.")
+                .attachmentName("transaction-history.pdf")
+                .attachmentKey(key)
+                .priority(EmailPriority.BULK)
+                .build());
     }
 
-    /**
-     * Recovery method for HTML email failures.
-     */
-    @Recover
-    public void recoverSendHtmlEmail(RuntimeException e, String to, String subject, String htmlContent) {
-        log.error("All retry attempts failed for HTML email to={} subject={} error={}", to, subject, e.getMessage());
-        log.info("[FAILED EMAIL] HTML to: {} | Subject: {}", to, subject);
+    private void enqueue(OutboundEmail email) {
+        if (!hasRecipient(email.getRecipient())) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // A read-only transaction may be on the replica; queue on the primary instead
+            writeTransaction.executeWithoutResult(status -> outboundEmailRepository.save(email));
+        } else {
+            outboundEmailRepository.save(email);
+        }
+        log.debug("Email queued id={} to={} subject={} priority={}",
+                email.getId(), email.getRecipient(), email.getSubject(), email.getPriority());
     }
 
-    private SendSmtpEmailSender createSender() {
-        SendSmtpEmailSender sender = new SendSmtpEmailSender();
-        sender.setEmail(senderEmail);
-        sender.setName(senderName);
-        return sender;
+    private boolean hasRecipient(String to) {
+        if (to == null || to.isBlank()) {
+            log.warn("Email without a recipient dropped");
+            return false;
+        }
+        return true;
     }
 
-    private List<SendSmtpEmailTo> createRecipients(String to) {
-        SendSmtpEmailTo recipient = new SendSmtpEmailTo();
-        recipient.setEmail(to);
-        return Collections.singletonList(recipient);
+    private void deleteOnRollback(String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        documentStore.delete(key);
+                    }
+                }
+            });
+        }
     }
 }
-
-
-
-
@@ -0,0 +1,154 @@
+package com.example.banking_system.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An email template compiled once into literal fragments and value slots, so rendering is a
+ * single pass of appends with no parsing. Slots are written {@code {{name}}} or
+ * {@code {{name|money}}} (two decimals, half-up, like {@code %.2f}). In HTML templates every
+ * value is escaped; the template text itself is trusted.
+ * <p>
+ * Rendering reuses a per-thread buffer, sized up front from the template, so a reminder run
+ * over thousands of loans allocates little more than the resulting strings.
+ */
+public final class EmailTemplate {
+
+    private static final Pattern SLOT = Pattern.compile("\\{\\{\\s*([A-Za-z][A-Za-z0-9_]*)\\s*(?:\\|\\s*([a-z]+)\\s*)?}}");
+    private static final int EXPECTED_VALUE_LENGTH = 16;
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private enum Format { PLAIN, MONEY }
+
+    private final String name;
+    private final boolean html;
+    // literals[i] comes before slot i; literals has one more element than keys
+    private final String[] literals;
+    private final String[] keys;
+    private final Format[] formats;
+    private final int sizeHint;
+
+    private EmailTemplate(String name, boolean html, String[] literals, String[] keys, Format[] formats) {
+        this.name = name;
+        this.html = html;
+        this.literals = literals;
+        this.keys = keys;
+        this.formats = formats;
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+        this.sizeHint = literalLength + keys.length * EXPECTED_VALUE_LENGTH;
+    }
+
+    /**
+     * @throws IllegalArgumentException on an unknown format, so a broken template fails at startup
+     */
+    public static EmailTemplate compile(String name, String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Format> formats = new ArrayList<>();
+        Matcher matcher = SLOT.matcher(source);
+        int last = 0;
+        while (matcher.find()) {
+            literals.add(source.substring(last, matcher.start()));
+            keys.add(matcher.group(1));
+            formats.add(parseFormat(name, matcher.group(2)));
+            last = matcher.end();
+        }
+        literals.add(source.substring(last));
+        return new EmailTemplate(name, html, literals.toArray(String[]::new), keys.toArray(String[]::new),
+                formats.toArray(Format[]::new));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<String> keys() {
+        return new LinkedHashSet<>(List.of(keys));
+    }
+
+    /**
+     * @throws IllegalArgumentException when {@code values} has no entry for a slot
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(sizeHint);
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                out.append(literals[i]);
+                Object value = values.get(keys[i]);
+                if (value == null && !values.containsKey(keys[i])) {
+                    throw new IllegalArgumentException("No value for {{" + keys[i] + "}} in email template " + name);
+                }
+                appendValue(out, value, formats[i]);
+            }
+            out.append(literals[keys.length]);
+            return out.toString();
+        } finally {
+            if (out.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    private void appendValue(StringBuilder out, Object value, Format format) {
+        if (value == null) {
+            return;
+        }
+        if (format == Format.MONEY) {
+            out.append(toAmount(value).setScale(2, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+        CharSequence text = value instanceof CharSequence chars ? chars : String.valueOf(value);
+        if (html) {
+            appendEscaped(out, text);
+        } else {
+            out.append(text);
+        }
+    }
+
+    private BigDecimal toAmount(Object value) {
+        if (value instanceof BigDecimal amount) {
+            return amount;
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        throw new IllegalArgumentException("Email template " + name + " expects a number for a money slot, got " + value.getClass().getSimpleName());
+    }
+
+    private static void appendEscaped(StringBuilder out, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static Format parseFormat(String template, String format) {
+        if (format == null) {
+            return Format.PLAIN;
+        }
+        if (format.equals("money")) {
+            return Format.MONEY;
+        }
+        throw new IllegalArgumentException("Unknown format '" + format + "' in email template " + template);
+    }
+}
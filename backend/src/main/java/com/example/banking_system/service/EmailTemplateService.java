@@ -0,0 +1,101 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.RenderedEmail;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Email bodies from {@code templates/email} on the classpath, compiled once at startup.
+ * <p>
+ * {@code <name>.txt} is required: a {@code Subject: ...} line, a blank line, then the text body.
+ * {@code <name>.html} is an optional HTML body for the same values. See {@link EmailTemplate}
+ * for the placeholder syntax.
+ */
+@Service
+@Slf4j
+public class EmailTemplateService {
+
+    private static final String LOCATION = "classpath*:templates/email/";
+    private static final String SUBJECT_PREFIX = "Subject:";
+
+    private record CompiledEmail(EmailTemplate subject, EmailTemplate text, EmailTemplate html) {
+    }
+
+    private final Map<String, CompiledEmail> templates;
+
+    public EmailTemplateService() {
+        this.templates = loadAll();
+        log.info("Compiled {} email templates", templates.size());
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown template or a missing value
+     */
+    public RenderedEmail render(String name, Map<String, ?> values) {
+        CompiledEmail email = templates.get(name);
+        if (email == null) {
+            throw new IllegalArgumentException("Unknown email template " + name);
+        }
+        return new RenderedEmail(email.subject().render(values), email.text().render(values),
+                email.html() != null ? email.html().render(values) : null);
+    }
+
+    /**
+     * Render with values given as name/value pairs. Unlike {@code Map.of}, values may be null
+     * (rendered as nothing), so an unset field cannot make a payment job fail on its email.
+     */
+    public RenderedEmail render(String name, Object... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Values for email template " + name + " must be name/value pairs");
+        }
+        Map<String, Object> values = new HashMap<>(namesAndValues.length);
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            values.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return render(name, values);
+    }
+
+    private static Map<String, CompiledEmail> loadAll() {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Map<String, CompiledEmail> compiled = new HashMap<>();
+        try {
+            for (Resource resource : resolver.getResources(LOCATION + "*.txt")) {
+                String filename = resource.getFilename();
+                String name = filename.substring(0, filename.length() - ".txt".length());
+                String source = read(resource);
+                int bodyStart = source.indexOf("\n\n");
+                if (!source.startsWith(SUBJECT_PREFIX) || bodyStart < 0) {
+                    throw new IllegalStateException("Email template " + filename + " must start with a Subject: line and a blank line");
+                }
+                String subject = source.substring(SUBJECT_PREFIX.length(), source.indexOf('\n')).strip();
+                Resource htmlResource = resolver.getResource(LOCATION.replace("classpath*:", "classpath:") + name + ".html");
+                compiled.put(name, new CompiledEmail(
+                        EmailTemplate.compile(name + " (subject)", subject, false),
+                        EmailTemplate.compile(name, source.substring(bodyStart + 2), false),
+                        htmlResource.exists() ? EmailTemplate.compile(name + ".html", read(htmlResource), true) : null));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load email templates", e);
+        }
+        return Map.copyOf(compiled);
+    }
+
+    /**
+     * UTF-8, line endings normalised to \n and the file's final newline dropped.
+     */
+    private static String read(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+            return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+        }
+    }
+}
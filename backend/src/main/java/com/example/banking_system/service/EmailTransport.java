@@ -0,0 +1,23 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.OutboundEmail;
+import com.example.banking_system.exception.EmailTransportException;
+
+import java.util.List;
+
+/**
+ * Delivers queued email to the provider. Called only by {@link EmailDispatcher}.
+ * Implementations: {@link BrevoEmailTransport} (default) and {@link LoggingEmailTransport}
+ * ({@code bankwise.email.transport=log}, for tests and local runs).
+ */
+public interface EmailTransport {
+
+    /**
+     * Send one message to every recipient in {@code emails}. All of them share the subject, content
+     * and attachment of the first; a single element is a plain one-recipient send.
+     *
+     * @param attachment content of {@code emails.get(0).getAttachmentName()}, or null
+     * @return provider message ids, in recipient order when the provider reports one per recipient
+     */
+    List<String> send(List<OutboundEmail> emails, byte[] attachment) throws EmailTransportException;
+}
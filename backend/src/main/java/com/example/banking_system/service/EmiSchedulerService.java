@@ -1,15 +1,17 @@
 package com.example.banking_system.service;
 
+import com.example.banking_system.dto.RenderedEmail;
 import com.example.banking_system.entity.Account;
 import com.example.banking_system.entity.LoanRequest;
 import com.example.banking_system.entity.Transaction;
 import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.EmailPriority;
 import com.example.banking_system.enums.LoanStatus;
 import com.example.banking_system.enums.TransactionType;
+import com.example.banking_system.exception.IdempotencyInProgressException;
 import com.example.banking_system.repository.LoanRepo;
 import com.example.banking_system.repository.TransactionRepository;
 import com.example.banking_system.repository.AccountRepository;
-import com.example.banking_system.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -17,13 +19,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Service for handling automatic EMI deductions for loans.
- * Runs daily to process due EMIs and update credit scores.
+ * Runs daily to process due EMIs and queue credit score changes,
+ * which {@link CreditScoreService} applies once per user at the end of the run.
  */
 @Service
 @RequiredArgsConstructor
@@ -33,10 +37,12 @@ public class EmiSchedulerService {
     private final LoanRepo loanRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
+    private final CreditScoreService creditScoreService;
     private final EmailService emailService;
+    private final EmailTemplateService emailTemplates;
     private final IdempotencyService idempotencyService;
     private final CacheEvictionService cacheEvictionService;
+    private final LedgerService ledgerService;
 
     // Credit score adjustments
     private static final int EARLY_PAYMENT_BONUS = 2;      // +2 for early payment
@@ -66,6 +72,9 @@ public class EmiSchedulerService {
         // Process overdue EMIs (with late penalties)
         processOverdueEmis(today);
         
+        // Write each user's net credit score change once for the whole run
+        creditScoreService.applyPendingChanges();
+        
         log.info("Completed scheduled EMI processing");
     }
 
@@ -94,81 +103,52 @@ public class EmiSchedulerService {
     public EmiPaymentResult processEmiPayment(LoanRequest loan, LocalDate dueDate) {
         // Generate idempotency key: emi::loanId::dueDate to ensure only one deduction per loan per date
         String idempotencyKey = "emi::" + loan.getId() + "::" + dueDate;
-        
-        // Check if this EMI payment was already processed
-        String cachedResult = idempotencyService.getResult(idempotencyKey);
-        if (cachedResult != null) {
-            log.info("Idempotent EMI payment detected for loan {} on {}, returning cached result", 
-                     loan.getId(), dueDate);
-            try {
-                return new com.fasterxml.jackson.databind.ObjectMapper().readValue(cachedResult, EmiPaymentResult.class);
-            } catch (Exception e) {
-                log.warn("Failed to deserialize cached EMI result", e);
-            }
-        }
-        
-        // Acquire lock to ensure only one thread processes this EMI
-        boolean locked = idempotencyService.acquireIdempotencyLock(idempotencyKey);
-        if (!locked) {
+        try {
+            // The scheduler does not wait for a run in progress elsewhere; it is picked up next time if it failed
+            return idempotencyService.execute(idempotencyKey, EmiPaymentResult.class, Duration.ZERO,
+                    () -> deductEmi(loan, dueDate));
+        } catch (IdempotencyInProgressException e) {
             log.warn("Could not acquire lock for EMI payment: {}, skipping", idempotencyKey);
             return new EmiPaymentResult(false, "EMI payment already in progress");
+        } catch (RuntimeException e) {
+            log.error("Error processing EMI payment for loan {} on {}: {}", loan.getId(), dueDate, e.getMessage());
+            throw e;
         }
-        
-        try {
-            Account account = loan.getBankAccount();
-            User user = account.getUser();
-            BigDecimal emiAmount = loan.getEmiAmount();
-            
-            if (emiAmount == null || emiAmount.compareTo(BigDecimal.ZERO) <= 0) {
-                log.warn("Invalid EMI amount for loan {}", loan.getId());
-                return new EmiPaymentResult(false, "Invalid EMI amount");
-            }
+    }
 
-            // Check if sufficient balance (including overdraft)
-            BigDecimal availableBalance = getAvailableBalance(account);
-            
-            LocalDate today = LocalDate.now();
-            boolean isEarlyPayment = dueDate.isAfter(today);
-            boolean isOnTime = dueDate.equals(today) || (dueDate.isBefore(today) && 
-                               dueDate.plusDays(GRACE_PERIOD_DAYS).isAfter(today));
-            boolean isLate = dueDate.plusDays(GRACE_PERIOD_DAYS).isBefore(today) || 
-                             dueDate.plusDays(GRACE_PERIOD_DAYS).equals(today);
-            boolean isMissed = dueDate.plusDays(LATE_THRESHOLD_DAYS).isBefore(today);
+    private EmiPaymentResult deductEmi(LoanRequest loan, LocalDate dueDate) {
+        Account account = loan.getBankAccount();
+        User user = account.getUser();
+        BigDecimal emiAmount = loan.getEmiAmount();
 
-            EmiPaymentResult result;
-            if (availableBalance.compareTo(emiAmount) >= 0) {
-                // Sufficient balance - process payment
-                result = processSuccessfulEmiPayment(loan, account, user, emiAmount, isEarlyPayment, isOnTime);
-            } else {
-                // Insufficient balance - handle failure
-                result = handleInsufficientBalance(loan, account, user, emiAmount, availableBalance, isLate, isMissed);
-            }
-            
-            // Cache the result for 24 hours to ensure idempotency
-            // storeResult() also releases the lock
-            boolean resultStored = false;
-            try {
-                String resultJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(result);
-                idempotencyService.storeResult(idempotencyKey, resultJson);
-                resultStored = true;
-            } catch (Exception e) {
-                log.warn("Failed to serialize EMI result for caching", e);
-            }
-            
-            // Evict EMI cache to refresh dashboard
-            cacheEvictionService.evictByOperationType("EMI", user.getEmail(), account.getAccountNumber());
-            
-            // Release lock if result was not stored (storeResult handles its own lock release)
-            if (!resultStored) {
-                idempotencyService.releaseLock(idempotencyKey);
-            }
-            
-            return result;
-        } catch (Exception e) {
-            log.error("Error processing EMI payment for loan {} on {}: {}", loan.getId(), dueDate, e.getMessage());
-            idempotencyService.releaseLock(idempotencyKey);
-            throw e;
+        if (emiAmount == null || emiAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            log.warn("Invalid EMI amount for loan {}", loan.getId());
+            return new EmiPaymentResult(false, "Invalid EMI amount");
         }
+
+        // Check if sufficient balance (including overdraft)
+        BigDecimal availableBalance = getAvailableBalance(account);
+
+        LocalDate today = LocalDate.now();
+        boolean isEarlyPayment = dueDate.isAfter(today);
+        boolean isOnTime = dueDate.equals(today) || (dueDate.isBefore(today) && 
+                           dueDate.plusDays(GRACE_PERIOD_DAYS).isAfter(today));
+        boolean isLate = dueDate.plusDays(GRACE_PERIOD_DAYS).isBefore(today) || 
+                         dueDate.plusDays(GRACE_PERIOD_DAYS).equals(today);
+        boolean isMissed = dueDate.plusDays(LATE_THRESHOLD_DAYS).isBefore(today);
+
+        EmiPaymentResult result;
+        if (availableBalance.compareTo(emiAmount) >= 0) {
+            // Sufficient balance - process payment
+            result = processSuccessfulEmiPayment(loan, account, user, emiAmount, isEarlyPayment, isOnTime);
+        } else {
+            // Insufficient balance - handle failure
+            result = handleInsufficientBalance(loan, account, user, emiAmount, availableBalance, isLate, isMissed);
+        }
+
+        // Evict EMI cache to refresh dashboard
+        cacheEvictionService.evictByOperationType("EMI", user.getEmail(), account.getAccountNumber());
+        return result;
     }
 
     /**
@@ -179,6 +159,8 @@ public class EmiSchedulerService {
         
         // Deduct from account
         deductFromAccount(account, emiAmount);
+        ledgerService.record(account.getAccountNumber(), LedgerService.LOANS, emiAmount,
+            TransactionType.LOAN_REPAYMENT, "LOAN:" + loan.getId());
         
         // Update loan status
         loan.incrementEmisPaid();
@@ -193,21 +175,25 @@ public class EmiSchedulerService {
             log.info("Loan {} fully paid", loan.getId());
         }
         
-        // Update credit score
+        // Queue credit score change
         int creditScoreChange;
         String paymentType;
+        String reason;
         if (isEarlyPayment) {
             creditScoreChange = EARLY_PAYMENT_BONUS;
             paymentType = "early";
+            reason = "EARLY_PAYMENT";
         } else if (isOnTime) {
             creditScoreChange = ON_TIME_PAYMENT_BONUS;
             paymentType = "on-time";
+            reason = "ON_TIME_PAYMENT";
         } else {
             creditScoreChange = 0;
             paymentType = "late (within grace period)";
+            reason = "GRACE_PERIOD_PAYMENT";
         }
         
-        updateCreditScore(user, creditScoreChange);
+        creditScoreService.recordChange(user, loan.getId(), creditScoreChange, reason);
         
         // Create transaction record
         createEmiTransaction(account, emiAmount, loan.getId(), true);
@@ -234,7 +220,7 @@ public class EmiSchedulerService {
         if (isMissed) {
             // Missed payment - apply penalty
             loan.incrementMissedEmis();
-            updateCreditScore(user, MISSED_PAYMENT_PENALTY);
+            creditScoreService.recordChange(user, loan.getId(), MISSED_PAYMENT_PENALTY, "MISSED_PAYMENT");
             loanRepository.save(loan);
             
             sendMissedEmiNotification(user, loan, emiAmount);
@@ -244,7 +230,7 @@ public class EmiSchedulerService {
                                         Math.abs(MISSED_PAYMENT_PENALTY));
         } else if (isLate) {
             // Late payment - apply smaller penalty
-            updateCreditScore(user, LATE_PAYMENT_PENALTY);
+            creditScoreService.recordChange(user, loan.getId(), LATE_PAYMENT_PENALTY, "LATE_PAYMENT");
             
             sendInsufficientBalanceWarning(user, loan, emiAmount, availableBalance);
             log.warn("Insufficient balance for EMI, loan {}, available: {}, required: {}", 
@@ -297,29 +283,19 @@ public class EmiSchedulerService {
             Account account = loan.getBankAccount();
             BigDecimal availableBalance = getAvailableBalance(account);
             
-            String subject = "EMI Payment Reminder - Due in 3 Days";
-            String message = String.format(
-                "Dear %s,\n\n" +
-                "This is a reminder that your EMI payment of ₹%.2f for Loan #%d is due on %s.\n\n" +
-                "Current Account Balance: ₹%.2f\n" +
-                "EMI Amount Due: ₹%.2f\n" +
-                "Remaining EMIs: %d\n\n" +
-                "%s\n\n" +
-                "Please ensure sufficient balance in your account for auto-debit.\n\n" +
-                "Thank you,\nBankwise Team",
-                user.getName(),
-                loan.getEmiAmount().doubleValue(),
-                loan.getId(),
-                reminderDate,
-                availableBalance.doubleValue(),
-                loan.getEmiAmount().doubleValue(),
-                loan.getRemainingEmis(),
-                availableBalance.compareTo(loan.getEmiAmount()) < 0 
+            RenderedEmail email = emailTemplates.render("emi-reminder",
+                "name", user.getName(),
+                "emiAmount", loan.getEmiAmount(),
+                "loanId", loan.getId(),
+                "dueDate", reminderDate,
+                "balance", availableBalance,
+                "remainingEmis", loan.getRemainingEmis(),
+                "balanceNote", availableBalance.compareTo(loan.getEmiAmount()) < 0
                     ? "⚠️ WARNING: Your current balance is insufficient for the EMI payment!"
                     : "✓ Your account has sufficient balance for the EMI payment."
             );
             
-            emailService.sendEmail(user.getEmail(), subject, message);
+            emailService.sendEmail(user.getEmail(), email, EmailPriority.BULK);
             log.debug("Sent EMI reminder to {} for loan {}", user.getEmail(), loan.getId());
         }
     }
@@ -368,18 +344,6 @@ public class EmiSchedulerService {
         return emiAmount.subtract(interest).max(BigDecimal.ZERO);
     }
 
-    /**
-     * Update user's credit score with bounds checking.
-     */
-    private void updateCreditScore(User user, int change) {
-        int currentScore = user.getCreditScore() != null ? user.getCreditScore() : 650;
-        int newScore = Math.min(850, Math.max(300, currentScore + change)); // Keep between 300-850
-        user.setCreditScore(newScore);
-        userRepository.save(user);
-        log.info("Updated credit score for user {}: {} -> {} (change: {})", 
-                 user.getEmail(), currentScore, newScore, change);
-    }
-
     /**
      * Create a transaction record for EMI payment.
      */
@@ -398,36 +362,22 @@ public class EmiSchedulerService {
      * Send EMI payment confirmation email.
      */
     private void sendEmiPaymentConfirmation(User user, LoanRequest loan, BigDecimal amount, String paymentType) {
-        String subject = "EMI Payment Successful - Loan #" + loan.getId();
-        String message = String.format(
-            "Dear %s,\n\n" +
-            "Your EMI payment has been successfully processed.\n\n" +
-            "Payment Details:\n" +
-            "- Loan ID: #%d\n" +
-            "- EMI Amount: ₹%.2f\n" +
-            "- Payment Type: %s\n" +
-            "- EMIs Paid: %d/%d\n" +
-            "- Remaining EMIs: %d\n" +
-            "- Remaining Principal: ₹%.2f\n" +
-            "- Next EMI Date: %s\n\n" +
-            "%s\n\n" +
-            "Thank you for your timely payment!\n\n" +
-            "Best regards,\nBankwise Team",
-            user.getName(),
-            loan.getId(),
-            amount.doubleValue(),
-            paymentType,
-            loan.getEmisPaid(),
-            loan.getTotalEmis(),
-            loan.getRemainingEmis(),
-            loan.getRemainingPrincipal().doubleValue(),
-            loan.getNextEmiDate() != null ? loan.getNextEmiDate().toString() : "N/A",
-            loan.isFullyPaid() 
+        RenderedEmail email = emailTemplates.render("emi-payment-confirmation",
+            "name", user.getName(),
+            "loanId", loan.getId(),
+            "amount", amount,
+            "paymentType", paymentType,
+            "emisPaid", loan.getEmisPaid(),
+            "totalEmis", loan.getTotalEmis(),
+            "remainingEmis", loan.getRemainingEmis(),
+            "remainingPrincipal", loan.getRemainingPrincipal(),
+            "nextEmiDate", loan.getNextEmiDate() != null ? loan.getNextEmiDate() : "N/A",
+            "closingNote", loan.isFullyPaid()
                 ? "🎉 Congratulations! Your loan has been fully paid off!" 
                 : "Keep up the good payment record to improve your credit score!"
         );
         
-        emailService.sendEmail(user.getEmail(), subject, message);
+        emailService.sendEmail(user.getEmail(), email);
     }
 
     /**
@@ -435,63 +385,33 @@ public class EmiSchedulerService {
      */
     private void sendInsufficientBalanceWarning(User user, LoanRequest loan, 
             BigDecimal required, BigDecimal available) {
-        String subject = "⚠️ Urgent: Insufficient Balance for EMI - Loan #" + loan.getId();
-        String message = String.format(
-            "Dear %s,\n\n" +
-            "IMPORTANT: Your account has insufficient balance for the scheduled EMI payment.\n\n" +
-            "EMI Details:\n" +
-            "- Loan ID: #%d\n" +
-            "- EMI Amount Due: ₹%.2f\n" +
-            "- Available Balance: ₹%.2f\n" +
-            "- Shortfall: ₹%.2f\n" +
-            "- Due Date: %s\n\n" +
-            "⚠️ Warning: Failure to pay EMI on time may result in:\n" +
-            "- Late payment penalties\n" +
-            "- Reduction in your credit score (up to -%d points)\n" +
-            "- Additional interest charges\n\n" +
-            "Please deposit sufficient funds immediately to avoid penalties.\n\n" +
-            "Best regards,\nBankwise Team",
-            user.getName(),
-            loan.getId(),
-            required.doubleValue(),
-            available.doubleValue(),
-            required.subtract(available).doubleValue(),
-            loan.getNextEmiDate(),
-            Math.abs(LATE_PAYMENT_PENALTY)
+        RenderedEmail email = emailTemplates.render("emi-insufficient-balance",
+            "name", user.getName(),
+            "loanId", loan.getId(),
+            "required", required,
+            "available", available,
+            "shortfall", required.subtract(available),
+            "dueDate", loan.getNextEmiDate() != null ? loan.getNextEmiDate() : "N/A",
+            "penaltyPoints", Math.abs(LATE_PAYMENT_PENALTY)
         );
         
-        emailService.sendEmail(user.getEmail(), subject, message);
+        emailService.sendEmail(user.getEmail(), email);
     }
 
     /**
      * Send missed EMI notification email.
      */
     private void sendMissedEmiNotification(User user, LoanRequest loan, BigDecimal amount) {
-        String subject = "❌ EMI Payment Missed - Loan #" + loan.getId();
-        String message = String.format(
-            "Dear %s,\n\n" +
-            "Unfortunately, your EMI payment for Loan #%d has been marked as missed.\n\n" +
-            "Payment Details:\n" +
-            "- EMI Amount: ₹%.2f\n" +
-            "- Due Date: %s\n" +
-            "- Missed EMIs (Total): %d\n\n" +
-            "Impact:\n" +
-            "- Your credit score has been reduced by %d points\n" +
-            "- Additional late fees may apply\n" +
-            "- This may affect your future loan eligibility\n\n" +
-            "Please make the payment as soon as possible to minimize further impact.\n\n" +
-            "If you are facing financial difficulties, please contact our support team " +
-            "to discuss restructuring options.\n\n" +
-            "Best regards,\nBankwise Team",
-            user.getName(),
-            loan.getId(),
-            amount.doubleValue(),
-            loan.getNextEmiDate(),
-            loan.getMissedEmis(),
-            Math.abs(MISSED_PAYMENT_PENALTY)
+        RenderedEmail email = emailTemplates.render("emi-missed",
+            "name", user.getName(),
+            "loanId", loan.getId(),
+            "amount", amount,
+            "dueDate", loan.getNextEmiDate() != null ? loan.getNextEmiDate() : "N/A",
+            "missedEmis", loan.getMissedEmis(),
+            "penaltyPoints", Math.abs(MISSED_PAYMENT_PENALTY)
         );
         
-        emailService.sendEmail(user.getEmail(), subject, message);
+        emailService.sendEmail(user.getEmail(), email);
     }
 
     /**
@@ -545,21 +465,17 @@ public class EmiSchedulerService {
         loanRepository.save(loan);
         
         User user = loan.getBankAccount().getUser();
-        String subject = "Auto-Debit " + (enabled ? "Enabled" : "Disabled") + " - Loan #" + loanId;
-        String message = String.format(
-            "Dear %s,\n\n" +
-            "Auto-debit for Loan #%d has been %s.\n\n" +
-            "%s\n\n" +
-            "Best regards,\nBankwise Team",
-            user.getName(),
-            loanId,
-            enabled ? "enabled" : "disabled",
-            enabled 
+        RenderedEmail email = emailTemplates.render("emi-auto-debit",
+            "name", user.getName(),
+            "loanId", loanId,
+            "stateTitle", enabled ? "Enabled" : "Disabled",
+            "state", enabled ? "enabled" : "disabled",
+            "note", enabled 
                 ? "Your EMI payments will be automatically deducted from your account on the due date."
                 : "Please ensure you make manual EMI payments on time to avoid penalties."
         );
         
-        emailService.sendEmail(user.getEmail(), subject, message);
+        emailService.sendEmail(user.getEmail(), email);
     }
 
     /**
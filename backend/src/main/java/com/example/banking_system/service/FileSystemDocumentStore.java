@@ -0,0 +1,142 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.StoredDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * {@link DocumentStore} on the local filesystem (or a mounted volume).
+ * Objects are written to a temp file next to their target and moved into place,
+ * so readers never see a half-written document.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "bankwise.documents.store", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemDocumentStore implements DocumentStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9._-]+(/[A-Za-z0-9._-]+)*");
+
+    private final Path root;
+
+    public FileSystemDocumentStore(@Value("${bankwise.documents.fs.root:./data/documents}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public StoredDocument put(String key, InputStream content, String contentType) throws IOException {
+        return write(key, contentType, content::transferTo);
+    }
+
+    @Override
+    public StoredDocument write(String key, String contentType, DocumentWriter writer) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        MessageDigest digest = sha256();
+        CountingOutputStream counter;
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+            counter = new CountingOutputStream(out);
+            writer.writeTo(counter);
+            counter.flush();
+        } catch (Exception e) {
+            Files.deleteIfExists(temp);
+            if (e instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to write document " + key, e);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        log.debug("Stored document key={} size={} sha256={}", key, counter.count, hash);
+        return new StoredDocument(key, counter.count, hash, contentType);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.exists(path)) {
+            throw new NoSuchFileException(key);
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            log.warn("Failed to delete document key={}: {}", key, e.getMessage());
+        }
+    }
+
+    private Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches() || key.contains("..")) {
+            throw new IllegalArgumentException("Invalid document key");
+        }
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid document key");
+        }
+        return path;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // the enclosing try-with-resources closes the underlying stream
+        }
+    }
+}
@@ -1,99 +1,211 @@
 package com.example.banking_system.service;
 
-import lombok.RequiredArgsConstructor;
+import com.example.banking_system.config.RedisAvailability;
+import com.example.banking_system.exception.IdempotencyInProgressException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Service for handling idempotent operations in banking transactions.
- * Prevents duplicate processing of critical operations like transfers, EMI payments, and deposits.
- * Uses Redis with 24-hour TTL to track operation IDs.
+ * Runs critical operations (transfers, EMI payments, deposits, loan applications) at most once
+ * per idempotency key and replays the stored result to duplicates for 24 hours.
+ * <p>
+ * The system of record is a row in {@code idempotency_records}, inserted and filled in the
+ * caller's transaction: the result commits together with the money movement, or neither does.
+ * Concurrent requests for the same key serialize on a transaction-scoped advisory lock; the
+ * primary key on the table is the backstop. Redis only caches completed results so most
+ * duplicates are answered without touching the database; it is written after commit and skipped
+ * while unavailable.
+ * <p>
+ * A duplicate that finds the lock taken first looks for a committed result, which is there
+ * unless the original is still running. Only then does it wait for the original to commit. The
+ * waiter holds a request thread and a pooled connection, so at most
+ * {@code bankwise.idempotency.max-waiters} requests wait at a time and the wait is short;
+ * everyone else gets {@link IdempotencyInProgressException} straight away.
+ * <p>
+ * Failing fast (no wait allowed, or no waiter slot) leaves the caller's transaction usable: the
+ * EMI run skips that loan and carries on in the same transaction. A wait that times out does
+ * not: PostgreSQL aborts the transaction when lock_timeout fires, so it is marked rollback-only
+ * and everything the caller did in it is undone.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class IdempotencyService {
 
-    private final RedisTemplate<String, String> redisTemplate;
-
-    private static final String IDEMPOTENCY_KEY_PREFIX = "idempotency::";
     private static final String RESULT_KEY_PREFIX = "idempotency:result::";
     private static final long IDEMPOTENCY_TTL_HOURS = 24;
+    // Namespace for pg_advisory_xact_lock(int, int); the second half is hashtext(key)
+    private static final int ADVISORY_LOCK_CLASS = 0x1D3;
+    // SQLSTATE raised when lock_timeout expires
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisAvailability redisAvailability;
+    private final ObjectWriter resultWriter;
+    // One reader per result type (EmiPaymentResult, transfer results, ...), bound on first use
+    private final Map<Class<?>, ObjectReader> resultReaders = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final Duration defaultWait;
+    private final Semaphore waiters;
+    private final int purgeBatchSize;
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              RedisTemplate<String, String> redisTemplate,
+                              RedisAvailability redisAvailability,
+                              ObjectMapper objectMapper,
+                              @Value("${bankwise.idempotency.wait-timeout-ms:2000}") long waitTimeoutMillis,
+                              @Value("${bankwise.idempotency.max-waiters:4}") int maxWaiters,
+                              @Value("${bankwise.idempotency.purge-batch-size:1000}") int purgeBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.redisTemplate = redisTemplate;
+        this.redisAvailability = redisAvailability;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writer();
+        this.defaultWait = Duration.ofMillis(waitTimeoutMillis);
+        this.waiters = new Semaphore(Math.max(0, maxWaiters));
+        this.purgeBatchSize = purgeBatchSize;
+    }
 
     /**
-     * Check if an operation with the given idempotency key has already been processed.
-     * If it exists, return the cached result.
+     * Run {@code operation} once for {@code idempotencyKey}, in the caller's transaction, or
+     * return the result of the run that already committed. A duplicate arriving while the first
+     * run is in flight waits up to the configured timeout for it to commit.
      *
-     * @param idempotencyKey Unique identifier for the operation
-     * @return Cached result if exists, null otherwise
+     * @throws IdempotencyInProgressException if the operation is still in progress; the caller's
+     *                                        transaction is rollback-only if the wait timed out
      */
-    public String getResult(String idempotencyKey) {
-        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
-            return null;
-        }
-        String resultKey = RESULT_KEY_PREFIX + idempotencyKey;
-        String cachedResult = redisTemplate.opsForValue().get(resultKey);
-        if (cachedResult != null) {
-            log.info("Idempotency HIT: Returning cached result for key: {}", idempotencyKey);
-        }
-        return cachedResult;
+    @Transactional(noRollbackFor = IdempotencyInProgressException.class)
+    public <E extends Exception> String execute(String idempotencyKey, Operation<String, E> operation) throws E {
+        return execute(idempotencyKey, defaultWait, operation);
     }
 
     /**
-     * Record that an operation with the given idempotency key is being processed.
-     * Returns false if another thread is already processing it.
-     *
-     * @param idempotencyKey Unique identifier for the operation
-     * @return true if successfully acquired the lock, false if already being processed
+     * As {@link #execute(String, Operation)}; {@code Duration.ZERO} fails at once instead of waiting.
      */
-    public boolean acquireIdempotencyLock(String idempotencyKey) {
+    @Transactional(noRollbackFor = IdempotencyInProgressException.class)
+    public <E extends Exception> String execute(String idempotencyKey, Duration maxWait,
+                                                Operation<String, E> operation) throws E {
         if (idempotencyKey == null || idempotencyKey.isEmpty()) {
-            return true; // No idempotency key, proceed
+            return operation.run();
+        }
+        String cached = cachedResult(idempotencyKey);
+        if (cached != null) {
+            log.info("Idempotency HIT (cache): Returning stored result for key: {}", idempotencyKey);
+            return cached;
+        }
+        if (!tryLock(idempotencyKey)) {
+            String committed = committedResult(idempotencyKey);
+            if (committed != null) {
+                log.info("Idempotency HIT (committed): Returning stored result for key: {}", idempotencyKey);
+                cacheAfterCommit(idempotencyKey, committed);
+                return committed;
+            }
+            awaitLock(idempotencyKey, maxWait);
+        }
+        Instant now = Instant.now();
+        int claimed = jdbcTemplate.update(
+                "INSERT INTO idempotency_records (idempotency_key, created_at, expires_at) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (idempotency_key) DO NOTHING",
+                idempotencyKey, Timestamp.from(now),
+                Timestamp.from(now.plus(IDEMPOTENCY_TTL_HOURS, ChronoUnit.HOURS)));
+        if (claimed == 0) {
+            String stored = jdbcTemplate.queryForObject(
+                    "SELECT response FROM idempotency_records WHERE idempotency_key = ?", String.class, idempotencyKey);
+            log.info("Idempotency HIT: Returning stored result for key: {}", idempotencyKey);
+            cacheAfterCommit(idempotencyKey, stored);
+            return stored;
         }
-        String lockKey = IDEMPOTENCY_KEY_PREFIX + idempotencyKey;
-        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, "processing", 5, TimeUnit.MINUTES);
-        if (Boolean.TRUE.equals(acquired)) {
-            log.debug("Idempotency LOCK acquired for key: {}", idempotencyKey);
-            return true;
+
+        String result;
+        try {
+            result = operation.run();
+        } catch (RuntimeException | Error e) {
+            throw e; // the transaction rolls back, claim included
+        } catch (Exception e) {
+            // Checked exceptions do not roll back by default; drop the claim so a retry can run
+            jdbcTemplate.update("DELETE FROM idempotency_records WHERE idempotency_key = ?", idempotencyKey);
+            throw e;
         }
-        log.warn("Idempotency LOCK already held for key: {}", idempotencyKey);
-        return false;
+        jdbcTemplate.update("UPDATE idempotency_records SET response = ? WHERE idempotency_key = ?",
+                result, idempotencyKey);
+        cacheAfterCommit(idempotencyKey, result);
+        return result;
     }
 
     /**
-     * Store the result of an operation for future retrieval in case of duplicate requests.
-     *
-     * @param idempotencyKey Unique identifier for the operation
-     * @param result The result to cache as JSON string
+     * Typed variant: results are stored as JSON.
      */
-    public void storeResult(String idempotencyKey, String result) {
+    @Transactional(noRollbackFor = IdempotencyInProgressException.class)
+    public <T, E extends Exception> T execute(String idempotencyKey, Class<T> type, Duration maxWait,
+                                              Operation<T, E> operation) throws E {
         if (idempotencyKey == null || idempotencyKey.isEmpty()) {
-            return;
+            return operation.run();
         }
-        String resultKey = RESULT_KEY_PREFIX + idempotencyKey;
-        redisTemplate.opsForValue().set(resultKey, result, IDEMPOTENCY_TTL_HOURS, TimeUnit.HOURS);
-        // Release the lock after storing result
-        String lockKey = IDEMPOTENCY_KEY_PREFIX + idempotencyKey;
-        redisTemplate.delete(lockKey);
-        log.info("Idempotency RESULT stored and lock released for key: {}", idempotencyKey);
+        Object[] fresh = new Object[1];
+        String json = execute(idempotencyKey, maxWait, () -> {
+            T value = operation.run();
+            fresh[0] = value;
+            return toJson(value);
+        });
+        return fresh[0] != null ? type.cast(fresh[0]) : fromJson(json, type);
+    }
+
+    @Transactional(noRollbackFor = IdempotencyInProgressException.class)
+    public <T, E extends Exception> T execute(String idempotencyKey, Class<T> type,
+                                              Operation<T, E> operation) throws E {
+        return execute(idempotencyKey, type, defaultWait, operation);
     }
 
     /**
-     * Release the idempotency lock without storing a result (for error cases).
-     *
-     * @param idempotencyKey Unique identifier for the operation
+     * Runs hourly: delete expired records in batches, each in its own short transaction so the
+     * purge never holds locks on a large part of the table.
      */
-    public void releaseLock(String idempotencyKey) {
-        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
-            return;
+    @Scheduled(cron = "${bankwise.idempotency.purge-cron:0 20 * * * ?}")
+    public void purgeExpired() {
+        Timestamp cutoff = Timestamp.from(Instant.now());
+        long removed = 0;
+        int deleted;
+        do {
+            Integer count = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "DELETE FROM idempotency_records WHERE idempotency_key IN (" +
+                            "SELECT idempotency_key FROM idempotency_records WHERE expires_at < ? LIMIT ?)",
+                    cutoff, purgeBatchSize));
+            deleted = count != null ? count : 0;
+            removed += deleted;
+        } while (deleted == purgeBatchSize);
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency records", removed);
         }
-        String lockKey = IDEMPOTENCY_KEY_PREFIX + idempotencyKey;
-        redisTemplate.delete(lockKey);
-        log.debug("Idempotency LOCK released for key: {}", idempotencyKey);
     }
 
     /**
@@ -106,16 +218,113 @@ public class IdempotencyService {
     }
 
     /**
-     * Check if a key exists and is currently being processed.
-     *
-     * @param idempotencyKey The idempotency key to check
-     * @return true if the operation is being processed, false otherwise
+     * Take the per-key advisory lock without waiting; held until the caller's transaction ends.
      */
-    public boolean isProcessing(String idempotencyKey) {
-        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
-            return false;
+    private boolean tryLock(String idempotencyKey) {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, hashtext(?))",
+                Boolean.class, ADVISORY_LOCK_CLASS, idempotencyKey);
+        return Boolean.TRUE.equals(locked);
+    }
+
+    /**
+     * Result of a run that has committed, or null while the original is still in flight
+     * (its row is not visible yet).
+     */
+    private String committedResult(String idempotencyKey) {
+        return jdbcTemplate.queryForList("SELECT response FROM idempotency_records WHERE idempotency_key = ?",
+                        String.class, idempotencyKey).stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Wait for the original run to release the lock. Only {@code max-waiters} requests wait at
+     * once; the rest fail at once with the transaction still usable.
+     */
+    private void awaitLock(String idempotencyKey, Duration maxWait) {
+        if (maxWait.isZero() || maxWait.isNegative() || !waiters.tryAcquire()) {
+            throw new IdempotencyInProgressException("Operation is already being processed. Please wait.");
+        }
+        try {
+            String previousTimeout = jdbcTemplate.queryForObject("SELECT current_setting('lock_timeout')", String.class);
+            jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                    maxWait.toMillis() + "ms");
+            try {
+                jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock(?, hashtext(?))",
+                        Integer.class, ADVISORY_LOCK_CLASS, idempotencyKey);
+            } catch (DataAccessException e) {
+                if (!(e.getMostSpecificCause() instanceof SQLException sql) || !LOCK_NOT_AVAILABLE.equals(sql.getSQLState())) {
+                    throw e;
+                }
+                // lock_timeout has aborted the transaction; nothing the caller did in it can commit
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                log.warn("Idempotency key {} still in progress after {} ms", idempotencyKey, maxWait.toMillis());
+                throw new IdempotencyInProgressException("Operation is already being processed. Please wait.");
+            }
+            jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class, previousTimeout);
+        } finally {
+            waiters.release();
+        }
+    }
+
+    private String cachedResult(String idempotencyKey) {
+        if (!redisAvailability.isAvailable()) {
+            return null;
+        }
+        try {
+            return redisTemplate.opsForValue().get(RESULT_KEY_PREFIX + idempotencyKey);
+        } catch (RuntimeException e) {
+            redisAvailability.reportFailure(e);
+            return null;
         }
-        String lockKey = IDEMPOTENCY_KEY_PREFIX + idempotencyKey;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(lockKey));
+    }
+
+    /**
+     * Copy the result to Redis once it has committed, so the cache never holds a result for
+     * work that was rolled back.
+     */
+    private void cacheAfterCommit(String idempotencyKey, String result) {
+        if (result == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (!redisAvailability.isAvailable()) {
+                    return;
+                }
+                try {
+                    redisTemplate.opsForValue().set(RESULT_KEY_PREFIX + idempotencyKey, result,
+                            IDEMPOTENCY_TTL_HOURS, TimeUnit.HOURS);
+                } catch (RuntimeException e) {
+                    redisAvailability.reportFailure(e);
+                }
+            }
+        });
+    }
+
+    private String toJson(Object value) {
+        try {
+            return resultWriter.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotent result", e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return resultReaders.computeIfAbsent(type, objectMapper::readerFor).readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize stored idempotent result", e);
+        }
+    }
+
+    /**
+     * The work guarded by an idempotency key; may throw the caller's checked exception.
+     */
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+        T run() throws E;
     }
 }
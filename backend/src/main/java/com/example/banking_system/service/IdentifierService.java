@@ -0,0 +1,128 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.Genrator.FeistelPermutation;
+import com.example.banking_system.Genrator.LuhnCheckDigit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Hands out account and card numbers without existence queries or retries.
+ * <p>
+ * Each node reserves blocks of {@value #BLOCK_SIZE} counters with a single {@code nextval} on a
+ * database sequence stepping by the block size, then takes counters from its block with a CAS, so
+ * threads and nodes never contend for the same value. Counters go through a keyed
+ * {@link FeistelPermutation}: a bijection, so distinct counters give distinct numbers, but
+ * consecutive customers do not get consecutive numbers. Card numbers carry a Luhn check digit.
+ * <p>
+ * The sequences are created by Flyway (V8__identifier_sequences.sql). Numbers issued before this
+ * allocator (random) are loaded once per node on first use and skipped if the permutation ever
+ * lands on one.
+ */
+@Service
+@Slf4j
+public class IdentifierService {
+
+    static final int BLOCK_SIZE = 100;
+    private static final String CARD_PREFIX = "4";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Pool accounts;
+    private final Pool cards;
+
+    public IdentifierService(JdbcTemplate jdbcTemplate, @Value("${bankwise.identifiers.secret}") String secret) {
+        this.jdbcTemplate = jdbcTemplate;
+        FeistelPermutation accountPermutation = new FeistelPermutation(6, secret, "account");
+        FeistelPermutation cardPermutation = new FeistelPermutation(7, secret, "card");
+        this.accounts = new Pool("account_number_seq",
+                "SELECT account_number FROM account WHERE account_number IS NOT NULL",
+                counter -> pad(accountPermutation.permute(counter), accountPermutation.digits()));
+        this.cards = new Pool("card_number_seq",
+                "SELECT card_number FROM cards",
+                counter -> {
+                    String payload = CARD_PREFIX + pad(cardPermutation.permute(counter), cardPermutation.digits());
+                    return payload + LuhnCheckDigit.compute(payload);
+                });
+    }
+
+    /**
+     * 12-digit account number.
+     */
+    public String nextAccountNumber() {
+        return accounts.next();
+    }
+
+    /**
+     * 16-digit card number: prefix 4, 14 scrambled digits, Luhn check digit.
+     */
+    public String nextCardNumber() {
+        return cards.next();
+    }
+
+    private static String pad(long value, int digits) {
+        String s = Long.toString(value);
+        return s.length() >= digits ? s : "0".repeat(digits - s.length()) + s;
+    }
+
+    private record Block(AtomicLong next, long end) {
+        static final Block EMPTY = new Block(new AtomicLong(), 0);
+
+        /**
+         * Next counter of the block, or -1 once it is used up.
+         */
+        long take() {
+            long n = next.getAndIncrement();
+            return n < end ? n : -1;
+        }
+    }
+
+    private final class Pool {
+        private final String sequence;
+        private final String existingQuery;
+        private final LongFunction<String> format;
+        private volatile Block block = Block.EMPTY;
+        private volatile long[] existing;
+
+        Pool(String sequence, String existingQuery, LongFunction<String> format) {
+            this.sequence = sequence;
+            this.existingQuery = existingQuery;
+            this.format = format;
+        }
+
+        String next() {
+            while (true) {
+                Block current = block;
+                long counter = current.take();
+                if (counter < 0) {
+                    refill(current);
+                    continue;
+                }
+                String candidate = format.apply(counter);
+                if (Arrays.binarySearch(existing, Long.parseLong(candidate)) < 0) {
+                    return candidate;
+                }
+                log.info("Skipping counter {} of {}: maps to a pre-existing number", counter, sequence);
+            }
+        }
+
+        private synchronized void refill(Block exhausted) {
+            if (block != exhausted) {
+                return; // another thread already refilled
+            }
+            if (existing == null) {
+                existing = jdbcTemplate.queryForList(existingQuery, String.class).stream()
+                        .filter(s -> !s.isEmpty() && s.length() <= 18 && s.chars().allMatch(Character::isDigit))
+                        .mapToLong(Long::parseLong)
+                        .sorted()
+                        .toArray();
+            }
+            Long start = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+            block = new Block(new AtomicLong(start), start + BLOCK_SIZE);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.banking_system.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link OtpStore} in local memory, for tests and single-node development
+ * ({@code bankwise.otp.store=memory}). Not shared between nodes.
+ * Expired entries are ignored on read and swept once a minute, so the maps stay bounded.
+ */
+@Service
+@ConditionalOnProperty(name = "bankwise.otp.store", havingValue = "memory")
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> verified = new ConcurrentHashMap<>();
+    private final Map<String, SendWindow> sends = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean save(String email, String codeDigest, Duration ttl, int maxSends, Duration sendWindow) {
+        long now = System.nanoTime();
+        SendWindow window = sends.compute(email, (k, w) -> w == null || now - w.endsAt() >= 0
+                ? new SendWindow(1, deadline(sendWindow))
+                : new SendWindow(w.count() + 1, w.endsAt()));
+        if (window.count() > maxSends) {
+            return false;
+        }
+        pending.put(email, new Pending(codeDigest, 0, deadline(ttl)));
+        return true;
+    }
+
+    @Override
+    public Optional<Challenge> attempt(String email) {
+        long now = System.nanoTime();
+        Pending counted = pending.computeIfPresent(email, (k, p) ->
+                now - p.expiresAt() >= 0 ? null : new Pending(p.codeDigest(), p.attempts() + 1, p.expiresAt()));
+        return counted == null ? Optional.empty() : Optional.of(new Challenge(counted.codeDigest(), counted.attempts()));
+    }
+
+    @Override
+    public boolean consume(String email) {
+        Pending removed = pending.remove(email);
+        return removed != null && System.nanoTime() - removed.expiresAt() < 0;
+    }
+
+    @Override
+    public void markVerified(String email, Duration ttl) {
+        verified.put(email, deadline(ttl));
+    }
+
+    @Override
+    public boolean isVerified(String email) {
+        Long expiresAt = verified.get(email);
+        return expiresAt != null && System.nanoTime() - expiresAt < 0;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        long now = System.nanoTime();
+        pending.values().removeIf(p -> now - p.expiresAt() >= 0);
+        verified.values().removeIf(expiresAt -> now - expiresAt >= 0);
+        sends.values().removeIf(w -> now - w.endsAt() >= 0);
+    }
+
+    private static long deadline(Duration ttl) {
+        return System.nanoTime() + ttl.toNanos();
+    }
+
+    private record Pending(String codeDigest, long attempts, long expiresAt) {
+    }
+
+    private record SendWindow(int count, long endsAt) {
+    }
+}
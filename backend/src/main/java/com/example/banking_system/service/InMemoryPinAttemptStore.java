@@ -0,0 +1,94 @@
+package com.example.banking_system.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PinAttemptStore} in local memory, for tests and single-node development
+ * ({@code bankwise.pin.store=memory}). Not shared between nodes. Each user's state is updated
+ * inside {@link ConcurrentHashMap#compute}, which makes a reservation atomic; expired state is
+ * swept the same way once a minute.
+ */
+@Service
+@ConditionalOnProperty(name = "bankwise.pin.store", havingValue = "memory")
+public class InMemoryPinAttemptStore implements PinAttemptStore {
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    @Override
+    public long reserve(String email, String attemptId, long windowMillis, int maxAttempts) {
+        long now = System.nanoTime();
+        long window = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        long[] result = new long[1];
+        states.compute(email, (k, state) -> {
+            State s = state != null ? state : new State(now);
+            if (now - s.lockedUntil < 0) {
+                result[0] = -Math.max(1, TimeUnit.NANOSECONDS.toMillis(s.lockedUntil - now));
+                return s;
+            }
+            s.attempts.values().removeIf(at -> now - at >= window);
+            if (s.attempts.size() >= maxAttempts) {
+                result[0] = 0;
+                return s;
+            }
+            s.attempts.put(attemptId, now);
+            s.expiresAt = now + window;
+            result[0] = s.attempts.size();
+            return s;
+        });
+        return result[0];
+    }
+
+    @Override
+    public void release(String email, String attemptId) {
+        states.computeIfPresent(email, (k, s) -> {
+            s.attempts.remove(attemptId);
+            return s;
+        });
+    }
+
+    @Override
+    public void lock(String email, long lockoutMillis) {
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lockoutMillis);
+        states.compute(email, (k, state) -> {
+            State s = state != null ? state : new State(until);
+            s.lockedUntil = until;
+            if (until - s.expiresAt > 0) {
+                s.expiresAt = until;
+            }
+            return s;
+        });
+    }
+
+    @Override
+    public void clear(String email) {
+        states.remove(email);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        long now = System.nanoTime();
+        for (String email : states.keySet()) {
+            states.computeIfPresent(email, (k, s) -> now - s.expiresAt >= 0 ? null : s);
+        }
+    }
+
+    // Only touched inside compute, which locks the entry
+    private static final class State {
+        // attempt id -> System.nanoTime() of the attempt, oldest first
+        private final Map<String, Long> attempts = new LinkedHashMap<>();
+        private long lockedUntil;
+        private long expiresAt;
+
+        private State(long now) {
+            this.lockedUntil = now;
+            this.expiresAt = now;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.Account;
+import com.example.banking_system.entity.LedgerPosting;
+import com.example.banking_system.entity.LedgerShardBalance;
+import com.example.banking_system.entity.LedgerSnapshot;
+import com.example.banking_system.enums.PostingDirection;
+import com.example.banking_system.enums.TransactionType;
+import com.example.banking_system.repository.AccountRepository;
+import com.example.banking_system.repository.LedgerPostingRepository;
+import com.example.banking_system.repository.LedgerShardBalanceRepository;
+import com.example.banking_system.repository.LedgerSnapshotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Double-entry ledger.
+ * Every money movement appends a DEBIT and a CREDIT posting of the same amount; postings are never
+ * updated. {@link Account#getBalance()} stays the authoritative, lock-protected working balance used
+ * for funds checks, while the ledger gives the audit trail and a derived balance
+ * (latest snapshot + postings after it). A nightly reconciliation compares the two and reports
+ * every account that drifted.
+ * <p>
+ * Accounts listed in {@code bankwise.ledger.hot-accounts} receive credits on one of N shard rows
+ * instead of their account row, so concurrent credits do not serialize on a single lock. Shards are
+ * folded into the account balance every {@code bankwise.ledger.fold-interval-ms}. Balances shown to
+ * the customer include unfolded credits ({@link #visibleBalance}), and a transfer that needs them
+ * folds first ({@link #foldForDebit}). Other debit paths do not lock the account row, so they only
+ * see credits once the scheduled fold has run.
+ */
+@Service
+@Slf4j
+public class LedgerService {
+
+    // Bank-side counter accounts for movements that have no customer on the other side
+    public static final String CASH = "BANK:CASH";
+    public static final String LOANS = "BANK:LOANS";
+    public static final String INTEREST_EXPENSE = "BANK:INTEREST";
+    public static final String FEE_INCOME = "BANK:FEES";
+    public static final String OPENING_EQUITY = "BANK:OPENING";
+    public static final String BILLERS = "BANK:BILLERS";
+
+    private static final long SNAPSHOT_SAFETY_LAG_MINUTES = 5;
+    private static final int RECONCILE_PAGE_SIZE = 500;
+    // Drifted accounts logged per run; the rest only count towards the gauge
+    private static final int RECONCILE_LOG_LIMIT = 100;
+    // Lower bound for posting times when an account has no snapshot yet
+    private static final LocalDateTime LEDGER_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final LedgerPostingRepository postingRepository;
+    private final LedgerSnapshotRepository snapshotRepository;
+    private final LedgerShardBalanceRepository shardRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate reconcileTemplate;
+    private final Set<String> hotAccounts;
+    private final int shardCount;
+    private final AtomicInteger driftedAccounts = new AtomicInteger();
+
+    public LedgerService(LedgerPostingRepository postingRepository,
+                         LedgerSnapshotRepository snapshotRepository,
+                         LedgerShardBalanceRepository shardRepository,
+                         AccountRepository accountRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${bankwise.ledger.hot-accounts:}") List<String> hotAccounts,
+                         @Value("${bankwise.ledger.shards:8}") int shardCount) {
+        this.postingRepository = postingRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.shardRepository = shardRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // One snapshot per page, so a balance and its postings are read at the same point in time
+        this.reconcileTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileTemplate.setReadOnly(true);
+        this.reconcileTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.hotAccounts = hotAccounts.stream()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.shardCount = Math.max(1, shardCount);
+        Gauge.builder("bankwise.ledger.drift.accounts", driftedAccounts, AtomicInteger::get)
+                .description("Accounts whose balance disagreed with the ledger in the last reconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Append the posting pair for one movement. Must run inside the caller's transaction so the
+     * postings commit or roll back together with the balance change.
+     */
+    @Transactional
+    public String record(String debitAccount, String creditAccount, BigDecimal amount,
+                         TransactionType type, String reference) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Ledger amount must be positive");
+        }
+        String entryId = UUID.randomUUID().toString();
+        postingRepository.saveAll(List.of(
+                posting(entryId, debitAccount, PostingDirection.DEBIT, amount, type, reference),
+                posting(entryId, creditAccount, PostingDirection.CREDIT, amount, type, reference)
+        ));
+        return entryId;
+    }
+
+    public boolean isHotAccount(String accountNumber) {
+        return hotAccounts.contains(accountNumber);
+    }
+
+    /**
+     * Credit a hot account through a random shard row. Returns false when the shard rows
+     * do not exist yet, in which case the caller must credit the account row itself.
+     */
+    @Transactional
+    public boolean creditHotAccount(String accountNumber, BigDecimal amount) {
+        int shard = ThreadLocalRandom.current().nextInt(shardCount);
+        return shardRepository.addToShard(accountNumber, shard, amount) == 1;
+    }
+
+    /**
+     * Credits parked on shards that have not been folded into the account balance yet.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal unfoldedBalance(String accountNumber) {
+        if (!isHotAccount(accountNumber)) {
+            return BigDecimal.ZERO;
+        }
+        return shardRepository.sumUnfolded(accountNumber);
+    }
+
+    /**
+     * Balance to show the account holder: the account row plus any credits still on shards.
+     * Costs no query for accounts that are not hot.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal visibleBalance(Account account) {
+        return account.getBalance().add(unfoldedBalance(account.getAccountNumber()));
+    }
+
+    /**
+     * Make unfolded shard credits spendable before debiting {@code amount} from a hot account.
+     * The caller must already hold the account row lock; shards are locked after it, the same
+     * order the scheduled fold uses. Skipped when the row alone covers the debit, so debits do not
+     * contend with concurrent credits on the shard rows.
+     */
+    @Transactional
+    public void foldForDebit(Account account, BigDecimal amount) {
+        if (isHotAccount(account.getAccountNumber()) && account.getBalance().compareTo(amount) < 0) {
+            foldInto(account);
+        }
+    }
+
+    /**
+     * Balances derived from the ledger alone: latest snapshot plus the postings after it.
+     * For customer accounts this equals balance - overdraftUsed (+ unfolded shard credits).
+     */
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> derivedBalances(Collection<String> accountNumbers) {
+        Map<String, BigDecimal> derived = new HashMap<>();
+        for (String accountNumber : accountNumbers) {
+            derived.put(accountNumber, BigDecimal.ZERO);
+        }
+        for (LedgerSnapshot snapshot : snapshotRepository.findLatestFor(accountNumbers)) {
+            derived.put(snapshot.getAccountNumber(), snapshot.getBalance());
+        }
+        for (Object[] row : postingRepository.sumSinceLatestSnapshot(accountNumbers, LEDGER_EPOCH)) {
+            derived.merge((String) row[0], (BigDecimal) row[1], BigDecimal::add);
+        }
+        return derived;
+    }
+
+    public int driftedAccounts() {
+        return driftedAccounts.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initShards() {
+        for (String accountNumber : hotAccounts) {
+            transactionTemplate.executeWithoutResult(status -> ensureShards(accountNumber));
+        }
+    }
+
+    /**
+     * Move shard sub-balances of every hot account into the account row.
+     * Locks the account first and then its shards, the same order the transfer path uses.
+     */
+    @Scheduled(fixedDelayString = "${bankwise.ledger.fold-interval-ms:5000}",
+            initialDelayString = "${bankwise.ledger.fold-interval-ms:5000}")
+    public void foldHotAccountShards() {
+        for (String accountNumber : hotAccounts) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> fold(accountNumber));
+            } catch (Exception e) {
+                log.warn("Shard fold failed for account={}: {}", accountNumber, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs at 1:15 AM: snapshot every account touched since the previous snapshot.
+     * Snapshots are keyed on posting time, not posting id: ids come from a pooled sequence, so a
+     * lower id can commit long after a higher one. The cutoff trails "now" by a few minutes (clock
+     * skew between app servers) and never passes the start of the oldest open database transaction,
+     * so every posting created before it has already committed or rolled back.
+     */
+    @Scheduled(cron = "0 15 1 * * ?")
+    public void takeSnapshots() {
+        LocalDateTime cutoff = snapshotCutoff();
+        transactionTemplate.executeWithoutResult(status -> takeSnapshots(cutoff));
+    }
+
+    /**
+     * Runs at 1:45 AM, after the snapshot: compare every account's working balance with its
+     * ledger balance and report the accounts that drifted. Drift means a balance changed without
+     * its postings (or the other way round) and needs investigating; nothing is corrected here.
+     */
+    @Scheduled(cron = "${bankwise.ledger.reconcile-cron:0 45 1 * * ?}")
+    public void reconcileBalances() {
+        long afterId = 0;
+        int checked = 0;
+        int drifted = 0;
+        while (true) {
+            long from = afterId;
+            int reported = drifted;
+            ReconcilePage page = reconcileTemplate.execute(status -> reconcilePage(from, reported));
+            if (page == null || page.checked() == 0) {
+                break;
+            }
+            afterId = page.lastId();
+            checked += page.checked();
+            drifted += page.drifted();
+        }
+        driftedAccounts.set(drifted);
+        if (drifted > 0) {
+            log.warn("Ledger reconciliation: {} of {} accounts drifted", drifted, checked);
+        } else {
+            log.info("Ledger reconciliation: {} accounts match the ledger", checked);
+        }
+    }
+
+    private ReconcilePage reconcilePage(long afterId, int alreadyReported) {
+        List<Object[]> rows = accountRepository.findBalancePage(afterId, PageRequest.ofSize(RECONCILE_PAGE_SIZE));
+        if (rows.isEmpty()) {
+            return new ReconcilePage(afterId, 0, 0);
+        }
+        Map<String, BigDecimal> working = new LinkedHashMap<>();
+        long lastId = afterId;
+        for (Object[] row : rows) {
+            lastId = (Long) row[0];
+            String accountNumber = (String) row[1];
+            BigDecimal balance = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            BigDecimal overdraftUsed = row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO;
+            working.put(accountNumber, balance.subtract(overdraftUsed).add(unfoldedBalance(accountNumber)));
+        }
+        Map<String, BigDecimal> derived = derivedBalances(working.keySet());
+        int drifted = 0;
+        for (Map.Entry<String, BigDecimal> entry : working.entrySet()) {
+            BigDecimal ledger = derived.get(entry.getKey());
+            if (entry.getValue().compareTo(ledger) != 0) {
+                if (alreadyReported + drifted < RECONCILE_LOG_LIMIT) {
+                    log.warn("Ledger drift account={} balance={} ledger={}", entry.getKey(), entry.getValue(), ledger);
+                }
+                drifted++;
+            }
+        }
+        return new ReconcilePage(lastId, rows.size(), drifted);
+    }
+
+    private void takeSnapshots(LocalDateTime cutoff) {
+        LocalDateTime previous = snapshotRepository.findGlobalWatermark();
+        LocalDateTime from = previous != null ? previous : LEDGER_EPOCH;
+        if (!cutoff.isAfter(from)) {
+            return;
+        }
+        List<Object[]> deltas = postingRepository.sumDeltasBetween(from, cutoff);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<String> touched = deltas.stream().map(row -> (String) row[0]).toList();
+        Map<String, BigDecimal> previousBalances = new HashMap<>();
+        for (LedgerSnapshot s : snapshotRepository.findLatestFor(touched)) {
+            previousBalances.put(s.getAccountNumber(), s.getBalance());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<LedgerSnapshot> snapshots = new ArrayList<>(deltas.size());
+        for (Object[] row : deltas) {
+            String accountNumber = (String) row[0];
+            BigDecimal balance = previousBalances.getOrDefault(accountNumber, BigDecimal.ZERO)
+                    .add((BigDecimal) row[1]);
+            snapshots.add(LedgerSnapshot.builder()
+                    .accountNumber(accountNumber)
+                    .balance(balance)
+                    .postedBefore(cutoff)
+                    .takenAt(now)
+                    .build());
+        }
+        snapshotRepository.saveAll(snapshots);
+        log.info("Ledger snapshot taken for {} accounts up to {}", snapshots.size(), cutoff);
+    }
+
+    /**
+     * Latest instant before which no posting can still be uncommitted. Queried outside the
+     * snapshot transaction, so a database without pg_stat_activity does not poison it.
+     */
+    private LocalDateTime snapshotCutoff() {
+        double oldestOpenSeconds = 0;
+        try {
+            Double age = postingRepository.findOldestOpenTransactionAgeSeconds();
+            oldestOpenSeconds = age != null ? age : 0;
+        } catch (DataAccessException e) {
+            log.debug("Open transaction age unavailable, using the fixed snapshot lag: {}", e.getMessage());
+        }
+        long lagSeconds = SNAPSHOT_SAFETY_LAG_MINUTES * 60 + (long) Math.ceil(oldestOpenSeconds);
+        return LocalDateTime.now().minusSeconds(lagSeconds);
+    }
+
+    private void ensureShards(String accountNumber) {
+        if (shardRepository.countByAccountNumber(accountNumber) >= shardCount) {
+            return;
+        }
+        Set<Integer> existing = shardRepository.findAllForUpdate(accountNumber).stream()
+                .map(LedgerShardBalance::getShard)
+                .collect(Collectors.toSet());
+        List<LedgerShardBalance> missing = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (!existing.contains(shard)) {
+                missing.add(LedgerShardBalance.builder().accountNumber(accountNumber).shard(shard).build());
+            }
+        }
+        shardRepository.saveAll(missing);
+    }
+
+    private void fold(String accountNumber) {
+        Account account = accountRepository.findByAccountNumberForUpdate(accountNumber).orElse(null);
+        if (account != null) {
+            foldInto(account);
+        }
+    }
+
+    // Caller holds the account row lock
+    private void foldInto(Account account) {
+        String accountNumber = account.getAccountNumber();
+        BigDecimal total = BigDecimal.ZERO;
+        for (LedgerShardBalance shard : shardRepository.findAllForUpdate(accountNumber)) {
+            if (shard.getBalance().signum() != 0) {
+                total = total.add(shard.getBalance());
+                shard.setBalance(BigDecimal.ZERO);
+            }
+        }
+        if (total.signum() == 0) {
+            return;
+        }
+        account.setBalance(account.getBalance().add(total));
+        accountRepository.save(account);
+        log.debug("Folded {} into hot account={}", total, accountNumber);
+    }
+
+    private LedgerPosting posting(String entryId, String accountNumber, PostingDirection direction,
+                                  BigDecimal amount, TransactionType type, String reference) {
+        return LedgerPosting.builder()
+                .entryId(entryId)
+                .accountNumber(accountNumber)
+                .direction(direction)
+                .amount(amount)
+                .type(type)
+                .reference(reference)
+                .build();
+    }
+
+    private record ReconcilePage(long lastId, int checked, int drifted) {
+    }
+}
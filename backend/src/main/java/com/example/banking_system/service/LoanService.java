@@ -2,10 +2,13 @@ package com.example.banking_system.service;
 
 import com.example.banking_system.dto.LoanRequestDto;
 import com.example.banking_system.dto.LoanResponseDto;
+import com.example.banking_system.dto.LoanSummaryRow;
+import com.example.banking_system.dto.RenderedEmail;
 import com.example.banking_system.entity.Account;
 import com.example.banking_system.entity.LoanRequest;
 import com.example.banking_system.entity.Transaction;
 import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.EmailPriority;
 import com.example.banking_system.enums.LoanStatus;
 import com.example.banking_system.enums.TransactionStatus;
 import com.example.banking_system.enums.TransactionType;
@@ -43,6 +46,7 @@ public class LoanService {
     private final AccountRepository accountRepo;
     private final NotificationService notificationService;
     private final EmailService emailService;
+    private final EmailTemplateService emailTemplates;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
     private final AuditService auditService;
@@ -50,6 +54,7 @@ public class LoanService {
     private final CachedDataService cachedDataService;
     private final CacheEvictionService cacheEvictionService;
     private final IdempotencyService idempotencyService;
+    private final LedgerService ledgerService;
 
     @Value("${bankwise.loan.min-amount:1000}")
     private BigDecimal minLoanAmount;
@@ -115,60 +120,34 @@ public class LoanService {
     public LoanResponseDto applyForLoanWithIdempotency(LoanRequestDto dto, String idempotencyKey) 
             throws ResourceNotFoundException {
         log.info("Applying for loan with idempotency key: {}", idempotencyKey);
-        
-        // Check if this loan application was already processed
-        String cachedResult = idempotencyService.getResult(idempotencyKey);
-        if (cachedResult != null) {
-            log.info("Idempotent loan application detected, returning cached result");
-            try {
-                return new com.fasterxml.jackson.databind.ObjectMapper().readValue(cachedResult, LoanResponseDto.class);
-            } catch (Exception e) {
-                log.warn("Failed to deserialize cached loan result", e);
-            }
-        }
-        
-        // Acquire lock to ensure only one thread processes this loan application
-        boolean locked = idempotencyService.acquireIdempotencyLock(idempotencyKey);
-        if (!locked) {
-            log.warn("Could not acquire lock for loan application: {}, skipping", idempotencyKey);
-            throw new BusinessRuleViolationException("Loan application already in progress");
-        }
-        
-        boolean resultStored = false;
-        try {
-            // Process the loan application
-            LoanResponseDto result = applyForLoan(dto);
-            
-            // Cache the result for 24 hours to ensure idempotency
-            // storeResult() also releases the lock
-            try {
-                String resultJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(result);
-                idempotencyService.storeResult(idempotencyKey, resultJson);
-                resultStored = true;
-            } catch (Exception e) {
-                log.warn("Failed to serialize loan result for caching", e);
-            }
-            
-            return result;
-        } catch (Exception e) {
-            log.error("Error applying for loan with idempotency key {}: {}", idempotencyKey, e.getMessage());
-            throw e;
-        } finally {
-            // Only release lock if we didn't store the result (storeResult handles its own lock release)
-            if (!resultStored) {
-                idempotencyService.releaseLock(idempotencyKey);
-            }
-        }
+        return idempotencyService.execute(idempotencyKey, LoanResponseDto.class, () -> applyForLoan(dto));
     }
 
     private LoanResponseDto mapToDto(LoanRequest loan) {
+        return mapToDto(new LoanSummaryRow(
+                loan.getId(),
+                loan.getBankAccount().getAccountNumber(),
+                loan.getAmount(),
+                loan.getTenureInMonths(),
+                loan.getInterestRate(),
+                loan.getStatus(),
+                loan.getRequestDate(),
+                loan.getApprovalDate(),
+                loan.getMaturityDate(),
+                loan.getReason(),
+                loan.getAdminRemark(),
+                loan.getEmisPaid()
+        ));
+    }
+
+    private LoanResponseDto mapToDto(LoanSummaryRow loan) {
         // Handle null values from database
-        double interestRate = loan.getInterestRate() != null ? loan.getInterestRate() : 0.0;
-        int tenureInMonths = loan.getTenureInMonths() != null ? loan.getTenureInMonths() : 0;
-        int emisPaid = loan.getEmisPaid() != null ? loan.getEmisPaid() : 0;
+        double interestRate = loan.interestRate() != null ? loan.interestRate() : 0.0;
+        int tenureInMonths = loan.tenureInMonths() != null ? loan.tenureInMonths() : 0;
+        int emisPaid = loan.emisPaid() != null ? loan.emisPaid() : 0;
         int totalEmis = tenureInMonths;
 
-        BigDecimal emiAmount = calculateMonthlyEmi(loan.getAmount(), interestRate, tenureInMonths);
+        BigDecimal emiAmount = calculateMonthlyEmi(loan.amount(), interestRate, tenureInMonths);
         BigDecimal totalAmountPaid = emiAmount.multiply(BigDecimal.valueOf(emisPaid));
         BigDecimal totalPayable = emiAmount.multiply(BigDecimal.valueOf(totalEmis));
         BigDecimal totalOutstanding = emiAmount.multiply(BigDecimal.valueOf(Math.max(0, totalEmis - emisPaid)));
@@ -176,7 +155,7 @@ public class LoanService {
         double paidPercentage = totalEmis > 0 ? (emisPaid * 100.0) / totalEmis : 0;
 
         String paymentStatus;
-        if (loan.getStatus() == LoanStatus.CLOSED || emisPaid >= totalEmis) {
+        if (loan.status() == LoanStatus.CLOSED || emisPaid >= totalEmis) {
             paymentStatus = "FULLY_PAID";
         } else if (emisPaid > 0) {
             paymentStatus = "IN_PROGRESS";
@@ -185,17 +164,17 @@ public class LoanService {
         }
 
         return LoanResponseDto.builder()
-                .id(loan.getId())
-                .accountNumber(loan.getBankAccount().getAccountNumber())
-                .amount(loan.getAmount())
+                .id(loan.id())
+                .accountNumber(loan.accountNumber())
+                .amount(loan.amount())
                 .tenureInMonths(tenureInMonths)
                 .interestRate(interestRate)
-                .status(loan.getStatus())
-                .requestDate(loan.getRequestDate())
-                .approvalDate(loan.getApprovalDate())
-                .maturityDate(loan.getMaturityDate())
-                .reason(loan.getReason())
-                .adminRemark(loan.getAdminRemark())
+                .status(loan.status())
+                .requestDate(loan.requestDate())
+                .approvalDate(loan.approvalDate())
+                .maturityDate(loan.maturityDate())
+                .reason(loan.reason())
+                .adminRemark(loan.adminRemark())
                 .emisPaid(emisPaid)
                 .totalEmis(totalEmis)
                 .emiAmount(emiAmount)
@@ -268,49 +247,25 @@ public class LoanService {
                             .status(TransactionStatus.SUCCESS)
                             .build();
                     transactionRepository.save(partialRecovery);
+                    ledgerService.record(accountNumber, LedgerService.LOANS, amountDeducted,
+                            TransactionType.LOAN_REVERSAL, "LOAN:" + loanId);
                 }
                 
                 log.info("Loan reversal (partial): Debited ₹{} from account {}, shortfall ₹{}, account frozen", 
                         amountDeducted, accountNumber, shortfall);
                 
                 // Send email notification to user about account freeze
-                String freezeEmailSubject = "Important: Your BankWise Account Has Been Frozen";
-                String freezeEmailBody = String.format(
-                    "Dear %s,\n\n" +
-                    "We regret to inform you that your BankWise account (%s) has been temporarily frozen.\n\n" +
-                    "Reason: Loan Recovery\n" +
-                    "Loan Reference: #%d\n" +
-                    "Loan Status: %s\n\n" +
-                    "Details:\n" +
-                    "- Original Loan Amount: ₹%s\n" +
-                    "- Amount Recovered: ₹%s\n" +
-                    "- Outstanding Balance: ₹%s\n\n" +
-                    "Your account has insufficient funds to cover the loan reversal. " +
-                    "The available balance of ₹%s has been debited towards loan recovery.\n\n" +
-                    "To unfreeze your account:\n" +
-                    "1. Deposit the outstanding amount of ₹%s into your account\n" +
-                    "2. Contact our support team at support@bankwise.com\n" +
-                    "3. Once verified, your account will be restored to normal status\n\n" +
-                    "While your account is frozen:\n" +
-                    "- You cannot make withdrawals or transfers\n" +
-                    "- Any deposits will be applied towards the outstanding recovery amount\n" +
-                    "- Your account details and transaction history remain accessible\n\n" +
-                    "If you believe this is an error or have any questions, please contact our support team immediately.\n\n" +
-                    "Best regards,\n" +
-                    "BankWise Team\n" +
-                    "Email: support@bankwise.com",
-                    userName,
-                    accountNumber,
-                    loanId,
-                    status == LoanStatus.REJECTED ? "Rejected" : "Reverted to Pending",
-                    loanAmount.setScale(2, RoundingMode.HALF_UP),
-                    amountDeducted.setScale(2, RoundingMode.HALF_UP),
-                    shortfall.setScale(2, RoundingMode.HALF_UP),
-                    amountDeducted.setScale(2, RoundingMode.HALF_UP),
-                    shortfall.setScale(2, RoundingMode.HALF_UP)
+                RenderedEmail freezeEmail = emailTemplates.render("loan-account-frozen",
+                    "name", userName,
+                    "accountNumber", accountNumber,
+                    "loanId", loanId,
+                    "loanStatus", status == LoanStatus.REJECTED ? "Rejected" : "Reverted to Pending",
+                    "loanAmount", loanAmount,
+                    "recovered", amountDeducted,
+                    "shortfall", shortfall
                 );
                 
-                emailService.sendEmail(userEmail, freezeEmailSubject, freezeEmailBody);
+                emailService.sendEmail(userEmail, freezeEmail);
                 
                 // Send in-app notification
                 notificationService.sendNotification(
@@ -340,29 +295,19 @@ public class LoanService {
                         .status(TransactionStatus.SUCCESS)
                         .build();
                 transactionRepository.save(reversal);
+                ledgerService.record(accountNumber, LedgerService.LOANS, loanAmount,
+                        TransactionType.LOAN_REVERSAL, "LOAN:" + loanId);
                 
                 // Send email confirmation
-                String reversalEmailSubject = "Loan Status Update - BankWise";
-                String reversalEmailBody = String.format(
-                    "Dear %s,\n\n" +
-                    "This is to inform you that your loan application has been updated.\n\n" +
-                    "Loan Reference: #%d\n" +
-                    "New Status: %s\n" +
-                    "Amount: ₹%s\n\n" +
-                    "As per banking regulations, the loan amount of ₹%s has been debited from your account.\n\n" +
-                    "Your updated account balance: ₹%s\n\n" +
-                    "If you have any questions, please contact our support team.\n\n" +
-                    "Best regards,\n" +
-                    "BankWise Team",
-                    userName,
-                    loanId,
-                    status == LoanStatus.REJECTED ? "Rejected" : "Reverted to Pending",
-                    loanAmount.setScale(2, RoundingMode.HALF_UP),
-                    loanAmount.setScale(2, RoundingMode.HALF_UP),
-                    freshAccount.getBalance().setScale(2, RoundingMode.HALF_UP)
+                RenderedEmail reversalEmail = emailTemplates.render("loan-reversal",
+                    "name", userName,
+                    "loanId", loanId,
+                    "loanStatus", status == LoanStatus.REJECTED ? "Rejected" : "Reverted to Pending",
+                    "loanAmount", loanAmount,
+                    "balance", freshAccount.getBalance()
                 );
                 
-                emailService.sendEmail(userEmail, reversalEmailSubject, reversalEmailBody);
+                emailService.sendEmail(userEmail, reversalEmail);
                 
                 auditService.record("LOAN_REVERSAL", "ACCOUNT", accountNumber, "SUCCESS",
                         "loanId=" + loanId + " amount=" + loanAmount + " newStatus=" + status);
@@ -412,6 +357,8 @@ public class LoanService {
                     .status(TransactionStatus.SUCCESS)
                     .build();
             transactionRepository.save(disbursement);
+            ledgerService.record(LedgerService.LOANS, freshAccount.getAccountNumber(), loan.getAmount(),
+                    TransactionType.LOAN_DISBURSEMENT, "LOAN:" + loanId);
             
             // Evict cache after loan approval
             cacheEvictionService.evictByOperationType("LOAN_APPROVAL", userEmail, accountNumber);
@@ -437,12 +384,14 @@ public class LoanService {
         return "Loan status updated successfully";
     }
 
+    @Transactional(readOnly = true)
     public List<LoanResponseDto> getLoansByStatus(LoanStatus status) {
-        return loanRepo.findByStatus(status).stream().map(this::mapToDto).toList();
+        return loanRepo.findSummariesByStatus(status).stream().map(this::mapToDto).toList();
     }
 
+    @Transactional(readOnly = true)
     public List<LoanResponseDto> getAllLoans() {
-        return loanRepo.findAllWithAccountAndUser().stream().map(this::mapToDto).toList();
+        return loanRepo.findAllSummaries().stream().map(this::mapToDto).toList();
     }
 
     public LoanResponseDto getLoanById(Long loanId) throws ResourceNotFoundException {
@@ -522,6 +471,8 @@ public class LoanService {
                 .status(TransactionStatus.SUCCESS)
                 .build();
         transactionRepository.save(repayment);
+        ledgerService.record(accountNumber, LedgerService.LOANS, amount,
+                TransactionType.LOAN_PAYMENT, "LOAN:" + loanId);
         log.info("Loan repayment transaction created for loan {} amount {}", loanId, amount);
 
         // Check if amount covers at least one EMI
@@ -624,11 +575,9 @@ public class LoanService {
                         "⏰ EMI Reminder: Your EMI of ₹" + emi + " for loan #" + loan.getId() +
                                 " is due in 3 days. Please ensure sufficient balance.");
 
-                emailService.sendEmail(userEmail, "EMI Due Reminder",
-                        "Dear Customer,\n\nThis is a reminder that your EMI of ₹" + emi +
-                                " for loan #" + loan.getId() + " is due on the 1st of this month.\n\n" +
-                                "Please ensure you have sufficient balance in your account.\n\n" +
-                                "Regards,\nBankwise Team");
+                emailService.sendEmail(userEmail,
+                        emailTemplates.render("emi-due-reminder", "emi", emi, "loanId", loan.getId()),
+                        EmailPriority.BULK);
             }
         }
     }
@@ -665,6 +614,8 @@ public class LoanService {
                         .build();
 
                 transactionRepository.save(transaction);
+                ledgerService.record(account.getAccountNumber(), LedgerService.LOANS, emi,
+                        TransactionType.LOAN_PAYMENT, "LOAN:" + loan.getId());
                 loan.incrementEmisPaid();
 
                 if ((paidEmis + 1) >= loanMonths) {
@@ -699,6 +650,8 @@ public class LoanService {
                         .build();
 
                 transactionRepository.save(penaltyTx);
+                ledgerService.record(account.getAccountNumber(), LedgerService.FEE_INCOME, penalty,
+                        TransactionType.LOAN_PENALTY, "LOAN:" + loan.getId());
                 loan.incrementMissedEmis();
 
                 emailService.sendEmail(userEmail,
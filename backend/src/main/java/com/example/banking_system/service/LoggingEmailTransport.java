@@ -0,0 +1,61 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.OutboundEmail;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Stand-in {@link EmailTransport} that logs instead of calling a provider and keeps the last
+ * {@value #KEPT_MESSAGES} recipients' messages so tests can inspect what would have been sent.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "bankwise.email.transport", havingValue = "log")
+public class LoggingEmailTransport implements EmailTransport {
+
+    private static final int KEPT_MESSAGES = 100;
+
+    public record SentEmail(String recipient, String subject, String body, String attachmentName, int batchSize) {
+    }
+
+    private final Deque<SentEmail> sent = new ArrayDeque<>();
+
+    @Override
+    public List<String> send(List<OutboundEmail> emails, byte[] attachment) {
+        OutboundEmail first = emails.get(0);
+        String body = first.getHtmlContent() != null ? first.getHtmlContent() : first.getTextContent();
+        List<String> messageIds = new ArrayList<>(emails.size());
+        synchronized (sent) {
+            for (OutboundEmail email : emails) {
+                if (sent.size() == KEPT_MESSAGES) {
+                    sent.removeFirst();
+                }
+                sent.addLast(new SentEmail(email.getRecipient(), first.getSubject(), body,
+                        first.getAttachmentName(), emails.size()));
+                messageIds.add("log-" + email.getId());
+            }
+        }
+        log.info("[EMAIL LOG] To: {} | Subject: {} | Attachment: {}",
+                emails.stream().map(OutboundEmail::getRecipient).toList(), first.getSubject(),
+                attachment != null ? first.getAttachmentName() + " (" + attachment.length + " bytes)" : "none");
+        return messageIds;
+    }
+
+    public List<SentEmail> recent() {
+        synchronized (sent) {
+            return List.copyOf(sent);
+        }
+    }
+
+    public void clear() {
+        synchronized (sent) {
+            sent.clear();
+        }
+    }
+}
@@ -2,19 +2,29 @@ package com.example.banking_system.service;
 
 import com.example.banking_system.config.SecurityConstants;
 import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.EmailPriority;
+import com.example.banking_system.exception.OtpResendLimitException;
 import com.example.banking_system.repository.UserRepository;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Login and password-reset OTPs. Codes live in the shared {@link OtpStore} with a TTL and an
+ * attempt limit; only their SHA-256 digest is stored, compared in constant time. A new code
+ * resets the attempts, so at most {@code max-sends} codes are issued per email within
+ * {@code send-window-minutes}.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,13 +32,27 @@ public class OtpService {
 
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final OtpStore otpStore;
+    private final SecureRandom random = new SecureRandom();
 
     @org.springframework.beans.factory.annotation.Value("${bankwise.dev.skip-otp:false}")
     private boolean skipOtp;
 
+    @org.springframework.beans.factory.annotation.Value("${bankwise.otp.ttl-minutes:10}")
+    private long otpTtlMinutes;
 
-    private final Map<String, String> otpMap = new ConcurrentHashMap<>();
-    private final Set<String> verifiedUsers = Collections.synchronizedSet(new HashSet<>());
+    @org.springframework.beans.factory.annotation.Value("${bankwise.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @org.springframework.beans.factory.annotation.Value("${bankwise.otp.max-sends:5}")
+    private int maxSends;
+
+    @org.springframework.beans.factory.annotation.Value("${bankwise.otp.send-window-minutes:15}")
+    private long sendWindowMinutes;
+
+    // How long a verified user can log in again without a new OTP
+    @org.springframework.beans.factory.annotation.Value("${bankwise.otp.verified-ttl-hours:24}")
+    private long verifiedTtlHours;
 
     public User getUser(String userName) {
         return userRepository.findByEmail(userName)
@@ -36,9 +60,17 @@ public class OtpService {
     }
 
 
+    /**
+     * @throws OtpResendLimitException if {@code max-sends} codes were already issued for this
+     *                                 email within the send window
+     */
     public String generateAndStoreOtp(String email) {
-        String otp = RandomStringUtils.randomNumeric(6);
-        otpMap.put(email, otp);
+        String otp = String.format("%06d", random.nextInt(1_000_000));
+        Duration sendWindow = Duration.ofMinutes(sendWindowMinutes);
+        if (!otpStore.save(email, digest(email, otp), Duration.ofMinutes(otpTtlMinutes), maxSends, sendWindow)) {
+            log.warn("OTP send limit reached for email={}", email);
+            throw new OtpResendLimitException("Too many OTP requests. Please try again later.", sendWindow.toSeconds());
+        }
         return otp;
     }
 
@@ -47,7 +79,7 @@ public class OtpService {
             log.info("Dev mode: Skipping OTP email for email={}", email);
             return;
         }
-        emailService.sendEmail(email, "OTP for Authentication", "Your OTP is: " + otp);
+        emailService.sendEmail(email, "OTP for Authentication", "Your OTP is: " + otp, EmailPriority.CRITICAL);
         log.info("OTP sent to email={}", email);
     }
 
@@ -70,7 +102,7 @@ public class OtpService {
             "The Bankwise Team",
             otp
         );
-        emailService.sendEmail(email, subject, body);
+        emailService.sendEmail(email, subject, body, EmailPriority.CRITICAL);
         log.info("Password reset OTP sent to email={}", email);
     }
 
@@ -78,21 +110,35 @@ public class OtpService {
         // Dev mode: skip OTP verification
         if (skipOtp) {
             log.info("Dev mode: OTP verification skipped for email={}", email);
-            otpMap.remove(email);
-            verifiedUsers.add(email);
+            otpStore.consume(email);
+            otpStore.markVerified(email, Duration.ofHours(verifiedTtlHours));
             return true;
         }
-        String stored = otpMap.get(email);
-        if (stored != null && stored.equals(userOtp)) {
-            otpMap.remove(email);
-            verifiedUsers.add(email);
-            return true;
+        if (userOtp == null) {
+            return false;
+        }
+        Optional<OtpStore.Challenge> challenge = otpStore.attempt(email);
+        if (challenge.isEmpty()) {
+            return false;
+        }
+        if (challenge.get().attempts() > maxAttempts) {
+            // Burn the code: the user has to request a new one
+            otpStore.consume(email);
+            log.warn("OTP attempts exceeded for email={}", email);
+            return false;
         }
-        return false;
+        boolean matches = MessageDigest.isEqual(
+                challenge.get().codeDigest().getBytes(StandardCharsets.US_ASCII),
+                digest(email, userOtp).getBytes(StandardCharsets.US_ASCII));
+        if (!matches || !otpStore.consume(email)) {
+            return false;
+        }
+        otpStore.markVerified(email, Duration.ofHours(verifiedTtlHours));
+        return true;
     }
 
     public boolean isOtpAlreadyVerified(String email) {
-        return verifiedUsers.contains(email);
+        return otpStore.isVerified(email);
     }
 
     public String generateToken(String email) {
@@ -120,6 +166,14 @@ public class OtpService {
                 .compact();
     }
 
+    private static String digest(String email, String otp) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest((email + ":" + otp).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
 
 
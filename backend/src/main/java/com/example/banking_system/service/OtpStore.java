@@ -0,0 +1,40 @@
+package com.example.banking_system.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Pending OTPs and recently verified users, shared by every node.
+ * Entries expire on their own; {@link OtpService} does the code comparison and decides what an
+ * attempt count means.
+ * Implementations: {@link RedisOtpStore}; {@link InMemoryOtpStore} for tests and single-node dev.
+ */
+public interface OtpStore {
+
+    /**
+     * Store the digest of a new code for {@code email}, replacing any pending one and its attempts.
+     * Each call counts as one send; once {@code maxSends} have been counted within
+     * {@code sendWindow} nothing is stored and false is returned, so resending cannot be used to
+     * reset the attempt counter without limit.
+     */
+    boolean save(String email, String codeDigest, Duration ttl, int maxSends, Duration sendWindow);
+
+    /**
+     * Count one verification attempt and return the pending code with the attempts made so far
+     * (including this one), or empty if there is no pending code.
+     */
+    Optional<Challenge> attempt(String email);
+
+    /**
+     * Remove the pending code. Returns false if it was already gone (expired, or used by a
+     * concurrent verification), so a code is only ever accepted once.
+     */
+    boolean consume(String email);
+
+    void markVerified(String email, Duration ttl);
+
+    boolean isVerified(String email);
+
+    record Challenge(String codeDigest, long attempts) {
+    }
+}
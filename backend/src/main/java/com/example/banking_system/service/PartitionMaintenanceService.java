@@ -0,0 +1,196 @@
+package com.example.banking_system.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains monthly range partitions on PostgreSQL.
+ * Partitions are named {@code <table>_pYYYYMM}, are created ahead of time, and
+ * are dropped whole once they fall out of retention instead of running DELETEs.
+ * Tables that are not partitioned (V9__partition_transaction_and_audit_log.sql converts them
+ * on PostgreSQL) are skipped, which also keeps H2 working.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${bankwise.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${bankwise.audit.retention-months:84}")
+    private int auditRetentionMonths;
+
+    /**
+     * Runs daily at 2:30 AM: create upcoming audit partitions and drop expired ones.
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public void maintainAuditPartitions() {
+        if (!isPartitioned("audit_log")) {
+            log.debug("audit_log is not partitioned, skipping partition maintenance");
+            return;
+        }
+        ensureMonthlyPartitions("audit_log", monthsAhead);
+        dropPartitionsBefore("audit_log", YearMonth.now().minusMonths(auditRetentionMonths));
+    }
+
+    /**
+     * Runs daily at 2:45 AM: create upcoming transaction partitions.
+     * Old transaction partitions are not dropped here; {@link TransactionArchiveService}
+     * detaches and drops them after moving their rows to the archive tier.
+     */
+    @Scheduled(cron = "0 45 2 * * ?")
+    public void maintainTransactionPartitions() {
+        if (!isPartitioned("transaction")) {
+            log.debug("transaction is not partitioned, skipping partition maintenance");
+            return;
+        }
+        ensureMonthlyPartitions("transaction", monthsAhead);
+    }
+
+    /**
+     * Whether the given table is a PostgreSQL partitioned table.
+     */
+    public boolean isPartitioned(String table) {
+        try {
+            Boolean partitioned = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt " +
+                            "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ?)",
+                    Boolean.class, table);
+            return Boolean.TRUE.equals(partitioned);
+        } catch (DataAccessException e) {
+            return false; // not PostgreSQL
+        }
+    }
+
+    /**
+     * Create partitions for the current month and the next {@code ahead} months if missing.
+     */
+    public void ensureMonthlyPartitions(String table, int ahead) {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= ahead; i++) {
+            YearMonth target = month.plusMonths(i);
+            String partition = partitionName(table, target);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table +
+                    " FOR VALUES FROM ('" + target.atDay(1) + "') TO ('" + target.plusMonths(1).atDay(1) + "')");
+        }
+        log.info("Ensured partitions for {} through {}", table, month.plusMonths(ahead));
+    }
+
+    /**
+     * Drop every monthly partition of {@code table} whose month is before {@code cutoff}.
+     *
+     * @return number of partitions dropped
+     */
+    public int dropPartitionsBefore(String table, YearMonth cutoff) {
+        int dropped = 0;
+        for (String partition : listMonthlyPartitions(table)) {
+            YearMonth month = partitionMonth(table, partition);
+            if (month != null && month.isBefore(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped expired partition {}", partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Take the partition of {@code table} holding {@code month} out of the table, then drop it.
+     * {@code DETACH PARTITION ... CONCURRENTLY} only takes SHARE UPDATE EXCLUSIVE on the parent, so
+     * reads and writes on the other months carry on, where a plain {@code DROP TABLE} of an attached
+     * partition holds ACCESS EXCLUSIVE on the parent. CONCURRENTLY cannot run in a transaction block,
+     * so this must be called outside one; the statements run on an auto-commit connection.
+     * A detach interrupted by a crash is finished with {@code FINALIZE}.
+     * PostgreSQL refuses a concurrent detach while the table has a default partition; then the
+     * partition is detached in a short transaction of its own, which blocks the parent only briefly.
+     */
+    public void detachAndDropPartition(String table, YearMonth month) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Partitions must be detached outside a transaction");
+        }
+        String partition = partitionName(table, month);
+        List<Boolean> detachPending = jdbcTemplate.queryForList(
+                "SELECT i.inhdetachpending FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = ? AND c.relname = ?",
+                Boolean.class, table, partition);
+        String detach = null;
+        if (!detachPending.isEmpty()) {
+            if (Boolean.TRUE.equals(detachPending.get(0))) {
+                detach = "ALTER TABLE " + table + " DETACH PARTITION " + partition + " FINALIZE";
+            } else if (hasDefaultPartition(table)) {
+                log.warn("{} has a default partition, detaching {} without CONCURRENTLY", table, partition);
+                detach = "ALTER TABLE " + table + " DETACH PARTITION " + partition;
+            } else {
+                detach = "ALTER TABLE " + table + " DETACH PARTITION " + partition + " CONCURRENTLY";
+            }
+        }
+        String detachStatement = detach;
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                if (detachStatement != null) {
+                    statement.execute(detachStatement);
+                    log.info("Detached partition {}", partition);
+                }
+                statement.execute("DROP TABLE IF EXISTS " + partition);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+        log.info("Dropped partition {}", partition);
+    }
+
+    private boolean hasDefaultPartition(String table) {
+        Boolean hasDefault = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt " +
+                        "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ? AND pt.partdefid <> 0)",
+                Boolean.class, table);
+        return Boolean.TRUE.equals(hasDefault);
+    }
+
+    /**
+     * Names of the monthly partitions currently attached to {@code table}.
+     */
+    public List<String> listMonthlyPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = ? ORDER BY c.relname",
+                String.class, table).stream()
+                .filter(name -> partitionMonth(table, name) != null)
+                .toList();
+    }
+
+    public static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    public static YearMonth partitionMonth(String table, String partition) {
+        Matcher matcher = Pattern.compile(Pattern.quote(table) + "_p(\\d{6})").matcher(partition);
+        return matcher.matches() ? YearMonth.parse(matcher.group(1), SUFFIX) : null;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.KycDetailsRequestDto;
+import com.example.banking_system.dto.TransactionResponseDto;
+import com.example.banking_system.entity.KycDetails;
+import com.lowagie.text.Chunk;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.Image;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+
+/**
+ * Every PDF the application produces (monthly statements, KYC summaries), rendered with OpenPDF.
+ * <p>
+ * Output goes straight to the caller's stream (an HTTP response, or {@link DocumentStore#write}),
+ * never to a byte array. Statement tables are added to the document every {@code flush-rows}
+ * rows with {@code setComplete(false)}, so finished rows are written out and released instead of
+ * the whole month's table sitting in heap until the end. Fonts are built once and shared; the
+ * writer closes nothing it did not open, so the caller owns the stream.
+ */
+@Service
+public class PdfRenderService {
+
+    private static final Font TITLE_FONT = new Font(Font.HELVETICA, 18, Font.BOLD);
+    private static final Font INFO_FONT = new Font(Font.HELVETICA, 12, Font.NORMAL);
+    private static final Font HEADER_FONT = new Font(Font.HELVETICA, 12, Font.BOLD);
+    private static final Font CELL_FONT = new Font(Font.HELVETICA, 10, Font.NORMAL);
+
+    private static final String[] STATEMENT_HEADERS = {"From", "To", "Amount", "Type", "Status", "Timestamp"};
+    private static final float[] STATEMENT_WIDTHS = {2f, 2f, 1.5f, 1.5f, 2f, 2f};
+
+    private final DocumentStore documentStore;
+    private final int flushRows;
+
+    public PdfRenderService(DocumentStore documentStore,
+                            @Value("${bankwise.pdf.flush-rows:100}") int flushRows) {
+        this.documentStore = documentStore;
+        this.flushRows = Math.max(1, flushRows);
+    }
+
+    /**
+     * Render a transaction statement. {@code rows} is consumed once, in order, and may be lazy:
+     * only the rows since the last flush are held by the table.
+     *
+     * @return the number of rows written
+     */
+    public int writeStatement(OutputStream out, String accountNumber, LocalDate from, LocalDate to,
+                              Iterator<TransactionResponseDto> rows) {
+        Document document = new Document(PageSize.A4, 36, 36, 54, 36);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+        try {
+            document.addAuthor(accountNumber);
+            document.addCreationDate();
+            document.addTitle("Monthly Transactions");
+
+            Paragraph title = new Paragraph("Monthly Transactions Statement", TITLE_FONT);
+            title.setAlignment(Element.ALIGN_CENTER);
+            document.add(title);
+            document.add(Chunk.NEWLINE);
+            document.add(new Paragraph("Account Number: " + accountNumber, INFO_FONT));
+            document.add(new Paragraph("Period: " + from + " - " + to, INFO_FONT));
+            document.add(Chunk.NEWLINE);
+
+            PdfPTable table = statementTable();
+            int count = 0;
+            while (rows.hasNext()) {
+                TransactionResponseDto row = rows.next();
+                addCell(table, row.getFromAccount());
+                addCell(table, row.getToAccount());
+                addCell(table, row.getAmount());
+                addCell(table, row.getType());
+                addCell(table, row.getStatus());
+                addCell(table, row.getTimestamp());
+                if (++count % flushRows == 0) {
+                    // Writes the completed rows and drops them from the table; the header row stays
+                    document.add(table);
+                }
+            }
+            table.setComplete(true);
+            document.add(table);
+            return count;
+        } finally {
+            document.close();
+        }
+    }
+
+    /**
+     * Render the KYC summary with the uploaded ID images. Each image is read from the store and
+     * embedded one at a time; the PDF encoder needs an image whole.
+     */
+    public void writeKyc(OutputStream out, KycDetailsRequestDto request, KycDetails kyc) throws Exception {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+        try {
+            document.add(new Paragraph("Account Kyc Details"));
+            document.add(new Paragraph("----------------------------------------------------"));
+            document.add(new Paragraph("Account Number: " + request.getAccountId()));
+            document.add(new Paragraph("Account Pan Number: " + request.getPanNumber()));
+            document.add(new Paragraph("Account Address: " + request.getAddress()));
+            document.add(new Paragraph("\nAttached Documents:"));
+
+            if (isImage(kyc.getAadharKey(), kyc.getAadharContentType())) {
+                document.add(new Paragraph("\nAadhar Document:"));
+                document.add(loadScaledImage(kyc.getAadharKey()));
+            }
+            if (isImage(kyc.getPanKey(), kyc.getPanContentType())) {
+                document.add(new Paragraph("\nPAN Document:"));
+                document.add(loadScaledImage(kyc.getPanKey()));
+            }
+        } finally {
+            document.close();
+        }
+    }
+
+    private PdfPTable statementTable() {
+        PdfPTable table = new PdfPTable(STATEMENT_WIDTHS);
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(10f);
+        table.setSpacingAfter(10f);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+
+        PdfPCell header = table.getDefaultCell();
+        header.setHorizontalAlignment(Element.ALIGN_CENTER);
+        header.setBackgroundColor(Color.LIGHT_GRAY);
+        for (String name : STATEMENT_HEADERS) {
+            table.addCell(new Phrase(name, HEADER_FONT));
+        }
+        // addCell(Phrase) copies the default cell, so body rows need no cell of their own
+        header.setHorizontalAlignment(Element.ALIGN_LEFT);
+        header.setBackgroundColor(null);
+        return table;
+    }
+
+    private static void addCell(PdfPTable table, Object value) {
+        table.addCell(new Phrase(value != null ? value.toString() : "", CELL_FONT));
+    }
+
+    private static boolean isImage(String key, String contentType) {
+        return key != null && contentType != null && contentType.startsWith("image");
+    }
+
+    private Image loadScaledImage(String key) throws Exception {
+        try (InputStream in = documentStore.open(key)) {
+            Image image = Image.getInstance(in.readAllBytes());
+            image.scaleToFit(400, 400);
+            return image;
+        }
+    }
+}
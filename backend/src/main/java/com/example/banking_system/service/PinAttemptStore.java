@@ -0,0 +1,33 @@
+package com.example.banking_system.service;
+
+/**
+ * Transaction-PIN attempts and lockouts, shared by every node.
+ * Attempts are counted in a sliding window before the PIN is checked, so parallel guesses
+ * cannot all pass a check made before any of them has failed. {@link PinLockoutService}
+ * decides what the counts mean.
+ * Implementations: {@link RedisPinAttemptStore}; {@link InMemoryPinAttemptStore} for tests and single-node dev.
+ */
+public interface PinAttemptStore {
+
+    /**
+     * Count one attempt for {@code email} unless it is locked out or already has
+     * {@code maxAttempts} attempts inside the window.
+     *
+     * @return the attempts in the window including this one; minus the remaining lockout in
+     * milliseconds while locked out; 0 when the window is already full (attempts still being
+     * checked, or failures left over from a lockout that has ended)
+     */
+    long reserve(String email, String attemptId, long windowMillis, int maxAttempts);
+
+    /**
+     * Forget an attempt whose PIN was never checked.
+     */
+    void release(String email, String attemptId);
+
+    void lock(String email, long lockoutMillis);
+
+    /**
+     * Remove all attempts and any lockout.
+     */
+    void clear(String email);
+}
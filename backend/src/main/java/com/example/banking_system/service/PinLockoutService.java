@@ -0,0 +1,146 @@
+package com.example.banking_system.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction-PIN attempts and lockouts, shared by every node through {@link PinAttemptStore}.
+ * <p>
+ * An attempt is reserved before the PIN is compared: the reservation counts against the sliding
+ * window at once, so concurrent guesses see each other and at most {@code max-failed-attempts}
+ * PINs are checked per window. A wrong PIN leaves its attempt counted, and the one that reaches
+ * the limit locks the user out; a correct PIN clears everything. Users known to be locked out are
+ * also remembered locally (for at most {@code local-cache-seconds}), so repeated attempts during a
+ * lockout do not reach the store.
+ */
+@Service
+@Slf4j
+public class PinLockoutService {
+
+    private static final int LOCAL_CACHE_MAX_ENTRIES = 10_000;
+
+    private final PinAttemptStore attemptStore;
+    private final int maxFailures;
+    private final long windowMillis;
+    private final long lockoutMillis;
+    private final long localCacheNanos;
+    // email -> System.nanoTime() until which the user is treated as locked without asking the store
+    private final Map<String, Long> lockedLocally = new ConcurrentHashMap<>();
+    private final Counter failureCounter;
+    private final Counter lockoutCounter;
+    private final Counter rejectedLocalCounter;
+    private final Counter rejectedRedisCounter;
+
+    public PinLockoutService(PinAttemptStore attemptStore,
+                             MeterRegistry meterRegistry,
+                             @Value("${bankwise.pin.max-failed-attempts:3}") int maxFailures,
+                             @Value("${bankwise.pin.failure-window-minutes:30}") long windowMinutes,
+                             @Value("${bankwise.pin.lockout-minutes:30}") long lockoutMinutes,
+                             @Value("${bankwise.pin.lockout.local-cache-seconds:60}") long localCacheSeconds) {
+        this.attemptStore = attemptStore;
+        this.maxFailures = maxFailures;
+        this.windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        this.lockoutMillis = TimeUnit.MINUTES.toMillis(lockoutMinutes);
+        this.localCacheNanos = TimeUnit.SECONDS.toNanos(localCacheSeconds);
+        this.failureCounter = meterRegistry.counter("bankwise.pin.failures");
+        this.lockoutCounter = meterRegistry.counter("bankwise.pin.lockouts");
+        this.rejectedLocalCounter = meterRegistry.counter("bankwise.pin.lockout.rejections", "source", "local");
+        this.rejectedRedisCounter = meterRegistry.counter("bankwise.pin.lockout.rejections", "source", "redis");
+        Gauge.builder("bankwise.pin.lockout.local.size", lockedLocally, Map::size)
+                .description("Locked-out users cached on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A reserved attempt: {@code number} is its position in the window, starting at 1.
+     */
+    public record Attempt(String id, int number) {
+    }
+
+    public int getMaxFailures() {
+        return maxFailures;
+    }
+
+    public long getLockoutMinutes() {
+        return TimeUnit.MILLISECONDS.toMinutes(lockoutMillis);
+    }
+
+    /**
+     * Reserve an attempt before checking a PIN, or empty if the user is locked out or already
+     * has the maximum number of attempts in the window (counted as a rejection).
+     */
+    public Optional<Attempt> reserveAttempt(String email) {
+        Long until = lockedLocally.get(email);
+        if (until != null) {
+            if (System.nanoTime() - until < 0) {
+                rejectedLocalCounter.increment();
+                return Optional.empty();
+            }
+            lockedLocally.remove(email, until);
+        }
+        String id = UUID.randomUUID().toString();
+        long reply = attemptStore.reserve(email, id, windowMillis, maxFailures);
+        if (reply <= 0) {
+            if (reply < 0) {
+                rememberLocked(email, -reply);
+            }
+            rejectedRedisCounter.increment();
+            return Optional.empty();
+        }
+        return Optional.of(new Attempt(id, (int) reply));
+    }
+
+    /**
+     * The reserved attempt had a wrong PIN: it stays counted, and reaching the limit locks the user out.
+     *
+     * @return attempts left in the window
+     */
+    public int recordFailure(String email, Attempt attempt) {
+        failureCounter.increment();
+        if (attempt.number() >= maxFailures) {
+            attemptStore.lock(email, lockoutMillis);
+            lockoutCounter.increment();
+            rememberLocked(email, lockoutMillis);
+            log.warn("Transaction PIN locked for user {} after {} failed attempts", email, attempt.number());
+        }
+        return Math.max(0, maxFailures - attempt.number());
+    }
+
+    /**
+     * Give back an attempt whose PIN was never checked (the comparison failed to run).
+     */
+    public void release(String email, Attempt attempt) {
+        attemptStore.release(email, attempt.id());
+    }
+
+    /**
+     * Forget attempts and any lockout, after a correct PIN or a PIN reset. A lockout cached on
+     * other nodes still applies there for at most the local cache time.
+     */
+    public void clear(String email) {
+        lockedLocally.remove(email);
+        attemptStore.clear(email);
+    }
+
+    private void rememberLocked(String email, long remainingMillis) {
+        if (lockedLocally.size() >= LOCAL_CACHE_MAX_ENTRIES) {
+            long now = System.nanoTime();
+            lockedLocally.values().removeIf(until -> now - until >= 0);
+            if (lockedLocally.size() >= LOCAL_CACHE_MAX_ENTRIES) {
+                return; // the store still enforces the lockout, only the shortcut is skipped
+            }
+        }
+        long nanos = Math.min(TimeUnit.MILLISECONDS.toNanos(remainingMillis), localCacheNanos);
+        lockedLocally.put(email, System.nanoTime() + nanos);
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Profile photo pipeline.
+ * An upload is decoded once, centre-cropped to a square and written to the {@link DocumentStore}
+ * as fixed-size JPEG thumbnails. The users table keeps only {@code profilePhotoVersion}
+ * (a prefix of the upload's SHA-256); JSON payloads carry a versioned URL, and
+ * {@code GET /api/users/{id}/photo} serves the bytes with a long-lived Cache-Control.
+ */
+@Service
+@Slf4j
+public class ProfilePhotoService {
+
+    public enum Size {
+        SMALL("sm", 96),
+        LARGE("lg", 320);
+
+        private final String code;
+        private final int pixels;
+
+        Size(String code, int pixels) {
+            this.code = code;
+            this.pixels = pixels;
+        }
+
+        public static Size fromCode(String code) {
+            for (Size size : values()) {
+                if (size.code.equalsIgnoreCase(code)) {
+                    return size;
+                }
+            }
+            return LARGE;
+        }
+
+        public String code() {
+            return code;
+        }
+    }
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+
+    // Checked from the image header before decoding; a small compressed upload can declare a
+    // raster that would not fit in the heap
+    private static final int MAX_SIDE = 10_000;
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    private final DocumentStore documentStore;
+
+    public ProfilePhotoService(DocumentStore documentStore) {
+        this.documentStore = documentStore;
+    }
+
+    /**
+     * URL for the user's photo at the given size, or null when the user has none.
+     * The version parameter changes with every upload, so clients may cache the URL indefinitely.
+     */
+    public static String photoUrl(User user, Size size) {
+        return user == null ? null : photoUrl(user.getId(), user.getProfilePhotoVersion(), size);
+    }
+
+    public static String photoUrl(Long userId, String version, Size size) {
+        if (userId == null || version == null) {
+            return null;
+        }
+        return "/api/users/" + userId + "/photo?size=" + size.code() + "&v=" + version;
+    }
+
+    /**
+     * Decode the upload, write every thumbnail size and set the new version on {@code user}.
+     * Thumbnails of the previous version are removed once the caller's transaction commits,
+     * so a rollback still finds them. The caller saves the user.
+     *
+     * @throws IllegalArgumentException if the content is not a readable image or is too large
+     */
+    public void storePhoto(User user, InputStream upload) throws IOException {
+        if (user.getId() == null) {
+            throw new IllegalStateException("User must be saved before storing a profile photo");
+        }
+        MessageDigest digest = sha256();
+        DigestInputStream hashing = new DigestInputStream(upload, digest);
+        BufferedImage original = decode(hashing);
+        hashing.transferTo(OutputStream.nullOutputStream()); // readers may stop before EOF
+        String version = HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+        for (Size size : Size.values()) {
+            BufferedImage thumbnail = squareThumbnail(original, size.pixels);
+            documentStore.write(key(user.getId(), version, size), CONTENT_TYPE,
+                    out -> ImageIO.write(thumbnail, "jpg", out));
+        }
+        String previous = user.getProfilePhotoVersion();
+        user.setProfilePhotoVersion(version);
+        if (previous != null && !previous.equals(version)) {
+            deleteVersion(user.getId(), previous);
+        }
+        log.info("Profile photo stored for user={} version={}", user.getId(), version);
+    }
+
+    /**
+     * Clear the user's photo; the files go once the caller's transaction commits.
+     */
+    public void deletePhoto(User user) {
+        if (user.getProfilePhotoVersion() != null) {
+            deleteVersion(user.getId(), user.getProfilePhotoVersion());
+            user.setProfilePhotoVersion(null);
+        }
+    }
+
+    public InputStream open(Long userId, String version, Size size) throws IOException {
+        return documentStore.open(key(userId, version, size));
+    }
+
+    private void deleteVersion(Long userId, String version) {
+        List<String> keys = Arrays.stream(Size.values()).map(size -> key(userId, version, size)).toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            keys.forEach(documentStore::delete);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                keys.forEach(documentStore::delete);
+            }
+        });
+    }
+
+    /**
+     * Read the dimensions from the header, reject oversized images, then decode. Large photos are
+     * subsampled while decoding, since the biggest thumbnail needs only a few hundred pixels.
+     */
+    private static BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || width > MAX_SIDE || height > MAX_SIDE
+                        || (long) width * height > MAX_PIXELS) {
+                    throw new IllegalArgumentException("Image dimensions " + width + "x" + height + " are too large");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.min(width, height) / (2 * Size.LARGE.pixels));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } catch (IIOException e) {
+                throw new IllegalArgumentException("Unreadable image", e);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static String key(Long userId, String version, Size size) {
+        return "photos/" + userId + "/" + version + "-" + size.code() + ".jpg";
+    }
+
+    private static BufferedImage squareThumbnail(BufferedImage source, int pixels) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        // JPEG has no alpha channel, so always render onto an RGB canvas
+        BufferedImage target = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, pixels, pixels, x, y, x + side, y + side, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.TransferRecipientDto;
+import com.example.banking_system.enums.VerificationStatus;
+import com.example.banking_system.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Search-as-you-type lookup of transfer recipients by account number, phone or name.
+ * <p>
+ * On PostgreSQL with pg_trgm (see V1_9__Recipient_search_trigram_indexes) candidates come from
+ * the trigram GIN indexes, which serve substring and fuzzy matches. Elsewhere (H2, or Postgres
+ * without the extension) only prefix and word-prefix predicates are used, which the
+ * text_pattern_ops B-tree indexes can serve. Either way results are ranked
+ * exact &gt; prefix &gt; word prefix &gt; fuzzy, and both queries order by that tier before
+ * their LIMIT, so a long tail of weaker matches cannot push an exact match out of the candidates.
+ * <p>
+ * Recent result sets are kept in a small in-memory LRU. A complete (non-truncated) result for
+ * "shi" also answers "shiv" by filtering, so most keystrokes after the first few never reach the DB.
+ */
+@Service
+@Slf4j
+public class RecipientSearchService {
+
+    public static final int DEFAULT_LIMIT = 8;
+    public static final int MAX_LIMIT = 20;
+    private static final int CANDIDATE_LIMIT = 50;
+
+    private static final String TRIGRAM_SQL = """
+            SELECT a.account_number, u.name, u.phone, u.id, u.profile_photo_version
+            FROM account a JOIN users u ON u.id = a.user_id
+            WHERE a.verification_status <> 'SUSPENDED'
+              AND (a.account_number LIKE :prefix
+                   OR u.phone LIKE :contains
+                   OR lower(u.name) LIKE :contains
+                   OR lower(u.name) % :q)
+            ORDER BY CASE WHEN a.account_number = :q OR u.phone = :q OR lower(u.name) = :q THEN 0
+                          WHEN a.account_number LIKE :prefix OR u.phone LIKE :prefix OR lower(u.name) LIKE :prefix THEN 1
+                          WHEN lower(u.name) LIKE :wordPrefix THEN 2
+                          WHEN u.phone LIKE :contains OR lower(u.name) LIKE :contains THEN 3
+                          ELSE 4 END,
+                     similarity(lower(u.name), :q) DESC,
+                     lower(u.name)
+            LIMIT :limit
+            """;
+
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final int cacheSize;
+    private final long cacheTtlMillis;
+    private final Map<String, CachedResult> cache;
+    private volatile boolean trigramAvailable;
+
+    public RecipientSearchService(AccountRepository accountRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${bankwise.recipients.cache-size:1000}") int cacheSize,
+                                  @Value("${bankwise.recipients.cache-ttl-ms:30000}") long cacheTtlMillis) {
+        this.accountRepository = accountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.cacheSize = cacheSize;
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > RecipientSearchService.this.cacheSize;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void detectTrigramSupport() {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class);
+            trigramAvailable = count != null && count > 0;
+        } catch (DataAccessException e) {
+            trigramAvailable = false;
+        }
+        log.info("Recipient search using {} index strategy", trigramAvailable ? "trigram" : "prefix");
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransferRecipientDto> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<Candidate> candidates = cachedCandidates(q);
+        if (candidates == null) {
+            candidates = loadCandidates(q);
+        }
+        return candidates.stream()
+                .sorted(Comparator.comparingInt((Candidate c) -> rank(c, q)).thenComparing(Candidate::name,
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)))
+                .limit(max)
+                .map(Candidate::toDto)
+                .toList();
+    }
+
+    /**
+     * Drop cached results, e.g. after an account is created, renamed or suspended.
+     */
+    public void invalidate() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private List<Candidate> loadCandidates(String q) {
+        List<Object[]> rows;
+        if (trigramAvailable) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("q", q)
+                    .addValue("prefix", q + "%")
+                    .addValue("wordPrefix", "% " + q + "%")
+                    .addValue("contains", "%" + q + "%")
+                    .addValue("limit", CANDIDATE_LIMIT);
+            rows = namedJdbcTemplate.query(TRIGRAM_SQL, params, (rs, i) -> new Object[]{
+                    rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getString(5)});
+        } else {
+            rows = accountRepository.findRecipientCandidates(VerificationStatus.SUSPENDED, q, q + "%", "% " + q + "%",
+                    PageRequest.of(0, CANDIDATE_LIMIT));
+        }
+        List<Candidate> candidates = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Candidate c = new Candidate((String) row[0], (String) row[1], (String) row[2],
+                    ((Number) row[3]).longValue(), (String) row[4]);
+            // Trigram candidates can be loose; keep the ones a user would recognise as a match
+            if (rank(c, q) < Rank.NONE) {
+                candidates.add(c);
+            }
+        }
+        List<Candidate> result = List.copyOf(candidates);
+        remember(q, result, rows.size() < CANDIDATE_LIMIT);
+        return result;
+    }
+
+    /**
+     * Results for {@code q} from the cache, either directly or by filtering a complete
+     * result set of one of its prefixes. Null on a miss.
+     */
+    private List<Candidate> cachedCandidates(String q) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedResult exact = cache.get(q);
+            if (exact != null && exact.expiresAt > now) {
+                return exact.candidates;
+            }
+            // Fuzzy matches of a prefix do not carry over, so prefix reuse is limited to the prefix strategy
+            if (trigramAvailable) {
+                return null;
+            }
+            for (int len = q.length() - 1; len > 0; len--) {
+                CachedResult shorter = cache.get(q.substring(0, len));
+                if (shorter != null && shorter.expiresAt > now && shorter.complete) {
+                    return shorter.candidates.stream()
+                            .filter(c -> rank(c, q) < Rank.NONE)
+                            .toList();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void remember(String q, List<Candidate> candidates, boolean complete) {
+        synchronized (cache) {
+            cache.put(q, new CachedResult(candidates, complete,
+                    System.currentTimeMillis() + cacheTtlMillis));
+        }
+    }
+
+    private static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        // LIKE wildcards from user input would turn a prefix lookup into a scan
+        return query.trim()
+                .replaceAll("[%_\\\\]", "")
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Rank {
+        static final int EXACT = 0;
+        static final int PREFIX = 1;
+        static final int WORD_PREFIX = 2;
+        static final int CONTAINS = 3;
+        static final int FUZZY = 4;
+        static final int NONE = 5;
+    }
+
+    private static int rank(Candidate c, String q) {
+        String name = c.name() != null ? c.name().toLowerCase(Locale.ROOT) : "";
+        String phone = c.phone() != null ? c.phone() : "";
+        String account = c.accountNumber() != null ? c.accountNumber() : "";
+        if (account.equals(q) || phone.equals(q) || name.equals(q)) {
+            return Rank.EXACT;
+        }
+        if (account.startsWith(q) || phone.startsWith(q) || name.startsWith(q)) {
+            return Rank.PREFIX;
+        }
+        if (name.contains(" " + q)) {
+            return Rank.WORD_PREFIX;
+        }
+        if (phone.contains(q) || name.contains(q)) {
+            return Rank.CONTAINS;
+        }
+        if (q.length() >= 3 && trigramSimilarity(name, q) >= 0.3) {
+            return Rank.FUZZY;
+        }
+        return Rank.NONE;
+    }
+
+    /**
+     * Same measure as pg_trgm's similarity(): shared trigrams over the union of trigrams,
+     * on words padded with two leading spaces and one trailing space.
+     */
+    static double trigramSimilarity(String a, String b) {
+        var left = trigrams(a);
+        var right = trigrams(b);
+        if (left.isEmpty() || right.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String t : right) {
+            if (left.contains(t)) {
+                shared++;
+            }
+        }
+        return (double) shared / (left.size() + right.size() - shared);
+    }
+
+    private static Set<String> trigrams(String s) {
+        Set<String> result = new HashSet<>();
+        for (String word : s.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    private record Candidate(String accountNumber, String name, String phone, Long userId, String photoVersion) {
+        TransferRecipientDto toDto() {
+            return TransferRecipientDto.builder()
+                    .name(name != null ? name : "-")
+                    .phone(phone != null ? phone : "-")
+                    .accountNumber(accountNumber)
+                    .bank("Bankwise")
+                    .profilePhotoUrl(ProfilePhotoService.photoUrl(userId, photoVersion, ProfilePhotoService.Size.SMALL))
+                    .build();
+        }
+    }
+
+    private record CachedResult(List<Candidate> candidates, boolean complete, long expiresAt) {
+    }
+}
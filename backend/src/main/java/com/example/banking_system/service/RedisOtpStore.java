@@ -0,0 +1,95 @@
+package com.example.banking_system.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OtpStore} in Redis, so an OTP sent by one node can be verified on any other.
+ * A pending code is a hash {@code otp::<email>} with the code digest and an attempt counter;
+ * verified users are plain keys {@code otp:verified::<email>}. Sends are counted per fixed window
+ * in {@code otp:sends::<email>}. All of them carry TTLs.
+ */
+@Service
+@ConditionalOnProperty(name = "bankwise.otp.store", havingValue = "redis", matchIfMissing = true)
+public class RedisOtpStore implements OtpStore {
+
+    private static final String OTP_KEY_PREFIX = "otp::";
+    private static final String VERIFIED_KEY_PREFIX = "otp:verified::";
+    private static final String SENDS_KEY_PREFIX = "otp:sends::";
+
+    /**
+     * KEYS[1] = otp key, KEYS[2] = send counter key; ARGV[1] = code digest, ARGV[2] = TTL ms,
+     * ARGV[3] = max sends, ARGV[4] = send window ms. Returns 0 without storing once the window's
+     * sends are used up.
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = RedisScript.of("""
+            local sends = redis.call('INCR', KEYS[2])
+            if sends == 1 then
+                redis.call('PEXPIRE', KEYS[2], ARGV[4])
+            end
+            if sends > tonumber(ARGV[3]) then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'code', ARGV[1], 'attempts', 0)
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS[1] = otp key. Returns {code digest, attempts} or an empty list if nothing is pending.
+     * Counting and reading in one script means parallel guesses cannot share an attempt.
+     */
+    private static final RedisScript<List> ATTEMPT_SCRIPT = RedisScript.of("""
+            local code = redis.call('HGET', KEYS[1], 'code')
+            if not code then
+                return {}
+            end
+            local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+            return {code, tostring(attempts)}
+            """, List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisOtpStore(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean save(String email, String codeDigest, Duration ttl, int maxSends, Duration sendWindow) {
+        Long saved = redisTemplate.execute(SAVE_SCRIPT, List.of(OTP_KEY_PREFIX + email, SENDS_KEY_PREFIX + email),
+                codeDigest, String.valueOf(ttl.toMillis()), String.valueOf(maxSends), String.valueOf(sendWindow.toMillis()));
+        return saved != null && saved == 1;
+    }
+
+    @Override
+    public Optional<Challenge> attempt(String email) {
+        List<?> reply = redisTemplate.execute(ATTEMPT_SCRIPT, List.of(OTP_KEY_PREFIX + email));
+        if (reply == null || reply.size() < 2) {
+            return Optional.empty();
+        }
+        return Optional.of(new Challenge(String.valueOf(reply.get(0)), Long.parseLong(String.valueOf(reply.get(1)))));
+    }
+
+    @Override
+    public boolean consume(String email) {
+        return Boolean.TRUE.equals(redisTemplate.delete(OTP_KEY_PREFIX + email));
+    }
+
+    @Override
+    public void markVerified(String email, Duration ttl) {
+        redisTemplate.opsForValue().set(VERIFIED_KEY_PREFIX + email, "1", ttl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean isVerified(String email) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(VERIFIED_KEY_PREFIX + email));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.banking_system.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PinAttemptStore} in Redis. Attempts are a sorted set {@code pin:failures::<email>} scored
+ * by attempt time and trimmed to the window on every reservation; a lockout is a plain key
+ * {@code pin:locked::<email>}. Both carry TTLs, so nothing has to sweep them.
+ */
+@Service
+@ConditionalOnProperty(name = "bankwise.pin.store", havingValue = "redis", matchIfMissing = true)
+public class RedisPinAttemptStore implements PinAttemptStore {
+
+    private static final String ATTEMPTS_KEY_PREFIX = "pin:failures::";
+    private static final String LOCKED_KEY_PREFIX = "pin:locked::";
+
+    /**
+     * KEYS[1] = attempts key, KEYS[2] = lockout key;
+     * ARGV[1] = now ms, ARGV[2] = window ms, ARGV[3] = attempt id, ARGV[4] = max attempts.
+     * Returns the attempts in the window including this one, minus the remaining lockout ms, or 0
+     * when the window is full.
+     */
+    private static final RedisScript<Long> RESERVE_SCRIPT = RedisScript.of("""
+            local locked = redis.call('PTTL', KEYS[2])
+            if locked > 0 then
+                return -locked
+            end
+            local now = tonumber(ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2]))
+            if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[4]) then
+                return 0
+            end
+            redis.call('ZADD', KEYS[1], now, ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return redis.call('ZCARD', KEYS[1])
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisPinAttemptStore(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long reserve(String email, String attemptId, long windowMillis, int maxAttempts) {
+        Long reply = redisTemplate.execute(RESERVE_SCRIPT,
+                List.of(ATTEMPTS_KEY_PREFIX + email, LOCKED_KEY_PREFIX + email),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(windowMillis),
+                attemptId, String.valueOf(maxAttempts));
+        return reply != null ? reply : 0;
+    }
+
+    @Override
+    public void release(String email, String attemptId) {
+        redisTemplate.opsForZSet().remove(ATTEMPTS_KEY_PREFIX + email, attemptId);
+    }
+
+    @Override
+    public void lock(String email, long lockoutMillis) {
+        redisTemplate.opsForValue().set(LOCKED_KEY_PREFIX + email, "1", lockoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void clear(String email) {
+        redisTemplate.delete(List.of(ATTEMPTS_KEY_PREFIX + email, LOCKED_KEY_PREFIX + email));
+    }
+}
@@ -6,6 +6,7 @@ import com.example.banking_system.entity.ScheduledPayment;
 import com.example.banking_system.entity.User;
 import com.example.banking_system.enums.PaymentFrequency;
 import com.example.banking_system.enums.ScheduledPaymentStatus;
+import com.example.banking_system.enums.TransactionType;
 import com.example.banking_system.repository.AccountRepository;
 import com.example.banking_system.repository.ScheduledPaymentRepository;
 import com.example.banking_system.repository.UserRepository;
@@ -31,7 +32,9 @@ public class ScheduledPaymentService {
     private final TransactionService transactionService;
     private final NotificationService notificationService;
     private final EmailService emailService;
+    private final EmailTemplateService emailTemplates;
     private final CachedDataService cachedDataService;
+    private final LedgerService ledgerService;
 
     /**
      * Get all scheduled payments for a user
@@ -227,6 +230,8 @@ public class ScheduledPaymentService {
             // Bill payment (simulated - deduct from account)
             fromAccount.withdraw(payment.getAmount());
             accountRepository.save(fromAccount);
+            ledgerService.record(fromAccount.getAccountNumber(), LedgerService.BILLERS, payment.getAmount(),
+                TransactionType.BILL_PAYMENT, "SCHEDULED_PAYMENT:" + payment.getId());
             log.info("Processed bill payment of {} to {}", payment.getAmount(), payment.getBillerName());
         }
 
@@ -264,15 +269,11 @@ public class ScheduledPaymentService {
         
         // Also send email
         try {
-            emailService.sendEmail(
-                payment.getUser().getEmail(),
-                "Scheduled Payment Failed - BankWise",
-                String.format("Dear %s,\n\nYour scheduled payment of ₹%s to %s has failed.\n\nReason: %s\n\nPlease check your account balance and try again.\n\nRegards,\nBankWise Team",
-                    payment.getUser().getName(),
-                    payment.getAmount(),
-                    payment.getToAccountNumber() != null ? payment.getBeneficiaryName() : payment.getBillerName(),
-                    reason)
-            );
+            emailService.sendEmail(payment.getUser().getEmail(), emailTemplates.render("scheduled-payment-failed",
+                    "name", payment.getUser().getName(),
+                    "amount", payment.getAmount(),
+                    "payee", payment.getToAccountNumber() != null ? payment.getBeneficiaryName() : payment.getBillerName(),
+                    "reason", reason));
         } catch (Exception e) {
             log.error("Failed to send payment failure email: {}", e.getMessage());
         }
@@ -13,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -50,10 +51,12 @@ public class SupportService {
         return toResponse(saved);
     }
 
+    @Transactional(readOnly = true)
     public List<SupportTicketResponseDto> listAll() {
-        return ticketRepository.findAll().stream().map(this::toResponse).toList();
+        return ticketRepository.findAllResponses();
     }
 
+    @Transactional(readOnly = true)
     public List<SupportTicketResponseDto> listForCurrentUser() throws ResourceNotFoundException {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth != null ? auth.getName() : null;
@@ -61,13 +64,7 @@ public class SupportService {
             throw new ResourceNotFoundException("User not found");
         }
         // Exclude RESOLVED and CLOSED tickets from user view (handled by developer)
-        return ticketRepository.findByUserEmailAndStatusNotInOrderByCreatedAtDesc(
-                email, 
-                List.of("RESOLVED", "CLOSED")
-        )
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        return ticketRepository.findResponsesByUserEmailExcludingStatuses(email, List.of("RESOLVED", "CLOSED"));
     }
 
     private SupportTicketResponseDto toResponse(SupportTicket ticket) {
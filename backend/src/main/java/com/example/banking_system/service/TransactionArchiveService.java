@@ -0,0 +1,264 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.Account;
+import com.example.banking_system.entity.Transaction;
+import com.example.banking_system.entity.TransactionArchiveBatch;
+import com.example.banking_system.enums.TransactionStatus;
+import com.example.banking_system.enums.TransactionType;
+import com.example.banking_system.repository.TransactionArchiveBatchRepository;
+import com.example.banking_system.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Hot/cold tiering for transactions.
+ * Closed years are moved out of the {@code transaction} table into
+ * {@code transaction_archive}, one gzip-compressed CSV batch per account per month.
+ * Each account batch is streamed from the hot table and committed on its own; the month becomes
+ * visible to readers when it is sealed, in the transaction that removes it from the hot table.
+ * On a partitioned table the archived month's partition is detached concurrently and dropped whole.
+ * {@link TransactionService#getTransaction} reads the archive for ranges older than the hot tier.
+ */
+@Service
+@Slf4j
+public class TransactionArchiveService {
+
+    private static final int ACCOUNT_PAGE_SIZE = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveBatchRepository archiveBatchRepository;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${bankwise.transactions.hot-years:2}")
+    private int hotYears;
+
+    public TransactionArchiveService(TransactionRepository transactionRepository,
+                                     TransactionArchiveBatchRepository archiveBatchRepository,
+                                     PartitionMaintenanceService partitionMaintenanceService,
+                                     PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.archiveBatchRepository = archiveBatchRepository;
+        this.partitionMaintenanceService = partitionMaintenanceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs at 3 AM on January 15th: archive every month of years older than the hot window.
+     * With the default of 2 hot years, the current and previous year stay in the hot table.
+     */
+    @Scheduled(cron = "0 0 3 15 1 ?")
+    public void archiveClosedYears() {
+        LocalDateTime earliest = transactionRepository.findEarliestTimestamp();
+        if (earliest == null) {
+            return;
+        }
+        YearMonth lastArchivable = Year.now().minusYears(hotYears - 1L).atMonth(1).minusMonths(1);
+        boolean partitioned = partitionMaintenanceService.isPartitioned("transaction");
+        for (YearMonth month = YearMonth.from(earliest); !month.isAfter(lastArchivable); month = month.plusMonths(1)) {
+            YearMonth target = month;
+            int archived = archiveMonth(target, !partitioned);
+            log.info("Archived {} account batches for {}", archived, target);
+            if (partitioned) {
+                // After the month is sealed, so a failed detach is retried on the next run
+                // instead of rolling back the archived batches
+                partitionMaintenanceService.detachAndDropPartition("transaction", target);
+                // Catches rows left in the default partition of databases converted with one
+                LocalDateTime start = target.atDay(1).atStartOfDay();
+                LocalDateTime end = target.plusMonths(1).atDay(1).atStartOfDay();
+                transactionTemplate.executeWithoutResult(status -> transactionRepository.deleteByTimestampRange(start, end));
+            }
+        }
+    }
+
+    /**
+     * Whether any part of a history range starting at {@code start} lives in the archive.
+     */
+    public boolean covers(LocalDateTime start) {
+        LocalDate latest = archiveBatchRepository.findLatestArchivedPeriod();
+        return latest != null && start.isBefore(latest.plusMonths(1).atStartOfDay());
+    }
+
+    /**
+     * Archived transactions for an account, newest first, as detached {@link Transaction} instances.
+     *
+     * @param offset rows to skip within the archived part of the range
+     * @param limit  maximum rows to return
+     */
+    @Transactional(readOnly = true)
+    public List<Transaction> findHistory(String accountNumber, LocalDateTime start, LocalDateTime end,
+                                         long offset, int limit) {
+        List<Transaction> result = new ArrayList<>();
+        if (limit <= 0) {
+            return result;
+        }
+        List<TransactionArchiveBatch> batches = archiveBatchRepository.findForAccountBetween(
+                accountNumber, start.toLocalDate().withDayOfMonth(1), end.toLocalDate());
+        long skipped = 0;
+        for (TransactionArchiveBatch batch : batches) {
+            boolean wholeMonthInRange = !start.isAfter(batch.getPeriodStart().atStartOfDay())
+                    && !end.isBefore(batch.getPeriodStart().plusMonths(1).atStartOfDay().minusNanos(1));
+            if (wholeMonthInRange && offset - skipped >= batch.getRowCount()) {
+                // whole batch lies before the requested page; skip it without decompressing
+                skipped += batch.getRowCount();
+                continue;
+            }
+            for (Transaction txn : decode(batch.getPayload())) {
+                if (txn.getTimestamp().isBefore(start) || txn.getTimestamp().isAfter(end)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                result.add(txn);
+                if (result.size() >= limit) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy one month into archive batches, one transaction per account, then seal it.
+     * A run interrupted part way resumes with the accounts that have no batch yet.
+     *
+     * @param deleteRows delete the month from the hot table in the sealing transaction;
+     *                   false when its partition is detached and dropped afterwards
+     * @return account batches written by this run
+     */
+    private int archiveMonth(YearMonth month, boolean deleteRows) {
+        LocalDate periodStart = month.atDay(1);
+        if (archiveBatchRepository.existsByPeriodStartAndSealedTrue(periodStart)) {
+            log.warn("Transactions for {} already archived, skipping", month);
+            return 0;
+        }
+        LocalDateTime start = periodStart.atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        Set<String> written = new HashSet<>(archiveBatchRepository.findAccountNumbersByPeriodStart(periodStart));
+
+        int batches = 0;
+        String after = "";
+        List<Object[]> accounts;
+        do {
+            String cursor = after;
+            accounts = transactionRepository.findAccountsWithTransactionsBetween(start, end, cursor,
+                    PageRequest.ofSize(ACCOUNT_PAGE_SIZE));
+            for (Object[] account : accounts) {
+                Long accountId = (Long) account[0];
+                String accountNumber = (String) account[1];
+                after = accountNumber;
+                if (written.contains(accountNumber)) {
+                    continue;
+                }
+                transactionTemplate.executeWithoutResult(status ->
+                        archiveAccount(accountId, accountNumber, periodStart, start, end));
+                batches++;
+            }
+        } while (accounts.size() == ACCOUNT_PAGE_SIZE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            archiveBatchRepository.sealPeriod(periodStart);
+            if (deleteRows) {
+                transactionRepository.deleteByTimestampRange(start, end);
+            }
+        });
+        return batches;
+    }
+
+    private void archiveAccount(Long accountId, String accountNumber, LocalDate periodStart,
+                                LocalDateTime start, LocalDateTime end) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int rowCount;
+        try (Stream<Object[]> rows = transactionRepository.streamArchiveRows(accountId, start, end)) {
+            rowCount = encode(rows, bytes);
+        }
+        archiveBatchRepository.save(TransactionArchiveBatch.builder()
+                .accountNumber(accountNumber)
+                .periodStart(periodStart)
+                .rowCount(rowCount)
+                .payload(bytes.toByteArray())
+                .build());
+    }
+
+    private static int encode(Stream<Object[]> rows, OutputStream out) {
+        int count = 0;
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(out), StandardCharsets.UTF_8)) {
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); count++) {
+                Object[] row = it.next();
+                writer.write(row[0] + "," + row[1] + "," + nullToEmpty(row[2]) + "," + nullToEmpty(row[3]) + ","
+                        + row[4] + "," + nullToEmpty(row[5]) + "," + nullToEmpty(row[6]) + "\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress transaction archive", e);
+        }
+        return count;
+    }
+
+    private static List<Transaction> decode(byte[] payload) {
+        List<Transaction> transactions = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(payload)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] f = line.split(",", -1);
+                transactions.add(Transaction.builder()
+                        .id(Long.parseLong(f[0]))
+                        .timestamp(LocalDateTime.parse(f[1]))
+                        .sourceAccount(accountRef(f[2]))
+                        .destinationAccount(accountRef(f[3]))
+                        .amount(new BigDecimal(f[4]))
+                        .type(f[5].isEmpty() ? null : TransactionType.valueOf(f[5]))
+                        .status(f[6].isEmpty() ? null : TransactionStatus.valueOf(f[6]))
+                        .build());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read transaction archive", e);
+        }
+        return transactions;
+    }
+
+    private static Account accountRef(String accountNumber) {
+        if (accountNumber.isEmpty()) {
+            return null;
+        }
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        return account;
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
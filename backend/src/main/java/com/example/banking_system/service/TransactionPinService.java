@@ -7,12 +7,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.scheduling.annotation.Scheduled;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for managing transaction PINs.
@@ -28,46 +27,7 @@ public class TransactionPinService {
     private final OtpService otpService;
     private final EmailService emailService;
     private final AuditService auditService;
-
-    // Track failed PIN attempts with timestamp (in production, use Redis with TTL)
-    private final ConcurrentHashMap<String, FailedAttemptInfo> failedAttempts = new ConcurrentHashMap<>();
-    private static final int MAX_FAILED_ATTEMPTS = 3;
-    private static final int PIN_LOCKOUT_MINUTES = 30;
-
-    /**
-     * Internal class to track failed attempts with timestamp.
-     */
-    private record FailedAttemptInfo(int count, LocalDateTime lastAttempt) {
-        FailedAttemptInfo increment() {
-            return new FailedAttemptInfo(count + 1, LocalDateTime.now());
-        }
-        
-        boolean isExpired() {
-            return lastAttempt.plusMinutes(PIN_LOCKOUT_MINUTES).isBefore(LocalDateTime.now());
-        }
-        
-        boolean isLockedOut() {
-            return count >= MAX_FAILED_ATTEMPTS && !isExpired();
-        }
-    }
-
-    /**
-     * Clean up expired lockout entries every 15 minutes.
-     */
-    @Scheduled(fixedRate = 900000) // 15 minutes
-    public void cleanupExpiredLockouts() {
-        int removed = 0;
-        for (String email : failedAttempts.keySet()) {
-            FailedAttemptInfo info = failedAttempts.get(email);
-            if (info != null && info.isExpired()) {
-                failedAttempts.remove(email);
-                removed++;
-            }
-        }
-        if (removed > 0) {
-            log.debug("Cleaned up {} expired PIN lockout entries", removed);
-        }
-    }
+    private final PinLockoutService pinLockoutService;
 
     /**
      * Check if user has a transaction PIN set
@@ -112,43 +72,45 @@ public class TransactionPinService {
             return Map.of("valid", false, "hasPinSet", false, "message", "No PIN set");
         }
 
-        // Check if locked out
-        if (isLockedOut(userEmail)) {
+        // Count the attempt before comparing, so parallel guesses cannot all get through
+        Optional<PinLockoutService.Attempt> reserved = pinLockoutService.reserveAttempt(userEmail);
+        if (reserved.isEmpty()) {
             return Map.of(
                 "valid", false,
                 "locked", true,
                 "message", "Too many failed attempts. Please try again later or reset your PIN."
             );
         }
+        PinLockoutService.Attempt attempt = reserved.get();
 
-        boolean valid = passwordEncoder.matches(pin, user.getTransactionPin());
+        boolean valid;
+        try {
+            valid = passwordEncoder.matches(pin, user.getTransactionPin());
+        } catch (RuntimeException e) {
+            pinLockoutService.release(userEmail, attempt);
+            throw e;
+        }
 
         if (valid) {
-            failedAttempts.remove(userEmail);
+            pinLockoutService.clear(userEmail);
+            if (passwordEncoder.upgradeEncoding(user.getTransactionPin())) {
+                // Stored with a lower BCrypt strength than configured: re-hash while we have the PIN
+                user.setTransactionPin(passwordEncoder.encode(pin));
+                userRepository.save(user);
+            }
             auditService.recordSystem("PIN_VERIFY", "USER", String.valueOf(user.getId()), "SUCCESS", "PIN verified");
             return Map.of("valid", true, "message", "PIN verified");
         } else {
-            // Update failed attempts with timestamp tracking
-            FailedAttemptInfo currentInfo = failedAttempts.get(userEmail);
-            FailedAttemptInfo newInfo;
-            if (currentInfo == null || currentInfo.isExpired()) {
-                // Start fresh count
-                newInfo = new FailedAttemptInfo(1, LocalDateTime.now());
-            } else {
-                newInfo = currentInfo.increment();
-            }
-            failedAttempts.put(userEmail, newInfo);
-            
-            int remaining = MAX_FAILED_ATTEMPTS - newInfo.count();
+            int remaining = pinLockoutService.recordFailure(userEmail, attempt);
             
             auditService.recordSystem("PIN_VERIFY", "USER", String.valueOf(user.getId()), "FAILED", 
-                "Invalid PIN. Attempts: " + newInfo.count());
+                "Invalid PIN. Attempts: " + attempt.number());
 
             if (remaining <= 0) {
                 return Map.of(
                     "valid", false,
                     "locked", true,
-                    "message", "Too many failed attempts. PIN locked for " + PIN_LOCKOUT_MINUTES + " minutes."
+                    "message", "Too many failed attempts. PIN locked for " + pinLockoutService.getLockoutMinutes() + " minutes."
                 );
             }
 
@@ -237,7 +199,7 @@ public class TransactionPinService {
         userRepository.save(user);
 
         // Clear lockout
-        failedAttempts.remove(userEmail);
+        pinLockoutService.clear(userEmail);
 
         auditService.recordSystem("PIN_RESET", "USER", String.valueOf(user.getId()), "SUCCESS", "Transaction PIN reset");
         log.info("Transaction PIN reset for user {}", userEmail);
@@ -273,27 +235,11 @@ public class TransactionPinService {
         }
     }
 
-    /**
-     * Check if user is locked out due to failed attempts
-     */
-    private boolean isLockedOut(String userEmail) {
-        FailedAttemptInfo info = failedAttempts.get(userEmail);
-        if (info == null) {
-            return false;
-        }
-        // If lockout has expired, remove it and allow access
-        if (info.isExpired()) {
-            failedAttempts.remove(userEmail);
-            return false;
-        }
-        return info.isLockedOut();
-    }
-
     /**
      * Clear lockout (admin function)
      */
     public void clearLockout(String userEmail) {
-        failedAttempts.remove(userEmail);
+        pinLockoutService.clear(userEmail);
         log.info("PIN lockout cleared for user {}", userEmail);
     }
 }
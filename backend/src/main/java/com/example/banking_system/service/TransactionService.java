@@ -14,10 +14,9 @@ import com.example.banking_system.exception.InsufficientFundsException;
 import com.example.banking_system.exception.UnauthorizedAccountAccessException;
 import com.example.banking_system.repository.AccountRepository;
 import com.example.banking_system.repository.TransactionRepository;
-import com.itextpdf.text.*;
-import com.itextpdf.text.pdf.PdfPCell;
-import com.itextpdf.text.pdf.PdfPTable;
-import com.itextpdf.text.pdf.PdfWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,14 +31,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -61,6 +62,15 @@ public class TransactionService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private PdfRenderService pdfRenderService;
+
+    @Value("${bankwise.statements.page-size:500}")
+    private int statementPageSize;
+
+    @Value("${bankwise.statements.threads:4}")
+    private int statementThreads;
+
     @Autowired
     private AuditService auditService;
 
@@ -85,9 +95,18 @@ public class TransactionService {
     @Autowired
     private CacheEvictionService cacheEvictionService;
 
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional
     public String processTransaction(TransferRequestDto transferRequestDto) {
-        log.info("Processing transfer from={} to={} amount={}", transferRequestDto.getFromAccount(), transferRequestDto.getToAccount(), transferRequestDto.getAmount());
+        log.debug("Processing transfer from={} to={} amount={}", transferRequestDto.getFromAccount(), transferRequestDto.getToAccount(), transferRequestDto.getAmount());
         if (transferRequestDto.getAmount() == null) {
             throw new BusinessRuleViolationException("Transfer amount is required");
         }
@@ -110,14 +129,25 @@ public class TransactionService {
         String secondAccount = transferRequestDto.getFromAccount().compareTo(transferRequestDto.getToAccount()) < 0 
             ? transferRequestDto.getToAccount() : transferRequestDto.getFromAccount();
         
-        // Lock accounts in consistent order to prevent deadlocks
-        Account firstLocked = accountRepository.findByAccountNumberForUpdate(firstAccount)
-            .orElseThrow(() -> new BusinessRuleViolationException("Account not found: " + firstAccount));
-        Account secondLocked = accountRepository.findByAccountNumberForUpdate(secondAccount)
-            .orElseThrow(() -> new BusinessRuleViolationException("Account not found: " + secondAccount));
-        
-        Account fromAccount = transferRequestDto.getFromAccount().equals(firstAccount) ? firstLocked : secondLocked;
-        Account toAccount = transferRequestDto.getToAccount().equals(firstAccount) ? firstLocked : secondLocked;
+        Account fromAccount;
+        Account toAccount;
+        boolean hotDestination = ledgerService.isHotAccount(transferRequestDto.getToAccount());
+        if (hotDestination) {
+            // Hot destination is credited through a ledger shard, so only the source row is locked
+            fromAccount = accountRepository.findByAccountNumberForUpdate(transferRequestDto.getFromAccount())
+                .orElseThrow(() -> new BusinessRuleViolationException("Account not found: " + transferRequestDto.getFromAccount()));
+            toAccount = accountRepository.findByAccountNumber(transferRequestDto.getToAccount())
+                .orElseThrow(() -> new BusinessRuleViolationException("Account not found: " + transferRequestDto.getToAccount()));
+        } else {
+            // Lock accounts in consistent order to prevent deadlocks
+            Account firstLocked = accountRepository.findByAccountNumberForUpdate(firstAccount)
+                .orElseThrow(() -> new BusinessRuleViolationException("Account not found: " + firstAccount));
+            Account secondLocked = accountRepository.findByAccountNumberForUpdate(secondAccount)
+                .orElseThrow(() -> new BusinessRuleViolationException("Account not found: " + secondAccount));
+
+            fromAccount = transferRequestDto.getFromAccount().equals(firstAccount) ? firstLocked : secondLocked;
+            toAccount = transferRequestDto.getToAccount().equals(firstAccount) ? firstLocked : secondLocked;
+        }
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String currentEmail = auth != null ? auth.getName() : null;
@@ -146,14 +176,23 @@ public class TransactionService {
             auditService.record("TRANSFER", "ACCOUNT", fromAccount.getAccountNumber(), "DENIED", "Daily limit exceeded");
             throw new BusinessRuleViolationException("Daily transfer limit exceeded");
         }
+        // A hot source may hold credits on shards that the row does not show yet
+        ledgerService.foldForDebit(fromAccount, transferRequestDto.getAmount());
         TransactionStatus transactionStatus;
         if (fromAccount.getBalance().compareTo(transferRequestDto.getAmount()) >= 0) {
             fromAccount.setBalance(fromAccount.getBalance().subtract(transferRequestDto.getAmount()));
-            toAccount.setBalance(toAccount.getBalance().add(transferRequestDto.getAmount()));
             accountRepository.saveAndFlush(fromAccount);
-            accountRepository.saveAndFlush(toAccount);
+            if (!hotDestination || !ledgerService.creditHotAccount(toAccount.getAccountNumber(), transferRequestDto.getAmount())) {
+                if (hotDestination) {
+                    // Shards not initialised yet - fall back to crediting the row. It was read without a lock,
+                    // and a FOR UPDATE query would return that stale managed instance, so re-read it under the lock
+                    entityManager.refresh(toAccount, LockModeType.PESSIMISTIC_WRITE);
+                }
+                toAccount.setBalance(toAccount.getBalance().add(transferRequestDto.getAmount()));
+                accountRepository.saveAndFlush(toAccount);
+            }
             transactionStatus = TransactionStatus.SUCCESS;
-            log.info("Account balances updated: from={} balance={}, to={} balance={}", 
+            log.debug("Account balances updated: from={} balance={}, to={} balance={}", 
                 fromAccount.getAccountNumber(), fromAccount.getBalance(),
                 toAccount.getAccountNumber(), toAccount.getBalance());
             // Publish event - notifications will be sent asynchronously AFTER transaction commits
@@ -178,8 +217,10 @@ public class TransactionService {
                 .timestamp(LocalDateTime.now())
                 .build();
         transaction = transactionRepository.saveAndFlush(transaction);
-        log.info("Transaction saved with id={}", transaction.getId());
+        log.debug("Transaction saved with id={}", transaction.getId());
         if (transactionStatus == TransactionStatus.SUCCESS) {
+            ledgerService.record(fromAccount.getAccountNumber(), toAccount.getAccountNumber(),
+                    transferRequestDto.getAmount(), TransactionType.TRANSFER, "TXN:" + transaction.getId());
             auditService.record("TRANSFER", "TRANSACTION", String.valueOf(transaction.getId()), "SUCCESS",
                     "from=" + fromAccount.getAccountNumber() + " to=" + toAccount.getAccountNumber() + " amount=" + transferRequestDto.getAmount());
             
@@ -205,46 +246,8 @@ public class TransactionService {
      */
     @Transactional
     public String processTransactionWithIdempotency(TransferRequestDto transferRequestDto, String idempotencyKey) {
-        // If no idempotency key provided, generate one
-        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
-            return processTransaction(transferRequestDto);
-        }
-
-        // Check if this operation was already completed
-        String cachedResult = idempotencyService.getResult(idempotencyKey);
-        if (cachedResult != null) {
-            log.info("Returning cached result for idempotency key: {}", idempotencyKey);
-            return cachedResult;
-        }
-
-        // Try to acquire lock for this operation
-        if (!idempotencyService.acquireIdempotencyLock(idempotencyKey)) {
-            // Another thread is processing this, wait a bit and check again
-            try {
-                Thread.sleep(1000);
-                String result = idempotencyService.getResult(idempotencyKey);
-                if (result != null) {
-                    return result;
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            throw new BusinessRuleViolationException("Operation is already being processed. Please wait.");
-        }
-
-        try {
-            // Process the transaction
-            String result = processTransaction(transferRequestDto);
-            
-            // Store the result for future duplicate requests
-            idempotencyService.storeResult(idempotencyKey, result);
-            
-            return result;
-        } catch (Exception e) {
-            // Release lock on error without storing result
-            idempotencyService.releaseLock(idempotencyKey);
-            throw e;
-        }
+        // Duplicates in flight wait for the first request's result instead of failing
+        return idempotencyService.execute(idempotencyKey, () -> processTransaction(transferRequestDto));
     }
 
     /**
@@ -260,7 +263,7 @@ public class TransactionService {
         
         Map<String, Object> result = new HashMap<>();
         result.put("status", status);
-        result.put("newBalance", fromAccount != null ? fromAccount.getBalance() : null);
+        result.put("newBalance", fromAccount != null ? ledgerService.visibleBalance(fromAccount) : null);
         return result;
     }
 
@@ -278,9 +281,17 @@ public class TransactionService {
         Page<Transaction> transactionPage = transactionRepository.findByAccountAndDateRange(
                 accountNumber, start, end, pageable
         );
-        return transactionPage.stream()
+        List<TransactionResponseDto> result = transactionPage.stream()
                 .map(txn -> mapToDto(txn, accountNumber))
                 .collect(Collectors.toList());
+
+        // Archived rows are older than every hot row, so they continue the page after the hot tier runs out
+        if (result.size() < pageSize && transactionArchiveService.covers(start)) {
+            long archiveOffset = Math.max(0, (long) page * pageSize - transactionPage.getTotalElements());
+            transactionArchiveService.findHistory(accountNumber, start, end, archiveOffset, pageSize - result.size())
+                    .forEach(txn -> result.add(mapToDto(txn, accountNumber)));
+        }
+        return result;
     }
 
     /**
@@ -353,28 +364,27 @@ public class TransactionService {
     public void sendMonthlyTransactionReport() throws Exception {
         LocalDate today = LocalDate.now();
         LocalDate firstDayLastMonth = today.minusMonths(1).withDayOfMonth(1);
-        LocalDate lastDayLastMonth = today.plusMonths(1).withDayOfMonth(1);
+        LocalDate lastDayLastMonth = today.withDayOfMonth(1).minusDays(1);
 
         LocalDateTime startDate = firstDayLastMonth.atStartOfDay();
         LocalDateTime endDate = lastDayLastMonth.atTime(LocalTime.MAX);
 
         List<Account> accounts = accountRepository.findAll();
 
-        int nThreads = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
-        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        // Rendering is CPU-bound; more workers than cores only adds statements in flight
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, statementThreads));
 
         for (Account account : accounts) {
             executor.submit(() -> {
                 try {
-                    List<Transaction> transactions = transactionRepository.findByAccountAndDateRange(
-                            account.getAccountNumber(), startDate, endDate, PageRequest.of(0, Integer.MAX_VALUE)
-                    ).getContent();
-                    if (!transactions.isEmpty() && account.getUser() != null) {
-                        List<TransactionResponseDto> transactionResponseDtos = transactions.stream()
-                                .map(this::mapToDto).toList();
-                        byte[] pdf = generateTransactionPdf(transactionResponseDtos,
-                                account, firstDayLastMonth, lastDayLastMonth);
-                        emailService.sendTransactionHistoryPdf(account.getUser().getEmail(), pdf);
+                    if (account.getUser() == null) {
+                        return;
+                    }
+                    Iterator<TransactionResponseDto> rows = statementRows(account.getAccountNumber(), startDate, endDate);
+                    if (rows.hasNext()) {
+                        emailService.sendTransactionHistoryPdf(account.getUser().getEmail(),
+                                out -> pdfRenderService.writeStatement(out, account.getAccountNumber(),
+                                        firstDayLastMonth, lastDayLastMonth, rows));
                     }
                 } catch (Exception e) {
                     log.warn("Error sending transaction PDF to email={}",
@@ -391,68 +401,72 @@ public class TransactionService {
     }
 
     /**
-     * Generate PDF report for transactions.
-     * This is called within an ExecutorService thread pool, so no @Async needed.
+     * Statement PDF for one of the caller's accounts, for streaming to the response.
+     * Ownership is checked now, before any output; the rows are read while the PDF is written.
      */
-    private byte[] generateTransactionPdf(List<TransactionResponseDto> transactionResponseDtos,
-                                          Account account, LocalDate startDate, LocalDate endDate) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4, 36, 36, 54, 36);
-
-        try {
-            PdfWriter.getInstance(document, outputStream);
-            document.open();
-
-            document.addAuthor(account.getAccountNumber());
-            document.addCreationDate();
-            document.addTitle("Monthly Transactions");
-
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
-            Paragraph title = new Paragraph("Monthly Transactions Statement", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            document.add(title);
-
-            document.add(Chunk.NEWLINE);
-
-            Font infoFont = FontFactory.getFont(FontFactory.HELVETICA, 12);
-            document.add(new Paragraph("Account Number: " + account.getAccountNumber(), infoFont));
-            document.add(new Paragraph("Period: " + startDate + " - " + endDate, infoFont));
-            document.add(Chunk.NEWLINE);
-
-            PdfPTable table = new PdfPTable(6);
-            table.setWidthPercentage(100);
-            table.setSpacingBefore(10f);
-            table.setSpacingAfter(10f);
-
-            float[] columnWidths = {2f, 2f, 1.5f, 1.5f, 2f, 2f};
-            table.setWidths(columnWidths);
-
-            Font headFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
-            String[] headers = {"From", "To", "Amount", "Type", "Status", "Timestamp"};
-            for (String header : headers) {
-                PdfPCell hcell = new PdfPCell(new Paragraph(header, headFont));
-                hcell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                hcell.setBackgroundColor(BaseColor.LIGHT_GRAY);
-                table.addCell(hcell);
-            }
+    public DocumentStore.DocumentWriter statementPdf(String accountNumber, LocalDate startDate, LocalDate endDate) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String currentEmail = auth != null ? auth.getName() : null;
+        Account account = cachedDataService.getAccountByNumberForAuth(accountNumber);
+        if (account.getUser() == null || !account.getUser().getEmail().equalsIgnoreCase(currentEmail)) {
+            auditService.record("STATEMENT", "ACCOUNT", accountNumber, "DENIED", "Ownership validation failed");
+            throw new UnauthorizedAccountAccessException("You are not authorized to view this account's statement");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new BusinessRuleViolationException("Statement end date is before its start date");
+        }
+        return out -> pdfRenderService.writeStatement(out, accountNumber, startDate, endDate,
+                statementRows(accountNumber, startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX)));
+    }
 
-            Font cellFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            for (TransactionResponseDto dto : transactionResponseDtos) {
-                table.addCell(new PdfPCell(new Paragraph(dto.getFromAccount(), cellFont)));
-                table.addCell(new PdfPCell(new Paragraph(dto.getToAccount(), cellFont)));
-                table.addCell(new PdfPCell(new Paragraph(String.valueOf(dto.getAmount()), cellFont)));
-                table.addCell(new PdfPCell(new Paragraph(dto.getType().toString(), cellFont)));
-                table.addCell(new PdfPCell(new Paragraph(dto.getStatus().toString(), cellFont)));
-                table.addCell(new PdfPCell(new Paragraph(dto.getTimestamp().toString(), cellFont)));
+    /**
+     * The account's transactions in the range, newest first, read {@code statementPageSize} rows
+     * at a time. Each page is its own query outside any persistence context, so a page is garbage
+     * once the renderer has moved past it. Hot rows are paged by keyset on (timestamp, id); when
+     * the range reaches back into the archive, archived rows follow, since they are older than
+     * every hot row.
+     */
+    private Iterator<TransactionResponseDto> statementRows(String accountNumber, LocalDateTime start, LocalDateTime end) {
+        boolean archived = transactionArchiveService.covers(start);
+        return new Iterator<>() {
+            private LocalDateTime lastTs = end;
+            private Long lastId = Long.MAX_VALUE;
+            private boolean hotDone;
+            private boolean archiveDone = !archived;
+            private long archiveOffset;
+            private Iterator<Transaction> page = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext() && !(hotDone && archiveDone)) {
+                    List<Transaction> rows;
+                    if (!hotDone) {
+                        rows = transactionRepository.findStatementPage(accountNumber, start, end, lastTs, lastId,
+                                PageRequest.ofSize(statementPageSize));
+                        hotDone = rows.size() < statementPageSize;
+                        if (!rows.isEmpty()) {
+                            Transaction last = rows.get(rows.size() - 1);
+                            lastTs = last.getTimestamp();
+                            lastId = last.getId();
+                        }
+                    } else {
+                        rows = transactionArchiveService.findHistory(accountNumber, start, end, archiveOffset, statementPageSize);
+                        archiveOffset += rows.size();
+                        archiveDone = rows.size() < statementPageSize;
+                    }
+                    page = rows.iterator();
+                }
+                return page.hasNext();
             }
 
-            document.add(table);
-
-            document.close();
-        } catch (DocumentException e) {
-            e.printStackTrace();
-        }
-        return outputStream.toByteArray();
+            @Override
+            public TransactionResponseDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return mapToDto(page.next());
+            }
+        };
     }
 }
 
@@ -10,6 +10,7 @@ import com.example.banking_system.repository.TransactionRepository;
 import com.example.banking_system.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -25,6 +26,7 @@ import java.util.Objects;
  * Provides spending patterns, loan analytics, and financial health indicators.
  */
 @Service
+@Lazy
 @RequiredArgsConstructor
 @Slf4j
 public class UserAnalyticsService {
@@ -34,6 +36,7 @@ public class UserAnalyticsService {
     private final LoanRepo loanRepository;
     private final TransactionRepository transactionRepository;
     private final CachedDataService cachedDataService;
+    private final LedgerService ledgerService;
 
     /**
      * Cached user analytics snapshot
@@ -57,7 +60,7 @@ public class UserAnalyticsService {
         /* ---------------- ACCOUNT INFO ---------------- */
         result.put("accountInfo", Map.of(
                 "accountNumber", accNo,
-                "balance", account.getBalance(),
+                "balance", ledgerService.visibleBalance(account),
                 "accountType", account.getAccountType(),
                 "interestRate", account.getInterestRate(),
                 "creditScore", user.getCreditScore() != null ? user.getCreditScore() : 700
@@ -5,6 +5,7 @@ import com.example.banking_system.entity.Account;
 import com.example.banking_system.entity.User;
 import com.example.banking_system.enums.AccountType;
 import com.example.banking_system.enums.Role;
+import com.example.banking_system.enums.TransactionType;
 import com.example.banking_system.exception.BusinessRuleViolationException;
 import com.example.banking_system.exception.RegistrationException;
 import com.example.banking_system.repository.AccountRepository;
@@ -17,6 +18,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Base64;
 
@@ -36,6 +39,12 @@ public class UserService {
 
     private final AuditService auditService;
 
+    private final LedgerService ledgerService;
+
+    private final ProfilePhotoService profilePhotoService;
+
+    private final IdentifierService identifierService;
+
     @Value("${bankwise.admin.registration-code:4321}")
     private String adminRegistrationCode;
 
@@ -84,18 +93,18 @@ public class UserService {
                 .password(createRequestDto.getPassword())
                 .build();
 
-        // Handle profile photo (optional)
+        // Handle profile photo (optional) - thumbnails are written once the user has an id
+        byte[] photoBytes = null;
         if (createRequestDto.getProfilePhoto() != null && !createRequestDto.getProfilePhoto().isEmpty()) {
             try {
-                byte[] photoBytes = Base64.getDecoder().decode(createRequestDto.getProfilePhoto());
+                photoBytes = Base64.getDecoder().decode(createRequestDto.getProfilePhoto());
                 if (photoBytes.length > MAX_PROFILE_PHOTO_SIZE) {
                     throw new RegistrationException(RegistrationException.PHOTO_TOO_LARGE,
                         "Profile photo must be less than 500KB");
                 }
-                user.setProfilePhoto(photoBytes);
-                user.setProfilePhotoContentType(createRequestDto.getProfilePhotoContentType());
             } catch (IllegalArgumentException e) {
                 log.warn("Invalid base64 profile photo for user={}", createRequestDto.getEmail());
+                photoBytes = null;
             }
         }
 
@@ -107,6 +116,7 @@ public class UserService {
                     "Account type is required for user registration");
             }
             Account account = new Account();
+            account.setAccountNumber(identifierService.nextAccountNumber());
             account.setBalance(BigDecimal.valueOf(5000));
             account.setUser(user);
             try {
@@ -126,6 +136,8 @@ public class UserService {
             }
 
             accountRepository.save(account);
+            ledgerService.record(LedgerService.OPENING_EQUITY, account.getAccountNumber(), account.getBalance(),
+                    TransactionType.DEPOSIT, "ACCOUNT_OPENING");
 
 
             for(User admins : userRepository.findByRole(Role.ADMIN)){
@@ -138,6 +150,14 @@ public class UserService {
             }
         }
         savedUser = userRepository.save(user);
+        if (photoBytes != null) {
+            try {
+                profilePhotoService.storePhoto(savedUser, new ByteArrayInputStream(photoBytes));
+                savedUser = userRepository.save(savedUser);
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Could not process profile photo for user={}: {}", savedUser.getEmail(), e.getMessage());
+            }
+        }
         log.info("User created with id={} email={}", savedUser.getId(), savedUser.getEmail());
         auditService.recordSystem("USER_CREATE", "USER", String.valueOf(savedUser.getId()), "SUCCESS",
             "email=" + savedUser.getEmail() + " role=" + savedUser.getRole());
@@ -0,0 +1,5 @@
+-- EmailDispatcher claims rows in one transaction (status SENDING until lease_until), sends them
+-- with no transaction open, and records the outcome in another. Rows whose lease runs out are
+-- queued again. The index for finding them is built concurrently in V11.
+
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS lease_until timestamp(6);
@@ -0,0 +1,6 @@
+-- Expired-lease lookup for EmailDispatcher.reclaimExpiredLeases. Only rows being sent are
+-- indexed, so the index stays tiny.
+-- Every statement is CONCURRENTLY, so Flyway runs this migration outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_email_outbox_sending
+    ON email_outbox (lease_until) WHERE status = 'SENDING';
@@ -0,0 +1,6 @@
+-- TransactionArchiveService commits one account batch at a time and seals the month once every
+-- account is written, in the same transaction that deletes the month from the hot table.
+-- Readers only use sealed batches. Batches written before this migration are complete months.
+
+ALTER TABLE transaction_archive ADD COLUMN IF NOT EXISTS sealed boolean NOT NULL DEFAULT true;
+ALTER TABLE transaction_archive ALTER COLUMN sealed DROP DEFAULT;
@@ -0,0 +1,29 @@
+-- EMI outcomes append credit score deltas to credit_score_events; CreditScoreService folds them
+-- per user and writes one credit_score_history row per user and run. Their indexes are in V2.
+
+create sequence credit_score_events_seq start with 1 increment by 50;
+create sequence credit_score_history_seq start with 1 increment by 50;
+
+create table credit_score_events (
+    delta integer not null,
+    applied_at timestamp(6),
+    created_at timestamp(6),
+    id bigint not null,
+    loan_id bigint,
+    user_id bigint not null,
+    batch_id varchar(36),
+    reason varchar(255),
+    primary key (id)
+);
+
+create table credit_score_history (
+    event_count integer,
+    net_change integer,
+    new_score integer,
+    previous_score integer,
+    applied_at timestamp(6),
+    id bigint not null,
+    user_id bigint not null,
+    batch_id varchar(36),
+    primary key (id)
+);
@@ -0,0 +1,50 @@
+-- Entity ids come from pooled sequences instead of IDENTITY columns, so Hibernate can batch
+-- inserts (hibernate.jdbc.batch_size has no effect on IDENTITY entities).
+-- Each sequence steps by the entity's allocationSize (50). The pooled optimizer hands out
+-- (nextval - 49 .. nextval], so each one is positioned at MAX(id) + 50.
+-- The identity is dropped first: for transaction, the identity's own sequence is already called
+-- transaction_id_seq and goes with it.
+
+ALTER TABLE audit_log ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS audit_log_seq INCREMENT BY 50;
+SELECT setval('audit_log_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM audit_log), false);
+
+ALTER TABLE beneficiaries ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS beneficiaries_seq INCREMENT BY 50;
+SELECT setval('beneficiaries_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM beneficiaries), false);
+
+ALTER TABLE cards ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS cards_seq INCREMENT BY 50;
+SELECT setval('cards_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM cards), false);
+
+ALTER TABLE deposit_request ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS deposit_request_seq INCREMENT BY 50;
+SELECT setval('deposit_request_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM deposit_request), false);
+
+ALTER TABLE kyc_details ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS kyc_details_seq INCREMENT BY 50;
+SELECT setval('kyc_details_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM kyc_details), false);
+
+ALTER TABLE loan_request ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS loan_request_seq INCREMENT BY 50;
+SELECT setval('loan_request_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM loan_request), false);
+
+ALTER TABLE notification ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS notification_seq INCREMENT BY 50;
+SELECT setval('notification_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM notification), false);
+
+ALTER TABLE scheduled_payments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS scheduled_payments_seq INCREMENT BY 50;
+SELECT setval('scheduled_payments_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM scheduled_payments), false);
+
+ALTER TABLE support_ticket ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS support_ticket_seq INCREMENT BY 50;
+SELECT setval('support_ticket_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM support_ticket), false);
+
+ALTER TABLE transaction ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS transaction_id_seq INCREMENT BY 50;
+SELECT setval('transaction_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM transaction), false);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
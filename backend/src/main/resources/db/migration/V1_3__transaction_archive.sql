@@ -0,0 +1,15 @@
+-- Closed months of transactions, one gzip CSV batch per account and month
+-- (TransactionArchiveService). The period index is in V2.
+
+create sequence transaction_archive_seq start with 1 increment by 50;
+
+create table transaction_archive (
+    period_start date not null,
+    row_count integer,
+    archived_at timestamp(6),
+    id bigint not null,
+    account_number varchar(64) not null,
+    payload BYTEA,
+    primary key (id),
+    constraint uk_txn_archive_account_period unique (account_number, period_start)
+);
@@ -0,0 +1,53 @@
+-- Double-entry ledger (LedgerService): append-only postings, per-account snapshots and the
+-- shard rows that take credits to hot accounts. Their indexes are in V2.
+
+create sequence ledger_posting_seq start with 1 increment by 50;
+create sequence ledger_shard_balances_seq start with 1 increment by 50;
+create sequence ledger_snapshots_seq start with 1 increment by 50;
+
+create table ledger_postings (
+    amount numeric(38,2) not null,
+    created_at timestamp(6),
+    id bigint not null,
+    entry_id varchar(36) not null,
+    account_number varchar(64) not null,
+    direction varchar(255) not null check (direction in ('DEBIT','CREDIT')),
+    reference varchar(255),
+    type varchar(255) check (type in ('DEPOSIT','TRANSFER','WITHDRAW','LOAN_PAYMENT','LOAN_PENALTY','LOAN_DISBURSEMENT','LOAN_REPAYMENT','LOAN_REVERSAL','SCHEDULED_PAYMENT','BILL_PAYMENT')),
+    primary key (id)
+);
+
+create table ledger_shard_balances (
+    balance numeric(38,2) not null,
+    shard integer not null,
+    id bigint not null,
+    account_number varchar(64) not null,
+    primary key (id),
+    constraint uk_shard_account_shard unique (account_number, shard)
+);
+
+create table ledger_snapshots (
+    balance numeric(38,2) not null,
+    id bigint not null,
+    last_posting_id bigint not null,
+    taken_at timestamp(6),
+    account_number varchar(64) not null,
+    primary key (id)
+);
+
+-- Existing balances have no postings behind them. Book each net balance (balance - overdraft_used)
+-- as an opening entry against BANK:OPENING, so derived ledger balances reconcile with account.balance.
+INSERT INTO ledger_postings (id, entry_id, account_number, direction, amount, type, reference, created_at)
+SELECT nextval('ledger_posting_seq'), e.entry_id, 'BANK:OPENING',
+       CASE WHEN e.net >= 0 THEN 'DEBIT' ELSE 'CREDIT' END, ABS(e.net), 'DEPOSIT', 'LEDGER_BACKFILL', NOW()
+FROM (SELECT a.account_number, a.balance - COALESCE(a.overdraft_used, 0) AS net,
+             md5(a.account_number || ':backfill') AS entry_id
+      FROM account a
+      WHERE a.balance - COALESCE(a.overdraft_used, 0) <> 0) e;
+
+INSERT INTO ledger_postings (id, entry_id, account_number, direction, amount, type, reference, created_at)
+SELECT nextval('ledger_posting_seq'), p.entry_id, a.account_number,
+       CASE WHEN p.direction = 'DEBIT' THEN 'CREDIT' ELSE 'DEBIT' END, p.amount, 'DEPOSIT', 'LEDGER_BACKFILL', NOW()
+FROM ledger_postings p
+JOIN account a ON md5(a.account_number || ':backfill') = p.entry_id
+WHERE p.reference = 'LEDGER_BACKFILL' AND p.account_number = 'BANK:OPENING';
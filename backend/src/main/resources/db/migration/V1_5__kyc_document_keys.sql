@@ -0,0 +1,12 @@
+-- KYC documents live in the DocumentStore; kyc_details keeps the storage key, size and SHA-256
+-- of each. The legacy BLOB columns are moved and dropped by V1_6 (MoveKycDocuments).
+
+ALTER TABLE kyc_details ADD COLUMN IF NOT EXISTS kyc_pdf_key varchar(255);
+ALTER TABLE kyc_details ADD COLUMN IF NOT EXISTS kyc_pdf_size bigint;
+ALTER TABLE kyc_details ADD COLUMN IF NOT EXISTS kyc_pdf_sha256 varchar(64);
+ALTER TABLE kyc_details ADD COLUMN IF NOT EXISTS aadhar_key varchar(255);
+ALTER TABLE kyc_details ADD COLUMN IF NOT EXISTS aadhar_size bigint;
+ALTER TABLE kyc_details ADD COLUMN IF NOT EXISTS aadhar_sha256 varchar(64);
+ALTER TABLE kyc_details ADD COLUMN IF NOT EXISTS pan_key varchar(255);
+ALTER TABLE kyc_details ADD COLUMN IF NOT EXISTS pan_size bigint;
+ALTER TABLE kyc_details ADD COLUMN IF NOT EXISTS pan_sha256 varchar(64);
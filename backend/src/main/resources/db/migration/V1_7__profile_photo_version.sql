@@ -0,0 +1,5 @@
+-- Profile photos are stored as thumbnails in the DocumentStore; users keeps only the version
+-- (a prefix of the upload's SHA-256). The legacy profile_photo column is moved and dropped by
+-- V1_8 (MoveProfilePhotos).
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS profile_photo_version varchar(16);
@@ -0,0 +1,264 @@
+-- Baseline schema: the entity model as Hibernate's ddl-auto=update left it before Flyway took
+-- over. Existing databases are baselined at this version (spring.flyway.baseline-on-migrate), so
+-- this script only runs on empty databases; everything added since is in the later migrations.
+-- Keep it identical to what those databases have: never change it, add a migration instead.
+
+create sequence account_seq start with 1 increment by 50;
+
+create table account (
+    balance numeric(38,2),
+    interest_rate float(53),
+    minimum_balance numeric(38,2),
+    overdraft_enabled boolean,
+    overdraft_interest_rate float(53),
+    overdraft_limit numeric(38,2),
+    overdraft_used numeric(38,2),
+    pending_recovery_amount numeric(38,2),
+    created_at timestamp(6),
+    id bigint not null,
+    user_id bigint,
+    status_remarks varchar(500),
+    account_number varchar(64),
+    account_type varchar(255) check (account_type in ('SAVINGS','CURRENT')),
+    verification_status varchar(255) check (verification_status in ('PENDING','VERIFIED','REJECTED','SUSPENDED','FROZEN','DISABLED')),
+    primary key (id),
+    constraint idx_account_number unique (account_number)
+);
+
+create table audit_log (
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    details varchar(4000),
+    action varchar(255),
+    actor_email varchar(255),
+    actor_role varchar(255),
+    status varchar(255),
+    target_id varchar(255),
+    target_type varchar(255),
+    primary key (id)
+);
+
+create table beneficiaries (
+    is_active boolean,
+    is_favorite boolean,
+    transfer_count integer,
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    last_used_at timestamp(6),
+    updated_at timestamp(6),
+    user_id bigint not null,
+    bank_name varchar(255),
+    beneficiary_account_number varchar(255) not null,
+    beneficiary_name varchar(255) not null,
+    ifsc_code varchar(255),
+    nickname varchar(255),
+    primary key (id),
+    constraint uk_user_beneficiary unique (user_id, beneficiary_account_number)
+);
+
+create table cards (
+    available_credit numeric(38,2),
+    contactless_enabled boolean,
+    credit_limit numeric(38,2),
+    cvv varchar(3) not null,
+    daily_limit numeric(38,2),
+    daily_used numeric(38,2),
+    expiry_date date not null,
+    international_transactions_enabled boolean,
+    last_reset_date date,
+    online_transactions_enabled boolean,
+    outstanding_balance numeric(38,2),
+    account_id bigint not null,
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    card_number varchar(16) not null unique,
+    card_holder_name varchar(255) not null,
+    card_type varchar(255) not null check (card_type in ('DEBIT','CREDIT')),
+    status varchar(255) check (status in ('ACTIVE','BLOCKED','EXPIRED','CANCELLED')),
+    primary key (id)
+);
+
+create table deposit_request (
+    amount float(53),
+    account_id bigint not null,
+    deposit_date timestamp(6),
+    id bigint generated by default as identity,
+    version bigint,
+    refference_number varchar(255),
+    status varchar(255) check (status in ('PENDING','DEPOSITED','REJECTED')),
+    primary key (id)
+);
+
+create table kyc_details (
+    account_id bigint not null unique,
+    id bigint generated by default as identity,
+    uploaded_at timestamp(6),
+    aadhar_content_type varchar(255),
+    aadhar_number varchar(255),
+    address varchar(255),
+    pan_content_type varchar(255),
+    pan_number varchar(255),
+    aadhar_document oid,
+    kyc_pdf oid,
+    pan_document oid,
+    primary key (id)
+);
+
+create table loan_request (
+    amount numeric(38,2) not null,
+    approval_date date,
+    auto_debit_enabled boolean,
+    emi_amount numeric(19,2),
+    emi_day_of_month integer,
+    emis_paid integer,
+    interest_rate float(53) not null,
+    last_emi_paid_date date,
+    maturity_date date,
+    missed_emis integer,
+    next_emi_date date,
+    remaining_principal numeric(19,2),
+    request_date date,
+    tenure_in_months integer not null,
+    total_emis integer,
+    account_id bigint not null,
+    id bigint generated by default as identity,
+    admin_remark varchar(255),
+    reason varchar(255),
+    status varchar(255) not null check (status in ('PENDING','APPROVED','REJECTED','CLOSED','ACTIVE','FULLY_PAID')),
+    primary key (id)
+);
+
+create table notification (
+    seen boolean,
+    id bigint generated by default as identity,
+    timestamp timestamp(6),
+    user_id bigint not null,
+    message varchar(255),
+    primary key (id)
+);
+
+create table scheduled_payments (
+    amount numeric(38,2) not null,
+    end_date date,
+    execution_count integer,
+    failure_count integer,
+    last_execution_date date,
+    max_executions integer,
+    next_execution_date date,
+    notify_on_execution boolean,
+    notify_on_failure boolean,
+    start_date date not null,
+    created_at timestamp(6),
+    from_account_id bigint not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    beneficiary_name varchar(255),
+    biller_category varchar(255),
+    biller_id varchar(255),
+    biller_name varchar(255),
+    consumer_number varchar(255),
+    description varchar(255),
+    failure_reason varchar(255),
+    frequency varchar(255) not null check (frequency in ('ONE_TIME','DAILY','WEEKLY','BIWEEKLY','MONTHLY','QUARTERLY','YEARLY')),
+    status varchar(255) check (status in ('ACTIVE','PAUSED','COMPLETED','FAILED','CANCELLED')),
+    to_account_number varchar(255),
+    primary key (id)
+);
+
+create table support_ticket (
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    description varchar(4000),
+    account_number varchar(255),
+    category varchar(255),
+    priority varchar(255),
+    status varchar(255),
+    subject varchar(255),
+    user_email varchar(255),
+    user_name varchar(255),
+    primary key (id)
+);
+
+create table transaction (
+    amount numeric(38,2),
+    destination_account_id bigint,
+    id bigint generated by default as identity,
+    source_account_id bigint,
+    timestamp timestamp(6),
+    status varchar(255) check (status in ('SUCCESS','FAILED')),
+    type varchar(255) check (type in ('DEPOSIT','TRANSFER','WITHDRAW','LOAN_PAYMENT','LOAN_PENALTY','LOAN_DISBURSEMENT','LOAN_REPAYMENT','LOAN_REVERSAL','SCHEDULED_PAYMENT','BILL_PAYMENT')),
+    primary key (id)
+);
+
+create table users (
+    credit_score integer,
+    date_of_birth date,
+    id bigint generated by default as identity,
+    pin_reset_token_expiry timestamp(6),
+    address varchar(255),
+    email varchar(255) not null unique,
+    name varchar(255),
+    password varchar(255),
+    phone varchar(255),
+    pin_reset_token varchar(255),
+    profile_photo_content_type varchar(255),
+    role varchar(255) check (role in ('USER','CUSTOMER','ADMIN','MANAGER','DEVELOPER')),
+    transaction_pin varchar(255),
+    profile_photo BYTEA,
+    primary key (id)
+);
+
+ALTER TABLE IF EXISTS account ADD CONSTRAINT FKra7xoi9wtlcq07tmoxxe5jrh4
+    FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE IF EXISTS beneficiaries ADD CONSTRAINT FKk8iehn8e7itlnc8pev97p1bty
+    FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE IF EXISTS cards ADD CONSTRAINT FKmtmvicxlcaw22koed9su9v8g6
+    FOREIGN KEY (account_id) REFERENCES account;
+ALTER TABLE IF EXISTS cards ADD CONSTRAINT FKcmanafgwbibfijy2o5isfk3d5
+    FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE IF EXISTS deposit_request ADD CONSTRAINT FKfv7qso30tlp338mcqmau2topc
+    FOREIGN KEY (account_id) REFERENCES account;
+ALTER TABLE IF EXISTS kyc_details ADD CONSTRAINT FKb9wmyfb2fkfed6sewr5qanloc
+    FOREIGN KEY (account_id) REFERENCES account;
+ALTER TABLE IF EXISTS loan_request ADD CONSTRAINT FKf4i3qsgrigwaasp2lh0y70chv
+    FOREIGN KEY (account_id) REFERENCES account;
+ALTER TABLE IF EXISTS notification ADD CONSTRAINT FKnk4ftb5am9ubmkv1661h15ds9
+    FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE IF EXISTS scheduled_payments ADD CONSTRAINT FKajbhehjr1ano3btm7mi7v5nqk
+    FOREIGN KEY (from_account_id) REFERENCES account;
+ALTER TABLE IF EXISTS scheduled_payments ADD CONSTRAINT FK44gyxuary91kga6whyeosaqtp
+    FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE IF EXISTS transaction ADD CONSTRAINT FKan2cq79w1pqavplm9nbu5aef0
+    FOREIGN KEY (destination_account_id) REFERENCES account;
+ALTER TABLE IF EXISTS transaction ADD CONSTRAINT FK25e716ukpqahttjt6c487lrer
+    FOREIGN KEY (source_account_id) REFERENCES account;
+
+create index idx_account_status on account (verification_status);
+create index idx_account_user on account (user_id);
+create index idx_account_status_user on account (verification_status, user_id);
+create index idx_beneficiary_user on beneficiaries (user_id);
+create index idx_beneficiary_account on beneficiaries (beneficiary_account_number);
+create index idx_card_user on cards (user_id);
+create index idx_card_account on cards (account_id);
+create index idx_deposit_account on deposit_request (account_id);
+create index idx_deposit_status on deposit_request (status);
+create index idx_deposit_date on deposit_request (deposit_date);
+create index idx_deposit_reference on deposit_request (refference_number);
+create index idx_loan_account on loan_request (account_id);
+create index idx_loan_status on loan_request (status);
+create index idx_loan_account_status on loan_request (account_id, status);
+create index idx_loan_request_date on loan_request (request_date);
+create index idx_loan_maturity_date on loan_request (maturity_date);
+create index idx_scheduled_user on scheduled_payments (user_id);
+create index idx_scheduled_next_date on scheduled_payments (next_execution_date);
+create index idx_scheduled_status on scheduled_payments (status);
+create index idx_txn_source_account on transaction (source_account_id);
+create index idx_txn_dest_account on transaction (destination_account_id);
+create index idx_txn_timestamp on transaction (timestamp);
+create index idx_txn_status on transaction (status);
+create index idx_txn_type on transaction (type);
+create index idx_txn_source_timestamp on transaction (source_account_id, timestamp);
+create index idx_txn_dest_timestamp on transaction (destination_account_id, timestamp);
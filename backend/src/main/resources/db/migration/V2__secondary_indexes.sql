@@ -0,0 +1,76 @@
+-- Secondary indexes, built without blocking writes.
+-- Every statement is CREATE INDEX CONCURRENTLY, so Flyway runs this migration outside a
+-- transaction. IF NOT EXISTS makes it a no-op for indexes that ddl-auto=update already created
+-- on databases baselined at V1.
+-- Partitioned tables (transaction, audit_log) reject CONCURRENTLY: their indexes are created by
+-- V9 when it partitions them, and new ones need CREATE INDEX ON ONLY the parent, CONCURRENTLY
+-- per partition, then ATTACH PARTITION.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_account_status
+    ON account (verification_status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_account_user
+    ON account (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_account_status_user
+    ON account (verification_status, user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_beneficiary_user
+    ON beneficiaries (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_beneficiary_account
+    ON beneficiaries (beneficiary_account_number);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_card_user
+    ON cards (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_card_account
+    ON cards (account_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_credit_event_batch
+    ON credit_score_events (batch_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_credit_event_pending
+    ON credit_score_events (applied_at, user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_credit_history_user_time
+    ON credit_score_history (user_id, applied_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_deposit_account
+    ON deposit_request (account_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_deposit_status
+    ON deposit_request (status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_deposit_date
+    ON deposit_request (deposit_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_deposit_reference
+    ON deposit_request (refference_number);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posting_account_id
+    ON ledger_postings (account_number, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posting_entry
+    ON ledger_postings (entry_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_snapshot_account_posting
+    ON ledger_snapshots (account_number, last_posting_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_account
+    ON loan_request (account_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_status
+    ON loan_request (status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_account_status
+    ON loan_request (account_id, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_request_date
+    ON loan_request (request_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_loan_maturity_date
+    ON loan_request (maturity_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_scheduled_user
+    ON scheduled_payments (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_scheduled_next_date
+    ON scheduled_payments (next_execution_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_scheduled_status
+    ON scheduled_payments (status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_txn_archive_period
+    ON transaction_archive (period_start);
+
+-- Prefix search (recipient typeahead, admin account search)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_account_number_pattern
+    ON account (account_number text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_phone_pattern
+    ON users (phone text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_lower_pattern
+    ON users (lower(name) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_lower_pattern
+    ON users (lower(email) text_pattern_ops);
+
+-- Admin account search keyset orders
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_account_status_id
+    ON account (verification_status, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_account_balance_id
+    ON account (balance, id);
@@ -0,0 +1,13 @@
+-- Idempotency records, written in the same transaction as the operation they guard
+-- (see IdempotencyService). A row exists only once its operation has committed; expired rows
+-- are purged in batches by IdempotencyService.purgeExpired.
+
+create table idempotency_records (
+    idempotency_key varchar(255) not null,
+    response text,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    primary key (idempotency_key)
+);
+
+create index idx_idempotency_records_expires on idempotency_records (expires_at);
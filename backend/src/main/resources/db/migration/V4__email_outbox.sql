@@ -0,0 +1,29 @@
+-- Outbound email queue (see EmailService / EmailDispatcher). Rows are inserted in the caller's
+-- transaction and claimed by the dispatcher with FOR UPDATE SKIP LOCKED. priority is the
+-- EmailPriority ordinal (0 = most urgent).
+
+create sequence email_outbox_seq start with 1 increment by 50;
+
+create table email_outbox (
+    id bigint not null,
+    recipient varchar(320) not null,
+    subject varchar(255) not null,
+    text_content text,
+    html_content text,
+    attachment_name varchar(255),
+    attachment_key varchar(255),
+    priority smallint not null,
+    status varchar(16) not null,
+    attempts integer not null,
+    next_attempt_at timestamp(6) not null,
+    created_at timestamp(6) not null,
+    sent_at timestamp(6),
+    last_error varchar(1000),
+    message_id varchar(255),
+    primary key (id)
+);
+
+-- Only pending rows are polled, so keep that index small
+create index idx_email_outbox_pending on email_outbox (priority, id) where status = 'PENDING';
+-- Daily quota count and retention purge
+create index idx_email_outbox_sent_at on email_outbox (sent_at) where status = 'SENT';
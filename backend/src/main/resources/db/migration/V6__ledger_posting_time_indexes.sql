@@ -0,0 +1,9 @@
+-- Indexes for the posting-time queries of V5, built without blocking postings.
+-- Every statement is CONCURRENTLY, so Flyway runs this migration outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posting_account_created
+    ON ledger_postings (account_number, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posting_created
+    ON ledger_postings (created_at);
+-- Derived balances no longer scan an account's postings by id
+DROP INDEX CONCURRENTLY IF EXISTS idx_posting_account_id;
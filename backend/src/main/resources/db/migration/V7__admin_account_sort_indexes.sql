@@ -0,0 +1,9 @@
+-- Admin account search sorts on raw columns (AccountSearchRepositoryImpl), so plain
+-- (column, id) indexes serve its keyset order. CREATED sorts on created_at, not id.
+-- Every statement is CONCURRENTLY, so Flyway runs this migration outside a transaction.
+-- account (balance, id) is in V2.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_account_created_id
+    ON account (created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name
+    ON users (name);
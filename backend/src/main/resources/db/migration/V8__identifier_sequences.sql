@@ -0,0 +1,7 @@
+-- Sequences behind IdentifierService (account and card numbers). Each nextval reserves a block
+-- of 100 counters for one node, so the increment must stay 100 (IdentifierService.BLOCK_SIZE).
+-- IF NOT EXISTS: releases before this migration created them at startup.
+-- Existing random numbers need no migration: they are skipped if a counter ever maps onto one.
+
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 1 INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS card_number_seq START WITH 1 INCREMENT BY 100;
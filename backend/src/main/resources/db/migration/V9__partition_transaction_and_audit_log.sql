@@ -0,0 +1,129 @@
+-- Range-partition transaction (on timestamp) and audit_log (on created_at) by month.
+-- V1 creates both as plain tables. Each step checks the catalog first, so databases converted
+-- by hand before this migration existed are left as they are. Converting copies every row under
+-- ACCESS EXCLUSIVE, so on a large baselined database run the deploy job in a maintenance window;
+-- pods never run it on boot (bankwise.flyway.migrate-on-start defaults to false).
+-- PartitionMaintenanceService then creates future partitions; TransactionArchiveService detaches
+-- and drops transaction partitions once their month is archived, and audit partitions are
+-- dropped after bankwise.audit.retention-months.
+
+-- transaction: partition key timestamp, no default partition. PostgreSQL refuses
+-- DETACH PARTITION ... CONCURRENTLY while one exists, so a row outside the monthly
+-- partitions fails instead. Ids come from transaction_id_seq (pooled, assigned by Hibernate).
+DO $migrate$
+DECLARE
+    m date;
+    last_month date := (date_trunc('month', now()) + interval '3 months')::date;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid
+               WHERE c.relname = 'transaction' AND c.relnamespace = current_schema()::regnamespace) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE transaction RENAME TO transaction_legacy;
+    ALTER INDEX IF EXISTS transaction_pkey RENAME TO transaction_legacy_pkey;
+    UPDATE transaction_legacy SET timestamp = now() WHERE timestamp IS NULL;
+
+    CREATE TABLE transaction (LIKE transaction_legacy INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (timestamp);
+    ALTER TABLE transaction ALTER COLUMN timestamp SET NOT NULL;
+    -- The partition key must be part of the primary key
+    ALTER TABLE transaction ADD PRIMARY KEY (id, timestamp);
+    ALTER TABLE transaction ADD FOREIGN KEY (source_account_id) REFERENCES account (id);
+    ALTER TABLE transaction ADD FOREIGN KEY (destination_account_id) REFERENCES account (id);
+
+    -- Indexes on the parent are created on every partition. The single-column account
+    -- indexes and idx_txn_type of older schemas are dropped: the composite indexes cover them.
+    DROP INDEX IF EXISTS idx_txn_source_account;
+    DROP INDEX IF EXISTS idx_txn_dest_account;
+    DROP INDEX IF EXISTS idx_txn_type;
+    DROP INDEX IF EXISTS idx_txn_timestamp;
+    DROP INDEX IF EXISTS idx_txn_status;
+    DROP INDEX IF EXISTS idx_txn_source_timestamp;
+    DROP INDEX IF EXISTS idx_txn_dest_timestamp;
+    CREATE INDEX idx_txn_timestamp ON transaction (timestamp);
+    CREATE INDEX idx_txn_status ON transaction (status);
+    CREATE INDEX idx_txn_source_timestamp ON transaction (source_account_id, timestamp);
+    CREATE INDEX idx_txn_dest_timestamp ON transaction (destination_account_id, timestamp);
+
+    -- Monthly partitions from the oldest row through three months ahead
+    m := date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM transaction_legacy), now()))::date;
+    WHILE m <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS transaction_p%s PARTITION OF transaction FOR VALUES FROM (%L) TO (%L)',
+            to_char(m, 'YYYYMM'), m, (m + interval '1 month')::date);
+        m := (m + interval '1 month')::date;
+    END LOOP;
+
+    INSERT INTO transaction SELECT * FROM transaction_legacy;
+    DROP TABLE transaction_legacy;
+END $migrate$;
+
+-- transaction partitioned by an earlier script with a default partition: move its rows into
+-- monthly partitions, created as needed, and drop it
+DO $migrate$
+DECLARE
+    m date;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_inherits i
+                   JOIN pg_class c ON c.oid = i.inhrelid
+                   JOIN pg_class p ON p.oid = i.inhparent
+                   WHERE p.relname = 'transaction' AND c.relname = 'transaction_default'
+                     AND p.relnamespace = current_schema()::regnamespace) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE transaction DETACH PARTITION transaction_default;
+    FOR m IN SELECT DISTINCT date_trunc('month', timestamp)::date FROM transaction_default LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS transaction_p%s PARTITION OF transaction FOR VALUES FROM (%L) TO (%L)',
+            to_char(m, 'YYYYMM'), m, (m + interval '1 month')::date);
+    END LOOP;
+    INSERT INTO transaction SELECT * FROM transaction_default;
+    DROP TABLE transaction_default;
+END $migrate$;
+
+-- audit_log: partition key created_at, with a default partition as a catch-all. Expired audit
+-- partitions are dropped, never detached concurrently, so the default does not get in the way.
+DO $migrate$
+DECLARE
+    m date;
+    last_month date := (date_trunc('month', now()) + interval '3 months')::date;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid
+               WHERE c.relname = 'audit_log' AND c.relnamespace = current_schema()::regnamespace) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE audit_log RENAME TO audit_log_legacy;
+    ALTER INDEX IF EXISTS audit_log_pkey RENAME TO audit_log_legacy_pkey;
+    UPDATE audit_log_legacy SET created_at = now() WHERE created_at IS NULL;
+
+    CREATE TABLE audit_log (LIKE audit_log_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (created_at);
+    ALTER TABLE audit_log ALTER COLUMN created_at SET NOT NULL;
+    ALTER TABLE audit_log ADD PRIMARY KEY (id, created_at);
+
+    DROP INDEX IF EXISTS idx_audit_created;
+    DROP INDEX IF EXISTS idx_audit_actor_created;
+    DROP INDEX IF EXISTS idx_audit_action_created;
+    DROP INDEX IF EXISTS idx_audit_target_type_created;
+    DROP INDEX IF EXISTS idx_audit_target;
+    CREATE INDEX idx_audit_created ON audit_log (created_at);
+    CREATE INDEX idx_audit_actor_created ON audit_log (actor_email, created_at);
+    CREATE INDEX idx_audit_action_created ON audit_log (action, created_at);
+    CREATE INDEX idx_audit_target_type_created ON audit_log (target_type, created_at);
+    CREATE INDEX idx_audit_target ON audit_log (target_type, target_id);
+
+    CREATE TABLE audit_log_default PARTITION OF audit_log DEFAULT;
+    m := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM audit_log_legacy), now()))::date;
+    WHILE m <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS audit_log_p%s PARTITION OF audit_log FOR VALUES FROM (%L) TO (%L)',
+            to_char(m, 'YYYYMM'), m, (m + interval '1 month')::date);
+        m := (m + interval '1 month')::date;
+    END LOOP;
+
+    INSERT INTO audit_log SELECT * FROM audit_log_legacy;
+    DROP TABLE audit_log_legacy;
+END $migrate$;
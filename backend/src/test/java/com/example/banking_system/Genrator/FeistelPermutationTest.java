@@ -0,0 +1,60 @@
+package com.example.banking_system.Genrator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeistelPermutationTest {
+
+    @Test
+    void isABijectionOverItsWholeRange() {
+        // halfDigits 3: the domain [0, 10^6) is small enough to enumerate
+        FeistelPermutation permutation = new FeistelPermutation(3, "test-secret", "account");
+        int size = 1_000_000;
+        BitSet seen = new BitSet(size);
+        for (long value = 0; value < size; value++) {
+            long out = permutation.permute(value);
+            assertThat(out).isBetween(0L, size - 1L);
+            assertThat(seen.get((int) out)).as("collision at input %d", value).isFalse();
+            seen.set((int) out);
+        }
+        assertThat(seen.cardinality()).isEqualTo(size);
+    }
+
+    @Test
+    void isDeterministicPerSecretAndDomain() {
+        FeistelPermutation account = new FeistelPermutation(6, "test-secret", "account");
+        FeistelPermutation sameKey = new FeistelPermutation(6, "test-secret", "account");
+        FeistelPermutation card = new FeistelPermutation(6, "test-secret", "card");
+        FeistelPermutation otherSecret = new FeistelPermutation(6, "other-secret", "account");
+
+        assertThat(account.permute(42)).isEqualTo(sameKey.permute(42));
+        assertThat(account.permute(42)).isNotEqualTo(card.permute(42));
+        assertThat(account.permute(42)).isNotEqualTo(otherSecret.permute(42));
+    }
+
+    @Test
+    void scattersConsecutiveCounters() {
+        FeistelPermutation permutation = new FeistelPermutation(6, "test-secret", "account");
+        int adjacent = 0;
+        for (long value = 0; value < 1000; value++) {
+            if (Math.abs(permutation.permute(value + 1) - permutation.permute(value)) == 1) {
+                adjacent++;
+            }
+        }
+        assertThat(adjacent).isLessThan(5);
+    }
+
+    @Test
+    void rejectsValuesOutsideTheDomain() {
+        FeistelPermutation permutation = new FeistelPermutation(2, "test-secret", "account");
+        assertThat(permutation.digits()).isEqualTo(4);
+        assertThatThrownBy(() -> permutation.permute(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> permutation.permute(10_000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FeistelPermutation(10, "test-secret", "account"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
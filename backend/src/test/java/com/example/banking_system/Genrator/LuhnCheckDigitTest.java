@@ -0,0 +1,47 @@
+package com.example.banking_system.Genrator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LuhnCheckDigitTest {
+
+    @Test
+    void computesTheCheckDigitOfKnownNumbers() {
+        assertThat(LuhnCheckDigit.compute("7992739871")).isEqualTo(3);
+        assertThat(LuhnCheckDigit.compute("411111111111111")).isEqualTo(1);
+        assertThat(LuhnCheckDigit.compute("453201511283036")).isEqualTo(6);
+        assertThat(LuhnCheckDigit.compute("000000000000000")).isEqualTo(0);
+    }
+
+    @Test
+    void validatesNumbersCarryingTheirCheckDigit() {
+        assertThat(LuhnCheckDigit.isValid("79927398713")).isTrue();
+        assertThat(LuhnCheckDigit.isValid("4111111111111111")).isTrue();
+        assertThat(LuhnCheckDigit.isValid("4111111111111112")).isFalse();
+    }
+
+    @Test
+    void detectsEverySingleDigitError() {
+        String payload = "412345678901234";
+        String number = payload + LuhnCheckDigit.compute(payload);
+        for (int i = 0; i < number.length(); i++) {
+            for (char d = '0'; d <= '9'; d++) {
+                if (d == number.charAt(i)) {
+                    continue;
+                }
+                String mistyped = number.substring(0, i) + d + number.substring(i + 1);
+                assertThat(LuhnCheckDigit.isValid(mistyped)).as(mistyped).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThat(LuhnCheckDigit.isValid(null)).isFalse();
+        assertThat(LuhnCheckDigit.isValid("7")).isFalse();
+        assertThat(LuhnCheckDigit.isValid("4111-1111")).isFalse();
+        assertThatThrownBy(() -> LuhnCheckDigit.compute("41a1")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
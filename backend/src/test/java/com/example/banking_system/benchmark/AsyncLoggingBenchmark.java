@@ -0,0 +1,121 @@
+package com.example.banking_system.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time request threads spend in logging: the synchronous console appender logback-spring.xml
+ * used before vs the async appender it uses now, both writing the console pattern to a file
+ * (stdout in a container is a pipe, which is no faster). Each of {@code threads} threads logs
+ * {@code lines} INFO lines the way processTransaction did. Reports caller-side lines/s, and for
+ * the async appender how many lines were shed. Not a unit test (surefire skips it); run with
+ * <pre>
+ * ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.banking_system.benchmark.AsyncLoggingBenchmark [-Dexec.args="8 200000"]
+ * </pre>
+ */
+public class AsyncLoggingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int lines = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        Path file = Files.createTempFile("bankwise-log-bench", ".log");
+        try {
+            for (int round = 1; round <= 3; round++) {
+                Result sync = run(file, false, threads, lines);
+                Result async = run(file, true, threads, lines);
+                System.out.printf("round %d (%d threads): sync %,.0f lines/s | async %,.0f lines/s on the caller, %,d of %,d written%n",
+                        round, threads, sync.callerLinesPerSecond, async.callerLinesPerSecond, async.written, (long) threads * lines);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private record Result(double callerLinesPerSecond, long written) {
+    }
+
+    private static Result run(Path file, boolean async, int threads, int lines) throws Exception {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss} %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        LongAdder written = new LongAdder();
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>() {
+            @Override
+            protected void subAppend(ILoggingEvent event) {
+                super.subAppend(event);
+                written.increment();
+            }
+        };
+        console.setContext(context);
+        console.setEncoder(encoder);
+        console.setOutputStream(open(file));
+        console.start();
+
+        Appender<ILoggingEvent> appender = console;
+        if (async) {
+            // As in logback-spring.xml
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(console);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        Logger logger = context.getLogger("com.example.banking_system.service.TransactionService");
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < lines; i++) {
+                    logger.info("Processing transfer from={} to={} amount={}", "4403921187", "5512093344", i);
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long callerNanos = System.nanoTime() - begin;
+        appender.stop();
+        console.stop();
+        context.stop();
+        return new Result((double) threads * lines * 1e9 / callerNanos, written.sum());
+    }
+
+    private static OutputStream open(Path file) throws IOException {
+        // Unbuffered like the console appender's stdout
+        return new FileOutputStream(file.toFile(), false);
+    }
+}
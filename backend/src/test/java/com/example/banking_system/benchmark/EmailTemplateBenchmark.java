@@ -0,0 +1,79 @@
+package com.example.banking_system.benchmark;
+
+import com.example.banking_system.dto.RenderedEmail;
+import com.example.banking_system.service.EmailTemplateService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Render throughput of the EMI reminder: compiled template vs the String.format body it replaced.
+ * Not a unit test (surefire skips it); run with
+ * <pre>
+ * ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.banking_system.benchmark.EmailTemplateBenchmark [-Dexec.args=500000]
+ * </pre>
+ */
+public class EmailTemplateBenchmark {
+
+    private static final String NOTE = "✓ Your account has sufficient balance for the EMI payment.";
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        EmailTemplateService templates = new EmailTemplateService();
+        BigDecimal emi = new BigDecimal("12345.675");
+        BigDecimal balance = new BigDecimal("98765.4");
+        LocalDate due = LocalDate.of(2026, 11, 1);
+
+        String expected = formatReminder("Asha Rao", emi, 42L, due, balance, 17);
+        String actual = renderReminder(templates, "Asha Rao", emi, 42L, due, balance, 17).text();
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("Template output differs from String.format:\n" + expected + "\n---\n" + actual);
+        }
+
+        for (int round = 1; round <= 3; round++) {
+            long sink = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += formatReminder("User " + (i & 1023), emi, i, due, balance, i & 63).length();
+            }
+            long formatNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                RenderedEmail email = renderReminder(templates, "User " + (i & 1023), emi, i, due, balance, i & 63);
+                sink += email.text().length() + email.html().length();
+            }
+            long templateNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: String.format %,.0f renders/s | template (text + html) %,.0f renders/s | sink %d%n",
+                    round, iterations * 1e9 / formatNanos, iterations * 1e9 / templateNanos, sink);
+        }
+    }
+
+    private static RenderedEmail renderReminder(EmailTemplateService templates, String name, BigDecimal emi, long loanId,
+                                                LocalDate due, BigDecimal balance, int remaining) {
+        return templates.render("emi-reminder",
+                "name", name,
+                "emiAmount", emi,
+                "loanId", loanId,
+                "dueDate", due,
+                "balance", balance,
+                "remainingEmis", remaining,
+                "balanceNote", NOTE);
+    }
+
+    // The body EmiSchedulerService built before templates
+    private static String formatReminder(String name, BigDecimal emi, long loanId, LocalDate due, BigDecimal balance, int remaining) {
+        return String.format(
+                "Dear %s,\n\n" +
+                "This is a reminder that your EMI payment of ₹%.2f for Loan #%d is due on %s.\n\n" +
+                "Current Account Balance: ₹%.2f\n" +
+                "EMI Amount Due: ₹%.2f\n" +
+                "Remaining EMIs: %d\n\n" +
+                "%s\n\n" +
+                "Please ensure sufficient balance in your account for auto-debit.\n\n" +
+                "Thank you,\nBankwise Team",
+                name, emi.doubleValue(), loanId, due, balance.doubleValue(), emi.doubleValue(), remaining, NOTE);
+    }
+}
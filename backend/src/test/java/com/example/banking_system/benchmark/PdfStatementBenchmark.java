@@ -0,0 +1,192 @@
+package com.example.banking_system.benchmark;
+
+import com.example.banking_system.dto.TransactionResponseDto;
+import com.example.banking_system.enums.TransactionStatus;
+import com.example.banking_system.enums.TransactionType;
+import com.example.banking_system.service.PdfRenderService;
+import com.lowagie.text.Chunk;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Statement rendering: {@link PdfRenderService} streaming a lazily produced month vs the old
+ * approach (all rows as DTOs, fonts looked up per statement, a Paragraph and PdfPCell per cell,
+ * the whole table added at the end, output buffered in a byte array). Reports the heap still
+ * live once the last row is in (what the statement run's heap spikes are made of), then
+ * statements/s and bytes allocated per statement. Not a unit test (surefire skips it); run with
+ * <pre>
+ * ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.banking_system.benchmark.PdfStatementBenchmark [-Dexec.args="2000 200"]
+ * </pre>
+ * (rows per statement, statements per round).
+ */
+public class PdfStatementBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 9, 30);
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int statements = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        PdfRenderService renderer = new PdfRenderService(null, 100);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        // Warm up first so class loading and static font tables do not count as per-statement heap
+        renderer.writeStatement(new CountingSink(), "ACC-0001", FROM, TO, rows(10, null));
+        bufferedStatement(List.of(rows(1, null).next()), null);
+
+        long[] live = new long[1];
+        long baseline = liveHeap();
+        renderer.writeStatement(new CountingSink(), "ACC-0001", FROM, TO, rows(rows, () -> live[0] = liveHeap()));
+        long streamedLive = live[0] - baseline;
+        baseline = liveHeap();
+        List<TransactionResponseDto> month = new ArrayList<>(rows);
+        rows(rows, null).forEachRemaining(month::add);
+        bufferedStatement(month, () -> live[0] = liveHeap());
+        long bufferedLive = live[0] - baseline;
+        System.out.printf("live heap at the last row (%d rows): buffered %,d KB | streamed %,d KB%n",
+                rows, bufferedLive / 1024, streamedLive / 1024);
+
+        for (int round = 1; round <= 3; round++) {
+            long sink = 0;
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < statements; i++) {
+                List<TransactionResponseDto> all = new ArrayList<>(rows);
+                rows(rows, null).forEachRemaining(all::add);
+                sink += bufferedStatement(all, null).length;
+            }
+            long bufferedNanos = System.nanoTime() - start;
+            long bufferedBytes = threads.getThreadAllocatedBytes(thread) - allocated;
+
+            allocated = threads.getThreadAllocatedBytes(thread);
+            start = System.nanoTime();
+            for (int i = 0; i < statements; i++) {
+                CountingSink out = new CountingSink();
+                renderer.writeStatement(out, "ACC-0001", FROM, TO, rows(rows, null));
+                sink += out.count;
+            }
+            long streamedNanos = System.nanoTime() - start;
+            long streamedBytes = threads.getThreadAllocatedBytes(thread) - allocated;
+
+            System.out.printf("round %d (%d rows): buffered %.1f statements/s, %,d KB allocated each | "
+                            + "streamed %.1f statements/s, %,d KB allocated each | sink %d%n",
+                    round, rows,
+                    statements * 1e9 / bufferedNanos, bufferedBytes / statements / 1024,
+                    statements * 1e9 / streamedNanos, streamedBytes / statements / 1024, sink);
+        }
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * {@code atLastRow} runs when the last row is requested, i.e. before the renderer has seen it.
+     */
+    private static Iterator<TransactionResponseDto> rows(int count, Runnable atLastRow) {
+        LocalDateTime base = FROM.atStartOfDay();
+        return new Iterator<>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public TransactionResponseDto next() {
+                if (i == count - 1 && atLastRow != null) {
+                    atLastRow.run();
+                }
+                TransactionResponseDto dto = new TransactionResponseDto();
+                dto.setFromAccount("ACC-0001");
+                dto.setToAccount("ACC-" + (1000 + i % 97));
+                dto.setAmount(BigDecimal.valueOf(1000 + i * 7L, 2));
+                dto.setType(TransactionType.TRANSFER);
+                dto.setStatus(TransactionStatus.SUCCESS);
+                dto.setTimestamp(base.plusMinutes(i));
+                i++;
+                return dto;
+            }
+        };
+    }
+
+    // The renderer TransactionService used before PdfRenderService, ported from iText 5 to OpenPDF
+    private static byte[] bufferedStatement(List<TransactionResponseDto> rows, Runnable atLastRow) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4, 36, 36, 54, 36);
+        PdfWriter.getInstance(document, outputStream);
+        document.open();
+        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
+        Paragraph title = new Paragraph("Monthly Transactions Statement", titleFont);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+        document.add(Chunk.NEWLINE);
+        Font infoFont = FontFactory.getFont(FontFactory.HELVETICA, 12);
+        document.add(new Paragraph("Account Number: ACC-0001", infoFont));
+        document.add(new Paragraph("Period: " + FROM + " - " + TO, infoFont));
+        document.add(Chunk.NEWLINE);
+
+        PdfPTable table = new PdfPTable(new float[]{2f, 2f, 1.5f, 1.5f, 2f, 2f});
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(10f);
+        table.setSpacingAfter(10f);
+        Font headFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+        for (String header : new String[]{"From", "To", "Amount", "Type", "Status", "Timestamp"}) {
+            PdfPCell hcell = new PdfPCell(new Paragraph(header, headFont));
+            hcell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            hcell.setBackgroundColor(Color.LIGHT_GRAY);
+            table.addCell(hcell);
+        }
+        Font cellFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
+        for (TransactionResponseDto dto : rows) {
+            table.addCell(new PdfPCell(new Paragraph(dto.getFromAccount(), cellFont)));
+            table.addCell(new PdfPCell(new Paragraph(dto.getToAccount(), cellFont)));
+            table.addCell(new PdfPCell(new Paragraph(String.valueOf(dto.getAmount()), cellFont)));
+            table.addCell(new PdfPCell(new Paragraph(dto.getType().toString(), cellFont)));
+            table.addCell(new PdfPCell(new Paragraph(dto.getStatus().toString(), cellFont)));
+            table.addCell(new PdfPCell(new Paragraph(dto.getTimestamp().toString(), cellFont)));
+        }
+        if (atLastRow != null) {
+            atLastRow.run();
+        }
+        document.add(table);
+        document.close();
+        return outputStream.toByteArray();
+    }
+
+    private static final class CountingSink extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
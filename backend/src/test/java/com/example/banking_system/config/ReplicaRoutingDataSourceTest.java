@@ -0,0 +1,138 @@
+package com.example.banking_system.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes through the same LazyConnectionDataSourceProxy setup as ReplicaDataSourceConfig, with
+ * two H2 databases that each answer "which node am I". The replica also holds the lag the
+ * monitor reads, so a test can push it over the threshold.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final double MAX_LAG_SECONDS = 5;
+    private static final Duration PIN_AFTER_WRITE = Duration.ofMillis(300);
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate routedJdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("replica_routing_primary");
+        DataSource replica = h2("replica_routing_replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        primaryJdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        primaryJdbc.update("INSERT INTO node VALUES ('primary')");
+        replicaJdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        replicaJdbc.update("INSERT INTO node VALUES ('replica')");
+        replicaJdbc.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT seconds FROM replica_lag", MAX_LAG_SECONDS, registry);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor, PIN_AFTER_WRITE, registry);
+        routing.afterPropertiesSet();
+        DataSource routed = new LazyConnectionDataSourceProxy(routing);
+
+        routedJdbc = new JdbcTemplate(routed);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(routed);
+        readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(txManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primaryJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaOnceItIsChecked() {
+        assertThat(nodeIn(readOnly)).as("before the first lag check").isEqualTo("primary");
+
+        lagMonitor.checkLag();
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsFallBackToThePrimaryWhileTheReplicaLags() {
+        lagMonitor.checkLag();
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+
+        replicaJdbc.update("UPDATE replica_lag SET seconds = ?", MAX_LAG_SECONDS + 1);
+        lagMonitor.checkLag();
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+
+        replicaJdbc.update("UPDATE replica_lag SET seconds = ?", MAX_LAG_SECONDS - 1);
+        lagMonitor.checkLag();
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void aUsersReadsStayOnThePrimaryRightAfterTheirWrite() throws InterruptedException {
+        lagMonitor.checkLag();
+        authenticate("writer@example.com");
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+
+        readWrite.executeWithoutResult(status -> routedJdbc.update("UPDATE node SET name = name"));
+
+        assertThat(nodeIn(readOnly)).as("same user, inside the window").isEqualTo("primary");
+        authenticate("someone.else@example.com");
+        assertThat(nodeIn(readOnly)).as("other users are not pinned").isEqualTo("replica");
+
+        authenticate("writer@example.com");
+        Thread.sleep(PIN_AFTER_WRITE.toMillis() + 100);
+        assertThat(nodeIn(readOnly)).as("after the window").isEqualTo("replica");
+    }
+
+    @Test
+    void aRolledBackWriteDoesNotPin() {
+        lagMonitor.checkLag();
+        authenticate("writer@example.com");
+
+        readWrite.executeWithoutResult(status -> {
+            routedJdbc.update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    private String nodeIn(TransactionTemplate template) {
+        return template.execute(status -> routedJdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(name, null, AuthorityUtils.NO_AUTHORITIES));
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
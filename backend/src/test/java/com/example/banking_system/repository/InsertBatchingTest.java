@@ -0,0 +1,72 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.entity.Notification;
+import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts of sequence-keyed entities go out as JDBC batches of hibernate.jdbc.batch_size (25):
+ * Hibernate prepares one statement per batch, where an IDENTITY key would need one per row.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:bankwise_insert_batching;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000"
+})
+@ActiveProfiles("test")
+class InsertBatchingTest {
+
+    private static final int ROWS = 60;
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void notificationFanOutIsBatched() {
+        User user = userRepository.save(User.builder()
+                .name("Batch Recipient")
+                .email("batch.recipient@example.com")
+                .role(Role.CUSTOMER)
+                .build());
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            notifications.add(Notification.builder()
+                    .message("Statement " + i + " is ready")
+                    .seen(false)
+                    .timestamp(LocalDateTime.now())
+                    .user(user)
+                    .build());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        notificationRepository.saveAll(notifications);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        // 3 insert batches (25 + 25 + 10) plus at most 2 sequence calls for 60 pooled ids
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+    }
+}
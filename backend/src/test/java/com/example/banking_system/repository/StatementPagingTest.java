@@ -0,0 +1,98 @@
+package com.example.banking_system.repository;
+
+import com.example.banking_system.entity.Account;
+import com.example.banking_system.entity.Transaction;
+import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.Role;
+import com.example.banking_system.enums.TransactionStatus;
+import com.example.banking_system.enums.TransactionType;
+import com.example.banking_system.enums.VerificationStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset paging of a statement returns every row in the range exactly once, newest first,
+ * when timestamps collide across a page boundary.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:bankwise_statement_paging;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000")
+@ActiveProfiles("test")
+class StatementPagingTest {
+
+    private static final String ACCOUNT = "STATEMENT-PAGING-1";
+    private static final int PAGE_SIZE = 3;
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void collidingTimestampsAreReadOnceAcrossPages() {
+        Account account = new Account();
+        account.setAccountNumber(ACCOUNT);
+        account.setVerificationStatus(VerificationStatus.VERIFIED);
+        account.setUser(User.builder()
+                .name("Statement Holder")
+                .email("statement.holder@example.com")
+                .role(Role.CUSTOMER)
+                .build());
+        account = accountRepository.save(account);
+
+        LocalDateTime base = LocalDateTime.of(2026, 9, 15, 10, 0);
+        List<Transaction> saved = new ArrayList<>();
+        // Five rows share one timestamp, so they straddle the first two pages
+        for (int i = 0; i < 8; i++) {
+            saved.add(Transaction.builder()
+                    .destinationAccount(account)
+                    .amount(BigDecimal.TEN)
+                    .timestamp(i < 5 ? base : base.minusMinutes(i))
+                    .type(TransactionType.DEPOSIT)
+                    .status(TransactionStatus.SUCCESS)
+                    .build());
+        }
+        saved = transactionRepository.saveAll(saved);
+
+        LocalDateTime start = base.minusDays(1);
+        LocalDateTime end = base.plusDays(1);
+        LocalDateTime lastTs = end;
+        Long lastId = Long.MAX_VALUE;
+        List<Long> read = new ArrayList<>();
+        int queries = 0;
+        List<Transaction> page;
+        do {
+            page = transactionRepository.findStatementPage(ACCOUNT, start, end, lastTs, lastId,
+                    PageRequest.ofSize(PAGE_SIZE));
+            queries++;
+            for (Transaction txn : page) {
+                read.add(txn.getId());
+                lastTs = txn.getTimestamp();
+                lastId = txn.getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        List<Long> expected = saved.stream()
+                .sorted(Comparator.comparing(Transaction::getTimestamp).thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .toList();
+        assertThat(read).containsExactlyElementsOf(expected);
+        assertThat(queries).isEqualTo(3);
+    }
+}
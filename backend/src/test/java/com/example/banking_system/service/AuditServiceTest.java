@@ -0,0 +1,74 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.AuditLog;
+import com.example.banking_system.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Informational entries recorded inside a transaction are queued when it completes, and a
+ * rolled-back one says so in its details.
+ */
+class AuditServiceTest {
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void entryFromRolledBackTransactionIsWrittenAndTagged() {
+        AuditLogRepository repository = mock(AuditLogRepository.class);
+        AuditService service = new AuditService(repository, new SimpleMeterRegistry(),
+                mock(PlatformTransactionManager.class), true, 16, 500, 5, 16, "PIN_VERIFY");
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        service.recordSystem("TRANSFER", "ACCOUNT", "ACC-1", "SUCCESS", "amount=100");
+        assertThat(service.getQueueDepth()).isZero();
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        // flush reuses its batch list, so copy it as it is written
+        List<AuditLog> written = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(call -> {
+            written.addAll(call.getArgument(0));
+            return List.of();
+        });
+        service.flush();
+
+        assertThat(written).singleElement()
+                .extracting(AuditLog::getDetails)
+                .isEqualTo("amount=100" + AuditService.ROLLED_BACK_SUFFIX);
+    }
+
+    @Test
+    void entryOutsideTransactionIsQueuedImmediately() {
+        AuditLogRepository repository = mock(AuditLogRepository.class);
+        AuditService service = new AuditService(repository, new SimpleMeterRegistry(),
+                mock(PlatformTransactionManager.class), true, 16, 500, 5, 16, "PIN_VERIFY");
+
+        service.recordSystem("TRANSFER", "ACCOUNT", "ACC-1", "SUCCESS", "amount=100");
+
+        assertThat(service.getQueueDepth()).isEqualTo(1);
+        verify(repository, never()).saveAll(anyList());
+    }
+}
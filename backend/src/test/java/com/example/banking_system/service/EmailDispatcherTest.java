@@ -0,0 +1,106 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.OutboundEmail;
+import com.example.banking_system.enums.EmailPriority;
+import com.example.banking_system.enums.EmailStatus;
+import com.example.banking_system.repository.OutboundEmailRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+// Scheduled dispatch and reclaim only run once, at startup; the tests call them directly
+@SpringBootTest(properties = {
+        "bankwise.email.dispatch-interval-ms=3600000",
+        "bankwise.email.lease-check-interval-ms=3600000",
+        "spring.datasource.url=jdbc:h2:mem:bankwise_email_dispatch;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000"
+})
+@ActiveProfiles("test")
+class EmailDispatcherTest {
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @SpyBean
+    private LoggingEmailTransport transport;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private OutboundEmailRepository repository;
+
+    @Value("${bankwise.email.max-attempts}")
+    private int maxAttempts;
+
+    @Test
+    void sendsClaimedRowsOutsideAnyTransaction() throws Exception {
+        emailService.sendEmail("lease.one@example.com", "Claim test", "Body");
+        List<Boolean> transactionActive = new ArrayList<>();
+        List<EmailStatus> statusWhileSending = new ArrayList<>();
+        doAnswer(invocation -> {
+            transactionActive.add(TransactionSynchronizationManager.isActualTransactionActive());
+            List<OutboundEmail> emails = invocation.getArgument(0);
+            statusWhileSending.add(repository.findById(emails.get(0).getId()).orElseThrow().getStatus());
+            return invocation.callRealMethod();
+        }).when(transport).send(anyList(), any());
+
+        emailDispatcher.dispatch();
+
+        assertThat(transactionActive).containsExactly(false);
+        assertThat(statusWhileSending).containsExactly(EmailStatus.SENDING);
+        OutboundEmail sent = repository.findAll().stream()
+                .filter(e -> e.getRecipient().equals("lease.one@example.com"))
+                .findFirst().orElseThrow();
+        assertThat(sent.getStatus()).isEqualTo(EmailStatus.SENT);
+        assertThat(sent.getLeaseUntil()).isNull();
+        assertThat(sent.getAttempts()).isEqualTo(1);
+        assertThat(sent.getMessageId()).isEqualTo("log-" + sent.getId());
+    }
+
+    @Test
+    void expiredLeasesAreQueuedAgainAndCountAsAnAttempt() {
+        OutboundEmail lost = repository.save(sending("lease.lost@example.com", 0, LocalDateTime.now().minusMinutes(1)));
+        OutboundEmail lastTry = repository.save(sending("lease.last@example.com", maxAttempts - 1, LocalDateTime.now().minusMinutes(1)));
+        OutboundEmail inFlight = repository.save(sending("lease.live@example.com", 0, LocalDateTime.now().plusMinutes(5)));
+
+        emailDispatcher.reclaimExpiredLeases();
+
+        OutboundEmail requeued = repository.findById(lost.getId()).orElseThrow();
+        assertThat(requeued.getStatus()).isEqualTo(EmailStatus.PENDING);
+        assertThat(requeued.getAttempts()).isEqualTo(1);
+        assertThat(requeued.getLeaseUntil()).isNull();
+        assertThat(requeued.getLastError()).contains("Lease expired");
+        assertThat(repository.findById(lastTry.getId()).orElseThrow().getStatus()).isEqualTo(EmailStatus.FAILED);
+        assertThat(repository.findById(inFlight.getId()).orElseThrow().getStatus()).isEqualTo(EmailStatus.SENDING);
+    }
+
+    private static OutboundEmail sending(String recipient, int attempts, LocalDateTime leaseUntil) {
+        return OutboundEmail.builder()
+                .recipient(recipient)
+                .subject("Lease test")
+                .textContent("Body")
+                .priority(EmailPriority.NORMAL)
+                .status(EmailStatus.SENDING)
+                .attempts(attempts)
+                .leaseUntil(leaseUntil)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.StoredDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileSystemDocumentStoreTest {
+
+    private static final byte[] CONTENT = "scanned document".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void writtenDocumentCanBeOpenedWithItsSizeAndHash() throws Exception {
+        FileSystemDocumentStore store = new FileSystemDocumentStore(root.toString());
+
+        StoredDocument stored = store.put("kyc/ACC-1/aadhar", new ByteArrayInputStream(CONTENT), "image/png");
+
+        assertThat(stored.getKey()).isEqualTo("kyc/ACC-1/aadhar");
+        assertThat(stored.getSize()).isEqualTo(CONTENT.length);
+        assertThat(stored.getSha256()).isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CONTENT)));
+        assertThat(stored.getContentType()).isEqualTo("image/png");
+        assertThat(store.exists("kyc/ACC-1/aadhar")).isTrue();
+        try (InputStream in = store.open("kyc/ACC-1/aadhar")) {
+            assertThat(in.readAllBytes()).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    void writeReplacesAnExistingDocument() throws Exception {
+        FileSystemDocumentStore store = new FileSystemDocumentStore(root.toString());
+        store.put("kyc/ACC-1/kyc.pdf", new ByteArrayInputStream(CONTENT), "application/pdf");
+
+        store.write("kyc/ACC-1/kyc.pdf", "application/pdf", out -> out.write(new byte[]{1, 2, 3}));
+
+        try (InputStream in = store.open("kyc/ACC-1/kyc.pdf")) {
+            assertThat(in.readAllBytes()).containsExactly(1, 2, 3);
+        }
+    }
+
+    @Test
+    void failedWriteLeavesNoFileBehind() throws IOException {
+        FileSystemDocumentStore store = new FileSystemDocumentStore(root.toString());
+
+        assertThatThrownBy(() -> store.write("kyc/ACC-1/kyc.pdf", "application/pdf", out -> {
+            out.write(CONTENT);
+            throw new IllegalStateException("renderer failed");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(store.exists("kyc/ACC-1/kyc.pdf")).isFalse();
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    void deleteRemovesTheDocumentAndIgnoresMissingKeys() throws Exception {
+        FileSystemDocumentStore store = new FileSystemDocumentStore(root.toString());
+        store.put("photos/1/v1-lg.jpg", new ByteArrayInputStream(CONTENT), "image/jpeg");
+
+        store.delete("photos/1/v1-lg.jpg");
+
+        assertThat(store.exists("photos/1/v1-lg.jpg")).isFalse();
+        assertThatCode(() -> store.delete("photos/1/v1-lg.jpg")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void openingAMissingKeyFails() {
+        FileSystemDocumentStore store = new FileSystemDocumentStore(root.toString());
+
+        assertThatThrownBy(() -> store.open("kyc/ACC-1/missing")).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void keysOutsideTheRootAreRejected() {
+        FileSystemDocumentStore store = new FileSystemDocumentStore(root.toString());
+
+        assertThatThrownBy(() -> store.open("../outside")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.put("/etc/passwd", new ByteArrayInputStream(CONTENT), "text/plain"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
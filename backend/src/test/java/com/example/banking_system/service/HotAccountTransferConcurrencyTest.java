@@ -0,0 +1,117 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.TransferRequestDto;
+import com.example.banking_system.entity.Account;
+import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.Role;
+import com.example.banking_system.enums.VerificationStatus;
+import com.example.banking_system.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Two transfers credit the same hot account while its shards are unavailable, so both take the
+ * fallback that credits the account row. Both transfers read the hot account before either locks it.
+ */
+@SpringBootTest(properties = {
+        "bankwise.ledger.hot-accounts=" + HotAccountTransferConcurrencyTest.HOT_ACCOUNT,
+        // Own database: create-drop on the shared one would reset it under the other cached test context
+        "spring.datasource.url=jdbc:h2:mem:bankwise_hot_account;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000"
+})
+@ActiveProfiles("test")
+class HotAccountTransferConcurrencyTest {
+
+    static final String HOT_ACCOUNT = "HOT-CONCURRENCY-1";
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @SpyBean
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void concurrentFallbackCreditsToHotAccountAreBothApplied() throws Exception {
+        BigDecimal opening = accountRepository.save(account(HOT_ACCOUNT, user("hot-merchant@example.com"))).getBalance();
+        accountRepository.save(account("SRC-CONCURRENCY-1", user("payer-one@example.com")));
+        accountRepository.save(account("SRC-CONCURRENCY-2", user("payer-two@example.com")));
+
+        // Shards unavailable: each transfer waits here until the other one has also read the hot account
+        CyclicBarrier bothLoaded = new CyclicBarrier(2);
+        doAnswer(invocation -> {
+            bothLoaded.await(10, TimeUnit.SECONDS);
+            return false;
+        }).when(ledgerService).creditHotAccount(eq(HOT_ACCOUNT), any());
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<String>> results = List.of(
+                    pool.submit(() -> transfer("payer-one@example.com", "SRC-CONCURRENCY-1")),
+                    pool.submit(() -> transfer("payer-two@example.com", "SRC-CONCURRENCY-2")));
+            for (Future<String> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo("SUCCESS");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        BigDecimal balance = accountRepository.findByAccountNumber(HOT_ACCOUNT).orElseThrow().getBalance();
+        assertThat(balance).isEqualByComparingTo(opening.add(new BigDecimal("200")));
+    }
+
+    private String transfer(String email, String fromAccount) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+        try {
+            TransferRequestDto request = new TransferRequestDto();
+            request.setFromAccount(fromAccount);
+            request.setToAccount(HOT_ACCOUNT);
+            request.setAmount(new BigDecimal("100"));
+            return transactionService.processTransaction(request);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // Persisted through the account's cascade
+    private static User user(String email) {
+        return User.builder()
+                .name(email)
+                .email(email)
+                .role(Role.CUSTOMER)
+                .build();
+    }
+
+    private static Account account(String accountNumber, User user) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setUser(user);
+        account.setVerificationStatus(VerificationStatus.VERIFIED);
+        return account;
+    }
+}
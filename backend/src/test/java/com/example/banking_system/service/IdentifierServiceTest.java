@@ -0,0 +1,40 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.Genrator.LuhnCheckDigit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdentifierServiceTest {
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private IdentifierService identifierService;
+
+    @Test
+    void issuesDistinctNumbersAcrossBlocks() {
+        Set<String> accounts = new HashSet<>();
+        Set<String> cards = new HashSet<>();
+        for (int i = 0; i < IdentifierService.BLOCK_SIZE * 3; i++) {
+            accounts.add(identifierService.nextAccountNumber());
+            String card = identifierService.nextCardNumber();
+            assertThat(card).hasSize(16).startsWith("4");
+            assertThat(LuhnCheckDigit.isValid(card)).as(card).isTrue();
+            cards.add(card);
+        }
+        assertThat(accounts).hasSize(IdentifierService.BLOCK_SIZE * 3).allMatch(n -> n.matches("\\d{12}"));
+        assertThat(cards).hasSize(IdentifierService.BLOCK_SIZE * 3);
+    }
+}
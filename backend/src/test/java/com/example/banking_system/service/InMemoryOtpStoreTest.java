@@ -0,0 +1,91 @@
+package com.example.banking_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryOtpStoreTest {
+
+    private static final String EMAIL = "otp.store@example.com";
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+
+    @Test
+    void attemptsAreCountedUntilTheCodeIsReplaced() {
+        InMemoryOtpStore store = new InMemoryOtpStore();
+        store.save(EMAIL, "digest-1", TTL, 5, WINDOW);
+
+        assertThat(store.attempt(EMAIL)).hasValue(new OtpStore.Challenge("digest-1", 1));
+        assertThat(store.attempt(EMAIL)).hasValue(new OtpStore.Challenge("digest-1", 2));
+
+        store.save(EMAIL, "digest-2", TTL, 5, WINDOW);
+        assertThat(store.attempt(EMAIL)).hasValue(new OtpStore.Challenge("digest-2", 1));
+    }
+
+    @Test
+    void expiredCodeIsGone() {
+        InMemoryOtpStore store = new InMemoryOtpStore();
+        store.save(EMAIL, "digest", Duration.ZERO, 5, WINDOW);
+        store.markVerified(EMAIL, Duration.ZERO);
+
+        assertThat(store.attempt(EMAIL)).isEmpty();
+        assertThat(store.consume(EMAIL)).isFalse();
+        assertThat(store.isVerified(EMAIL)).isFalse();
+    }
+
+    @Test
+    void sendsOverTheLimitAreRefusedUntilTheWindowEnds() {
+        InMemoryOtpStore store = new InMemoryOtpStore();
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.save(EMAIL, "digest-" + i, TTL, 3, WINDOW)).isTrue();
+        }
+
+        assertThat(store.save(EMAIL, "digest-3", TTL, 3, WINDOW)).isFalse();
+        // The refused send did not replace the pending code or its attempts
+        store.attempt(EMAIL);
+        assertThat(store.attempt(EMAIL)).hasValue(new OtpStore.Challenge("digest-2", 2));
+        assertThat(store.save("other@example.com", "digest", TTL, 3, WINDOW)).isTrue();
+
+        InMemoryOtpStore shortWindow = new InMemoryOtpStore();
+        assertThat(shortWindow.save(EMAIL, "digest-1", TTL, 1, Duration.ZERO)).isTrue();
+        assertThat(shortWindow.save(EMAIL, "digest-2", TTL, 1, Duration.ZERO)).isTrue();
+    }
+
+    @Test
+    void parallelConsumesAcceptTheCodeOnce() throws Exception {
+        InMemoryOtpStore store = new InMemoryOtpStore();
+        store.save(EMAIL, "digest", TTL, 5, WINDOW);
+        int threads = 8;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<Boolean> consume = () -> {
+                    start.await();
+                    return store.consume(EMAIL);
+                };
+                results.add(executor.submit(consume));
+            }
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    accepted++;
+                }
+            }
+            assertThat(accepted).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(store.attempt(EMAIL)).isEmpty();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.TransferRequestDto;
+import com.example.banking_system.entity.Account;
+import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.Role;
+import com.example.banking_system.enums.TransactionType;
+import com.example.banking_system.enums.VerificationStatus;
+import com.example.banking_system.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Credits parked on a hot account's shards are visible and spendable before the scheduled fold,
+ * and the nightly reconciliation matches every balance against the ledger until one is changed
+ * behind its back.
+ */
+@SpringBootTest(properties = {
+        "bankwise.ledger.hot-accounts=" + LedgerReconciliationTest.HOT_ACCOUNT,
+        // No scheduled fold during the test, so the credits stay on the shards
+        "bankwise.ledger.fold-interval-ms=3600000",
+        "spring.datasource.url=jdbc:h2:mem:bankwise_ledger_reconcile;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000"
+})
+@ActiveProfiles("test")
+class LedgerReconciliationTest {
+
+    static final String HOT_ACCOUNT = "HOT-RECONCILE-1";
+    private static final String PAYER = "PAYER-RECONCILE-1";
+    private static final String PAYEE = "PAYEE-RECONCILE-1";
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void unfoldedCreditsAreSpendableAndReconcile() {
+        accountRepository.save(account(HOT_ACCOUNT, "merchant.reconcile@example.com", BigDecimal.ZERO));
+        accountRepository.save(account(PAYER, "payer.reconcile@example.com", new BigDecimal("300")));
+        accountRepository.save(account(PAYEE, "payee.reconcile@example.com", BigDecimal.ZERO));
+        // Opening entry, as the ledger migration books for existing balances
+        ledgerService.record(LedgerService.OPENING_EQUITY, PAYER, new BigDecimal("300"),
+                TransactionType.DEPOSIT, "OPENING:" + PAYER);
+
+        assertThat(transfer("payer.reconcile@example.com", PAYER, HOT_ACCOUNT, "200")).isEqualTo("SUCCESS");
+        Account hot = accountRepository.findByAccountNumber(HOT_ACCOUNT).orElseThrow();
+        assertThat(hot.getBalance()).isEqualByComparingTo("0");
+        assertThat(ledgerService.visibleBalance(hot)).isEqualByComparingTo("200");
+
+        // The row alone cannot cover this; the transfer folds the shards first
+        assertThat(transfer("merchant.reconcile@example.com", HOT_ACCOUNT, PAYEE, "150")).isEqualTo("SUCCESS");
+        assertThat(accountRepository.findByAccountNumber(HOT_ACCOUNT).orElseThrow().getBalance())
+                .isEqualByComparingTo("50");
+        assertThat(ledgerService.unfoldedBalance(HOT_ACCOUNT)).isEqualByComparingTo("0");
+
+        ledgerService.reconcileBalances();
+        assertThat(ledgerService.driftedAccounts()).isZero();
+
+        Account payee = accountRepository.findByAccountNumber(PAYEE).orElseThrow();
+        payee.setBalance(payee.getBalance().add(BigDecimal.ONE));
+        accountRepository.save(payee);
+
+        ledgerService.reconcileBalances();
+        assertThat(ledgerService.driftedAccounts()).isEqualTo(1);
+    }
+
+    private String transfer(String email, String fromAccount, String toAccount, String amount) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+        try {
+            TransferRequestDto request = new TransferRequestDto();
+            request.setFromAccount(fromAccount);
+            request.setToAccount(toAccount);
+            request.setAmount(new BigDecimal(amount));
+            return transactionService.processTransaction(request);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // User is persisted through the account's cascade
+    private static Account account(String accountNumber, String email, BigDecimal balance) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(balance);
+        account.setVerificationStatus(VerificationStatus.VERIFIED);
+        account.setUser(User.builder()
+                .name(email)
+                .email(email)
+                .role(Role.CUSTOMER)
+                .build());
+        return account;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.exception.OtpResendLimitException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * OTPs against the in-memory store: a code is accepted once, wrong guesses beyond the limit burn
+ * it, and resending is capped so it cannot reset the attempts without end.
+ */
+@SpringBootTest(properties = {
+        "bankwise.dev.skip-otp=false",
+        "bankwise.otp.max-attempts=3",
+        "bankwise.otp.max-sends=2",
+        "spring.datasource.url=jdbc:h2:mem:bankwise_otp;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000"
+})
+@ActiveProfiles("test")
+class OtpServiceTest {
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private OtpService otpService;
+
+    @Test
+    void codeIsAcceptedOnce() {
+        String email = "otp.once@example.com";
+        String otp = otpService.generateAndStoreOtp(email);
+
+        assertThat(otpService.verifyOtp(email, otp)).isTrue();
+        assertThat(otpService.isOtpAlreadyVerified(email)).isTrue();
+        assertThat(otpService.verifyOtp(email, otp)).isFalse();
+    }
+
+    @Test
+    void codeIsBurnedAfterTooManyWrongGuesses() {
+        String email = "otp.burned@example.com";
+        String otp = otpService.generateAndStoreOtp(email);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(otpService.verifyOtp(email, wrong(otp))).isFalse();
+        }
+        assertThat(otpService.verifyOtp(email, otp)).isFalse();
+        assertThat(otpService.isOtpAlreadyVerified(email)).isFalse();
+    }
+
+    @Test
+    void resendsAreLimitedPerEmail() {
+        String email = "otp.resend@example.com";
+        otpService.generateAndStoreOtp(email);
+        String latest = otpService.generateAndStoreOtp(email);
+
+        assertThatThrownBy(() -> otpService.generateAndStoreOtp(email))
+                .isInstanceOf(OtpResendLimitException.class)
+                .extracting(e -> ((OtpResendLimitException) e).getRetryAfterSeconds())
+                .isEqualTo(15 * 60L);
+        // The refused resend left the last code in place
+        assertThat(otpService.verifyOtp(email, latest)).isTrue();
+    }
+
+    private static String wrong(String otp) {
+        return otp.equals("000000") ? "000001" : "000000";
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replacing or removing a photo deletes the old thumbnails only once the transaction commits.
+ */
+class ProfilePhotoServiceTest {
+
+    @TempDir
+    Path root;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void previousVersionSurvivesUntilCommit() throws IOException {
+        FileSystemDocumentStore store = new FileSystemDocumentStore(root.toString());
+        ProfilePhotoService service = new ProfilePhotoService(store);
+        User user = User.builder().id(7L).build();
+        service.storePhoto(user, new ByteArrayInputStream(jpeg(Color.RED)));
+        String first = user.getProfilePhotoVersion();
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.storePhoto(user, new ByteArrayInputStream(jpeg(Color.BLUE)));
+        assertThat(user.getProfilePhotoVersion()).isNotEqualTo(first);
+        assertThat(store.exists(thumbnail(7L, first))).isTrue();
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(store.exists(thumbnail(7L, first))).isTrue();
+    }
+
+    @Test
+    void deletedPhotoIsRemovedAfterCommit() throws IOException {
+        FileSystemDocumentStore store = new FileSystemDocumentStore(root.toString());
+        ProfilePhotoService service = new ProfilePhotoService(store);
+        User user = User.builder().id(8L).build();
+        service.storePhoto(user, new ByteArrayInputStream(jpeg(Color.GREEN)));
+        String version = user.getProfilePhotoVersion();
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.deletePhoto(user);
+        assertThat(user.getProfilePhotoVersion()).isNull();
+        assertThat(store.exists(thumbnail(8L, version))).isTrue();
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertThat(store.exists(thumbnail(8L, version))).isFalse();
+    }
+
+    private static String thumbnail(Long userId, String version) {
+        return "photos/" + userId + "/" + version + "-lg.jpg";
+    }
+
+    private static byte[] jpeg(Color color) throws IOException {
+        BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, 400, 300);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
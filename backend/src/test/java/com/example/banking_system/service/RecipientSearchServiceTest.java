@@ -0,0 +1,63 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.dto.TransferRecipientDto;
+import com.example.banking_system.entity.Account;
+import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.Role;
+import com.example.banking_system.enums.VerificationStatus;
+import com.example.banking_system.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RecipientSearchServiceTest {
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private RecipientSearchService recipientSearchService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void exactMatchSurvivesMoreWeakMatchesThanTheCandidateLimit() {
+        // 60 word-prefix matches saved first, so an unordered LIMIT 50 returns only those
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            accounts.add(account("RSWEAK" + i, "Anil Vashisht " + i, "91000000" + i));
+        }
+        accountRepository.saveAll(accounts);
+        accountRepository.save(account("RSEXACT1", "Vashisht", "9200000001"));
+        recipientSearchService.invalidate();
+
+        List<TransferRecipientDto> results = recipientSearchService.search("vashisht", RecipientSearchService.DEFAULT_LIMIT);
+
+        assertThat(results).hasSize(RecipientSearchService.DEFAULT_LIMIT);
+        assertThat(results.get(0).getAccountNumber()).isEqualTo("RSEXACT1");
+    }
+
+    private static Account account(String accountNumber, String name, String phone) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setVerificationStatus(VerificationStatus.VERIFIED);
+        account.setUser(User.builder()
+                .name(name)
+                .email(accountNumber.toLowerCase() + "@example.com")
+                .phone(phone)
+                .role(Role.CUSTOMER)
+                .build());
+        return account;
+    }
+}
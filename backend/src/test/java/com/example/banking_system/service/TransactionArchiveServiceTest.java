@@ -0,0 +1,109 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.Account;
+import com.example.banking_system.entity.Transaction;
+import com.example.banking_system.entity.TransactionArchiveBatch;
+import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.Role;
+import com.example.banking_system.enums.TransactionStatus;
+import com.example.banking_system.enums.TransactionType;
+import com.example.banking_system.enums.VerificationStatus;
+import com.example.banking_system.repository.AccountRepository;
+import com.example.banking_system.repository.TransactionArchiveBatchRepository;
+import com.example.banking_system.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archiving a closed year writes one sealed batch per account and month, removes the rows from
+ * the hot table, and reads them back newest first.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:bankwise_archive;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000")
+@ActiveProfiles("test")
+class TransactionArchiveServiceTest {
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private TransactionArchiveService archiveService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionArchiveBatchRepository archiveBatchRepository;
+
+    @Test
+    void closedYearIsArchivedPerAccountAndMonth() {
+        Account payer = accountRepository.save(account("ARCHIVE-PAYER-1", "archive.payer@example.com"));
+        Account payee = accountRepository.save(account("ARCHIVE-PAYEE-1", "archive.payee@example.com"));
+        LocalDateTime march = LocalDateTime.of(2020, 3, 10, 12, 0);
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(transaction(payer, payee, TransactionType.TRANSFER, march.plusDays(i)));
+        }
+        rows.add(transaction(null, payer, TransactionType.DEPOSIT, march.plusDays(5)));
+        rows.add(transaction(null, payee, TransactionType.DEPOSIT, LocalDateTime.of(2020, 5, 2, 9, 0)));
+        transactionRepository.saveAll(rows);
+
+        archiveService.archiveClosedYears();
+
+        assertThat(transactionRepository.findEarliestTimestamp()).isNull();
+        List<TransactionArchiveBatch> batches = archiveBatchRepository.findAll();
+        assertThat(batches).hasSize(3).allMatch(TransactionArchiveBatch::isSealed);
+
+        LocalDateTime from = LocalDateTime.of(2020, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2020, 12, 31, 23, 59);
+        List<Transaction> payerHistory = archiveService.findHistory("ARCHIVE-PAYER-1", from, to, 0, 10);
+        assertThat(payerHistory).extracting(Transaction::getTimestamp)
+                .containsExactly(march.plusDays(5), march.plusDays(2), march.plusDays(1), march);
+        List<Transaction> payeeHistory = archiveService.findHistory("ARCHIVE-PAYEE-1", from, to, 0, 10);
+        assertThat(payeeHistory).hasSize(4);
+        assertThat(payeeHistory.get(0).getType()).isEqualTo(TransactionType.DEPOSIT);
+
+        // A second run finds every month sealed and writes nothing
+        archiveService.archiveClosedYears();
+        assertThat(archiveBatchRepository.count()).isEqualTo(3);
+    }
+
+    private static Transaction transaction(Account source, Account destination, TransactionType type,
+                                           LocalDateTime timestamp) {
+        return Transaction.builder()
+                .sourceAccount(source)
+                .destinationAccount(destination)
+                .amount(BigDecimal.TEN)
+                .type(type)
+                .status(TransactionStatus.SUCCESS)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    // User is persisted through the account's cascade
+    private static Account account(String accountNumber, String email) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setVerificationStatus(VerificationStatus.VERIFIED);
+        account.setUser(User.builder()
+                .name(email)
+                .email(email)
+                .role(Role.CUSTOMER)
+                .build());
+        return account;
+    }
+}
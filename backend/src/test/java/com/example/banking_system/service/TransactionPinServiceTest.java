@@ -0,0 +1,111 @@
+package com.example.banking_system.service;
+
+import com.example.banking_system.entity.User;
+import com.example.banking_system.enums.Role;
+import com.example.banking_system.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionPinServiceTest {
+
+    private static final String PIN = "2580";
+    private static final String WRONG_PIN = "9731";
+    private static final int GUESSES = 12;
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private TransactionPinService transactionPinService;
+
+    @Autowired
+    private PinLockoutService pinLockoutService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void parallelWrongGuessesCheckAtMostTheAllowedNumberOfPins() throws Exception {
+        String email = "pin.parallel@example.com";
+        userRepository.save(User.builder()
+                .name("Pin Parallel")
+                .email(email)
+                .role(Role.CUSTOMER)
+                .transactionPin(passwordEncoder.encode(PIN))
+                .build());
+        double comparisonsBefore = comparisons();
+
+        // All guesses start together, so each would pass a lockout check made before any has failed
+        CyclicBarrier start = new CyclicBarrier(GUESSES);
+        ExecutorService pool = Executors.newFixedThreadPool(GUESSES);
+        List<Future<Map<String, Object>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < GUESSES; i++) {
+                Callable<Map<String, Object>> guess = () -> {
+                    start.await();
+                    return transactionPinService.verifyPin(email, WRONG_PIN);
+                };
+                results.add(pool.submit(guess));
+            }
+            for (Future<Map<String, Object>> result : results) {
+                assertThat(result.get()).containsEntry("valid", false);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(comparisons() - comparisonsBefore).isEqualTo(pinLockoutService.getMaxFailures());
+        assertThat(transactionPinService.verifyPin(email, PIN))
+                .as("locked out, even with the right PIN")
+                .containsEntry("valid", false)
+                .containsEntry("locked", true);
+    }
+
+    @Test
+    void correctPinResetsTheAttempts() {
+        String email = "pin.reset@example.com";
+        userRepository.save(User.builder()
+                .name("Pin Reset")
+                .email(email)
+                .role(Role.CUSTOMER)
+                .transactionPin(passwordEncoder.encode(PIN))
+                .build());
+        int maxFailures = pinLockoutService.getMaxFailures();
+
+        for (int i = 1; i < maxFailures; i++) {
+            assertThat(transactionPinService.verifyPin(email, WRONG_PIN)).containsEntry("attemptsRemaining", maxFailures - i);
+        }
+        assertThat(transactionPinService.verifyPin(email, PIN)).containsEntry("valid", true);
+
+        assertThat(transactionPinService.verifyPin(email, WRONG_PIN)).containsEntry("attemptsRemaining", maxFailures - 1);
+    }
+
+    private double comparisons() {
+        return meterRegistry.get("bankwise.hashing").tag("op", "matches").timer().count();
+    }
+}
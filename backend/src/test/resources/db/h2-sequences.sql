@@ -0,0 +1,3 @@
+-- Sequences Flyway creates outside the entity model (V8__identifier_sequences.sql); run after create-drop
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 1 INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS card_number_seq START WITH 1 INCREMENT BY 100;
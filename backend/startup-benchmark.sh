@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Boot the packaged jar several times and report the startup time Spring Boot logs for each run.
+# Environment variables (DB_URL, DDL_AUTO, SPRING_PROFILES_ACTIVE, ...) are passed to the app.
+#
+#   ./mvnw -DskipTests package
+#   DDL_AUTO=update ./startup-benchmark.sh 3     # before: Hibernate schema update
+#   ./startup-benchmark.sh 3                     # after: validate only (the deploy job migrates)
+#
+# Fast-start build (Spring AOT + AppCDS), run from the extracted directory:
+#   ./mvnw -Pfast-start -DskipTests clean package
+#   cd target/fast-start && JAR=banking-system-0.0.1-SNAPSHOT.jar \
+#     JAVA_OPTS="-XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true" ../../startup-benchmark.sh 3
+set -euo pipefail
+
+RUNS=${1:-3}
+JAR=${JAR:-$(ls target/banking-system-*.jar | grep -v original | head -1)}
+PORT=${BENCH_PORT:-18091}
+LOG=$(mktemp)
+
+for i in $(seq 1 "$RUNS"); do
+  SERVER_PORT=$PORT LOGS_PATH=${LOGS_PATH:-/tmp} java ${JAVA_OPTS:-} -jar "$JAR" > "$LOG" 2>&1 &
+  PID=$!
+  for _ in $(seq 1 300); do
+    if grep -q "Started BankingSystemApplication" "$LOG" || ! kill -0 "$PID" 2>/dev/null; then
+      break
+    fi
+    sleep 0.5
+  done
+  STARTED=$(grep -o "Started BankingSystemApplication in [0-9.]* seconds" "$LOG" || echo "failed to start")
+  echo "run $i: $STARTED"
+  kill "$PID" 2>/dev/null || true
+  for _ in $(seq 1 20); do
+    kill -0 "$PID" 2>/dev/null || break
+    sleep 0.5
+  done
+  kill -9 "$PID" 2>/dev/null || true
+  wait "$PID" 2>/dev/null || true
+done
+rm -f "$LOG"
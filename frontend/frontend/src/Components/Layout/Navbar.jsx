@@ -2,6 +2,7 @@ import React, { useEffect, useState, useRef } from "react";
 import { useNavigate, useLocation } from "react-router-dom";
 import { useTheme } from '../../context/ThemeContext.jsx';
 import { FaBell, FaUser, FaCog, FaSignOutAlt, FaChevronDown } from "react-icons/fa";
+import { photoSrc } from '../../utils/display';
 
 const userLinks = [
   { label: 'Dashboard', to: '/home' },
@@ -168,9 +169,9 @@ const Navbar = ({ onNotificationsClick, unseenCount = 0 }) => {
               className={`flex items-center gap-2 p-1.5 rounded-lg border transition-colors ${isAdmin ? 'border-slate-700 hover:bg-slate-800' : 'border-slate-200 dark:border-slate-700 hover:bg-slate-100 dark:hover:bg-slate-800'}`}
             >
               <div className={`w-8 h-8 rounded-full overflow-hidden ${isAdmin ? 'bg-amber-500/20' : 'bg-gradient-to-br from-blue-400 to-indigo-500'} flex items-center justify-center`}>
-                {user.profilePhoto ? (
+                {user.profilePhotoUrl ? (
                   <img 
-                    src={`data:${user.profilePhotoContentType};base64,${user.profilePhoto}`} 
+                    src={photoSrc(user.profilePhotoUrl)} 
                     alt="Profile" 
                     className="w-full h-full object-cover" 
                   />
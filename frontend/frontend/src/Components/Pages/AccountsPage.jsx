@@ -14,18 +14,23 @@ const AccountsPage = () => {
   const [statusFilter, setStatusFilter] = useState('ALL');
   const [query, setQuery] = useState('');
   const [accounts, setAccounts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [statusCounts, setStatusCounts] = useState({});
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
   const [message, setMessage] = useState('');
   const [actionLoading, setActionLoading] = useState(null);
 
-  const loadAccounts = async () => {
+  const loadAccounts = async (cursor = null) => {
     if (!token) return;
     setLoading(true);
     setError('');
     try {
-      const data = await listAdminAccounts({ token, status: statusFilter, query });
-      setAccounts(Array.isArray(data) ? data : []);
+      const data = await listAdminAccounts({ token, status: statusFilter, query, cursor });
+      const items = Array.isArray(data?.items) ? data.items : [];
+      setAccounts(prev => cursor ? [...prev, ...items] : items);
+      setNextCursor(data?.hasMore ? data.nextCursor : null);
+      if (data?.statusCounts) setStatusCounts(data.statusCounts);
     } catch (e) {
       setError(e?.message || 'Failed to load accounts');
     } finally {
@@ -37,15 +42,17 @@ const AccountsPage = () => {
     loadAccounts();
   }, [statusFilter, token]);
 
+  // Counts cover all accounts, not just the loaded pages
   const summary = useMemo(() => {
-    const total = accounts.length;
-    const verified = accounts.filter(a => a.verificationStatus === 'VERIFIED').length;
-    const pending = accounts.filter(a => a.verificationStatus === 'PENDING').length;
-    const suspended = accounts.filter(a => a.verificationStatus === 'SUSPENDED').length;
-    const disabled = accounts.filter(a => a.verificationStatus === 'DISABLED').length;
-    const rejected = accounts.filter(a => a.verificationStatus === 'REJECTED').length;
+    const count = (status) => Number(statusCounts[status] || 0);
+    const verified = count('VERIFIED');
+    const pending = count('PENDING');
+    const suspended = count('SUSPENDED');
+    const disabled = count('DISABLED');
+    const rejected = count('REJECTED');
+    const total = Object.values(statusCounts).reduce((sum, n) => sum + Number(n || 0), 0);
     return { total, verified, pending, suspended, disabled, rejected };
-  }, [accounts]);
+  }, [statusCounts]);
 
   const handleAction = async (accountNumber, status) => {
     if (!accountNumber) return;
@@ -135,7 +142,7 @@ const AccountsPage = () => {
             ))}
           </select>
           <button
-            onClick={loadAccounts}
+            onClick={() => loadAccounts()}
             className="px-5 py-2.5 rounded-xl text-sm font-semibold bg-blue-600 text-white shadow hover:bg-blue-700"
             disabled={loading}
           >
@@ -199,6 +206,17 @@ const AccountsPage = () => {
             </tbody>
           </table>
         </div>
+        {nextCursor && (
+          <div className="mt-4 flex justify-center">
+            <button
+              onClick={() => loadAccounts(nextCursor)}
+              className="px-5 py-2 rounded-xl text-sm font-semibold border border-slate-300 dark:border-slate-600 text-slate-700 dark:text-slate-200 hover:bg-slate-100 dark:hover:bg-slate-700/40"
+              disabled={loading}
+            >
+              {loading ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -3,6 +3,7 @@ import { motion, AnimatePresence } from 'framer-motion';
 import Navbar from '../Layout/Navbar';
 import { useTheme } from '../../context/ThemeContext.jsx';
 import { FaUser, FaEnvelope, FaPhone, FaMapMarkerAlt, FaCamera, FaShieldAlt, FaStar, FaSave, FaIdCard, FaCheckCircle } from 'react-icons/fa';
+import { photoSrc } from '../../utils/display';
 
 const API_BASE = import.meta.env.VITE_API_BASE_URL || '';
 
@@ -102,9 +103,7 @@ const ProfilePage = () => {
   };
 
   const currentPhoto = photoPreview || 
-    (user.profilePhoto && user.profilePhotoContentType 
-      ? `data:${user.profilePhotoContentType};base64,${user.profilePhoto}` 
-      : null);
+    photoSrc(user.profilePhotoUrl);
 
   return (
     <div className={`min-h-screen pt-16 ${theme === 'dark' ? 'bg-slate-900' : 'bg-gradient-to-br from-slate-50 to-indigo-50'}`}>
@@ -8,13 +8,15 @@ import { useAuth } from '../../hooks/useAuth';
 import { toDisplayString } from '../../utils';
 import { FaCopy, FaCheck, FaBolt, FaShieldAlt, FaExchangeAlt, FaUserCircle } from 'react-icons/fa';
 import { TransferSuccessModal } from '../Modals/ResultModal';
+import { photoSrc } from '../../utils/display';
 
 // Default avatar for recipients
-const RecipientAvatar = ({ profilePhoto, profilePhotoContentType, name, size = 40 }) => {
-  if (profilePhoto && profilePhotoContentType) {
+const RecipientAvatar = ({ profilePhotoUrl, name, size = 40 }) => {
+  if (profilePhotoUrl) {
     return (
       <img 
-        src={`data:${profilePhotoContentType};base64,${profilePhoto}`}
+        src={photoSrc(profilePhotoUrl)}
+        loading="lazy"
         alt={name}
         className="rounded-full object-cover border-2 border-white dark:border-slate-600"
         style={{ width: size, height: size }}
@@ -292,8 +294,7 @@ const TransferPage = () => {
                   <div className="flex items-center justify-between">
                     <div className="flex items-center gap-3">
                       <RecipientAvatar 
-                        profilePhoto={p.profilePhoto} 
-                        profilePhotoContentType={p.profilePhotoContentType}
+                        profilePhotoUrl={p.profilePhotoUrl}
                         name={p.name}
                         size={40}
                       />
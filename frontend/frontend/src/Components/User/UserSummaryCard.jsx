@@ -1,6 +1,7 @@
 import React, { useEffect, useState } from "react";
 import { motion } from "framer-motion";
 import { FaUserCircle } from "react-icons/fa";
+import { photoSrc } from '../../utils/display';
 
 // Default avatar component
 const DefaultAvatar = ({ size = 64 }) => (
@@ -68,9 +69,7 @@ const UserSummaryCard = ({ user }) => {
   }, [user.balance]);
 
   // Build profile photo URL
-  const profilePhotoUrl = user.profilePhoto && user.profilePhotoContentType
-    ? `data:${user.profilePhotoContentType};base64,${user.profilePhoto}`
-    : null;
+  const profilePhotoUrl = photoSrc(user.profilePhotoUrl);
 
   return (
     <motion.div
@@ -90,10 +90,15 @@ export async function depositAction({ token, action, depositRequestId }) {
   return result;
 }
 
-export function listAdminAccounts({ token, status, query }) {
+// Returns { items, nextCursor, hasMore, statusCounts }; statusCounts is only set on the first page
+export function listAdminAccounts({ token, status, query, sort, direction, cursor, limit }) {
   const queryParams = {};
   if (status && status !== 'ALL') queryParams.status = status;
   if (query) queryParams.q = query;
+  if (sort) queryParams.sort = sort;
+  if (direction) queryParams.direction = direction;
+  if (cursor) queryParams.cursor = cursor;
+  if (limit) queryParams.limit = limit;
   return apiFetch('/api/account/admin/accounts', {
     token,
     query: queryParams
@@ -12,3 +12,9 @@ export const toDisplayString = (value, fallback = "") => {
     return String(value);
   }
 };
+
+// Profile photos are served by the API; payloads carry a relative, versioned URL
+export const photoSrc = (url) => {
+  if (!url) return null;
+  return `${import.meta.env.VITE_API_BASE_URL || ''}${url}`;
+};